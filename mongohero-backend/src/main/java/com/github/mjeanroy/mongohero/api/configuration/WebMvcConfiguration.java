@@ -24,10 +24,15 @@
 
 package com.github.mjeanroy.mongohero.api.configuration;
 
+import com.github.mjeanroy.mongohero.api.core.AsyncApiExecutor;
+import com.github.mjeanroy.mongohero.api.core.CacheBypassInterceptor;
 import com.github.mjeanroy.mongohero.api.core.PageArgumentResolver;
 import com.github.mjeanroy.mongohero.api.core.SortArgumentResolver;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
@@ -35,9 +40,30 @@ import java.util.List;
 @Configuration
 public class WebMvcConfiguration implements WebMvcConfigurer {
 
+	private final AsyncApiExecutor asyncApiExecutor;
+
+	@Autowired
+	WebMvcConfiguration(AsyncApiExecutor asyncApiExecutor) {
+		this.asyncApiExecutor = asyncApiExecutor;
+	}
+
 	@Override
 	public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
 		resolvers.add(new SortArgumentResolver());
 		resolvers.add(new PageArgumentResolver());
 	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new CacheBypassInterceptor()).addPathPatterns("/api/**");
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setDefaultTimeout(asyncApiExecutor.getTimeoutMs());
+
+		if (asyncApiExecutor.getExecutor() != null) {
+			configurer.setTaskExecutor(asyncApiExecutor.getExecutor());
+		}
+	}
 }
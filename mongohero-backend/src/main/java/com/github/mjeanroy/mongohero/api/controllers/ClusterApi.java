@@ -24,24 +24,27 @@
 
 package com.github.mjeanroy.mongohero.api.controllers;
 
+import com.github.mjeanroy.mongohero.api.core.AsyncApiExecutor;
+import com.github.mjeanroy.mongohero.api.core.ClusterResponse;
 import com.github.mjeanroy.mongohero.api.dto.ClusterDescriptionDto;
 import com.github.mjeanroy.mongohero.api.dto.ClusterServerDescriptionDto;
+import com.github.mjeanroy.mongohero.api.dto.MemberHealthDto;
 import com.github.mjeanroy.mongohero.api.dto.ServerLogDto;
 import com.github.mjeanroy.mongohero.api.dto.ServerParameterDto;
 import com.github.mjeanroy.mongohero.api.mappers.ClusterDescriptionDtoMapper;
 import com.github.mjeanroy.mongohero.api.mappers.ClusterServerDescriptionDtoMapper;
+import com.github.mjeanroy.mongohero.api.mappers.MemberHealthDtoMapper;
 import com.github.mjeanroy.mongohero.api.mappers.ServerLogDtoMapper;
 import com.github.mjeanroy.mongohero.api.mappers.ServerParameterDtoMapper;
-import com.github.mjeanroy.mongohero.core.model.ServerLog;
-import com.github.mjeanroy.mongohero.core.model.ServerParameter;
 import com.github.mjeanroy.mongohero.core.services.ClusterService;
+import org.bson.RawBsonDocument;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 @RestController
 public class ClusterApi {
@@ -51,6 +54,8 @@ public class ClusterApi {
 	private final ClusterServerDescriptionDtoMapper clusterServerDescriptionDtoMapper;
 	private final ServerLogDtoMapper serverLogDtoMapper;
 	private final ServerParameterDtoMapper serverParameterDtoMapper;
+	private final MemberHealthDtoMapper memberHealthDtoMapper;
+	private final AsyncApiExecutor asyncApiExecutor;
 
 	@Autowired
 	ClusterApi(
@@ -58,13 +63,17 @@ public class ClusterApi {
 			ClusterDescriptionDtoMapper clusterDescriptionDtoMapper,
 			ClusterServerDescriptionDtoMapper clusterServerDescriptionDtoMapper,
 			ServerLogDtoMapper serverLogDtoMapper,
-			ServerParameterDtoMapper serverParameterDtoMapper) {
+			ServerParameterDtoMapper serverParameterDtoMapper,
+			MemberHealthDtoMapper memberHealthDtoMapper,
+			AsyncApiExecutor asyncApiExecutor) {
 
 		this.clusterService = clusterService;
 		this.clusterDescriptionDtoMapper = clusterDescriptionDtoMapper;
 		this.clusterServerDescriptionDtoMapper = clusterServerDescriptionDtoMapper;
 		this.serverLogDtoMapper = serverLogDtoMapper;
 		this.serverParameterDtoMapper = serverParameterDtoMapper;
+		this.memberHealthDtoMapper = memberHealthDtoMapper;
+		this.asyncApiExecutor = asyncApiExecutor;
 	}
 
 	@GetMapping("/api/cluster")
@@ -81,19 +90,38 @@ public class ClusterApi {
 		);
 	}
 
+	@GetMapping("/api/cluster/health")
+	public List<MemberHealthDto> getHealth() {
+		return memberHealthDtoMapper.mapToList(
+				clusterService.getMembersHealth()
+		);
+	}
+
 	@GetMapping("/api/cluster/logs")
-	public Map<String, ServerLogDto> getLogs() {
-		Map<String, ServerLog> outputs = clusterService.getLog();
-		return outputs.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
-				e -> serverLogDtoMapper.map(e.getValue())
-		));
+	public CompletableFuture<ClusterResponse<ServerLogDto>> getLogs() {
+		return asyncApiExecutor.supply(() ->
+				ClusterResponse.of(clusterService.getLog(), serverLogDtoMapper::map)
+		);
+	}
+
+	@GetMapping(value = "/api/cluster/logs", params = "raw=true")
+	public CompletableFuture<ClusterResponse<RawBsonDocument>> getRawLogs() {
+		return asyncApiExecutor.supply(() ->
+				ClusterResponse.of(clusterService.getRawLog(), Function.identity())
+		);
 	}
 
 	@GetMapping("/api/cluster/parameters")
-	public Map<String, List<ServerParameterDto>> getParameters() {
-		Map<String, Iterable<ServerParameter>> outputs = clusterService.getParameters();
-		return outputs.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
-				e -> serverParameterDtoMapper.mapToList(e.getValue())
-		));
+	public CompletableFuture<ClusterResponse<List<ServerParameterDto>>> getParameters() {
+		return asyncApiExecutor.supply(() ->
+				ClusterResponse.of(clusterService.getParameters(), serverParameterDtoMapper::mapToList)
+		);
+	}
+
+	@GetMapping(value = "/api/cluster/parameters", params = "raw=true")
+	public CompletableFuture<ClusterResponse<RawBsonDocument>> getRawParameters() {
+		return asyncApiExecutor.supply(() ->
+				ClusterResponse.of(clusterService.getRawParameters(), Function.identity())
+		);
 	}
 }
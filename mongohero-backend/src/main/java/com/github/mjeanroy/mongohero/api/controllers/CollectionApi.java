@@ -24,19 +24,37 @@
 
 package com.github.mjeanroy.mongohero.api.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.mjeanroy.mongohero.api.core.AsyncApiExecutor;
+import com.github.mjeanroy.mongohero.api.core.PageParam;
+import com.github.mjeanroy.mongohero.api.core.PageResponse;
+import com.github.mjeanroy.mongohero.api.core.SortParam;
 import com.github.mjeanroy.mongohero.api.dto.CollectionDto;
 import com.github.mjeanroy.mongohero.api.dto.CollectionStatsDto;
 import com.github.mjeanroy.mongohero.api.dto.IndexStatDto;
 import com.github.mjeanroy.mongohero.api.mappers.CollectionDtoMapper;
 import com.github.mjeanroy.mongohero.api.mappers.CollectionStatsDtoMapper;
 import com.github.mjeanroy.mongohero.api.mappers.IndexDtoMapper;
+import com.github.mjeanroy.mongohero.core.model.Collection;
+import com.github.mjeanroy.mongohero.core.query.Page;
+import com.github.mjeanroy.mongohero.core.query.PageResult;
+import com.github.mjeanroy.mongohero.core.query.Sort;
 import com.github.mjeanroy.mongohero.core.services.CollectionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 public class CollectionApi {
@@ -45,36 +63,86 @@ public class CollectionApi {
 	private final CollectionDtoMapper collectionDtoMapper;
 	private final CollectionStatsDtoMapper collectionStatsDtoMapper;
 	private final IndexDtoMapper indexDtoMapper;
+	private final AsyncApiExecutor asyncApiExecutor;
+	private final ObjectMapper objectMapper;
 
 	@Autowired
 	CollectionApi(
 			CollectionService collectionService,
 			CollectionDtoMapper collectionDtoMapper,
 			CollectionStatsDtoMapper collectionStatsDtoMapper,
-			IndexDtoMapper indexDtoMapper) {
+			IndexDtoMapper indexDtoMapper,
+			AsyncApiExecutor asyncApiExecutor,
+			ObjectMapper objectMapper) {
 
 		this.collectionService = collectionService;
 		this.collectionDtoMapper = collectionDtoMapper;
 		this.collectionStatsDtoMapper = collectionStatsDtoMapper;
 		this.indexDtoMapper = indexDtoMapper;
+		this.asyncApiExecutor = asyncApiExecutor;
+		this.objectMapper = objectMapper;
 	}
 
 	@GetMapping("/api/databases/{db}/collections")
-	public Iterable<CollectionDto> getAll(@PathVariable("db") String database) {
-		return collectionService.findAll(database).map(collectionDtoMapper::map).collect(Collectors.toList());
+	public CompletableFuture<PageResponse<CollectionDto>> getAll(
+			@PathVariable("db") String database,
+			@RequestParam(value = "prefix", required = false) String prefix,
+			@PageParam(defaultPageSize = 1000) Page page,
+			@SortParam(defaultName = "name") Sort sort) {
+
+		return asyncApiExecutor.supply(() -> {
+			PageResult<Collection> results = collectionService.findAll(database, prefix, page, sort);
+			List<CollectionDto> dtos = collectionDtoMapper.mapToList(results.getResults());
+			return PageResponse.of(dtos, results.page(), results.pageSize(), results.getTotal());
+		});
+	}
+
+	/**
+	 * Get statistics of all collections in given database: the {@code "collections"} JSON array is streamed, each
+	 * collection statistics being written as soon as it is available (in no particular order), and is followed by
+	 * the {@code "skipped"} array of collections whose statistics could not be read (or not in time). The response is
+	 * bound by the stream timeout, not by the API call timeout (see {@link AsyncApiExecutor#stream(StreamingResponseBody)}).
+	 *
+	 * @param database The database name.
+	 * @return The collection statistics.
+	 */
+	@GetMapping("/api/databases/{db}/collections/stats")
+	public ResponseEntity<ResponseBodyEmitter> getAllStats(@PathVariable("db") String database) {
+		StreamingResponseBody body = outputStream -> {
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+				generator.writeStartObject();
+				generator.writeArrayFieldStart("collections");
+				List<String> skipped = collectionService.findAllStats(database, stats -> write(generator, collectionStatsDtoMapper.map(stats)));
+				generator.writeEndArray();
+				generator.writeObjectField("skipped", skipped);
+				generator.writeEndObject();
+			}
+		};
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(asyncApiExecutor.stream(body));
 	}
 
 	@GetMapping("/api/databases/{db}/collections/{name}/stats")
-	public CollectionStatsDto getAll(@PathVariable("db") String database, @PathVariable("name") String collection) {
-		return collectionStatsDtoMapper.map(
-				collectionService.findStats(database, collection)
+	public CompletableFuture<CollectionStatsDto> getAll(@PathVariable("db") String database, @PathVariable("name") String collection) {
+		return asyncApiExecutor.supply(() ->
+				collectionStatsDtoMapper.map(collectionService.findStats(database, collection))
 		);
 	}
 
 	@GetMapping("/api/databases/{db}/collections/{name}/indexes")
-	public Iterable<IndexStatDto> getIndexes(@PathVariable("db") String database, @PathVariable("name") String collection) {
-		return indexDtoMapper.mapToList(
-				collectionService.findIndexes(database, collection)
+	public CompletableFuture<Iterable<IndexStatDto>> getIndexes(@PathVariable("db") String database, @PathVariable("name") String collection) {
+		return asyncApiExecutor.supply(() ->
+				indexDtoMapper.mapToList(collectionService.findIndexes(database, collection))
 		);
 	}
+
+	private static void write(JsonGenerator generator, Object value) {
+		try {
+			generator.writeObject(value);
+			generator.flush();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
 }
@@ -24,14 +24,17 @@
 
 package com.github.mjeanroy.mongohero.api.controllers;
 
+import com.github.mjeanroy.mongohero.api.core.AsyncApiExecutor;
 import com.github.mjeanroy.mongohero.api.dto.DatabaseDto;
 import com.github.mjeanroy.mongohero.api.mappers.DatabaseDtoMapper;
 import com.github.mjeanroy.mongohero.core.services.DatabaseService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -39,23 +42,32 @@ public class DatabaseApi {
 
 	private final DatabaseService databaseService;
 	private final DatabaseDtoMapper databaseDtoMapper;
+	private final AsyncApiExecutor asyncApiExecutor;
 
 	@Autowired
 	DatabaseApi(
 			DatabaseService databaseService,
-			DatabaseDtoMapper databaseDtoMapper) {
+			DatabaseDtoMapper databaseDtoMapper,
+			AsyncApiExecutor asyncApiExecutor) {
 
 		this.databaseService = databaseService;
 		this.databaseDtoMapper = databaseDtoMapper;
+		this.asyncApiExecutor = asyncApiExecutor;
 	}
 
 	@GetMapping("/api/databases")
-	public Iterable<DatabaseDto> getAll() {
-		return databaseService.findAll().map(databaseDtoMapper::map).collect(Collectors.toList());
+	public CompletableFuture<Iterable<DatabaseDto>> getAll(
+			@RequestParam(value = "stats", required = false, defaultValue = "true") boolean stats) {
+
+		return asyncApiExecutor.supply(() ->
+				databaseService.findAll(stats).map(databaseDtoMapper::map).collect(Collectors.toList())
+		);
 	}
 
 	@GetMapping("/api/databases/{name}")
-	public DatabaseDto getOne(@PathVariable("name") String name) {
-		return databaseDtoMapper.map(databaseService.findOne(name));
+	public CompletableFuture<DatabaseDto> getOne(@PathVariable("name") String name) {
+		return asyncApiExecutor.supply(() ->
+				databaseDtoMapper.map(databaseService.findOne(name))
+		);
 	}
 }
@@ -31,6 +31,7 @@ import com.github.mjeanroy.mongohero.core.mongo.IllegalMongoDatabaseAccessExcept
 import com.github.mjeanroy.mongohero.core.mongo.IllegalMongoDatabaseNameException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.servlet.error.ErrorAttributes;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -85,6 +86,13 @@ class ErrorHandler {
 		return renderError(HttpStatus.NOT_FOUND, webRequest, collectionNotFoundMessage(ex.getCollectionName()));
 	}
 
+	@ExceptionHandler(TaskRejectedException.class)
+	@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+	@ResponseBody
+	CustomError onTaskRejectedException(HttpServletRequest webRequest, TaskRejectedException ex) {
+		return renderError(HttpStatus.SERVICE_UNAVAILABLE, webRequest, "Too many pending requests, please retry later");
+	}
+
 	private static String collectionNotFoundMessage(String collectionName) {
 		return "Collection '" + collectionName + "' does not exist";
 	}
@@ -0,0 +1,126 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.controllers;
+
+import com.github.mjeanroy.mongohero.api.dto.CacheStatsDto;
+import com.github.mjeanroy.mongohero.api.dto.ClientChurnDto;
+import com.github.mjeanroy.mongohero.api.dto.CommandStatsDto;
+import com.github.mjeanroy.mongohero.api.dto.HarvesterStatsDto;
+import com.github.mjeanroy.mongohero.api.dto.PoolUsageDto;
+import com.github.mjeanroy.mongohero.api.dto.SingleFlightStatsDto;
+import com.github.mjeanroy.mongohero.api.mappers.CacheStatsDtoMapper;
+import com.github.mjeanroy.mongohero.api.mappers.ClientChurnDtoMapper;
+import com.github.mjeanroy.mongohero.api.mappers.CommandStatsDtoMapper;
+import com.github.mjeanroy.mongohero.api.mappers.HarvesterStatsDtoMapper;
+import com.github.mjeanroy.mongohero.api.mappers.PoolUsageDtoMapper;
+import com.github.mjeanroy.mongohero.api.mappers.SingleFlightStatsDtoMapper;
+import com.github.mjeanroy.mongohero.core.services.MetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class MetricsApi {
+
+	private final MetricsService metricsService;
+	private final CacheStatsDtoMapper cacheStatsDtoMapper;
+	private final SingleFlightStatsDtoMapper singleFlightStatsDtoMapper;
+	private final ClientChurnDtoMapper clientChurnDtoMapper;
+	private final PoolUsageDtoMapper poolUsageDtoMapper;
+	private final CommandStatsDtoMapper commandStatsDtoMapper;
+	private final HarvesterStatsDtoMapper harvesterStatsDtoMapper;
+
+	@Autowired
+	MetricsApi(
+			MetricsService metricsService,
+			CacheStatsDtoMapper cacheStatsDtoMapper,
+			SingleFlightStatsDtoMapper singleFlightStatsDtoMapper,
+			ClientChurnDtoMapper clientChurnDtoMapper,
+			PoolUsageDtoMapper poolUsageDtoMapper,
+			CommandStatsDtoMapper commandStatsDtoMapper,
+			HarvesterStatsDtoMapper harvesterStatsDtoMapper) {
+
+		this.metricsService = metricsService;
+		this.cacheStatsDtoMapper = cacheStatsDtoMapper;
+		this.singleFlightStatsDtoMapper = singleFlightStatsDtoMapper;
+		this.clientChurnDtoMapper = clientChurnDtoMapper;
+		this.poolUsageDtoMapper = poolUsageDtoMapper;
+		this.commandStatsDtoMapper = commandStatsDtoMapper;
+		this.harvesterStatsDtoMapper = harvesterStatsDtoMapper;
+	}
+
+	@GetMapping("/api/metrics/cache")
+	public CacheStatsDto getCacheStats() {
+		return cacheStatsDtoMapper.map(
+				metricsService.getCacheStats()
+		);
+	}
+
+	@DeleteMapping("/api/metrics/cache")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public void resetCache() {
+		metricsService.resetCache();
+	}
+
+	@GetMapping("/api/metrics/singleflight")
+	public SingleFlightStatsDto getSingleFlightStats() {
+		return singleFlightStatsDtoMapper.map(
+				metricsService.getSingleFlightStats()
+		);
+	}
+
+	@GetMapping("/api/metrics/clients")
+	public ClientChurnDto getClientChurn() {
+		return clientChurnDtoMapper.map(
+				metricsService.getClientChurnStats()
+		);
+	}
+
+	@GetMapping("/api/metrics/pools")
+	public List<PoolUsageDto> getPoolUsage() {
+		return poolUsageDtoMapper.mapToList(
+				metricsService.getPoolUsage()
+		);
+	}
+
+	@GetMapping("/api/metrics/commands")
+	public List<CommandStatsDto> getCommandStats() {
+		return commandStatsDtoMapper.mapToList(
+				metricsService.getCommandStats()
+		);
+	}
+
+	@GetMapping("/api/metrics/harvester")
+	public HarvesterStatsDto getHarvesterStats() {
+		return harvesterStatsDtoMapper.map(
+				metricsService.getHarvesterStats()
+		);
+	}
+}
@@ -24,21 +24,39 @@
 
 package com.github.mjeanroy.mongohero.api.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.mjeanroy.mongohero.api.core.AsyncApiExecutor;
 import com.github.mjeanroy.mongohero.api.core.PageParam;
 import com.github.mjeanroy.mongohero.api.core.PageResponse;
 import com.github.mjeanroy.mongohero.api.core.SortParam;
+import com.github.mjeanroy.mongohero.api.dto.IndexSuggestionDto;
+import com.github.mjeanroy.mongohero.api.dto.LatencyPercentilesDto;
 import com.github.mjeanroy.mongohero.api.dto.ProfileQueryDto;
 import com.github.mjeanroy.mongohero.api.dto.ProfilingStatusDto;
+import com.github.mjeanroy.mongohero.api.dto.QueryDigestDto;
+import com.github.mjeanroy.mongohero.api.dto.QueryRegressionDto;
+import com.github.mjeanroy.mongohero.api.mappers.IndexSuggestionDtoMapper;
+import com.github.mjeanroy.mongohero.api.mappers.LatencyPercentilesDtoMapper;
 import com.github.mjeanroy.mongohero.api.mappers.ProfileQueryDtoMapper;
 import com.github.mjeanroy.mongohero.api.mappers.ProfilingStatusDtoMapper;
+import com.github.mjeanroy.mongohero.api.mappers.QueryDigestDtoMapper;
+import com.github.mjeanroy.mongohero.api.mappers.QueryRegressionDtoMapper;
 import com.github.mjeanroy.mongohero.core.model.ProfileQuery;
+import com.github.mjeanroy.mongohero.core.profiling.LatencyGroup;
+import com.github.mjeanroy.mongohero.core.query.CountStrategy;
+import com.github.mjeanroy.mongohero.core.query.Cursor;
 import com.github.mjeanroy.mongohero.core.query.Page;
 import com.github.mjeanroy.mongohero.core.query.PageResult;
 import com.github.mjeanroy.mongohero.core.query.ProfileQueryFilter;
 import com.github.mjeanroy.mongohero.core.query.Sort;
 import com.github.mjeanroy.mongohero.core.services.ProfilingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -47,34 +65,84 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 import static com.github.mjeanroy.mongohero.core.query.Sort.Order.DESC;
+import static java.util.Collections.emptySet;
 
 @RestController
 public class ProfilingApi {
 
+	private static final MediaType APPLICATION_NDJSON = new MediaType("application", "x-ndjson");
+
 	private final ProfilingService profilingService;
 	private final ProfileQueryDtoMapper profileQueryDtoMapper;
 	private final ProfilingStatusDtoMapper profilingStatusDtoMapper;
+	private final QueryDigestDtoMapper queryDigestDtoMapper;
+	private final LatencyPercentilesDtoMapper latencyPercentilesDtoMapper;
+	private final IndexSuggestionDtoMapper indexSuggestionDtoMapper;
+	private final QueryRegressionDtoMapper queryRegressionDtoMapper;
+	private final AsyncApiExecutor asyncApiExecutor;
+	private final ObjectMapper objectMapper;
 
 	@Autowired
 	ProfilingApi(
 			ProfilingService profilingService,
 			ProfileQueryDtoMapper profileQueryDtoMapper,
-			ProfilingStatusDtoMapper profilingStatusDtoMapper) {
+			ProfilingStatusDtoMapper profilingStatusDtoMapper,
+			QueryDigestDtoMapper queryDigestDtoMapper,
+			LatencyPercentilesDtoMapper latencyPercentilesDtoMapper,
+			IndexSuggestionDtoMapper indexSuggestionDtoMapper,
+			QueryRegressionDtoMapper queryRegressionDtoMapper,
+			AsyncApiExecutor asyncApiExecutor,
+			ObjectMapper objectMapper) {
 
 		this.profilingService = profilingService;
 		this.profileQueryDtoMapper = profileQueryDtoMapper;
 		this.profilingStatusDtoMapper = profilingStatusDtoMapper;
+		this.queryDigestDtoMapper = queryDigestDtoMapper;
+		this.latencyPercentilesDtoMapper = latencyPercentilesDtoMapper;
+		this.indexSuggestionDtoMapper = indexSuggestionDtoMapper;
+		this.queryRegressionDtoMapper = queryRegressionDtoMapper;
+		this.asyncApiExecutor = asyncApiExecutor;
+		this.objectMapper = objectMapper;
 	}
 
+	/**
+	 * Find queries stored in {@code system.profile}: pages can be read using the page number, or using the
+	 * {@code cursor} returned with the previous page (see {@link Cursor}). A page read using a cursor does not
+	 * include queries with the same sort value and the same timestamp as the last query of the previous page.
+	 *
+	 * @param db The database name.
+	 * @param op The operation type (optional).
+	 * @param fields The fields to read (optional).
+	 * @param cursor The cursor returned with the previous page (optional).
+	 * @param count The strategy used to count queries (optional).
+	 * @param cluster If queries of every member of the cluster should be read.
+	 * @param page The page to read.
+	 * @param sort The sort to apply.
+	 * @return The queries.
+	 */
 	@GetMapping("/api/databases/{db}/profiling/queries")
-	public PageResponse<ProfileQueryDto> getQueries(
+	public CompletableFuture<PageResponse<ProfileQueryDto>> getQueries(
 			@PathVariable("db") String db,
 			@RequestParam(value = "op", required = false) String op,
+			@RequestParam(value = "fields", required = false) Set<String> fields,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "count", required = false) String count,
+			@RequestParam(value = "cluster", required = false, defaultValue = "false") boolean cluster,
 			@PageParam Page page,
 			@SortParam(defaultName = "millis", defaultOrder = DESC) Sort sort) {
 
@@ -82,9 +150,137 @@ public class ProfilingApi {
 				.withOp(op)
 				.build();
 
-		PageResult<ProfileQuery> results = profilingService.findSlowQueries(db, filter, page, sort);
-		List<ProfileQueryDto> dtos = profileQueryDtoMapper.mapToList(results.getResults());
-		return PageResponse.of(dtos, results.page(), results.pageSize(), results.getTotal());
+		Set<String> projection = fields == null ? emptySet() : fields;
+		Cursor after = cursor == null || cursor.isEmpty() ? null : Cursor.decode(cursor);
+		CountStrategy countStrategy = count == null || count.isEmpty() ? null : CountStrategy.parse(count);
+
+		return asyncApiExecutor.supply(() -> {
+			PageResult<ProfileQuery> results;
+			if (cluster && after == null) {
+				results = profilingService.findClusterSlowQueries(db, filter, projection, countStrategy, page, sort);
+			}
+			else if (cluster) {
+				results = profilingService.findClusterSlowQueriesAfter(db, filter, projection, countStrategy, after, page, sort);
+			}
+			else if (after == null) {
+				results = profilingService.findSlowQueries(db, filter, projection, countStrategy, page, sort);
+			}
+			else {
+				results = profilingService.findSlowQueriesAfter(db, filter, projection, countStrategy, after, page, sort);
+			}
+
+			List<ProfileQueryDto> dtos = profileQueryDtoMapper.mapToList(results.getResults());
+			Cursor nextCursor = results.getNextCursor();
+			return PageResponse.of(dtos, results.page(), results.pageSize(), results.getTotal(), results.getAccuracy(), nextCursor == null ? null : nextCursor.encode());
+		});
+	}
+
+	/**
+	 * Export all queries stored in {@code system.profile} as newline-delimited JSON: queries are written to the
+	 * response as they are read from the server, so the export is never buffered in memory (and the cursor is not
+	 * iterated faster than the client reads the response). The export is bound by the stream timeout, not by the API
+	 * call timeout (see {@link AsyncApiExecutor#stream(StreamingResponseBody)}).
+	 *
+	 * If a time range is given, harvested queries are read from the local profile store instead, so that queries
+	 * older than the content of {@code system.profile} can be exported (the {@code fields} parameter is then ignored).
+	 *
+	 * @param db The database name.
+	 * @param op The operation type (optional).
+	 * @param fields The fields to export (optional, all fields by default).
+	 * @param from The lower bound of harvested queries, in milliseconds since epoch (optional).
+	 * @param to The upper bound (exclusive) of harvested queries, in milliseconds since epoch (optional).
+	 * @param gzip If the response should be compressed.
+	 * @return The exported queries.
+	 */
+	@GetMapping("/api/databases/{db}/profiling/export")
+	public ResponseEntity<ResponseBodyEmitter> export(
+			@PathVariable("db") String db,
+			@RequestParam(value = "op", required = false) String op,
+			@RequestParam(value = "fields", required = false) Set<String> fields,
+			@RequestParam(value = "from", required = false) Long from,
+			@RequestParam(value = "to", required = false) Long to,
+			@RequestParam(value = "gzip", required = false, defaultValue = "false") boolean gzip) {
+
+		ProfileQueryFilter filter = new ProfileQueryFilter.Builder()
+				.withOp(op)
+				.build();
+
+		Set<String> projection = fields == null ? emptySet() : fields;
+
+		StreamingResponseBody body = outputStream -> {
+			OutputStream target = gzip ? new GZIPOutputStream(outputStream, 65536) : outputStream;
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(target)) {
+				generator.setRootValueSeparator(null);
+				Consumer<ProfileQuery> consumer = query -> writeLine(generator, profileQueryDtoMapper.map(query));
+				if (from == null && to == null) {
+					profilingService.exportSlowQueries(db, filter, projection, consumer);
+				}
+				else {
+					profilingService.exportHarvestedQueries(db, filter, from == null ? null : new Date(from), to == null ? null : new Date(to), consumer);
+				}
+			}
+		};
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(APPLICATION_NDJSON);
+		headers.setContentDisposition(ContentDisposition.builder("attachment").filename(db + ".profile.ndjson").build());
+		if (gzip) {
+			headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+
+		return ResponseEntity.ok().headers(headers).body(asyncApiExecutor.stream(body));
+	}
+
+	@GetMapping("/api/databases/{db}/profiling/digest")
+	public CompletableFuture<Iterable<QueryDigestDto>> getDigest(
+			@PathVariable("db") String db,
+			@RequestParam(value = "op", required = false) String op,
+			@RequestParam(value = "limit", required = false, defaultValue = "100") int limit) {
+
+		ProfileQueryFilter filter = new ProfileQueryFilter.Builder()
+				.withOp(op)
+				.build();
+
+		return asyncApiExecutor.supply(() ->
+				queryDigestDtoMapper.mapToList(profilingService.digestSlowQueries(db, filter, limit))
+		);
+	}
+
+	@GetMapping("/api/databases/{db}/profiling/percentiles")
+	public CompletableFuture<Iterable<LatencyPercentilesDto>> getPercentiles(
+			@PathVariable("db") String db,
+			@RequestParam(value = "from", required = false) Long from,
+			@RequestParam(value = "to", required = false) Long to,
+			@RequestParam(value = "groupBy", required = false, defaultValue = "shape") String groupBy,
+			@RequestParam(value = "limit", required = false, defaultValue = "100") int limit) {
+
+		LatencyGroup group = LatencyGroup.parse(groupBy);
+		Date fromDate = from == null ? null : new Date(from);
+		Date toDate = to == null ? null : new Date(to);
+
+		return asyncApiExecutor.supply(() ->
+				latencyPercentilesDtoMapper.mapToList(profilingService.getLatencyPercentiles(db, fromDate, toDate, group, limit))
+		);
+	}
+
+	@GetMapping("/api/databases/{db}/profiling/regressions")
+	public CompletableFuture<Iterable<QueryRegressionDto>> getRegressions(
+			@PathVariable("db") String db,
+			@RequestParam(value = "limit", required = false, defaultValue = "100") int limit) {
+
+		return asyncApiExecutor.supply(() ->
+				queryRegressionDtoMapper.mapToList(profilingService.getRegressions(db, limit))
+		);
+	}
+
+	@GetMapping("/api/databases/{db}/profiling/indexes")
+	public CompletableFuture<Iterable<IndexSuggestionDto>> getIndexSuggestions(
+			@PathVariable("db") String db,
+			@RequestParam(value = "limit", required = false, defaultValue = "100") int limit) {
+
+		return asyncApiExecutor.supply(() ->
+				indexSuggestionDtoMapper.mapToList(profilingService.getIndexSuggestions(db, limit))
+		);
 	}
 
 	@DeleteMapping("/api/databases/{db}/profiling/queries")
@@ -94,9 +290,9 @@ public class ProfilingApi {
 	}
 
 	@GetMapping("/api/databases/{db}/profiling/status")
-	public ProfilingStatusDto getStatus(@PathVariable("db") String db) {
-		return profilingStatusDtoMapper.map(
-				profilingService.getProfilingStatus(db)
+	public CompletableFuture<ProfilingStatusDto> getStatus(@PathVariable("db") String db) {
+		return asyncApiExecutor.supply(() ->
+				profilingStatusDtoMapper.map(profilingService.getProfilingStatus(db))
 		);
 	}
 
@@ -113,4 +309,14 @@ public class ProfilingApi {
 				)
 		);
 	}
+
+	private static void writeLine(JsonGenerator generator, Object value) {
+		try {
+			generator.writeObject(value);
+			generator.writeRaw('\n');
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
 }
@@ -24,6 +24,7 @@
 
 package com.github.mjeanroy.mongohero.api.controllers;
 
+import com.github.mjeanroy.mongohero.api.core.AsyncApiExecutor;
 import com.github.mjeanroy.mongohero.api.dto.OperationDto;
 import com.github.mjeanroy.mongohero.api.dto.ReplicationStatusDto;
 import com.github.mjeanroy.mongohero.api.dto.ServerDto;
@@ -38,6 +39,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 public class ServerApi {
@@ -47,6 +49,7 @@ public class ServerApi {
 	private final ServerParameterDtoMapper mongoParameterDtoMapper;
 	private final OperationDtoMapper operationDtoMapper;
 	private final ReplicationStatusDtoMapper replicationStatusDtoMapper;
+	private final AsyncApiExecutor asyncApiExecutor;
 
 	@Autowired
 	ServerApi(
@@ -54,32 +57,36 @@ public class ServerApi {
 			ServerDtoMapper serverDtoMapper,
 			ServerParameterDtoMapper mongoParameterDtoMapper,
 			OperationDtoMapper operationDtoMapper,
-			ReplicationStatusDtoMapper replicationStatusDtoMapper) {
+			ReplicationStatusDtoMapper replicationStatusDtoMapper,
+			AsyncApiExecutor asyncApiExecutor) {
 
 		this.serverService = serverService;
 		this.serverDtoMapper = serverDtoMapper;
 		this.mongoParameterDtoMapper = mongoParameterDtoMapper;
 		this.operationDtoMapper = operationDtoMapper;
 		this.replicationStatusDtoMapper = replicationStatusDtoMapper;
+		this.asyncApiExecutor = asyncApiExecutor;
 	}
 
 	@GetMapping("/api/server")
-	public ServerDto get() {
-		Server server = serverService.get();
-		return serverDtoMapper.map(server);
+	public CompletableFuture<ServerDto> get() {
+		return asyncApiExecutor.supply(() -> {
+			Server server = serverService.get();
+			return serverDtoMapper.map(server);
+		});
 	}
 
 	@GetMapping("/api/server/operations")
-	public List<OperationDto> getOperations() {
-		return operationDtoMapper.mapToList(
-				serverService.getCurrentOperations()
+	public CompletableFuture<List<OperationDto>> getOperations() {
+		return asyncApiExecutor.supply(() ->
+				operationDtoMapper.mapToList(serverService.getCurrentOperations())
 		);
 	}
 
 	@GetMapping("/api/server/replication")
-	public ReplicationStatusDto getReplicationStatus() {
-		return replicationStatusDtoMapper.map(
-				serverService.getReplicationStatusOrFail()
+	public CompletableFuture<ReplicationStatusDto> getReplicationStatus() {
+		return asyncApiExecutor.supply(() ->
+				replicationStatusDtoMapper.map(serverService.getReplicationStatusOrFail())
 		);
 	}
 }
@@ -0,0 +1,191 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.core;
+
+import com.github.mjeanroy.mongohero.core.mongo.MongoCacheContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Run API calls in non-blocking mode: the servlet thread is released as soon as the call
+ * is submitted, and the response is written once the returned future completes.
+ *
+ * If non-blocking mode is disabled (see {@link AsyncApiProperties#isEnabled()}), calls are executed
+ * in the servlet thread and the returned future is already completed.
+ *
+ * Streamed responses always run on their own bounded executor (see {@link AsyncApiProperties#getStreamThreads()}),
+ * since writing to a slow client may block a thread for the whole response.
+ */
+@Component
+public class AsyncApiExecutor {
+
+	private static final Logger log = LoggerFactory.getLogger(AsyncApiExecutor.class);
+
+	/**
+	 * The non-blocking mode settings.
+	 */
+	private final AsyncApiProperties properties;
+
+	/**
+	 * The executor running API calls, {@code null} if non-blocking mode is disabled.
+	 */
+	private final ThreadPoolTaskExecutor executor;
+
+	/**
+	 * The executor writing streamed responses.
+	 */
+	private final ThreadPoolTaskExecutor streamExecutor;
+
+	@Autowired
+	public AsyncApiExecutor(AsyncApiProperties properties) {
+		this.properties = properties;
+		this.executor = properties.isEnabled() ? createExecutor("mongohero-api-", properties.getThreads(), properties.getQueueSize()) : null;
+		this.streamExecutor = createExecutor("mongohero-stream-", properties.getStreamThreads(), properties.getStreamQueueSize());
+	}
+
+	@PreDestroy
+	void onDestroy() {
+		if (executor != null) {
+			executor.shutdown();
+		}
+
+		streamExecutor.shutdown();
+	}
+
+	/**
+	 * Get the executor used to run API calls, {@code null} if non-blocking mode is disabled.
+	 *
+	 * @return The executor.
+	 */
+	public AsyncTaskExecutor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Get the maximum time of an API call, in milliseconds.
+	 *
+	 * @return The timeout.
+	 */
+	public long getTimeoutMs() {
+		return properties.getTimeoutMs();
+	}
+
+	/**
+	 * Run given API call.
+	 *
+	 * @param supplier The API call.
+	 * @param <T> Type of the API call result.
+	 * @return The API call result.
+	 */
+	public <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+		if (executor == null) {
+			return CompletableFuture.completedFuture(supplier.get());
+		}
+
+		return CompletableFuture.supplyAsync(supplier, executor);
+	}
+
+	/**
+	 * Stream given response body: unlike a {@link StreamingResponseBody} returned by a controller, the response is
+	 * bound by {@link AsyncApiProperties#getStreamTimeoutMs()} rather than by the API call timeout, so that a long
+	 * export is not cut off. Bytes are sent to the client as soon as the body flushes them.
+	 *
+	 * The body is written by the stream executor: if too many responses are already streamed, a
+	 * {@link org.springframework.core.task.TaskRejectedException} is thrown (and a {@code 503} status is returned).
+	 *
+	 * @param body The response body.
+	 * @return The emitter, to return from the controller.
+	 */
+	public ResponseBodyEmitter stream(StreamingResponseBody body) {
+		ResponseBodyEmitter emitter = new ResponseBodyEmitter(properties.getStreamTimeoutMs());
+		streamExecutor.execute(() -> {
+			try (OutputStream outputStream = new BufferedOutputStream(new EmitterOutputStream(emitter), 8192)) {
+				body.writeTo(outputStream);
+			}
+			catch (IOException | RuntimeException ex) {
+				log.warn("Failed to stream response: {}", ex.getMessage());
+				emitter.completeWithError(ex);
+				return;
+			}
+
+			emitter.complete();
+		});
+
+		return emitter;
+	}
+
+	private static ThreadPoolTaskExecutor createExecutor(String threadNamePrefix, int threads, int queueSize) {
+		log.info("Configuring {} executor with {} thread(s) and a queue of {} call(s)", threadNamePrefix, threads, queueSize);
+
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix(threadNamePrefix);
+		executor.setCorePoolSize(Math.max(1, threads));
+		executor.setMaxPoolSize(Math.max(1, threads));
+		executor.setQueueCapacity(Math.max(1, queueSize));
+		executor.setAllowCoreThreadTimeOut(true);
+		executor.setDaemon(true);
+		executor.setTaskDecorator(MongoCacheContext::propagate);
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * Output stream sending written bytes to a {@link ResponseBodyEmitter}.
+	 */
+	private static final class EmitterOutputStream extends OutputStream {
+		private final ResponseBodyEmitter emitter;
+
+		private EmitterOutputStream(ResponseBodyEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[]{(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (len > 0) {
+				emitter.send(Arrays.copyOfRange(b, off, off + len), MediaType.APPLICATION_OCTET_STREAM);
+			}
+		}
+	}
+}
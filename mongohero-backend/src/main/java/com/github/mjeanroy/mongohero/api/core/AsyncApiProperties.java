@@ -0,0 +1,199 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.core;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Objects;
+
+/**
+ * Settings of the non-blocking API mode: when enabled, API endpoints release the servlet thread
+ * and run MongoDB calls on a dedicated, bounded, executor.
+ */
+@ConstructorBinding
+@ConfigurationProperties("mongohero.api.async")
+public final class AsyncApiProperties {
+
+	/**
+	 * Flag to enable/disable non-blocking API mode.
+	 */
+	private final boolean enabled;
+
+	/**
+	 * The maximum number of API calls running concurrently.
+	 */
+	private final int threads;
+
+	/**
+	 * The maximum number of API calls waiting for an available thread, additional calls are
+	 * rejected with a {@code 503} status.
+	 */
+	private final int queueSize;
+
+	/**
+	 * The maximum time (in milliseconds) of an API call, after which a {@code 503} status is returned.
+	 */
+	private final long timeoutMs;
+
+	/**
+	 * The maximum time (in milliseconds) of a streamed API response (such as an export), a negative
+	 * value meaning no timeout: streamed responses are not bound by {@link #timeoutMs}.
+	 */
+	private final long streamTimeoutMs;
+
+	/**
+	 * The maximum number of streamed API responses written concurrently: streams run on their own executor
+	 * (even if non-blocking mode is disabled), so that slow clients do not starve other API calls.
+	 */
+	private final int streamThreads;
+
+	/**
+	 * The maximum number of streamed API responses waiting for an available thread, additional streams are
+	 * rejected with a {@code 503} status.
+	 */
+	private final int streamQueueSize;
+
+	public AsyncApiProperties(
+			@DefaultValue("true") boolean enabled,
+			@DefaultValue("16") int threads,
+			@DefaultValue("512") int queueSize,
+			@DefaultValue("30000") long timeoutMs,
+			@DefaultValue("600000") long streamTimeoutMs,
+			@DefaultValue("4") int streamThreads,
+			@DefaultValue("16") int streamQueueSize) {
+
+		this.enabled = enabled;
+		this.threads = threads;
+		this.queueSize = queueSize;
+		this.timeoutMs = timeoutMs;
+		this.streamTimeoutMs = streamTimeoutMs;
+		this.streamThreads = streamThreads;
+		this.streamQueueSize = streamQueueSize;
+	}
+
+	/**
+	 * Get {@link #enabled}
+	 *
+	 * @return {@link #enabled}
+	 */
+	boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Get {@link #threads}
+	 *
+	 * @return {@link #threads}
+	 */
+	int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Get {@link #queueSize}
+	 *
+	 * @return {@link #queueSize}
+	 */
+	int getQueueSize() {
+		return queueSize;
+	}
+
+	/**
+	 * Get {@link #timeoutMs}
+	 *
+	 * @return {@link #timeoutMs}
+	 */
+	long getTimeoutMs() {
+		return timeoutMs;
+	}
+
+	/**
+	 * Get {@link #streamTimeoutMs}
+	 *
+	 * @return {@link #streamTimeoutMs}
+	 */
+	long getStreamTimeoutMs() {
+		return streamTimeoutMs;
+	}
+
+	/**
+	 * Get {@link #streamThreads}
+	 *
+	 * @return {@link #streamThreads}
+	 */
+	int getStreamThreads() {
+		return streamThreads;
+	}
+
+	/**
+	 * Get {@link #streamQueueSize}
+	 *
+	 * @return {@link #streamQueueSize}
+	 */
+	int getStreamQueueSize() {
+		return streamQueueSize;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof AsyncApiProperties) {
+			AsyncApiProperties p = (AsyncApiProperties) o;
+			return Objects.equals(enabled, p.enabled)
+					&& Objects.equals(threads, p.threads)
+					&& Objects.equals(queueSize, p.queueSize)
+					&& Objects.equals(timeoutMs, p.timeoutMs)
+					&& Objects.equals(streamTimeoutMs, p.streamTimeoutMs)
+					&& Objects.equals(streamThreads, p.streamThreads)
+					&& Objects.equals(streamQueueSize, p.streamQueueSize);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(enabled, threads, queueSize, timeoutMs, streamTimeoutMs, streamThreads, streamQueueSize);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("enabled", enabled)
+				.append("threads", threads)
+				.append("queueSize", queueSize)
+				.append("timeoutMs", timeoutMs)
+				.append("streamTimeoutMs", streamTimeoutMs)
+				.append("streamThreads", streamThreads)
+				.append("streamQueueSize", streamQueueSize)
+				.build();
+	}
+}
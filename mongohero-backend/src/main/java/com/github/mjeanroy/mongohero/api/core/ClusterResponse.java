@@ -0,0 +1,145 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.core;
+
+import com.github.mjeanroy.mongohero.core.mongo.MongoClusterResult;
+import com.github.mjeanroy.mongohero.core.mongo.MongoHostResult;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static com.github.mjeanroy.mongohero.commons.PreConditions.notNull;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * A cluster response that can be returned in any {@link org.springframework.web.bind.annotation.RestController} methods and
+ * will be serialized as a map of outputs indexed by host.
+ *
+ * The status and timing of each host are written in response headers, so a failure on a given member
+ * does not fail the whole response.
+ *
+ * @param <T> Type of the output of each host.
+ */
+public final class ClusterResponse<T> {
+
+	/**
+	 * Create the cluster response.
+	 *
+	 * @param result The cluster result.
+	 * @param mapper The mapper used to serialize the output of each host.
+	 * @param <T> Type of the output of each host.
+	 * @param <U> Type of the cluster result output of each host.
+	 * @return The cluster response.
+	 */
+	public static <T, U> ClusterResponse<T> of(MongoClusterResult<U> result, Function<? super U, ? extends T> mapper) {
+		Map<String, T> body = new LinkedHashMap<>();
+		List<MongoHostResult<U>> hosts = new ArrayList<>(result.size());
+
+		for (MongoHostResult<U> hostResult : result) {
+			hosts.add(hostResult);
+
+			if (hostResult.isSuccess()) {
+				body.put(hostResult.getHost(), mapper.apply(hostResult.getValue()));
+			}
+		}
+
+		return new ClusterResponse<>(body, hosts);
+	}
+
+	/**
+	 * The response body: the output of each host that succeeded.
+	 */
+	private final Map<String, T> body;
+
+	/**
+	 * The result of each host.
+	 */
+	private final List<? extends MongoHostResult<?>> hosts;
+
+	private ClusterResponse(Map<String, T> body, List<? extends MongoHostResult<?>> hosts) {
+		this.body = notNull(body, "Response body must not be null");
+		this.hosts = notNull(hosts, "Host results must not be null");
+	}
+
+	/**
+	 * Get {@link #body}
+	 *
+	 * @return {@link #body}
+	 */
+	public Map<String, T> getBody() {
+		return unmodifiableMap(body);
+	}
+
+	/**
+	 * Get {@link #hosts}
+	 *
+	 * @return {@link #hosts}
+	 */
+	public List<MongoHostResult<?>> getHosts() {
+		return unmodifiableList(hosts);
+	}
+
+	/**
+	 * Check if at least one host did not succeed.
+	 *
+	 * @return {@code true} if at least one host did not succeed, {@code false} otherwise.
+	 */
+	public boolean isDegraded() {
+		return hosts.stream().anyMatch(host -> !host.isSuccess());
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof ClusterResponse) {
+			ClusterResponse r = (ClusterResponse) o;
+			return Objects.equals(body, r.body) && Objects.equals(hosts, r.hosts);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(body, hosts);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("body", body)
+				.append("hosts", hosts)
+				.build();
+	}
+}
@@ -0,0 +1,59 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.core;
+
+import com.github.mjeanroy.mongohero.core.mongo.MongoHostResult;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@ControllerAdvice
+class ClusterResponseBodyAdvice implements ResponseBodyAdvice {
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class converterType) {
+		return returnType.getParameterType() == ClusterResponse.class;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType, Class selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+		ClusterResponse<?> clusterResponse = (ClusterResponse<?>) body;
+		List<MongoHostResult<?>> hosts = clusterResponse.getHosts();
+
+		HttpHeaders headers = response.getHeaders();
+		headers.add("X-Cluster-Degraded", String.valueOf(clusterResponse.isDegraded()));
+		headers.add("X-Cluster-Status", hosts.stream().map(host -> host.getHost() + "=" + host.getStatus()).collect(Collectors.joining(", ")));
+		headers.add("X-Cluster-Timing", hosts.stream().map(host -> host.getHost() + "=" + host.getElapsedMs()).collect(Collectors.joining(", ")));
+
+		return clusterResponse.getBody();
+	}
+}
@@ -24,6 +24,7 @@
 
 package com.github.mjeanroy.mongohero.api.core;
 
+import com.github.mjeanroy.mongohero.core.query.TotalAccuracy;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import java.util.Iterator;
@@ -55,11 +56,29 @@ public final class PageResponse<T> implements Iterable<T> {
 	 * @return The page.
 	 */
 	public static <T> PageResponse<T> of(Iterable<T> body, int page, int pageSize, long total) {
+		return of(body, page, pageSize, total, TotalAccuracy.EXACT, null);
+	}
+
+	/**
+	 * Create the page response, with the cursor of the next page.
+	 *
+	 * @param body       Response body.
+	 * @param page       The page being returned.
+	 * @param pageSize   The page size.
+	 * @param total      The total number of results.
+	 * @param accuracy   The accuracy of the total number of results.
+	 * @param nextCursor The opaque cursor of the next page, {@code null} if there is no next page.
+	 * @param <T>        Type of elements in the response body.
+	 * @return The page.
+	 */
+	public static <T> PageResponse<T> of(Iterable<T> body, int page, int pageSize, long total, TotalAccuracy accuracy, String nextCursor) {
 		return new PageResponse<>(
 				body,
 				page,
 				pageSize,
-				total
+				total,
+				accuracy,
+				nextCursor
 		);
 	}
 
@@ -83,19 +102,33 @@ public final class PageResponse<T> implements Iterable<T> {
 	 */
 	private final long total;
 
+	/**
+	 * The accuracy of {@link #total}.
+	 */
+	private final TotalAccuracy accuracy;
+
+	/**
+	 * The opaque cursor of the next page, may be {@code null}.
+	 */
+	private final String nextCursor;
+
 	/**
 	 * Create page response.
 	 *
-	 * @param body     Response body.
-	 * @param page     The page being returned.
-	 * @param pageSize The page size.
-	 * @param total    The total number of results.
+	 * @param body       Response body.
+	 * @param page       The page being returned.
+	 * @param pageSize   The page size.
+	 * @param total      The total number of results.
+	 * @param accuracy   The accuracy of the total number of results.
+	 * @param nextCursor The opaque cursor of the next page.
 	 */
-	private PageResponse(Iterable<T> body, int page, int pageSize, long total) {
+	private PageResponse(Iterable<T> body, int page, int pageSize, long total, TotalAccuracy accuracy, String nextCursor) {
 		this.body = notNull(body, "Response body must not be null");
 		this.page = gte(1, page, "Page must start with 1");
 		this.pageSize = gte(1, pageSize, "Page size must be at least 1");
 		this.total = gte(0, total, "Total must be positive");
+		this.accuracy = notNull(accuracy, "Total accuracy must not be null");
+		this.nextCursor = nextCursor;
 	}
 
 	/**
@@ -134,6 +167,24 @@ public final class PageResponse<T> implements Iterable<T> {
 		return pageSize;
 	}
 
+	/**
+	 * Get {@link #accuracy}
+	 *
+	 * @return {@link #accuracy}
+	 */
+	public TotalAccuracy getAccuracy() {
+		return accuracy;
+	}
+
+	/**
+	 * Get {@link #nextCursor}
+	 *
+	 * @return {@link #nextCursor}
+	 */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
 	@Override
 	public Iterator<T> iterator() {
 		return body.iterator();
@@ -160,7 +211,9 @@ public final class PageResponse<T> implements Iterable<T> {
 			return Objects.equals(body, p.body)
 					&& Objects.equals(page, p.page)
 					&& Objects.equals(pageSize, p.pageSize)
-					&& Objects.equals(total, p.total);
+					&& Objects.equals(total, p.total)
+					&& Objects.equals(accuracy, p.accuracy)
+					&& Objects.equals(nextCursor, p.nextCursor);
 		}
 
 		return false;
@@ -168,7 +221,7 @@ public final class PageResponse<T> implements Iterable<T> {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(body, page, pageSize, total);
+		return Objects.hash(body, page, pageSize, total, accuracy, nextCursor);
 	}
 
 	@Override
@@ -178,6 +231,8 @@ public final class PageResponse<T> implements Iterable<T> {
 				.append("page", page)
 				.append("pageSize", pageSize)
 				.append("total", total)
+				.append("accuracy", accuracy)
+				.append("nextCursor", nextCursor)
 				.build();
 	}
 }
@@ -22,9 +22,15 @@ class PageResponseBodyAdvice implements ResponseBodyAdvice {
 
 		HttpHeaders headers = response.getHeaders();
 		headers.add("X-Total", String.valueOf(pageResponse.getTotal()));
+		headers.add("X-Total-Accuracy", pageResponse.getAccuracy().name());
 		headers.add("X-Page", String.valueOf(pageResponse.getPage()));
 		headers.add("X-Page-Size", String.valueOf(pageResponse.getPageSize()));
 
+		String nextCursor = pageResponse.getNextCursor();
+		if (nextCursor != null) {
+			headers.add("X-Next-Cursor", nextCursor);
+		}
+
 		return pageResponse.getBody();
 	}
 }
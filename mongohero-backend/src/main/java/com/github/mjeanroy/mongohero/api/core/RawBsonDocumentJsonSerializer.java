@@ -0,0 +1,204 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonDbPointer;
+import org.bson.BsonReader;
+import org.bson.BsonRegularExpression;
+import org.bson.BsonTimestamp;
+import org.bson.BsonType;
+import org.bson.RawBsonDocument;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Serialize a {@link RawBsonDocument} by reading its bytes and writing JSON tokens directly, without
+ * decoding the document into an intermediate object graph.
+ *
+ * Numbers, strings, booleans and nulls are written as their JSON counterparts, dates are written as ISO-8601
+ * strings (as other dates of the API), object ids as hexadecimal strings, timestamps as {@code {t, i}} objects,
+ * binary data as base64 strings, and other BSON types as strings (such as {@code "MinKey"} or the code of a
+ * javascript value, whose scope is not written).
+ */
+@JsonComponent
+public class RawBsonDocumentJsonSerializer extends StdSerializer<RawBsonDocument> {
+
+	public RawBsonDocumentJsonSerializer() {
+		super(RawBsonDocument.class);
+	}
+
+	@Override
+	public void serialize(RawBsonDocument document, JsonGenerator generator, SerializerProvider provider) throws IOException {
+		try (BsonBinaryReader reader = new BsonBinaryReader(document.getByteBuffer().asNIO())) {
+			writeDocument(reader, generator);
+		}
+	}
+
+	private static void writeDocument(BsonReader reader, JsonGenerator generator) throws IOException {
+		reader.readStartDocument();
+		generator.writeStartObject();
+
+		while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+			generator.writeFieldName(reader.readName());
+			writeValue(reader, generator);
+		}
+
+		reader.readEndDocument();
+		generator.writeEndObject();
+	}
+
+	private static void writeArray(BsonReader reader, JsonGenerator generator) throws IOException {
+		reader.readStartArray();
+		generator.writeStartArray();
+
+		while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+			writeValue(reader, generator);
+		}
+
+		reader.readEndArray();
+		generator.writeEndArray();
+	}
+
+	private static void writeValue(BsonReader reader, JsonGenerator generator) throws IOException {
+		switch (reader.getCurrentBsonType()) {
+			case DOCUMENT:
+				writeDocument(reader, generator);
+				break;
+
+			case ARRAY:
+				writeArray(reader, generator);
+				break;
+
+			case STRING:
+				generator.writeString(reader.readString());
+				break;
+
+			case INT32:
+				generator.writeNumber(reader.readInt32());
+				break;
+
+			case INT64:
+				generator.writeNumber(reader.readInt64());
+				break;
+
+			case DOUBLE:
+				generator.writeNumber(reader.readDouble());
+				break;
+
+			case DECIMAL128:
+				generator.writeNumber(reader.readDecimal128().bigDecimalValue());
+				break;
+
+			case BOOLEAN:
+				generator.writeBoolean(reader.readBoolean());
+				break;
+
+			case DATE_TIME:
+				generator.writeString(Instant.ofEpochMilli(reader.readDateTime()).toString());
+				break;
+
+			case OBJECT_ID:
+				generator.writeString(reader.readObjectId().toHexString());
+				break;
+
+			case TIMESTAMP:
+				BsonTimestamp timestamp = reader.readTimestamp();
+				generator.writeStartObject();
+				generator.writeNumberField("t", timestamp.getTime());
+				generator.writeNumberField("i", timestamp.getInc());
+				generator.writeEndObject();
+				break;
+
+			case BINARY:
+				generator.writeBinary(reader.readBinaryData().getData());
+				break;
+
+			case REGULAR_EXPRESSION:
+				BsonRegularExpression regex = reader.readRegularExpression();
+				generator.writeString("/" + regex.getPattern() + "/" + regex.getOptions());
+				break;
+
+			case SYMBOL:
+				generator.writeString(reader.readSymbol());
+				break;
+
+			case JAVASCRIPT:
+				generator.writeString(reader.readJavaScript());
+				break;
+
+			case JAVASCRIPT_WITH_SCOPE:
+				generator.writeString(reader.readJavaScriptWithScope());
+				skipDocument(reader);
+				break;
+
+			case DB_POINTER:
+				BsonDbPointer pointer = reader.readDBPointer();
+				generator.writeString(pointer.getNamespace() + "/" + pointer.getId().toHexString());
+				break;
+
+			case MIN_KEY:
+				reader.readMinKey();
+				generator.writeString("MinKey");
+				break;
+
+			case MAX_KEY:
+				reader.readMaxKey();
+				generator.writeString("MaxKey");
+				break;
+
+			case NULL:
+				reader.readNull();
+				generator.writeNull();
+				break;
+
+			case UNDEFINED:
+				reader.readUndefined();
+				generator.writeNull();
+				break;
+
+			default:
+				BsonType type = reader.getCurrentBsonType();
+				reader.skipValue();
+				generator.writeString(type.name());
+				break;
+		}
+	}
+
+	private static void skipDocument(BsonReader reader) {
+		reader.readStartDocument();
+		while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+			reader.skipName();
+			reader.skipValue();
+		}
+
+		reader.readEndDocument();
+	}
+}
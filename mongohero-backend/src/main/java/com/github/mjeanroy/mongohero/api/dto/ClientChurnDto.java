@@ -0,0 +1,83 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.dto;
+
+public class ClientChurnDto extends AbstractDto {
+
+	private long totalCreated;
+	private long totalClosed;
+	private int createdLastMinute;
+	private int closedLastMinute;
+	private int activeClients;
+	private int standbyClients;
+
+	public long getTotalCreated() {
+		return totalCreated;
+	}
+
+	public void setTotalCreated(long totalCreated) {
+		this.totalCreated = totalCreated;
+	}
+
+	public long getTotalClosed() {
+		return totalClosed;
+	}
+
+	public void setTotalClosed(long totalClosed) {
+		this.totalClosed = totalClosed;
+	}
+
+	public int getCreatedLastMinute() {
+		return createdLastMinute;
+	}
+
+	public void setCreatedLastMinute(int createdLastMinute) {
+		this.createdLastMinute = createdLastMinute;
+	}
+
+	public int getClosedLastMinute() {
+		return closedLastMinute;
+	}
+
+	public void setClosedLastMinute(int closedLastMinute) {
+		this.closedLastMinute = closedLastMinute;
+	}
+
+	public int getActiveClients() {
+		return activeClients;
+	}
+
+	public void setActiveClients(int activeClients) {
+		this.activeClients = activeClients;
+	}
+
+	public int getStandbyClients() {
+		return standbyClients;
+	}
+
+	public void setStandbyClients(int standbyClients) {
+		this.standbyClients = standbyClients;
+	}
+}
@@ -0,0 +1,128 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.dto;
+
+public class CommandStatsDto extends AbstractDto {
+
+	private String host;
+	private String command;
+	private long count;
+	private long failures;
+	private double meanMicros;
+	private long p50Micros;
+	private long p90Micros;
+	private long p99Micros;
+	private long maxMicros;
+	private long meanReplyBytes;
+	private long maxReplyBytes;
+
+	public String getHost() {
+		return host;
+	}
+
+	public void setHost(String host) {
+		this.host = host;
+	}
+
+	public String getCommand() {
+		return command;
+	}
+
+	public void setCommand(String command) {
+		this.command = command;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+	public long getFailures() {
+		return failures;
+	}
+
+	public void setFailures(long failures) {
+		this.failures = failures;
+	}
+
+	public double getMeanMicros() {
+		return meanMicros;
+	}
+
+	public void setMeanMicros(double meanMicros) {
+		this.meanMicros = meanMicros;
+	}
+
+	public long getP50Micros() {
+		return p50Micros;
+	}
+
+	public void setP50Micros(long p50Micros) {
+		this.p50Micros = p50Micros;
+	}
+
+	public long getP90Micros() {
+		return p90Micros;
+	}
+
+	public void setP90Micros(long p90Micros) {
+		this.p90Micros = p90Micros;
+	}
+
+	public long getP99Micros() {
+		return p99Micros;
+	}
+
+	public void setP99Micros(long p99Micros) {
+		this.p99Micros = p99Micros;
+	}
+
+	public long getMaxMicros() {
+		return maxMicros;
+	}
+
+	public void setMaxMicros(long maxMicros) {
+		this.maxMicros = maxMicros;
+	}
+
+	public long getMeanReplyBytes() {
+		return meanReplyBytes;
+	}
+
+	public void setMeanReplyBytes(long meanReplyBytes) {
+		this.meanReplyBytes = meanReplyBytes;
+	}
+
+	public long getMaxReplyBytes() {
+		return maxReplyBytes;
+	}
+
+	public void setMaxReplyBytes(long maxReplyBytes) {
+		this.maxReplyBytes = maxReplyBytes;
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.dto;
+
+import java.util.List;
+
+public class HarvesterStatsDto extends AbstractDto {
+
+	private boolean enabled;
+	private int queueSize;
+	private int queueCapacity;
+	private long stalls;
+	private long droppedShapes;
+	private long evictedShapes;
+	private List<HarvesterTailDto> tails;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+	public long getStalls() {
+		return stalls;
+	}
+
+	public void setStalls(long stalls) {
+		this.stalls = stalls;
+	}
+
+	public long getDroppedShapes() {
+		return droppedShapes;
+	}
+
+	public void setDroppedShapes(long droppedShapes) {
+		this.droppedShapes = droppedShapes;
+	}
+
+	public long getEvictedShapes() {
+		return evictedShapes;
+	}
+
+	public void setEvictedShapes(long evictedShapes) {
+		this.evictedShapes = evictedShapes;
+	}
+
+	public List<HarvesterTailDto> getTails() {
+		return tails;
+	}
+
+	public void setTails(List<HarvesterTailDto> tails) {
+		this.tails = tails;
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class IndexSuggestionDto extends AbstractDto {
+
+	private String ns;
+	private Map<String, Integer> key;
+	private long count;
+	private long collScans;
+	private long sortStages;
+	private long totalMillis;
+	private long docsExamined;
+	private long keysExamined;
+	private long nreturned;
+	private long benefit;
+	private List<String> redundantIndexes;
+
+	public String getNs() {
+		return ns;
+	}
+
+	public void setNs(String ns) {
+		this.ns = ns;
+	}
+
+	public Map<String, Integer> getKey() {
+		return key;
+	}
+
+	public void setKey(Map<String, Integer> key) {
+		this.key = key;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+	public long getCollScans() {
+		return collScans;
+	}
+
+	public void setCollScans(long collScans) {
+		this.collScans = collScans;
+	}
+
+	public long getSortStages() {
+		return sortStages;
+	}
+
+	public void setSortStages(long sortStages) {
+		this.sortStages = sortStages;
+	}
+
+	public long getTotalMillis() {
+		return totalMillis;
+	}
+
+	public void setTotalMillis(long totalMillis) {
+		this.totalMillis = totalMillis;
+	}
+
+	public long getDocsExamined() {
+		return docsExamined;
+	}
+
+	public void setDocsExamined(long docsExamined) {
+		this.docsExamined = docsExamined;
+	}
+
+	public long getKeysExamined() {
+		return keysExamined;
+	}
+
+	public void setKeysExamined(long keysExamined) {
+		this.keysExamined = keysExamined;
+	}
+
+	public long getNreturned() {
+		return nreturned;
+	}
+
+	public void setNreturned(long nreturned) {
+		this.nreturned = nreturned;
+	}
+
+	public long getBenefit() {
+		return benefit;
+	}
+
+	public void setBenefit(long benefit) {
+		this.benefit = benefit;
+	}
+
+	public List<String> getRedundantIndexes() {
+		return redundantIndexes;
+	}
+
+	public void setRedundantIndexes(List<String> redundantIndexes) {
+		this.redundantIndexes = redundantIndexes;
+	}
+}
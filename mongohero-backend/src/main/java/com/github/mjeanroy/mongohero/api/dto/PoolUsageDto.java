@@ -0,0 +1,92 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.dto;
+
+public class PoolUsageDto extends AbstractDto {
+
+	private String host;
+	private int maxSize;
+	private int checkedOut;
+	private int peakCheckedOut;
+	private long checkouts;
+	private double avgWaitMs;
+	private double avgHoldMs;
+
+	public String getHost() {
+		return host;
+	}
+
+	public void setHost(String host) {
+		this.host = host;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public int getCheckedOut() {
+		return checkedOut;
+	}
+
+	public void setCheckedOut(int checkedOut) {
+		this.checkedOut = checkedOut;
+	}
+
+	public int getPeakCheckedOut() {
+		return peakCheckedOut;
+	}
+
+	public void setPeakCheckedOut(int peakCheckedOut) {
+		this.peakCheckedOut = peakCheckedOut;
+	}
+
+	public long getCheckouts() {
+		return checkouts;
+	}
+
+	public void setCheckouts(long checkouts) {
+		this.checkouts = checkouts;
+	}
+
+	public double getAvgWaitMs() {
+		return avgWaitMs;
+	}
+
+	public void setAvgWaitMs(double avgWaitMs) {
+		this.avgWaitMs = avgWaitMs;
+	}
+
+	public double getAvgHoldMs() {
+		return avgHoldMs;
+	}
+
+	public void setAvgHoldMs(double avgHoldMs) {
+		this.avgHoldMs = avgHoldMs;
+	}
+}
@@ -9,6 +9,7 @@ public class ProfileQueryDto extends AbstractDto {
 	private int keysExamined;
 	private int docsExamined;
 	private boolean hasSortStage;
+	private String planSummary;
 	private int keyUpdates;
 	private int writeConflicts;
 	private int numYield;
@@ -17,6 +18,8 @@ public class ProfileQueryDto extends AbstractDto {
 	private Map<String, Object> command;
 	private Map<String, Object> query;
 	private String user;
+	private String fingerprint;
+	private String host;
 
 	public String getOp() {
 		return op;
@@ -58,6 +61,14 @@ public class ProfileQueryDto extends AbstractDto {
 		this.hasSortStage = hasSortStage;
 	}
 
+	public String getPlanSummary() {
+		return planSummary;
+	}
+
+	public void setPlanSummary(String planSummary) {
+		this.planSummary = planSummary;
+	}
+
 	public int getKeyUpdates() {
 		return keyUpdates;
 	}
@@ -121,4 +132,20 @@ public class ProfileQueryDto extends AbstractDto {
 	public void setUser(String user) {
 		this.user = user;
 	}
+
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	public void setFingerprint(String fingerprint) {
+		this.fingerprint = fingerprint;
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+	public void setHost(String host) {
+		this.host = host;
+	}
 }
@@ -0,0 +1,166 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.dto;
+
+import java.util.List;
+
+public class QueryDigestDto extends AbstractDto {
+
+	private String ns;
+	private String op;
+	private String command;
+	private String planSummary;
+	private List<String> shape;
+	private long count;
+	private long totalMillis;
+	private double avgMillis;
+	private long maxMillis;
+	private long docsExamined;
+	private long keysExamined;
+	private long nreturned;
+	private double docsExaminedRatio;
+	private double keysExaminedRatio;
+	private double sortStageRatio;
+
+	public String getNs() {
+		return ns;
+	}
+
+	public void setNs(String ns) {
+		this.ns = ns;
+	}
+
+	public String getOp() {
+		return op;
+	}
+
+	public void setOp(String op) {
+		this.op = op;
+	}
+
+	public String getCommand() {
+		return command;
+	}
+
+	public void setCommand(String command) {
+		this.command = command;
+	}
+
+	public String getPlanSummary() {
+		return planSummary;
+	}
+
+	public void setPlanSummary(String planSummary) {
+		this.planSummary = planSummary;
+	}
+
+	public List<String> getShape() {
+		return shape;
+	}
+
+	public void setShape(List<String> shape) {
+		this.shape = shape;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+	public long getTotalMillis() {
+		return totalMillis;
+	}
+
+	public void setTotalMillis(long totalMillis) {
+		this.totalMillis = totalMillis;
+	}
+
+	public double getAvgMillis() {
+		return avgMillis;
+	}
+
+	public void setAvgMillis(double avgMillis) {
+		this.avgMillis = avgMillis;
+	}
+
+	public long getMaxMillis() {
+		return maxMillis;
+	}
+
+	public void setMaxMillis(long maxMillis) {
+		this.maxMillis = maxMillis;
+	}
+
+	public long getDocsExamined() {
+		return docsExamined;
+	}
+
+	public void setDocsExamined(long docsExamined) {
+		this.docsExamined = docsExamined;
+	}
+
+	public long getKeysExamined() {
+		return keysExamined;
+	}
+
+	public void setKeysExamined(long keysExamined) {
+		this.keysExamined = keysExamined;
+	}
+
+	public long getNreturned() {
+		return nreturned;
+	}
+
+	public void setNreturned(long nreturned) {
+		this.nreturned = nreturned;
+	}
+
+	public double getDocsExaminedRatio() {
+		return docsExaminedRatio;
+	}
+
+	public void setDocsExaminedRatio(double docsExaminedRatio) {
+		this.docsExaminedRatio = docsExaminedRatio;
+	}
+
+	public double getKeysExaminedRatio() {
+		return keysExaminedRatio;
+	}
+
+	public void setKeysExaminedRatio(double keysExaminedRatio) {
+		this.keysExaminedRatio = keysExaminedRatio;
+	}
+
+	public double getSortStageRatio() {
+		return sortStageRatio;
+	}
+
+	public void setSortStageRatio(double sortStageRatio) {
+		this.sortStageRatio = sortStageRatio;
+	}
+}
@@ -0,0 +1,50 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.mappers;
+
+import com.github.mjeanroy.mongohero.api.dto.IndexSuggestionDto;
+import com.github.mjeanroy.mongohero.core.profiling.IndexSuggestion;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IndexSuggestionDtoMapper extends AbstractDtoMapper<IndexSuggestionDto, IndexSuggestion> {
+
+	@Override
+	IndexSuggestionDto doMap(IndexSuggestion suggestion) {
+		IndexSuggestionDto dto = new IndexSuggestionDto();
+		dto.setNs(suggestion.getNs());
+		dto.setKey(suggestion.getKey());
+		dto.setCount(suggestion.getCount());
+		dto.setCollScans(suggestion.getCollScans());
+		dto.setSortStages(suggestion.getSortStages());
+		dto.setTotalMillis(suggestion.getTotalMillis());
+		dto.setDocsExamined(suggestion.getDocsExamined());
+		dto.setKeysExamined(suggestion.getKeysExamined());
+		dto.setNreturned(suggestion.getNreturned());
+		dto.setBenefit(suggestion.getBenefit());
+		dto.setRedundantIndexes(suggestion.getRedundantIndexes());
+		return dto;
+	}
+}
@@ -26,11 +26,20 @@ package com.github.mjeanroy.mongohero.api.mappers;
 
 import com.github.mjeanroy.mongohero.api.dto.ProfileQueryDto;
 import com.github.mjeanroy.mongohero.core.model.ProfileQuery;
+import com.github.mjeanroy.mongohero.core.profiling.QueryFingerprinter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ProfileQueryDtoMapper extends AbstractDtoMapper<ProfileQueryDto, ProfileQuery> {
 
+	private final QueryFingerprinter queryFingerprinter;
+
+	@Autowired
+	ProfileQueryDtoMapper(QueryFingerprinter queryFingerprinter) {
+		this.queryFingerprinter = queryFingerprinter;
+	}
+
 	@Override
 	ProfileQueryDto doMap(ProfileQuery query) {
 		ProfileQueryDto dto = new ProfileQueryDto();
@@ -43,10 +52,13 @@ public class ProfileQueryDtoMapper extends AbstractDtoMapper<ProfileQueryDto, Pr
 		dto.setNreturned(query.getNreturned());
 		dto.setNumYield(query.getNumYield());
 		dto.setHasSortStage(query.isHasSortStage());
+		dto.setPlanSummary(query.getPlanSummary());
 		dto.setWriteConflicts(query.getWriteConflicts());
 		dto.setQuery(query.getQuery());
 		dto.setCommand(query.getCommand());
 		dto.setUser(query.getUser());
+		dto.setFingerprint(queryFingerprinter.fingerprint(query).getId());
+		dto.setHost(query.getHost());
 		return dto;
 	}
 }
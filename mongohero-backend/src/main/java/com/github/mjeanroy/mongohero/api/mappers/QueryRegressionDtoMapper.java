@@ -0,0 +1,58 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.mappers;
+
+import com.github.mjeanroy.mongohero.api.dto.QueryRegressionDto;
+import com.github.mjeanroy.mongohero.core.profiling.QueryRegression;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class QueryRegressionDtoMapper extends AbstractDtoMapper<QueryRegressionDto, QueryRegression> {
+
+	private final MetricDeviationDtoMapper metricDeviationDtoMapper;
+
+	@Autowired
+	QueryRegressionDtoMapper(MetricDeviationDtoMapper metricDeviationDtoMapper) {
+		this.metricDeviationDtoMapper = metricDeviationDtoMapper;
+	}
+
+	@Override
+	QueryRegressionDto doMap(QueryRegression regression) {
+		QueryRegressionDto dto = new QueryRegressionDto();
+		dto.setNs(regression.getNs());
+		dto.setOp(regression.getOp());
+		dto.setShapeId(regression.getShapeId());
+		dto.setShape(regression.getShape());
+		dto.setSince(regression.getSince());
+		dto.setCount(regression.getCount());
+		dto.setScore(regression.getScore());
+		dto.setMetrics(
+				metricDeviationDtoMapper.mapToList(regression.getMetrics())
+		);
+
+		return dto;
+	}
+}
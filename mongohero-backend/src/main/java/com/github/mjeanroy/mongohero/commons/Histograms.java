@@ -0,0 +1,115 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.commons;
+
+/**
+ * Static utilities for histograms with log-linear buckets (such as HDR histograms): values lower than
+ * {@code 2^subBucketBits} are stored exactly, and each higher power of two is split in {@code 2^subBucketBits}
+ * buckets, so that the relative error of a value is bounded by {@code 2^-subBucketBits} whatever its magnitude.
+ */
+public final class Histograms {
+
+	// Ensure non instantiation.
+	private Histograms() {
+	}
+
+	/**
+	 * Get the number of buckets needed to store any (positive) {@code long} value.
+	 *
+	 * @param subBucketBits The number of bits of the sub-bucket of each power of two.
+	 * @return The number of buckets.
+	 */
+	public static int bucketCount(int subBucketBits) {
+		return (64 - subBucketBits) * (1 << subBucketBits);
+	}
+
+	/**
+	 * Get the bucket of given value.
+	 *
+	 * @param value The value (must be positive).
+	 * @param subBucketBits The number of bits of the sub-bucket of each power of two.
+	 * @return The bucket index.
+	 */
+	public static int bucketOf(long value, int subBucketBits) {
+		int subBuckets = 1 << subBucketBits;
+		if (value < subBuckets) {
+			return (int) value;
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - subBucketBits;
+		int magnitude = shift + 1;
+		int subBucket = (int) ((value >>> shift) & (subBuckets - 1));
+		return magnitude * subBuckets + subBucket;
+	}
+
+	/**
+	 * Get the highest value stored in given bucket.
+	 *
+	 * @param bucket The bucket index.
+	 * @param subBucketBits The number of bits of the sub-bucket of each power of two.
+	 * @return The highest value.
+	 */
+	public static long upperBoundOf(int bucket, int subBucketBits) {
+		int subBuckets = 1 << subBucketBits;
+		if (bucket < subBuckets) {
+			return bucket;
+		}
+
+		int magnitude = bucket / subBuckets;
+		int subBucket = bucket % subBuckets;
+		int shift = magnitude - 1;
+		long lowerBound = ((long) (subBuckets + subBucket)) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+
+	/**
+	 * Get the value below which given percentage of values fall: the upper bound of the bucket containing this
+	 * value, capped to the maximum value.
+	 *
+	 * @param counts The number of values of each bucket.
+	 * @param count The total number of values.
+	 * @param max The maximum value.
+	 * @param percentile The percentile, between {@code 0} and {@code 100}.
+	 * @param subBucketBits The number of bits of the sub-bucket of each power of two.
+	 * @return The value, {@code 0} if there is no value.
+	 */
+	public static long percentileOf(long[] counts, long count, long max, double percentile, int subBucketBits) {
+		if (count == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+		long seen = 0;
+		for (int i = 0; i < counts.length; ++i) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(upperBoundOf(i, subBucketBits), max);
+			}
+		}
+
+		return max;
+	}
+}
@@ -77,6 +77,11 @@ public class ProfileQuery {
 	 */
 	private boolean hasSortStage;
 
+	/**
+	 * A summary of the execution plan, such as {@code "COLLSCAN"} or {@code "IXSCAN { name: 1 }"}.
+	 */
+	private String planSummary;
+
 	/**
 	 * The number of key updated by the operation.
 	 */
@@ -124,6 +129,12 @@ public class ProfileQuery {
 	 */
 	private String user;
 
+	/**
+	 * The host (such as {@code [host]:[port]}) of the member that profiled the operation: this field is not
+	 * stored by the server, and is only defined when queries are read from every member of the cluster.
+	 */
+	private String host;
+
 	ProfileQuery() {
 	}
 
@@ -172,6 +183,15 @@ public class ProfileQuery {
 		return hasSortStage;
 	}
 
+	/**
+	 * Get {@link #planSummary}
+	 *
+	 * @return {@link #planSummary}
+	 */
+	public String getPlanSummary() {
+		return planSummary;
+	}
+
 	/**
 	 * Get {@link #keyUpdates}
 	 *
@@ -243,4 +263,13 @@ public class ProfileQuery {
 	public String getUser() {
 		return user;
 	}
+
+	/**
+	 * Get {@link #host}
+	 *
+	 * @return {@link #host}
+	 */
+	public String getHost() {
+		return host;
+	}
 }
@@ -0,0 +1,269 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.model;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.List;
+
+/**
+ * The digest of slow queries sharing the same namespace, operation type, execution plan and shape.
+ */
+public class QueryDigest {
+
+	/**
+	 * The namespace the operations target.
+	 */
+	private String ns;
+
+	/**
+	 * The type of operations (see {@link ProfileQuery#getOp()}).
+	 */
+	private String op;
+
+	/**
+	 * The name of the command, such as {@code "find"} or {@code "aggregate"} (missing on servers older than 3.6).
+	 */
+	private String command;
+
+	/**
+	 * The summary of the execution plan, such as {@code "COLLSCAN"} or {@code "IXSCAN { name: 1 }"}.
+	 */
+	private String planSummary;
+
+	/**
+	 * The query shape: the top level fields of the query filter.
+	 */
+	private List<String> shape;
+
+	/**
+	 * The number of operations.
+	 */
+	private long count;
+
+	/**
+	 * The total duration of operations, in milliseconds.
+	 */
+	private long totalMillis;
+
+	/**
+	 * The average duration of operations, in milliseconds.
+	 */
+	private double avgMillis;
+
+	/**
+	 * The maximum duration of operations, in milliseconds.
+	 */
+	private long maxMillis;
+
+	/**
+	 * The total number of documents scanned.
+	 */
+	private long docsExamined;
+
+	/**
+	 * The total number of index keys scanned.
+	 */
+	private long keysExamined;
+
+	/**
+	 * The total number of documents returned.
+	 */
+	private long nreturned;
+
+	/**
+	 * The number of documents scanned for each returned document: a high ratio means that the query is not (or badly) indexed.
+	 */
+	private double docsExaminedRatio;
+
+	/**
+	 * The number of index keys scanned for each returned document.
+	 */
+	private double keysExaminedRatio;
+
+	/**
+	 * The ratio of operations that needed an in-memory sort, between 0 and 1.
+	 */
+	private double sortStageRatio;
+
+	QueryDigest() {
+	}
+
+	/**
+	 * Get {@link #ns}
+	 *
+	 * @return {@link #ns}
+	 */
+	public String getNs() {
+		return ns;
+	}
+
+	/**
+	 * Get {@link #op}
+	 *
+	 * @return {@link #op}
+	 */
+	public String getOp() {
+		return op;
+	}
+
+	/**
+	 * Get {@link #command}
+	 *
+	 * @return {@link #command}
+	 */
+	public String getCommand() {
+		return command;
+	}
+
+	/**
+	 * Get {@link #planSummary}
+	 *
+	 * @return {@link #planSummary}
+	 */
+	public String getPlanSummary() {
+		return planSummary;
+	}
+
+	/**
+	 * Get {@link #shape}
+	 *
+	 * @return {@link #shape}
+	 */
+	public List<String> getShape() {
+		return shape;
+	}
+
+	/**
+	 * Get {@link #count}
+	 *
+	 * @return {@link #count}
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Get {@link #totalMillis}
+	 *
+	 * @return {@link #totalMillis}
+	 */
+	public long getTotalMillis() {
+		return totalMillis;
+	}
+
+	/**
+	 * Get {@link #avgMillis}
+	 *
+	 * @return {@link #avgMillis}
+	 */
+	public double getAvgMillis() {
+		return avgMillis;
+	}
+
+	/**
+	 * Get {@link #maxMillis}
+	 *
+	 * @return {@link #maxMillis}
+	 */
+	public long getMaxMillis() {
+		return maxMillis;
+	}
+
+	/**
+	 * Get {@link #docsExamined}
+	 *
+	 * @return {@link #docsExamined}
+	 */
+	public long getDocsExamined() {
+		return docsExamined;
+	}
+
+	/**
+	 * Get {@link #keysExamined}
+	 *
+	 * @return {@link #keysExamined}
+	 */
+	public long getKeysExamined() {
+		return keysExamined;
+	}
+
+	/**
+	 * Get {@link #nreturned}
+	 *
+	 * @return {@link #nreturned}
+	 */
+	public long getNreturned() {
+		return nreturned;
+	}
+
+	/**
+	 * Get {@link #docsExaminedRatio}
+	 *
+	 * @return {@link #docsExaminedRatio}
+	 */
+	public double getDocsExaminedRatio() {
+		return docsExaminedRatio;
+	}
+
+	/**
+	 * Get {@link #keysExaminedRatio}
+	 *
+	 * @return {@link #keysExaminedRatio}
+	 */
+	public double getKeysExaminedRatio() {
+		return keysExaminedRatio;
+	}
+
+	/**
+	 * Get {@link #sortStageRatio}
+	 *
+	 * @return {@link #sortStageRatio}
+	 */
+	public double getSortStageRatio() {
+		return sortStageRatio;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("ns", ns)
+				.append("op", op)
+				.append("command", command)
+				.append("planSummary", planSummary)
+				.append("shape", shape)
+				.append("count", count)
+				.append("totalMillis", totalMillis)
+				.append("avgMillis", avgMillis)
+				.append("maxMillis", maxMillis)
+				.append("docsExamined", docsExamined)
+				.append("keysExamined", keysExamined)
+				.append("nreturned", nreturned)
+				.append("docsExaminedRatio", docsExaminedRatio)
+				.append("keysExaminedRatio", keysExaminedRatio)
+				.append("sortStageRatio", sortStageRatio)
+				.build();
+	}
+}
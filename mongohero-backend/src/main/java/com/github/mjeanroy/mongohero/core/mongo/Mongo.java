@@ -25,25 +25,38 @@
 package com.github.mjeanroy.mongohero.core.mongo;
 
 import com.github.mjeanroy.mongohero.commons.Streams;
+import com.github.mjeanroy.mongohero.core.query.CountStrategy;
+import com.github.mjeanroy.mongohero.core.query.TotalAccuracy;
 import com.mongodb.BasicDBObject;
+import com.mongodb.CursorType;
 import com.mongodb.MongoCommandException;
 import com.mongodb.ReadPreference;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.connection.ClusterDescription;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.github.mjeanroy.mongohero.commons.Streams.toStream;
@@ -69,7 +82,18 @@ public class Mongo {
 			LOCAL_DATABASE_NAME
 	));
 
+	/**
+	 * The pseudo command used to cache the names of databases that do not exist.
+	 */
+	private static final String MISSING_DATABASE_COMMAND = "missingDatabase";
+
 	private static final String SYSTEM_PROFILE_COLLECTION_NAME = "system.profile";
+
+	/**
+	 * The field containing the host of each query, when queries are read from every member of the cluster.
+	 */
+	private static final String HOST_FIELD = "host";
+
 	private static final Set<String> BLACKLIST_COLLECTION = singleton(
 			SYSTEM_PROFILE_COLLECTION_NAME
 	);
@@ -79,9 +103,46 @@ public class Mongo {
 	 */
 	private final MongoClientFactory mongoClientFactory;
 
+	/**
+	 * The executor used to run commands on each member of the cluster, or on several databases.
+	 */
+	private final MongoFanOutExecutor mongoFanOutExecutor;
+
+	/**
+	 * The cache storing output of diagnostic commands.
+	 */
+	private final MongoCommandCache mongoCommandCache;
+
+	/**
+	 * Coalesce identical read commands running concurrently.
+	 */
+	private final MongoSingleFlight mongoSingleFlight;
+
+	/**
+	 * Count documents of paginated queries.
+	 */
+	private final MongoCounter mongoCounter;
+
+	/**
+	 * The sorted index of collection names of each database.
+	 */
+	private final MongoCollectionIndex mongoCollectionIndex;
+
 	@Autowired
-	public Mongo(MongoClientFactory mongoClientFactory) {
+	public Mongo(
+			MongoClientFactory mongoClientFactory,
+			MongoFanOutExecutor mongoFanOutExecutor,
+			MongoCommandCache mongoCommandCache,
+			MongoSingleFlight mongoSingleFlight,
+			MongoCounter mongoCounter,
+			MongoCollectionIndex mongoCollectionIndex) {
+
 		this.mongoClientFactory = mongoClientFactory;
+		this.mongoFanOutExecutor = mongoFanOutExecutor;
+		this.mongoCommandCache = mongoCommandCache;
+		this.mongoSingleFlight = mongoSingleFlight;
+		this.mongoCounter = mongoCounter;
+		this.mongoCollectionIndex = mongoCollectionIndex;
 	}
 
 	/**
@@ -101,12 +162,15 @@ public class Mongo {
 	 */
 	public Stream<Document> listDatabases() {
 		log.info("Listing databases");
-		return toStream(mongoClient().listDatabases()).filter(doc -> isNotBlackListedDatabase((String) doc.get("name")));
+		return allDatabases().stream().filter(doc -> isNotBlackListedDatabase((String) doc.get("name")));
 	}
 
 	/**
 	 * Get database if it exists (i.e the database document returned in {@link #listDatabases()}.
 	 *
+	 * Unless the full listing is already cached, only the given database is requested to the server: names
+	 * of databases that do not exist are cached (see {@code "missingDatabase"} cache settings).
+	 *
 	 * @param databaseName Database name.
 	 * @return The database document, if it exists.
 	 */
@@ -114,9 +178,24 @@ public class Mongo {
 		checkDatabaseName(databaseName);
 
 		log.info("Getting database: {}", databaseName);
-		return toStream(mongoClient().listDatabases())
-				.filter(doc -> Objects.equals(doc.get("name"), databaseName))
-				.findFirst();
+
+		// Reuse the full listing when it is already in the cache, it does not cost a round-trip.
+		List<Document> databases = mongoCommandCache.getIfPresent("listDatabases", "listDatabases");
+		if (databases != null) {
+			return findDatabase(databases, databaseName);
+		}
+
+		String missingKey = "missingDatabase:" + databaseName;
+		if (mongoCommandCache.getIfPresent(MISSING_DATABASE_COMMAND, missingKey) != null) {
+			return Optional.empty();
+		}
+
+		Optional<Document> database = findDatabase(databaseName);
+		if (!database.isPresent()) {
+			mongoCommandCache.put(MISSING_DATABASE_COMMAND, missingKey, Boolean.TRUE);
+		}
+
+		return database;
 	}
 
 	/**
@@ -136,12 +215,55 @@ public class Mongo {
 		return Streams.toStream(mongoDatabase.listCollections()).filter(document -> !BLACKLIST_COLLECTION.contains(document.get("name")));
 	}
 
+	/**
+	 * List a page of collections of given database, sorted by name (case insensitive).
+	 *
+	 * Collections are read from an index of the collection names of this database, that is refreshed once expired
+	 * (see {@code "listCollectionNames"} cache settings): documents of the returned page contain the collection
+	 * name only.
+	 *
+	 * Note that system collections such as {@code "system.profile"} are excluded.
+	 *
+	 * @param databaseName The database name.
+	 * @param prefix       The prefix of collection names (case insensitive), {@code null} or empty to list all collections.
+	 * @param offset       The number of collections to skip.
+	 * @param limit        The maximum number of collections to return.
+	 * @param desc         Sort by descending name, or not.
+	 * @return The page of collections.
+	 */
+	public MongoPage listCollections(String databaseName, String prefix, int offset, int limit, boolean desc) {
+		checkDatabaseName(databaseName);
+
+		log.info("Listing collections of database: {} (prefix: {}, offset: {}, limit: {})", databaseName, prefix, offset, limit);
+		MongoCollectionNames names = mongoCollectionIndex.get(databaseName, () -> listCollectionNames(databaseName));
+		Stream<Document> documents = names.find(prefix, offset, limit, desc).stream().map(name -> new Document("name", name));
+		return MongoPage.of(documents, names.count(prefix));
+	}
+
+	/**
+	 * Execute {@code "dbstats"} command on each given database concurrently.
+	 *
+	 * Databases where the command failed, or did not complete in time, are missing from the result.
+	 *
+	 * @param databaseNames The database names.
+	 * @return The {@code "dbstats"} command output, indexed by database name.
+	 * @see #dbstats(String)
+	 */
+	public Map<String, Document> dbstats(Collection<String> databaseNames) {
+		databaseNames.forEach(Mongo::checkDatabaseName);
+
+		log.info("Get dbstats of {} database(s)", databaseNames.size());
+		return mongoFanOutExecutor.execute(databaseNames, this::dbstats);
+	}
+
 	public Document dbstats(String databaseName) {
 		checkDatabaseName(databaseName);
 
 		log.info("Get dbstats of: {}", databaseName);
 		Document command = new Document("dbstats", 1);
-		return runCommand(databaseName, command);
+		return mongoCommandCache.get("dbstats", "dbstats:" + databaseName, () ->
+				runCommand(databaseName, command)
+		);
 	}
 
 	/**
@@ -158,7 +280,30 @@ public class Mongo {
 
 		log.info("Get collection stats of {} # {}", databaseName, collectionName);
 		Document command = new Document("collStats", collectionName);
-		return runCommand(databaseName, command);
+		return mongoCommandCache.get("collStats", "collStats:" + databaseName + "." + collectionName, () ->
+				runCommand(databaseName, command)
+		);
+	}
+
+	/**
+	 * Execute {@code "collStats"} command on each given collection concurrently, and give each output to the
+	 * consumer as soon as it is available, in the order commands complete.
+	 *
+	 * Collections where the command failed, or did not complete in time, are not given to the consumer: they are
+	 * returned instead.
+	 *
+	 * @param databaseName    Given database name.
+	 * @param collectionNames Given collection names.
+	 * @param consumer        The consumer of each {@code "collStats"} command output.
+	 * @return The collections where the command failed, or did not complete in time.
+	 * @see #collStats(String, String)
+	 */
+	public List<String> collStats(String databaseName, Collection<String> collectionNames, BiConsumer<String, Document> consumer) {
+		checkDatabaseName(databaseName);
+		collectionNames.forEach(Mongo::checkCollectionName);
+
+		log.info("Get collection stats of {} collection(s) in {}", collectionNames.size(), databaseName);
+		return mongoFanOutExecutor.execute(collectionNames, collectionName -> collStats(databaseName, collectionName), consumer);
 	}
 
 	/**
@@ -169,26 +314,21 @@ public class Mongo {
 	 * @return The {@code "$indexStats"} command output.
 	 * @see <a href="https://docs.mongodb.com/manual/reference/operator/aggregation/indexStats/">https://docs.mongodb.com/manual/reference/operator/aggregation/indexStats/</a>
 	 */
-	public Map<String, Stream<Document>> indexStats(String databaseName, String collectionName) {
+	public MongoClusterResult<List<Document>> indexStats(String databaseName, String collectionName) {
 		checkDatabaseName(databaseName);
 		checkCollectionName(collectionName);
 
 		log.info("Get index stats of {} # {}", databaseName, collectionName);
 
-		Map<String, Stream<Document>> results = new LinkedHashMap<>();
-
-		for (Map.Entry<String, MongoClient> entry : mongoClientFactory.getClusterClients().entrySet()) {
-			MongoClient mongoClient = entry.getValue();
+		return mongoFanOutExecutor.execute(mongoClientFactory.getClusterClients(), mongoClient -> {
 			MongoDatabase mongoDatabase = mongoClient.getDatabase(databaseName);
 			MongoCollection<Document> mongoCollection = mongoDatabase.getCollection(collectionName);
 			Iterable<Document> indexStats = mongoCollection.aggregate(singletonList(
 					new Document("$indexStats", emptyMap())
 			));
 
-			results.put(entry.getKey(), toStream(indexStats));
-		}
-
-		return results;
+			return toStream(indexStats).collect(Collectors.toList());
+		});
 	}
 
 	/**
@@ -199,7 +339,9 @@ public class Mongo {
 	 */
 	public Document serverStatus() {
 		log.info("Getting server status");
-		return runAdminCommand(new Document("serverStatus", 1));
+		return mongoCommandCache.get("serverStatus", "serverStatus", () ->
+				runAdminCommand(new Document("serverStatus", 1))
+		);
 	}
 
 	/**
@@ -209,25 +351,58 @@ public class Mongo {
 	 * @return The {@code "getLog"} command output for each host.
 	 * @see <a href="https://docs.mongodb.com/manual/reference/command/getLog/">https://docs.mongodb.com/manual/reference/command/getLog/</a>
 	 */
-	public Map<String, Document> getLog() {
+	public MongoClusterResult<Document> getLog() {
+		return getLog(Document.class);
+	}
+
+	/**
+	 * Execute {@code "getLog"} against {@code "admin"} database, returns the raw reply of each connected host, that can
+	 * be serialized without being decoded.
+	 *
+	 * @return The {@code "getLog"} command output for each host.
+	 * @see #getLog()
+	 */
+	public MongoClusterResult<RawBsonDocument> getRawLog() {
+		return getLog(RawBsonDocument.class);
+	}
+
+	private <T> MongoClusterResult<T> getLog(Class<T> resultClass) {
 		log.info("Getting server log");
-		return runAdminCommandOnAll(new Document("getLog", "global"));
+		return runAdminCommandOnAll(new Document("getLog", "global"), resultClass);
 	}
 
 	/**
 	 * Execute {@code "getParameter"} against {@code "admin"} database.
 	 *
-	 * @return The {@code "getParameter"} command output.
+	 * @return The {@code "getParameter"} command output for each host.
 	 * @see <a href="https://docs.mongodb.com/manual/reference/command/getParameter/">https://docs.mongodb.com/manual/reference/command/getParameter/</a>
 	 */
-	public Map<String, Document> getParameter() {
+	public MongoClusterResult<Document> getParameter() {
+		return getParameter(Document.class);
+	}
+
+	/**
+	 * Execute {@code "getParameter"} against {@code "admin"} database, returns the raw reply of each connected host, that can
+	 * be serialized without being decoded.
+	 *
+	 * @return The {@code "getParameter"} command output for each host.
+	 * @see #getParameter()
+	 */
+	public MongoClusterResult<RawBsonDocument> getRawParameter() {
+		return getParameter(RawBsonDocument.class);
+	}
+
+	private <T> MongoClusterResult<T> getParameter(Class<T> resultClass) {
 		log.info("Getting server parameters");
 
 		Document command = new Document(
 				"getParameter", "*"
 		);
 
-		return runAdminCommandOnAll(command);
+		String key = "getParameter:" + resultClass.getSimpleName();
+		return mongoCommandCache.get("getParameter", key, () -> runAdminCommandOnAll(command, resultClass), results ->
+				!results.isDegraded()
+		);
 	}
 
 	/**
@@ -249,6 +424,15 @@ public class Mongo {
 	 * @see <a href="https://docs.mongodb.com/manual/reference/command/replSetGetStatus/">https://docs.mongodb.com/manual/reference/command/replSetGetStatus/</a>
 	 */
 	public Optional<Document> replSetGetStatus() {
+		return mongoCommandCache.get("replSetGetStatus", "replSetGetStatus", this::doReplSetGetStatus);
+	}
+
+	/**
+	 * Executes the {@code "replSetGetStatus"} command, without using the cache.
+	 *
+	 * @return The command result, empty if replication is not enabled.
+	 */
+	private Optional<Document> doReplSetGetStatus() {
 		try {
 			log.info("Getting replication information for this server");
 			return Optional.of(runAdminCommand(new Document("replSetGetStatus", "1")));
@@ -292,7 +476,7 @@ public class Mongo {
 		command.put("profile", level);
 		command.put("slowms", slowMs);
 
-		runCommandOnAll(databaseName, command);
+		executeOnAll(databaseName, command, Document.class).failOnError();
 	}
 
 	/**
@@ -306,26 +490,277 @@ public class Mongo {
 	 * @return Number of queries currently stored in {@code "system.profile"} collection.
 	 */
 	public MongoPage findSystemProfile(String databaseName, BasicDBObject filters, int offset, int limit, Document sort) {
+		return findSystemProfile(databaseName, filters, offset, limit, sort, null, CountStrategy.EXACT);
+	}
+
+	/**
+	 * Get queries currently stored in {@code "system.profile"} collection, returning only the fields of
+	 * the given projection: profile documents may contain large sub-documents (such as {@code "originatingCommand"}
+	 * or {@code "execStats"}) that should not be sent by the server when they are not needed.
+	 *
+	 * @param databaseName Database name.
+	 * @param filters      Filters (optional).
+	 * @param offset       The query offset.
+	 * @param limit        The maximum number of results to display.
+	 * @param sort         The sort to apply.
+	 * @param projection   The projection (optional, returns all fields if {@code null}).
+	 * @param count        The strategy used to count queries (optional, the default strategy is used if {@code null}).
+	 * @return Number of queries currently stored in {@code "system.profile"} collection.
+	 */
+	public MongoPage findSystemProfile(String databaseName, BasicDBObject filters, int offset, int limit, Document sort, Document projection, CountStrategy count) {
+		checkDatabaseName(databaseName);
+
+		log.info("Get {} # system.profile (filters = {} ; offset={} ; limit={} ; sort = {} ; projection = {} ; count = {})", databaseName, filters, offset, limit, sort, projection, count);
+
+		final BasicDBObject mongoFilters = filters == null ? new BasicDBObject() : filters;
+
+		final MongoDatabase systemDb = mongoClient().getDatabase(databaseName);
+		final MongoCollection<Document> collection = systemDb.getCollection(SYSTEM_PROFILE_COLLECTION_NAME);
+		final MongoCount total = countSystemProfile(databaseName, collection, mongoFilters, count);
+
+		final Stream<Document> documents;
+
+		// Only an exact total proves that the page is empty.
+		if (total.getAccuracy() != TotalAccuracy.EXACT || offset < total.getTotal()) {
+			documents = toStream(collection.find(mongoFilters).projection(projection).sort(sort).skip(offset).limit(limit));
+		}
+		else {
+			documents = Stream.empty();
+		}
+
+		return MongoPage.of(documents, total.getTotal(), total.getAccuracy());
+	}
+
+	/**
+	 * Get queries currently stored in {@code "system.profile"} collection following a given position: instead of
+	 * skipping previous documents (that the server would have to read), the {@code seek} filter selects documents
+	 * after the last document already read, using the same sort.
+	 *
+	 * The total is the number of documents matching {@code filters} (computed with the given count strategy), regardless
+	 * of the position.
+	 *
+	 * @param databaseName Database name.
+	 * @param filters      Filters (optional).
+	 * @param seek         Filter selecting documents after the current position (optional, starts from the first document if {@code null}).
+	 * @param limit        The maximum number of results to display.
+	 * @param sort         The sort to apply.
+	 * @param projection   The projection (optional, returns all fields if {@code null}).
+	 * @param count        The strategy used to count queries (optional, the default strategy is used if {@code null}).
+	 * @return Number of queries currently stored in {@code "system.profile"} collection.
+	 */
+	public MongoPage findSystemProfileAfter(String databaseName, BasicDBObject filters, Document seek, int limit, Document sort, Document projection, CountStrategy count) {
 		checkDatabaseName(databaseName);
 
-		log.info("Get {} # system.profile (filters = {} ; offset={} ; limit={} ; sort = {})", databaseName, filters, offset, limit, sort);
+		log.info("Get {} # system.profile (filters = {} ; seek = {} ; limit={} ; sort = {} ; projection = {} ; count = {})", databaseName, filters, seek, limit, sort, projection, count);
 
 		final BasicDBObject mongoFilters = filters == null ? new BasicDBObject() : filters;
+		final Document seekFilters = seek == null ? new Document(mongoFilters) : new Document("$and", asList(mongoFilters, seek));
 
 		final MongoDatabase systemDb = mongoClient().getDatabase(databaseName);
 		final MongoCollection<Document> collection = systemDb.getCollection(SYSTEM_PROFILE_COLLECTION_NAME);
-		final long total = collection.countDocuments(mongoFilters);
+		final MongoCount total = countSystemProfile(databaseName, collection, mongoFilters, count);
 
 		final Stream<Document> documents;
 
-		if (total > 0 && offset < total) {
-			documents = toStream(collection.find(mongoFilters).sort(sort).skip(offset).limit(limit));
+		if (total.getAccuracy() != TotalAccuracy.EXACT || total.getTotal() > 0) {
+			documents = toStream(collection.find(seekFilters).projection(projection).sort(sort).limit(limit));
 		}
 		else {
 			documents = Stream.empty();
 		}
 
-		return MongoPage.of(documents, total);
+		return MongoPage.of(documents, total.getTotal(), total.getAccuracy());
+	}
+
+	/**
+	 * Get queries stored in {@code "system.profile"} collection of every member of the cluster: since each member
+	 * profiles its own operations, reading the default client only returns operations of the primary.
+	 *
+	 * Each member is queried concurrently and returns its first {@code offset + limit} documents (so deep pages are
+	 * more expensive than with a single member), and documents are merged following given sort, so that the page
+	 * is the same as if all queries were stored in a single collection. Each document is tagged with the
+	 * host of the member in the {@code "host"} field.
+	 *
+	 * The total is the sum of the totals of each member, and is a lower bound if a member did not reply.
+	 *
+	 * @param databaseName Database name.
+	 * @param filters      Filters (optional).
+	 * @param offset       The query offset.
+	 * @param limit        The maximum number of results to display.
+	 * @param sort         The sort to apply, should be a total order (such as the timestamp being the last field).
+	 * @param projection   The projection (optional, returns all fields if {@code null}).
+	 * @param count        The strategy used to count queries (optional, the default strategy is used if {@code null}).
+	 * @return Queries of all members.
+	 */
+	public MongoPage findClusterSystemProfile(String databaseName, BasicDBObject filters, int offset, int limit, Document sort, Document projection, CountStrategy count) {
+		checkDatabaseName(databaseName);
+
+		log.info("Get {} # system.profile on all members (filters = {} ; offset={} ; limit={} ; sort = {} ; projection = {} ; count = {})", databaseName, filters, offset, limit, sort, projection, count);
+
+		final BasicDBObject mongoFilters = filters == null ? new BasicDBObject() : filters;
+		return findClusterSystemProfile(databaseName, mongoFilters, mongoFilters, offset, limit, sort, projection, count);
+	}
+
+	/**
+	 * Get queries stored in {@code "system.profile"} collection of every member of the cluster following a given
+	 * position, see {@link #findSystemProfileAfter(String, BasicDBObject, Document, int, Document, Document, CountStrategy)}
+	 * and {@link #findClusterSystemProfile(String, BasicDBObject, int, int, Document, Document, CountStrategy)}.
+	 *
+	 * @param databaseName Database name.
+	 * @param filters      Filters (optional).
+	 * @param seek         Filters selecting documents after the last document already read (optional).
+	 * @param limit        The maximum number of results to display.
+	 * @param sort         The sort to apply, must be the sort used to read previous documents.
+	 * @param projection   The projection (optional, returns all fields if {@code null}).
+	 * @param count        The strategy used to count queries (optional, the default strategy is used if {@code null}).
+	 * @return Queries of all members.
+	 */
+	public MongoPage findClusterSystemProfileAfter(String databaseName, BasicDBObject filters, Document seek, int limit, Document sort, Document projection, CountStrategy count) {
+		checkDatabaseName(databaseName);
+
+		log.info("Get {} # system.profile on all members (filters = {} ; seek = {} ; limit={} ; sort = {} ; projection = {} ; count = {})", databaseName, filters, seek, limit, sort, projection, count);
+
+		final BasicDBObject mongoFilters = filters == null ? new BasicDBObject() : filters;
+		final Document seekFilters = seek == null ? new Document(mongoFilters) : new Document("$and", asList(mongoFilters, seek));
+		return findClusterSystemProfile(databaseName, mongoFilters, seekFilters, 0, limit, sort, projection, count);
+	}
+
+	private MongoPage findClusterSystemProfile(String databaseName, BasicDBObject countFilters, Bson findFilters, int offset, int limit, Document sort, Document projection, CountStrategy count) {
+		final Map<String, MongoClient> clients = mongoClientFactory.getClusterClients();
+		final Map<MongoClient, String> hosts = new IdentityHashMap<>();
+		clients.forEach((host, mongoClient) -> hosts.put(mongoClient, host));
+
+		final int hostLimit = offset + limit;
+		final MongoClusterResult<MongoPage> results = mongoFanOutExecutor.execute(clients, mongoClient -> {
+			final MongoCollection<Document> collection = mongoClient.getDatabase(databaseName).getCollection(SYSTEM_PROFILE_COLLECTION_NAME);
+			final MongoCount total = countSystemProfile(hosts.get(mongoClient) + "/" + databaseName, collection, countFilters, count);
+
+			final List<Document> documents = new ArrayList<>();
+			if (total.getAccuracy() != TotalAccuracy.EXACT || offset < total.getTotal()) {
+				collection.find(findFilters).projection(projection).sort(sort).limit(hostLimit).batchSize(hostLimit).into(documents);
+			}
+
+			return MongoPage.of(documents.stream(), total.getTotal(), total.getAccuracy());
+		});
+
+		final List<List<Document>> sources = new ArrayList<>(results.size());
+		long total = 0;
+		TotalAccuracy accuracy = TotalAccuracy.EXACT;
+
+		for (MongoHostResult<MongoPage> result : results) {
+			if (!result.isSuccess()) {
+				log.warn("Cannot read {} # system.profile on {}: {}", databaseName, result.getHost(), result.getStatus(), result.getError());
+				accuracy = lessAccurate(accuracy, TotalAccuracy.AT_LEAST);
+				continue;
+			}
+
+			final MongoPage page = result.getValue();
+			sources.add(page.stream().map(document -> document.append(HOST_FIELD, result.getHost())).collect(Collectors.toList()));
+			total += page.getTotal();
+			accuracy = lessAccurate(accuracy, page.getAccuracy());
+		}
+
+		final List<Document> documents = MongoSortedMerge.merge(sources, sort, offset, limit);
+		return MongoPage.of(documents.stream(), total, accuracy);
+	}
+
+	private static TotalAccuracy lessAccurate(TotalAccuracy a1, TotalAccuracy a2) {
+		if (a1 == TotalAccuracy.ESTIMATED || a2 == TotalAccuracy.ESTIMATED) {
+			return TotalAccuracy.ESTIMATED;
+		}
+
+		return a1 == TotalAccuracy.AT_LEAST || a2 == TotalAccuracy.AT_LEAST ? TotalAccuracy.AT_LEAST : TotalAccuracy.EXACT;
+	}
+
+	/**
+	 * Open a cursor on all queries stored in {@code "system.profile"} collection matching given filters, in natural
+	 * (insertion) order: documents are fetched by batches of given size as the cursor is iterated, so that reading all
+	 * queries does not require to load them in memory.
+	 *
+	 * @param databaseName Database name.
+	 * @param filters      Filters (optional).
+	 * @param projection   The projection (optional, returns all fields if {@code null}).
+	 * @param batchSize    The number of documents in each batch.
+	 * @return The cursor, that must be closed by the caller.
+	 */
+	public MongoCursor<Document> exportSystemProfile(String databaseName, BasicDBObject filters, Document projection, int batchSize) {
+		checkDatabaseName(databaseName);
+
+		log.info("Export {} # system.profile (filters = {} ; projection = {})", databaseName, filters, projection);
+
+		final BasicDBObject mongoFilters = filters == null ? new BasicDBObject() : filters;
+		final MongoCollection<Document> collection = mongoClient().getDatabase(databaseName).getCollection(SYSTEM_PROFILE_COLLECTION_NAME);
+		return collection.find(mongoFilters).projection(projection).batchSize(batchSize).iterator();
+	}
+
+	/**
+	 * Run given aggregation pipeline on {@code "system.profile"} collection, so that queries are aggregated by the
+	 * server instead of being read one by one.
+	 *
+	 * @param databaseName Database name.
+	 * @param pipeline     The aggregation pipeline.
+	 * @return The aggregation output.
+	 */
+	public Stream<Document> aggregateSystemProfile(String databaseName, List<Document> pipeline) {
+		checkDatabaseName(databaseName);
+
+		log.info("Aggregate {} # system.profile (pipeline = {})", databaseName, pipeline);
+
+		final MongoCollection<Document> collection = mongoClient().getDatabase(databaseName).getCollection(SYSTEM_PROFILE_COLLECTION_NAME);
+		return toStream(collection.aggregate(pipeline).allowDiskUse(true));
+	}
+
+	/**
+	 * Open a tailable cursor on {@code "system.profile"} collection, returning queries profiled at or after given
+	 * timestamp: since {@code "system.profile"} is a capped collection, the cursor remains open once all
+	 * queries have been read and waits (at most {@code maxAwaitMs} on each batch) for new queries.
+	 *
+	 * Timestamps have a millisecond precision, so several queries may share the given timestamp: they are all returned,
+	 * and the caller must skip those already read.
+	 *
+	 * Note that the cursor is closed by the server if the collection rolls over the last read document, or if it
+	 * is dropped: the caller must check {@link MongoCursor#getServerCursor()} and open a new cursor when needed.
+	 *
+	 * @param databaseName Database name.
+	 * @param after        The timestamp of the last query already read, included (optional, starts from the oldest query if {@code null}).
+	 * @param projection   The projection (optional, returns all fields if {@code null}).
+	 * @param maxAwaitMs   The maximum time (in milliseconds) the server waits for new queries.
+	 * @return The tailable cursor, that must be closed by the caller.
+	 */
+	public MongoCursor<Document> tailSystemProfile(String databaseName, Date after, Document projection, int maxAwaitMs) {
+		checkDatabaseName(databaseName);
+
+		log.info("Tail {} # system.profile (after = {} ; projection = {})", databaseName, after, projection);
+
+		final Document filters = after == null ? new Document() : new Document("ts", new Document("$gte", after));
+		final MongoCollection<Document> collection = mongoClient().getDatabase(databaseName).getCollection(SYSTEM_PROFILE_COLLECTION_NAME);
+		return collection.find(filters)
+				.projection(projection)
+				.cursorType(CursorType.TailableAwait)
+				.maxAwaitTime(maxAwaitMs, TimeUnit.MILLISECONDS)
+				.iterator();
+	}
+
+	/**
+	 * Get the timestamp of the oldest query still stored in {@code "system.profile"} collection, i.e the first
+	 * document in natural (insertion) order.
+	 *
+	 * @param databaseName Database name.
+	 * @return The timestamp of the oldest query, empty if the collection is empty.
+	 */
+	public Optional<Date> findOldestSystemProfileTs(String databaseName) {
+		checkDatabaseName(databaseName);
+
+		log.debug("Get oldest {} # system.profile", databaseName);
+
+		final MongoCollection<Document> collection = mongoClient().getDatabase(databaseName).getCollection(SYSTEM_PROFILE_COLLECTION_NAME);
+		final Document first = collection.find()
+				.projection(new Document("ts", 1))
+				.sort(new Document("$natural", 1))
+				.limit(1)
+				.first();
+
+		return Optional.ofNullable(first).map(document -> document.getDate("ts"));
 	}
 
 	/**
@@ -341,16 +776,38 @@ public class Mongo {
 	}
 
 	/**
-	 * Executes the given command in the context of the {@code "admin"} database with a
+	 * Executes the given read command in the context of the given database with a
 	 * read preference of {@link ReadPreference#primary()}.
 	 *
+	 * Identical commands running concurrently are executed only once.
+	 *
 	 * @param databaseName The database name.
 	 * @param command      the command to be run
 	 * @return the command result
 	 */
 	private Document runCommand(String databaseName, Document command) {
-		log.info("Executing (on database: {}) command: {}", databaseName, command);
-		return mongoClient().getDatabase(databaseName).runCommand(command);
+		return mongoSingleFlight.execute(singleFlightKey("default", databaseName, command), () -> {
+			log.info("Executing (on database: {}) command: {}", databaseName, command);
+			return mongoClient().getDatabase(databaseName).runCommand(command);
+		});
+	}
+
+	/**
+	 * Executes the given read command in the context of the given database with a
+	 * read preference of {@link ReadPreference#primary()}.
+	 *
+	 * Identical commands running concurrently are executed only once.
+	 *
+	 * @param databaseName The database name.
+	 * @param command      the command to be run
+	 * @param resultClass  the class to decode each member output into
+	 * @param <T>          the type of each member output
+	 * @return the command result of each member.
+	 */
+	private <T> MongoClusterResult<T> runCommandOnAll(String databaseName, Document command, Class<T> resultClass) {
+		return mongoSingleFlight.execute(singleFlightKey("members:" + resultClass.getSimpleName(), databaseName, command), () ->
+				executeOnAll(databaseName, command, resultClass)
+		);
 	}
 
 	/**
@@ -359,10 +816,14 @@ public class Mongo {
 	 *
 	 * @param databaseName The database name.
 	 * @param command      the command to be run
+	 * @param resultClass  the class to decode each member output into
+	 * @param <T>          the type of each member output
+	 * @return the command result of each member.
 	 */
-	private void runCommandOnAll(String databaseName, Document command) {
-		mongoClientFactory.getClusterClients().values().forEach(client ->
-				runCommandOnClient(client, databaseName, command)
+	private <T> MongoClusterResult<T> executeOnAll(String databaseName, Document command, Class<T> resultClass) {
+		log.info("Run command {} on database {} of each member", command, databaseName);
+		return mongoFanOutExecutor.execute(mongoClientFactory.getClusterClients(), mongoClient ->
+				runCommandOnClient(mongoClient, databaseName, command, resultClass)
 		);
 	}
 
@@ -370,24 +831,13 @@ public class Mongo {
 	 * Executes the given command in the context of the {@code "admin"} database with a
 	 * read preference of {@link ReadPreference#primary()}.
 	 *
-	 * @param command the command to be run
+	 * @param command     the command to be run
+	 * @param resultClass the class to decode each member output into
+	 * @param <T>         the type of each member output
+	 * @return the command result of each member.
 	 */
-	private Map<String, Document> runAdminCommandOnAll(Document command) {
-		Map<String, MongoClient> mongoClients = mongoClientFactory.getClusterClients();
-		Map<String, Document> results = new LinkedHashMap<>();
-
-		for (Map.Entry<String, MongoClient> entry : mongoClients.entrySet()) {
-			String rawHost = entry.getKey();
-			MongoClient mongoClient = entry.getValue();
-
-			log.info("Run admin command {} on host: {}", command, rawHost);
-
-			Document output = runCommandOnClient(mongoClient, ADMIN_DATABASE_NAME, command);
-
-			results.put(rawHost, output);
-		}
-
-		return results;
+	private <T> MongoClusterResult<T> runAdminCommandOnAll(Document command, Class<T> resultClass) {
+		return runCommandOnAll(ADMIN_DATABASE_NAME, command, resultClass);
 	}
 
 	/**
@@ -397,10 +847,12 @@ public class Mongo {
 	 * @param mongoClient  The client to use and close after command has been executed.
 	 * @param databaseName The database name.
 	 * @param command      the command to be run
+	 * @param resultClass  the class to decode the output into
+	 * @param <T>          the type of the output
 	 */
-	private Document runCommandOnClient(MongoClient mongoClient, String databaseName, Document command) {
+	private <T> T runCommandOnClient(MongoClient mongoClient, String databaseName, Document command, Class<T> resultClass) {
 		log.debug("Run command {} on given database {}", command, databaseName);
-		return mongoClient.getDatabase(databaseName).runCommand(command);
+		return mongoClient.getDatabase(databaseName).runCommand(command, resultClass);
 	}
 
 	/**
@@ -411,18 +863,87 @@ public class Mongo {
 	 * @return the command result
 	 */
 	private Document runAdminCommand(Document command) {
-		log.info("Executing command: {}", command);
-		return getAdminDatabase().runCommand(command);
+		return runCommand(ADMIN_DATABASE_NAME, command);
+	}
+
+	/**
+	 * Count queries stored in {@code "system.profile"} collection, matching given filters.
+	 *
+	 * @param databaseName The database name.
+	 * @param collection   The {@code "system.profile"} collection.
+	 * @param filters      The filters.
+	 * @param count        The count strategy.
+	 * @return The count.
+	 */
+	private MongoCount countSystemProfile(String databaseName, MongoCollection<Document> collection, BasicDBObject filters, CountStrategy count) {
+		String key = "countDocuments:" + databaseName + "." + SYSTEM_PROFILE_COLLECTION_NAME + ":" + filters.toJson();
+		return mongoCounter.count(key, collection, filters, count);
 	}
 
 	/**
-	 * Gets the {@code "admin"} {@link MongoDatabase} instance.
+	 * Build the key identifying a command in {@link MongoSingleFlight}.
 	 *
-	 * @return The {@code "admin"} {@code MongoDatabase}.
+	 * @param target       The target client(s).
+	 * @param databaseName The database name.
+	 * @param command      The command.
+	 * @return The key.
+	 */
+	private static String singleFlightKey(String target, String databaseName, Document command) {
+		return target + "/" + databaseName + "/" + command.toJson();
+	}
+
+	/**
+	 * Executes the {@code "listDatabases"} command, including blacklisted databases.
+	 *
+	 * @return The command result.
+	 */
+	private List<Document> allDatabases() {
+		return mongoCommandCache.get("listDatabases", "listDatabases", () ->
+				toStream(mongoClient().listDatabases()).collect(Collectors.toList())
+		);
+	}
+
+	/**
+	 * Executes the {@code "listDatabases"} command, filtered on given database name.
+	 *
+	 * Note that the server computes the size of the matching database only, since the filter
+	 * only references the {@code "name"} field.
+	 *
+	 * @param databaseName The database name.
+	 * @return The database document, if it exists.
 	 */
-	private MongoDatabase getAdminDatabase() {
-		log.info("Getting 'admin' database");
-		return mongoClient().getDatabase(ADMIN_DATABASE_NAME);
+	private Optional<Document> findDatabase(String databaseName) {
+		List<Document> databases = toStream(mongoClient().listDatabases().filter(new Document("name", databaseName)))
+				.collect(Collectors.toList());
+
+		// Servers older than 3.6 do not support the filter option.
+		return findDatabase(databases, databaseName);
+	}
+
+	/**
+	 * List the collection names of given database (only names are requested to the server), excluding
+	 * system collections such as {@code "system.profile"}.
+	 *
+	 * @param databaseName The database name.
+	 * @return The collection names.
+	 */
+	private List<String> listCollectionNames(String databaseName) {
+		return toStream(mongoClient().getDatabase(databaseName).listCollectionNames())
+				.filter(name -> !BLACKLIST_COLLECTION.contains(name))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Find given database in the {@code "listDatabases"} command output.
+	 *
+	 * @param databases    The {@code "listDatabases"} command output.
+	 * @param databaseName The database name.
+	 * @return The database document, if it exists.
+	 */
+	private static Optional<Document> findDatabase(List<Document> databases, String databaseName) {
+		return databases.stream()
+				.filter(doc -> Objects.equals(doc.get("name"), databaseName))
+				.findFirst();
 	}
 
 	/**
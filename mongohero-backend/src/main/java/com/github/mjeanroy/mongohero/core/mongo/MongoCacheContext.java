@@ -0,0 +1,89 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+/**
+ * Hold the cache settings of the current thread: when the cache is bypassed, commands are always
+ * executed against the cluster (and the cache is refreshed with the fresh output).
+ */
+public final class MongoCacheContext {
+
+	private static final ThreadLocal<Boolean> BYPASS = new ThreadLocal<>();
+
+	// Ensure non instantiation.
+	private MongoCacheContext() {
+	}
+
+	/**
+	 * Check if the command cache is bypassed in the current thread.
+	 *
+	 * @return {@code true} if the cache is bypassed, {@code false} otherwise.
+	 */
+	public static boolean isBypassed() {
+		return Boolean.TRUE.equals(BYPASS.get());
+	}
+
+	/**
+	 * Bypass (or not) the command cache in the current thread.
+	 *
+	 * @param bypass The bypass flag.
+	 */
+	public static void setBypassed(boolean bypass) {
+		if (bypass) {
+			BYPASS.set(Boolean.TRUE);
+		}
+		else {
+			BYPASS.remove();
+		}
+	}
+
+	/**
+	 * Reset the cache settings of the current thread.
+	 */
+	public static void clear() {
+		BYPASS.remove();
+	}
+
+	/**
+	 * Wrap given task so that it runs with the cache settings of the current thread, whatever the
+	 * thread running the task.
+	 *
+	 * @param task The task.
+	 * @return The wrapped task.
+	 */
+	public static Runnable propagate(Runnable task) {
+		boolean bypass = isBypassed();
+		return () -> {
+			boolean previous = isBypassed();
+			setBypassed(bypass);
+			try {
+				task.run();
+			}
+			finally {
+				setBypassed(previous);
+			}
+		};
+	}
+}
@@ -0,0 +1,157 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Settings of the cache used to store output of diagnostic commands.
+ */
+@ConstructorBinding
+@ConfigurationProperties("mongohero.cache")
+public final class MongoCacheProperties {
+
+	/**
+	 * Flag to enable/disable the command cache.
+	 */
+	private final boolean enabled;
+
+	/**
+	 * The maximum number of entries in the cache, the least recently used entry is evicted
+	 * when this limit is reached.
+	 */
+	private final int maxSize;
+
+	/**
+	 * The time to live (in milliseconds) of a command output, unless a specific value is set
+	 * for this command in {@link #ttlMs}.
+	 */
+	private final long defaultTtlMs;
+
+	/**
+	 * The time to live (in milliseconds) of a command output, indexed by command name (such
+	 * as {@code "serverStatus"}).
+	 */
+	private final Map<String, Long> ttlMs;
+
+	public MongoCacheProperties(
+			@DefaultValue("true") boolean enabled,
+			@DefaultValue("1024") int maxSize,
+			@DefaultValue("5000") long defaultTtlMs,
+			Map<String, Long> ttlMs) {
+
+		this.enabled = enabled;
+		this.maxSize = maxSize;
+		this.defaultTtlMs = defaultTtlMs;
+		this.ttlMs = ttlMs == null ? Collections.emptyMap() : Collections.unmodifiableMap(new LinkedHashMap<>(ttlMs));
+	}
+
+	/**
+	 * Get {@link #enabled}
+	 *
+	 * @return {@link #enabled}
+	 */
+	boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Get {@link #maxSize}
+	 *
+	 * @return {@link #maxSize}
+	 */
+	int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Get {@link #defaultTtlMs}
+	 *
+	 * @return {@link #defaultTtlMs}
+	 */
+	long getDefaultTtlMs() {
+		return defaultTtlMs;
+	}
+
+	/**
+	 * Get {@link #ttlMs}
+	 *
+	 * @return {@link #ttlMs}
+	 */
+	Map<String, Long> getTtlMs() {
+		return ttlMs;
+	}
+
+	/**
+	 * Get the time to live (in milliseconds) of given command output.
+	 *
+	 * @param command The command name.
+	 * @return The time to live.
+	 */
+	long getTtlMs(String command) {
+		Long ttl = ttlMs.get(command);
+		return ttl == null ? defaultTtlMs : ttl;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof MongoCacheProperties) {
+			MongoCacheProperties p = (MongoCacheProperties) o;
+			return Objects.equals(enabled, p.enabled)
+					&& Objects.equals(maxSize, p.maxSize)
+					&& Objects.equals(defaultTtlMs, p.defaultTtlMs)
+					&& Objects.equals(ttlMs, p.ttlMs);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(enabled, maxSize, defaultTtlMs, ttlMs);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("enabled", enabled)
+				.append("maxSize", maxSize)
+				.append("defaultTtlMs", defaultTtlMs)
+				.append("ttlMs", ttlMs)
+				.build();
+	}
+}
@@ -0,0 +1,132 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A snapshot of the command cache counters.
+ */
+public final class MongoCacheStats {
+
+	/**
+	 * The number of lookups served from the cache.
+	 */
+	private final long hits;
+
+	/**
+	 * The number of lookups that executed the command (entry missing, expired or bypassed).
+	 */
+	private final long misses;
+
+	/**
+	 * The number of entries removed because the cache was full.
+	 */
+	private final long evictions;
+
+	/**
+	 * The current number of entries.
+	 */
+	private final int size;
+
+	/**
+	 * The maximum number of entries.
+	 */
+	private final int maxSize;
+
+	MongoCacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.size = size;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Get {@link #hits}
+	 *
+	 * @return {@link #hits}
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Get {@link #misses}
+	 *
+	 * @return {@link #misses}
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Get {@link #evictions}
+	 *
+	 * @return {@link #evictions}
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Get {@link #size}
+	 *
+	 * @return {@link #size}
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Get {@link #maxSize}
+	 *
+	 * @return {@link #maxSize}
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Get the ratio of lookups served from the cache, between {@code 0} and {@code 1}.
+	 *
+	 * @return The hit ratio.
+	 */
+	public double getHitRatio() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("hits", hits)
+				.append("misses", misses)
+				.append("evictions", evictions)
+				.append("size", size)
+				.append("maxSize", maxSize)
+				.build();
+	}
+}
@@ -0,0 +1,219 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The circuit breaker of a single member of the cluster.
+ *
+ * The outcome of the most recent calls is recorded in a sliding window: once the failure rate (or the
+ * slow call rate) reaches its threshold, the circuit opens and calls are rejected. After a while, the
+ * circuit becomes half-open and lets a few probes through: it closes if they succeed, and opens again
+ * otherwise.
+ *
+ * This class is thread-safe.
+ */
+final class MongoCircuitBreaker {
+
+	private static final byte OUTCOME_SUCCESS = 0;
+	private static final byte OUTCOME_SLOW = 1;
+	private static final byte OUTCOME_FAILURE = 2;
+
+	private final MongoCircuitBreakerProperties properties;
+	private final LongSupplier nanoClock;
+
+	/**
+	 * The outcome of the most recent calls, used as a ring buffer.
+	 */
+	private final byte[] window;
+
+	private int next;
+	private int calls;
+	private int failures;
+	private int slowCalls;
+
+	private MongoCircuitState state;
+	private long openedAt;
+	private int probesInFlight;
+	private int probesSucceeded;
+
+	MongoCircuitBreaker(MongoCircuitBreakerProperties properties, LongSupplier nanoClock) {
+		this.properties = properties;
+		this.nanoClock = nanoClock;
+		this.window = new byte[Math.max(1, properties.getWindowSize())];
+		this.state = MongoCircuitState.CLOSED;
+	}
+
+	/**
+	 * Check if a call is permitted: a permitted call must be followed by {@link #onSuccess(long)},
+	 * {@link #onFailure()} or {@link #release()}.
+	 *
+	 * @return {@code true} if the call is permitted, {@code false} otherwise.
+	 */
+	synchronized boolean tryAcquire() {
+		if (state == MongoCircuitState.CLOSED) {
+			return true;
+		}
+
+		if (state == MongoCircuitState.OPEN) {
+			long openNanos = TimeUnit.MILLISECONDS.toNanos(properties.getOpenMs());
+			if (nanoClock.getAsLong() - openedAt < openNanos) {
+				return false;
+			}
+
+			state = MongoCircuitState.HALF_OPEN;
+			probesInFlight = 0;
+			probesSucceeded = 0;
+		}
+
+		if (probesInFlight < Math.max(1, properties.getHalfOpenProbes())) {
+			probesInFlight++;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Record a successful call.
+	 *
+	 * @param elapsedNanos The call duration, in nanoseconds.
+	 */
+	synchronized void onSuccess(long elapsedNanos) {
+		boolean slow = elapsedNanos > TimeUnit.MILLISECONDS.toNanos(properties.getSlowCallMs());
+		record(slow ? OUTCOME_SLOW : OUTCOME_SUCCESS);
+	}
+
+	/**
+	 * Record a failed (or timed out) call.
+	 */
+	synchronized void onFailure() {
+		record(OUTCOME_FAILURE);
+	}
+
+	/**
+	 * Release a permitted call that has not been executed.
+	 */
+	synchronized void release() {
+		if (state == MongoCircuitState.HALF_OPEN && probesInFlight > 0) {
+			probesInFlight--;
+		}
+	}
+
+	/**
+	 * Get the current health of the member.
+	 *
+	 * @param host The member host.
+	 * @return The member health.
+	 */
+	synchronized MongoHostHealth health(String host) {
+		double failureRate = calls == 0 ? 0 : (double) failures / calls;
+		double slowCallRate = calls == 0 ? 0 : (double) slowCalls / calls;
+		return new MongoHostHealth(host, state, score(failureRate, slowCallRate), calls, failureRate, slowCallRate);
+	}
+
+	private void record(byte outcome) {
+		if (state == MongoCircuitState.OPEN) {
+			// Late result of a call started before the circuit opened.
+			return;
+		}
+
+		if (state == MongoCircuitState.HALF_OPEN) {
+			probesInFlight = Math.max(0, probesInFlight - 1);
+			if (outcome != OUTCOME_SUCCESS) {
+				open();
+			}
+			else if (++probesSucceeded >= Math.max(1, properties.getHalfOpenProbes())) {
+				close();
+			}
+
+			return;
+		}
+
+		push(outcome);
+
+		if (calls >= Math.max(1, properties.getMinCalls())) {
+			boolean tooManyFailures = failures * 100 >= properties.getFailureRateThreshold() * calls;
+			boolean tooManySlowCalls = (slowCalls + failures) * 100 >= properties.getSlowCallRateThreshold() * calls;
+			if (tooManyFailures || tooManySlowCalls) {
+				open();
+			}
+		}
+	}
+
+	private void push(byte outcome) {
+		if (calls == window.length) {
+			forget(window[next]);
+		}
+		else {
+			calls++;
+		}
+
+		window[next] = outcome;
+		next = (next + 1) % window.length;
+
+		if (outcome == OUTCOME_FAILURE) {
+			failures++;
+		}
+		else if (outcome == OUTCOME_SLOW) {
+			slowCalls++;
+		}
+	}
+
+	private void forget(byte outcome) {
+		if (outcome == OUTCOME_FAILURE) {
+			failures--;
+		}
+		else if (outcome == OUTCOME_SLOW) {
+			slowCalls--;
+		}
+	}
+
+	private void open() {
+		state = MongoCircuitState.OPEN;
+		openedAt = nanoClock.getAsLong();
+		probesInFlight = 0;
+		probesSucceeded = 0;
+	}
+
+	private void close() {
+		state = MongoCircuitState.CLOSED;
+		next = 0;
+		calls = 0;
+		failures = 0;
+		slowCalls = 0;
+	}
+
+	private int score(double failureRate, double slowCallRate) {
+		if (state == MongoCircuitState.OPEN) {
+			return 0;
+		}
+
+		int score = (int) Math.round(100 * (1 - failureRate) * (1 - slowCallRate / 2));
+		return state == MongoCircuitState.HALF_OPEN ? Math.min(score, 50) : score;
+	}
+}
@@ -0,0 +1,212 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Objects;
+
+/**
+ * Settings of the circuit breaker protecting each member of the cluster.
+ */
+@ConstructorBinding
+@ConfigurationProperties("mongohero.breaker")
+public final class MongoCircuitBreakerProperties {
+
+	/**
+	 * Flag to enable/disable circuit breakers: when disabled, commands are always sent to each member.
+	 */
+	private final boolean enabled;
+
+	/**
+	 * The number of most recent calls used to compute failure and slow call rates.
+	 */
+	private final int windowSize;
+
+	/**
+	 * The minimum number of recorded calls before the circuit may open.
+	 */
+	private final int minCalls;
+
+	/**
+	 * The failure rate (percentage) above which the circuit opens.
+	 */
+	private final int failureRateThreshold;
+
+	/**
+	 * The duration (in milliseconds) above which a successful call is considered slow.
+	 */
+	private final long slowCallMs;
+
+	/**
+	 * The slow call rate (percentage) above which the circuit opens.
+	 */
+	private final int slowCallRateThreshold;
+
+	/**
+	 * The time (in milliseconds) the circuit stays open before probing the member again.
+	 */
+	private final long openMs;
+
+	/**
+	 * The number of successful probes required to close the circuit.
+	 */
+	private final int halfOpenProbes;
+
+	public MongoCircuitBreakerProperties(
+			@DefaultValue("true") boolean enabled,
+			@DefaultValue("20") int windowSize,
+			@DefaultValue("5") int minCalls,
+			@DefaultValue("50") int failureRateThreshold,
+			@DefaultValue("2000") long slowCallMs,
+			@DefaultValue("80") int slowCallRateThreshold,
+			@DefaultValue("30000") long openMs,
+			@DefaultValue("1") int halfOpenProbes) {
+
+		this.enabled = enabled;
+		this.windowSize = windowSize;
+		this.minCalls = minCalls;
+		this.failureRateThreshold = failureRateThreshold;
+		this.slowCallMs = slowCallMs;
+		this.slowCallRateThreshold = slowCallRateThreshold;
+		this.openMs = openMs;
+		this.halfOpenProbes = halfOpenProbes;
+	}
+
+	/**
+	 * Get {@link #enabled}
+	 *
+	 * @return {@link #enabled}
+	 */
+	boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Get {@link #windowSize}
+	 *
+	 * @return {@link #windowSize}
+	 */
+	int getWindowSize() {
+		return windowSize;
+	}
+
+	/**
+	 * Get {@link #minCalls}
+	 *
+	 * @return {@link #minCalls}
+	 */
+	int getMinCalls() {
+		return minCalls;
+	}
+
+	/**
+	 * Get {@link #failureRateThreshold}
+	 *
+	 * @return {@link #failureRateThreshold}
+	 */
+	int getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	/**
+	 * Get {@link #slowCallMs}
+	 *
+	 * @return {@link #slowCallMs}
+	 */
+	long getSlowCallMs() {
+		return slowCallMs;
+	}
+
+	/**
+	 * Get {@link #slowCallRateThreshold}
+	 *
+	 * @return {@link #slowCallRateThreshold}
+	 */
+	int getSlowCallRateThreshold() {
+		return slowCallRateThreshold;
+	}
+
+	/**
+	 * Get {@link #openMs}
+	 *
+	 * @return {@link #openMs}
+	 */
+	long getOpenMs() {
+		return openMs;
+	}
+
+	/**
+	 * Get {@link #halfOpenProbes}
+	 *
+	 * @return {@link #halfOpenProbes}
+	 */
+	int getHalfOpenProbes() {
+		return halfOpenProbes;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof MongoCircuitBreakerProperties) {
+			MongoCircuitBreakerProperties p = (MongoCircuitBreakerProperties) o;
+			return Objects.equals(enabled, p.enabled)
+					&& Objects.equals(windowSize, p.windowSize)
+					&& Objects.equals(minCalls, p.minCalls)
+					&& Objects.equals(failureRateThreshold, p.failureRateThreshold)
+					&& Objects.equals(slowCallMs, p.slowCallMs)
+					&& Objects.equals(slowCallRateThreshold, p.slowCallRateThreshold)
+					&& Objects.equals(openMs, p.openMs)
+					&& Objects.equals(halfOpenProbes, p.halfOpenProbes);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(enabled, windowSize, minCalls, failureRateThreshold, slowCallMs, slowCallRateThreshold, openMs, halfOpenProbes);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("enabled", enabled)
+				.append("windowSize", windowSize)
+				.append("minCalls", minCalls)
+				.append("failureRateThreshold", failureRateThreshold)
+				.append("slowCallMs", slowCallMs)
+				.append("slowCallRateThreshold", slowCallRateThreshold)
+				.append("openMs", openMs)
+				.append("halfOpenProbes", halfOpenProbes)
+				.build();
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Count creations and closes of member clients, in total and over the last minute.
+ *
+ * This class is thread-safe.
+ */
+final class MongoClientChurn {
+
+	private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	private final LongSupplier nanoClock;
+
+	private final Deque<Long> recentCreations;
+	private final Deque<Long> recentCloses;
+
+	private long totalCreated;
+	private long totalClosed;
+
+	MongoClientChurn(LongSupplier nanoClock) {
+		this.nanoClock = nanoClock;
+		this.recentCreations = new ArrayDeque<>();
+		this.recentCloses = new ArrayDeque<>();
+	}
+
+	/**
+	 * Record a client creation.
+	 */
+	synchronized void onCreated() {
+		totalCreated++;
+		recentCreations.addLast(nanoClock.getAsLong());
+	}
+
+	/**
+	 * Record a client close.
+	 */
+	synchronized void onClosed() {
+		totalClosed++;
+		recentCloses.addLast(nanoClock.getAsLong());
+	}
+
+	/**
+	 * Get the current counters.
+	 *
+	 * @param activeClients The number of clients of connected members.
+	 * @param standbyClients The number of clients of disconnected members, kept open.
+	 * @return The counters.
+	 */
+	synchronized MongoClientChurnStats snapshot(int activeClients, int standbyClients) {
+		long now = nanoClock.getAsLong();
+		prune(recentCreations, now);
+		prune(recentCloses, now);
+		return new MongoClientChurnStats(
+				totalCreated,
+				totalClosed,
+				recentCreations.size(),
+				recentCloses.size(),
+				activeClients,
+				standbyClients
+		);
+	}
+
+	private static void prune(Deque<Long> events, long now) {
+		while (!events.isEmpty() && now - events.peekFirst() >= WINDOW_NANOS) {
+			events.removeFirst();
+		}
+	}
+}
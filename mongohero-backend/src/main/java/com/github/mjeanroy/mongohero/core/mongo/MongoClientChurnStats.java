@@ -0,0 +1,138 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A snapshot of member client churn.
+ */
+public final class MongoClientChurnStats {
+
+	/**
+	 * The number of member clients created since startup.
+	 */
+	private final long totalCreated;
+
+	/**
+	 * The number of member clients closed since startup.
+	 */
+	private final long totalClosed;
+
+	/**
+	 * The number of member clients created during the last minute.
+	 */
+	private final int createdLastMinute;
+
+	/**
+	 * The number of member clients closed during the last minute.
+	 */
+	private final int closedLastMinute;
+
+	/**
+	 * The number of clients of connected members.
+	 */
+	private final int activeClients;
+
+	/**
+	 * The number of clients of disconnected members, kept open during the grace period.
+	 */
+	private final int standbyClients;
+
+	MongoClientChurnStats(long totalCreated, long totalClosed, int createdLastMinute, int closedLastMinute, int activeClients, int standbyClients) {
+		this.totalCreated = totalCreated;
+		this.totalClosed = totalClosed;
+		this.createdLastMinute = createdLastMinute;
+		this.closedLastMinute = closedLastMinute;
+		this.activeClients = activeClients;
+		this.standbyClients = standbyClients;
+	}
+
+	/**
+	 * Get {@link #totalCreated}
+	 *
+	 * @return {@link #totalCreated}
+	 */
+	public long getTotalCreated() {
+		return totalCreated;
+	}
+
+	/**
+	 * Get {@link #totalClosed}
+	 *
+	 * @return {@link #totalClosed}
+	 */
+	public long getTotalClosed() {
+		return totalClosed;
+	}
+
+	/**
+	 * Get {@link #createdLastMinute}
+	 *
+	 * @return {@link #createdLastMinute}
+	 */
+	public int getCreatedLastMinute() {
+		return createdLastMinute;
+	}
+
+	/**
+	 * Get {@link #closedLastMinute}
+	 *
+	 * @return {@link #closedLastMinute}
+	 */
+	public int getClosedLastMinute() {
+		return closedLastMinute;
+	}
+
+	/**
+	 * Get {@link #activeClients}
+	 *
+	 * @return {@link #activeClients}
+	 */
+	public int getActiveClients() {
+		return activeClients;
+	}
+
+	/**
+	 * Get {@link #standbyClients}
+	 *
+	 * @return {@link #standbyClients}
+	 */
+	public int getStandbyClients() {
+		return standbyClients;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("totalCreated", totalCreated)
+				.append("totalClosed", totalClosed)
+				.append("createdLastMinute", createdLastMinute)
+				.append("closedLastMinute", closedLastMinute)
+				.append("activeClients", activeClients)
+				.append("standbyClients", standbyClients)
+				.build();
+	}
+}
@@ -48,15 +48,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 import static java.util.Arrays.stream;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonMap;
 import static java.util.Collections.unmodifiableMap;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
@@ -68,43 +76,124 @@ public class MongoClientFactory {
 
 	private static final Logger log = LoggerFactory.getLogger(MongoClientFactory.class);
 
+	/**
+	 * The name of the connection pool of the default client.
+	 */
+	private static final String DEFAULT_POOL_NAME = "default";
+
 	/**
 	 * The MongoDB Properties.
 	 */
 	private final MongoDbProperties mongoDbProperties;
 
+	/**
+	 * The topology synchronization settings.
+	 */
+	private final MongoTopologyProperties topologyProperties;
+
+	/**
+	 * The executor running topology synchronization, outside of driver threads.
+	 */
+	private final ScheduledExecutorService topologyExecutor;
+
+	/**
+	 * Flag set when a synchronization is scheduled, so that topology events received
+	 * during the debounce delay trigger a single synchronization.
+	 */
+	private final AtomicBoolean synchronizationScheduled;
+
+	/**
+	 * Flag set when a synchronization is scheduled at the end of the grace period of a client in standby,
+	 * so that a single grace check is pending at any time.
+	 */
+	private final AtomicBoolean graceCheckScheduled;
+
+	/**
+	 * Creations and closes of member clients.
+	 */
+	private final MongoClientChurn churn;
+
+	/**
+	 * The adaptive pool sizing settings.
+	 */
+	private final MongoPoolProperties poolProperties;
+
+	/**
+	 * The monitor of the connection pool of each open client.
+	 */
+	private final Map<MongoClient, MongoPoolMonitor> poolMonitors;
+
+	/**
+	 * The time (from {@link System#nanoTime()}) of the last resize of each pool: only accessed while resizing pools.
+	 */
+	private final Map<String, Long> lastResizes;
+
+	/**
+	 * The listener recording latency of commands sent by each client.
+	 */
+	private final MongoCommandMetrics commandMetrics;
+
 	/**
 	 * The default mongo client, built using application configuration.
 	 */
 	private final MongoClient mongoClient;
 
 	/**
-	 * List of cluster member clients.
+	 * List of connected cluster member clients.
 	 */
 	private final Map<String, MongoClient> clusterClients;
 
+	/**
+	 * List of disconnected cluster member clients, kept open during the grace period: this
+	 * map is only accessed during synchronization.
+	 */
+	private final Map<String, StandbyClient> standbyClients;
+
 	@Autowired
-	public MongoClientFactory(MongoDbProperties mongoDbProperties) {
+	public MongoClientFactory(MongoDbProperties mongoDbProperties, MongoTopologyProperties topologyProperties, MongoPoolProperties poolProperties, MongoCommandMetrics commandMetrics) {
 		this.mongoDbProperties = mongoDbProperties;
-		this.mongoClient = buildMongoClient(mongoDbProperties, true);
+		this.topologyProperties = topologyProperties;
+		this.poolProperties = poolProperties;
+		this.poolMonitors = new ConcurrentHashMap<>();
+		this.lastResizes = new HashMap<>();
+		this.commandMetrics = commandMetrics;
+		this.topologyExecutor = Executors.newSingleThreadScheduledExecutor(MongoClientFactory::newTopologyThread);
+		this.synchronizationScheduled = new AtomicBoolean(false);
+		this.graceCheckScheduled = new AtomicBoolean(false);
+		this.churn = new MongoClientChurn(System::nanoTime);
 		this.clusterClients = new ConcurrentHashMap<>();
+		this.standbyClients = new HashMap<>();
+		this.mongoClient = buildMongoClient(mongoDbProperties, true);
 		this.synchronizeClusterClients();
+
+		if (poolProperties.isAdaptive() && poolProperties.getEvaluationMs() > 0) {
+			long evaluationMs = poolProperties.getEvaluationMs();
+			topologyExecutor.scheduleWithFixedDelay(this::resizePools, evaluationMs, evaluationMs, TimeUnit.MILLISECONDS);
+		}
 	}
 
 	@PreDestroy
 	void onDestroy() {
+		topologyExecutor.shutdownNow();
 		closeMongoClient();
 		closeClusterClients();
 	}
 
 	private void closeMongoClient() {
-		mongoClient.close();
+		closeClient(mongoClient);
 	}
 
-	private void closeClusterClients() {
+	private synchronized void closeClusterClients() {
 		clusterClients.values().forEach(
-				MongoClient::close
+				this::closeClient
+		);
+
+		standbyClients.values().forEach(
+				standbyClient -> closeClient(standbyClient.client)
 		);
+
+		clusterClients.clear();
+		standbyClients.clear();
 	}
 
 	/**
@@ -134,64 +223,245 @@ public class MongoClientFactory {
 	}
 
 	/**
-	 * Get one client per cluster member.
+	 * Get creations and closes of member clients.
+	 *
+	 * @return Member clients churn.
+	 */
+	public synchronized MongoClientChurnStats getChurnStats() {
+		return churn.snapshot(clusterClients.size(), standbyClients.size());
+	}
+
+	/**
+	 * Schedule synchronization of cluster clients after the debounce delay, unless a synchronization is
+	 * already scheduled: this method is called from driver threads and must return quickly.
+	 */
+	private void scheduleSynchronization() {
+		if (synchronizationScheduled.compareAndSet(false, true)) {
+			schedule(topologyProperties.getDebounceMs(), () -> {
+				synchronizationScheduled.set(false);
+				synchronizeClusterClients();
+			});
+		}
+	}
+
+	/**
+	 * Schedule synchronization of cluster clients once the grace period of the oldest client in standby is over,
+	 * unless a grace check is already scheduled: the scheduled synchronization schedules the next grace check, if
+	 * some clients are still in standby.
+	 *
+	 * @param now The current time (from {@link System#nanoTime()}).
+	 */
+	private void scheduleGraceCheck(long now) {
+		if (standbyClients.isEmpty() || !graceCheckScheduled.compareAndSet(false, true)) {
+			return;
+		}
+
+		long graceNanos = TimeUnit.MILLISECONDS.toNanos(topologyProperties.getGraceMs());
+		long oldest = standbyClients.values().stream().mapToLong(standbyClient -> standbyClient.since).min().orElse(now);
+		long delayMs = TimeUnit.NANOSECONDS.toMillis(Math.max(0, oldest + graceNanos - now)) + 1;
+
+		schedule(delayMs, () -> {
+			graceCheckScheduled.set(false);
+			synchronizeClusterClients();
+		});
+	}
+
+	private void schedule(long delayMs, Runnable task) {
+		try {
+			topologyExecutor.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+		}
+		catch (RejectedExecutionException ex) {
+			log.debug("Topology synchronization rejected, factory is being destroyed");
+		}
+	}
+
+	/**
+	 * Synchronize cluster clients with the current cluster description:
 	 *
-	 * Note that each client <strong>must be closed manually</strong> after being used.
-	 */
-	private void synchronizeClusterClients() {
-		if (mongoClient != null) {
-			log.info("Synchronize mongo cluster clients");
-
-			ClusterDescription clusterDescription = mongoClient.getClusterDescription();
-			List<ServerDescription> servers = clusterDescription.getServerDescriptions();
-
-			Map<String, ServerDescription> connectedServers = servers.stream()
-					.filter(serverDescription -> serverDescription.getState() == ServerConnectionState.CONNECTED)
-					.collect(Collectors.toMap(
-							MongoClientFactory::extractRawServerAddress,
-							Function.identity()
-					));
-
-			// Remove outdated clients
-			for (String rawAddress : clusterClients.keySet()) {
-				if (!connectedServers.containsKey(rawAddress)) {
-					log.info("Closing mongo cluster client: {}", rawAddress);
-					clusterClients.get(rawAddress).close();
-					clusterClients.remove(rawAddress);
+	 * <ul>
+	 *   <li>A client is created for each new connected member.</li>
+	 *   <li>The client of a disconnected member is put in standby, and restored if the member comes back before the grace period.</li>
+	 *   <li>The client of a member disconnected for longer than the grace period is closed.</li>
+	 * </ul>
+	 */
+	private synchronized void synchronizeClusterClients() {
+		MongoClient defaultClient = mongoClient;
+		if (defaultClient == null) {
+			return;
+		}
+
+		log.info("Synchronize mongo cluster clients");
+
+		ClusterDescription clusterDescription = defaultClient.getClusterDescription();
+		List<ServerDescription> servers = clusterDescription.getServerDescriptions();
+
+		Map<String, ServerDescription> connectedServers = servers.stream()
+				.filter(serverDescription -> serverDescription.getState() == ServerConnectionState.CONNECTED)
+				.collect(Collectors.toMap(
+						MongoClientFactory::extractRawServerAddress,
+						Function.identity(),
+						(s1, s2) -> s1
+				));
+
+		long now = System.nanoTime();
+
+		// Put clients of disconnected members in standby
+		List<String> disconnected = clusterClients.keySet().stream()
+				.filter(rawAddress -> !connectedServers.containsKey(rawAddress))
+				.collect(Collectors.toList());
+
+		for (String rawAddress : disconnected) {
+			log.info("Mongo cluster member disconnected, keeping client in standby: {}", rawAddress);
+			standbyClients.put(rawAddress, new StandbyClient(clusterClients.remove(rawAddress), now));
+		}
+
+		// Restore or create clients of connected members
+		if (!servers.isEmpty()) {
+			// Try to adjust max pool size at best across all clients.
+			MongoDbOptions options = mongoDbProperties.getOptions();
+			int maxPoolSizeFromOptions = options.getMaxPoolSize();
+			int maxPoolSizeRepartition = maxPoolSizeFromOptions == 0 ? 0 : maxPoolSizeFromOptions / servers.size();
+			int maxPoolSize = Math.max(1, maxPoolSizeRepartition);
+
+			for (Map.Entry<String, ServerDescription> entry : connectedServers.entrySet()) {
+				String rawAddress = entry.getKey();
+				if (clusterClients.containsKey(rawAddress)) {
+					continue;
+				}
+
+				StandbyClient standbyClient = standbyClients.remove(rawAddress);
+				if (standbyClient != null) {
+					log.info("Restore mongo cluster client: {}", rawAddress);
+					clusterClients.put(rawAddress, standbyClient.client);
 				}
+				else {
+					log.info("Add new mongo cluster client: {}", rawAddress);
+					clusterClients.put(rawAddress, createClusterClient(entry.getValue().getAddress(), maxPoolSize));
+					churn.onCreated();
+				}
+			}
+		}
+
+		// Close clients in standby for too long
+		long graceNanos = TimeUnit.MILLISECONDS.toNanos(topologyProperties.getGraceMs());
+		Iterator<Map.Entry<String, StandbyClient>> it = standbyClients.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<String, StandbyClient> entry = it.next();
+			if (now - entry.getValue().since >= graceNanos) {
+				log.info("Closing mongo cluster client: {}", entry.getKey());
+				closeClient(entry.getValue().client);
+				churn.onClosed();
+				it.remove();
 			}
+		}
+
+		scheduleGraceCheck(now);
+	}
 
-			// Add new clients if we found some
-			if (!servers.isEmpty()) {
-				// Try to adjust max pool size at best across all clients.
-				MongoDbOptions options = mongoDbProperties.getOptions();
-				int maxPoolSizeFromOptions = options.getMaxPoolSize();
-				int maxPoolSizeRepartition = maxPoolSizeFromOptions == 0 ? 0 : maxPoolSizeFromOptions / servers.size();
-				int maxPoolSize = Math.max(1, maxPoolSizeRepartition);
-
-				for (ServerDescription serverDescription : connectedServers.values()) {
-					String rawAddress = extractRawServerAddress(serverDescription);
-					if (!clusterClients.containsKey(rawAddress)) {
-						log.info("Add new mongo cluster client: {}", rawAddress);
-						this.clusterClients.put(rawAddress, createClusterClient(serverDescription, maxPoolSize));
-					}
+	/**
+	 * Get the usage of each connection pool (the default client, and each member client), since the last evaluation.
+	 *
+	 * @return Usage of each pool.
+	 */
+	public List<MongoPoolUsage> getPoolUsage() {
+		return collectPoolUsage(false);
+	}
+
+	private List<MongoPoolUsage> collectPoolUsage(boolean reset) {
+		List<MongoPoolUsage> usages = new ArrayList<>();
+		addPoolUsage(usages, DEFAULT_POOL_NAME, mongoClient, reset);
+		clusterClients.forEach((rawAddress, client) -> addPoolUsage(usages, rawAddress, client, reset));
+		return usages;
+	}
+
+	private void addPoolUsage(List<MongoPoolUsage> usages, String name, MongoClient client, boolean reset) {
+		MongoPoolMonitor monitor = poolMonitors.get(client);
+		if (monitor != null) {
+			usages.add(monitor.usage(name, reset));
+		}
+	}
+
+	/**
+	 * Resize connection pools of member clients according to their usage since the last evaluation.
+	 *
+	 * The driver cannot resize the pool of an open client: a new client is built with the new pool size and the previous
+	 * one is closed after the grace period, so that commands in progress can complete. Since each resize builds a new client,
+	 * a pool is not resized again before {@link MongoPoolProperties#getCooldownMs()}. The default client is never rebuilt: it
+	 * drives topology discovery, and a new client would report members as connecting until its first heartbeat.
+	 */
+	private synchronized void resizePools() {
+		try {
+			List<MongoPoolUsage> usages = collectPoolUsage(true);
+			Map<String, Integer> targets = MongoPoolSizer.computeTargets(usages, poolProperties, mongoDbProperties.getOptions().getMaxPoolSize(), singleton(DEFAULT_POOL_NAME));
+			long now = System.nanoTime();
+			long cooldownNanos = TimeUnit.MILLISECONDS.toNanos(poolProperties.getCooldownMs());
+
+			for (MongoPoolUsage usage : usages) {
+				String name = usage.getHost();
+				int target = targets.get(name);
+				if (target == usage.getMaxSize()) {
+					continue;
+				}
+
+				Long lastResize = lastResizes.get(name);
+				if (lastResize != null && now - lastResize < cooldownNanos) {
+					log.debug("Skipping resize of connection pool of {} from {} to {}, resized recently", name, usage.getMaxSize(), target);
+					continue;
+				}
+
+				MongoClient previous = clusterClients.get(name);
+				if (previous != null) {
+					log.info("Resizing connection pool of {} from {} to {} (peak={}, avgWaitMs={}, avgHoldMs={})", name, usage.getMaxSize(), target, usage.getPeakCheckedOut(), usage.getAvgWaitMs(), usage.getAvgHoldMs());
+
+					ServerAddress serverAddress = extractMongoClientServerAddress(previous);
+					clusterClients.put(name, createClusterClient(serverAddress, target));
+					lastResizes.put(name, now);
+					churn.onCreated();
+					retireClient(previous);
 				}
 			}
+
+			lastResizes.keySet().retainAll(clusterClients.keySet());
+		}
+		catch (RuntimeException ex) {
+			log.warn("Failed to resize connection pools: {}", ex.getMessage(), ex);
 		}
 	}
 
 	/**
-	 * Create Mongo Client from given Server Description.
+	 * Close given client once the grace period is over.
+	 *
+	 * @param client The client.
+	 */
+	private void retireClient(MongoClient client) {
+		schedule(topologyProperties.getGraceMs(), () -> {
+			closeClient(client);
+			churn.onClosed();
+		});
+	}
+
+	/**
+	 * Close given client and stop monitoring its connection pool.
+	 *
+	 * @param client The client.
+	 */
+	private void closeClient(MongoClient client) {
+		poolMonitors.remove(client);
+		client.close();
+	}
+
+	/**
+	 * Create Mongo Client from given Server Address.
 	 *
-	 * @param serverDescription Server description.
+	 * @param serverAddress Server address.
 	 * @param maxPoolSize Maximum Pool Size.
 	 * @return The Mongo Client.
 	 */
-	private MongoClient createClusterClient(ServerDescription serverDescription, int maxPoolSize) {
+	private MongoClient createClusterClient(ServerAddress serverAddress, int maxPoolSize) {
 		MongoDbOptions options = mongoDbProperties.getOptions();
 		int minPoolSize = Math.min(options.getMinPoolSize(), maxPoolSize);
 		MongoDbProperties serverProperties = mongoDbProperties.toBuilder()
-				.withHost(serverDescription.getAddress())
+				.withHost(serverAddress)
 				.withReplicaSet(null)
 				.withOptions(options.toBuilder()
 						.withConnectionMode(ClusterConnectionMode.SINGLE.name())
@@ -212,9 +482,13 @@ public class MongoClientFactory {
 	 */
 	private MongoClient buildMongoClient(MongoDbProperties mongoDbProperties, boolean useClusterListener) {
 		log.info("Configuring MongoDB Client using properties: {}", mongoDbProperties);
-		return MongoClients.create(
-				createMongoSettings(mongoDbProperties, useClusterListener)
+		MongoPoolMonitor poolMonitor = new MongoPoolMonitor(mongoDbProperties.getOptions().getMaxPoolSize());
+		MongoClient client = MongoClients.create(
+				createMongoSettings(mongoDbProperties, useClusterListener, poolMonitor)
 		);
+
+		poolMonitors.put(client, poolMonitor);
+		return client;
 	}
 
 	/**
@@ -222,15 +496,17 @@ public class MongoClientFactory {
 	 *
 	 * @param mongoDbProperties MongoDB Properties.
 	 * @param useClusterListener Set to {@code true} to listen to cluster change events, and re-synchronize internal cluster clients.
+	 * @param poolMonitor The monitor of the connection pool.
 	 * @return Mongo Settings.
 	 */
-	private MongoClientSettings createMongoSettings(MongoDbProperties mongoDbProperties, boolean useClusterListener) {
+	private MongoClientSettings createMongoSettings(MongoDbProperties mongoDbProperties, boolean useClusterListener, MongoPoolMonitor poolMonitor) {
 		MongoClientSettings.Builder settingsBuilder = MongoClientSettings.builder()
 				.applicationName("mongohero")
 				.applyToClusterSettings(builder -> configureClusterSettings(mongoDbProperties, builder, useClusterListener))
 				.applyToSslSettings(builder -> configureSsl(mongoDbProperties, builder))
-				.applyToConnectionPoolSettings(builder -> configureConnectionPool(mongoDbProperties, builder))
-				.applyToSocketSettings(builder -> configureSocket(mongoDbProperties, builder));
+				.applyToConnectionPoolSettings(builder -> configureConnectionPool(mongoDbProperties, builder, poolMonitor))
+				.applyToSocketSettings(builder -> configureSocket(mongoDbProperties, builder))
+				.addCommandListener(commandMetrics);
 
 		MongoDbOptions options = mongoDbProperties.getOptions();
 
@@ -326,7 +602,7 @@ public class MongoClientFactory {
 			builder.addClusterListener(new ClusterListenerAdapter() {
 				@Override
 				public void clusterDescriptionChanged(ClusterDescriptionChangedEvent event) {
-					MongoClientFactory.this.synchronizeClusterClients();
+					MongoClientFactory.this.scheduleSynchronization();
 				}
 			});
 		}
@@ -338,12 +614,16 @@ public class MongoClientFactory {
 	 * <ul>
 	 *   <li>Set Max Pool Size from {@link MongoDbOptions#getMaxPoolSize()}</li>
 	 *   <li>Set Min Pool Size from {@link MongoDbOptions#getMinPoolSize()}</li>
+	 *   <li>Register the pool monitor, used to resize the pool according to its usage</li>
 	 * </ul>
 	 *
 	 * @param mongoDbProperties MongoDB Properties.
 	 * @param builder Mongo Client configuration builder.
+	 * @param poolMonitor The monitor of the connection pool.
 	 */
-	private static void configureConnectionPool(MongoDbProperties mongoDbProperties, ConnectionPoolSettings.Builder builder) {
+	private static void configureConnectionPool(MongoDbProperties mongoDbProperties, ConnectionPoolSettings.Builder builder, MongoPoolMonitor poolMonitor) {
+		builder.addConnectionPoolListener(poolMonitor);
+
 		MongoDbOptions options = mongoDbProperties.getOptions();
 
 		int maxPoolSize = options.getMaxPoolSize();
@@ -481,4 +761,20 @@ public class MongoClientFactory {
 	private static String extractRawServerAddress(ServerAddress serverAddress) {
 		return serverAddress.getHost() + ":" + serverAddress.getPort();
 	}
+
+	private static Thread newTopologyThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, "mongohero-topology");
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	private static final class StandbyClient {
+		private final MongoClient client;
+		private final long since;
+
+		private StandbyClient(MongoClient client, long since) {
+			this.client = client;
+			this.since = since;
+		}
+	}
 }
@@ -0,0 +1,81 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+public class MongoClusterException extends RuntimeException {
+
+	/**
+	 * The host where the command did not succeed.
+	 */
+	private final String host;
+
+	/**
+	 * The command status on {@link #host}.
+	 */
+	private final MongoHostStatus status;
+
+	/**
+	 * Create exception.
+	 *
+	 * @param host The host where the command did not succeed.
+	 * @param status The command status.
+	 * @param cause The original error, may be {@code null}.
+	 */
+	MongoClusterException(String host, MongoHostStatus status, Throwable cause) {
+		super(createMessage(host, status), cause);
+		this.host = host;
+		this.status = status;
+	}
+
+	/**
+	 * Get {@link #host}
+	 *
+	 * @return {@link #host}
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * Get {@link #status}
+	 *
+	 * @return {@link #status}
+	 */
+	public MongoHostStatus getStatus() {
+		return status;
+	}
+
+	private static String createMessage(String host, MongoHostStatus status) {
+		if (status == MongoHostStatus.TIMEOUT) {
+			return "Command timed out on host '" + host + "'";
+		}
+
+		if (status == MongoHostStatus.SKIPPED) {
+			return "Command skipped on unhealthy host '" + host + "'";
+		}
+
+		return "Command failed on host '" + host + "'";
+	}
+}
@@ -0,0 +1,190 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static java.util.Collections.unmodifiableCollection;
+
+/**
+ * The results of a command executed on each member of the cluster, in the same order as
+ * the cluster clients.
+ *
+ * Note that a failure on a given member does not fail the whole result: each member
+ * result holds its own status, error and timing.
+ *
+ * @param <T> Type of the command output.
+ */
+public final class MongoClusterResult<T> implements Iterable<MongoHostResult<T>> {
+
+	/**
+	 * Create cluster result from given host results.
+	 *
+	 * @param results Host results.
+	 * @param <T> Type of the command output.
+	 * @return The cluster result.
+	 */
+	static <T> MongoClusterResult<T> of(Iterable<MongoHostResult<T>> results) {
+		return new MongoClusterResult<>(results);
+	}
+
+	/**
+	 * The host results, indexed by host.
+	 */
+	private final Map<String, MongoHostResult<T>> results;
+
+	private MongoClusterResult(Iterable<MongoHostResult<T>> results) {
+		this.results = new LinkedHashMap<>();
+		for (MongoHostResult<T> result : results) {
+			this.results.put(result.getHost(), result);
+		}
+	}
+
+	/**
+	 * Get all host results.
+	 *
+	 * @return Host results.
+	 */
+	public Collection<MongoHostResult<T>> getResults() {
+		return unmodifiableCollection(results.values());
+	}
+
+	/**
+	 * Get the result of given host.
+	 *
+	 * @param host The host.
+	 * @return The host result, {@code null} if the command has not been executed on this host.
+	 */
+	public MongoHostResult<T> get(String host) {
+		return results.get(host);
+	}
+
+	/**
+	 * Get the number of hosts.
+	 *
+	 * @return The number of hosts.
+	 */
+	public int size() {
+		return results.size();
+	}
+
+	/**
+	 * Check if the command failed (or timed out) on at least one host.
+	 *
+	 * @return {@code true} if at least one host did not succeed, {@code false} otherwise.
+	 */
+	public boolean isDegraded() {
+		return results.values().stream().anyMatch(result -> !result.isSuccess());
+	}
+
+	/**
+	 * Get the output of each host where the command succeeded, indexed by host: the map
+	 * preserves the order of the cluster clients.
+	 *
+	 * @return The successful outputs.
+	 */
+	public Map<String, T> toMap() {
+		Map<String, T> outputs = new LinkedHashMap<>();
+		for (MongoHostResult<T> result : results.values()) {
+			if (result.isSuccess()) {
+				outputs.put(result.getHost(), result.getValue());
+			}
+		}
+
+		return outputs;
+	}
+
+	/**
+	 * Transform the output of each host where the command succeeded.
+	 *
+	 * @param mapper The mapper function.
+	 * @param <U> Type of the new output.
+	 * @return The new cluster result.
+	 */
+	public <U> MongoClusterResult<U> map(Function<? super T, ? extends U> mapper) {
+		List<MongoHostResult<U>> outputs = new ArrayList<>(results.size());
+		for (MongoHostResult<T> result : results.values()) {
+			outputs.add(result.map(mapper));
+		}
+
+		return new MongoClusterResult<>(outputs);
+	}
+
+	/**
+	 * Ensure that the command succeeded on every host.
+	 *
+	 * @return The current result.
+	 * @throws MongoClusterException If the command did not succeed on, at least, one host.
+	 */
+	public MongoClusterResult<T> failOnError() {
+		for (MongoHostResult<T> result : results.values()) {
+			if (!result.isSuccess()) {
+				throw new MongoClusterException(result.getHost(), result.getStatus(), result.getError());
+			}
+		}
+
+		return this;
+	}
+
+	@Override
+	public Iterator<MongoHostResult<T>> iterator() {
+		return getResults().iterator();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof MongoClusterResult) {
+			MongoClusterResult r = (MongoClusterResult) o;
+			return Objects.equals(results, r.results);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(results);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("results", results)
+				.build();
+	}
+}
@@ -0,0 +1,89 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Hold the sorted index of the collection names of each database.
+ *
+ * The index is stored in the {@link MongoCommandCache}, with the time to live of the {@code "listCollectionNames"}
+ * command: once expired, the names are read again and merged into the previous index, so that only new collections
+ * need to be sorted.
+ */
+@Component
+public class MongoCollectionIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(MongoCollectionIndex.class);
+
+	private static final String COMMAND = "listCollectionNames";
+
+	/**
+	 * The cache storing up-to-date indexes.
+	 */
+	private final MongoCommandCache mongoCommandCache;
+
+	/**
+	 * The last index of each database, indexed by database name.
+	 */
+	private final Map<String, MongoCollectionNames> indexes;
+
+	@Autowired
+	public MongoCollectionIndex(MongoCommandCache mongoCommandCache) {
+		this.mongoCommandCache = mongoCommandCache;
+		this.indexes = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Get the index of given database.
+	 *
+	 * @param databaseName The database name.
+	 * @param loader The loader, returning the up-to-date collection names.
+	 * @return The index.
+	 */
+	MongoCollectionNames get(String databaseName, Supplier<Collection<String>> loader) {
+		return mongoCommandCache.get(COMMAND, COMMAND + ":" + databaseName, () -> refresh(databaseName, loader.get()));
+	}
+
+	private MongoCollectionNames refresh(String databaseName, Collection<String> names) {
+		return indexes.compute(databaseName, (key, current) -> {
+			if (current == null) {
+				log.info("Indexing {} collection(s) of database {}", names.size(), databaseName);
+				return MongoCollectionNames.of(names);
+			}
+
+			log.debug("Refreshing index of database {}", databaseName);
+			return current.refresh(names);
+		});
+	}
+}
@@ -0,0 +1,234 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable index of the collection names of a database, sorted by name (case insensitive).
+ *
+ * Looking up the names starting with a given prefix is a binary search, so a page of names can be read without
+ * scanning (or sorting) the whole database.
+ */
+final class MongoCollectionNames {
+
+	/**
+	 * The order of names: case insensitive first, so that names differing only by their case are still
+	 * ordered consistently.
+	 */
+	private static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+	/**
+	 * Create the index of given names.
+	 *
+	 * @param names The collection names.
+	 * @return The index.
+	 */
+	static MongoCollectionNames of(Collection<String> names) {
+		String[] sortedNames = new HashSet<>(names).toArray(new String[0]);
+		Arrays.sort(sortedNames, ORDER);
+		return new MongoCollectionNames(sortedNames);
+	}
+
+	/**
+	 * The sorted names.
+	 */
+	private final String[] names;
+
+	private MongoCollectionNames(String[] names) {
+		this.names = names;
+	}
+
+	/**
+	 * Get the number of names in this index.
+	 *
+	 * @return The number of names.
+	 */
+	int size() {
+		return names.length;
+	}
+
+	/**
+	 * Create the index of given names, reusing the current index: only new names are sorted, and then merged
+	 * with the current (already sorted) names. The current index is returned if names did not change.
+	 *
+	 * @param freshNames The up-to-date collection names.
+	 * @return The new index.
+	 */
+	MongoCollectionNames refresh(Collection<String> freshNames) {
+		Set<String> fresh = new HashSet<>(freshNames);
+		Set<String> current = new HashSet<>(Arrays.asList(names));
+
+		List<String> added = new ArrayList<>();
+		for (String name : fresh) {
+			if (!current.contains(name)) {
+				added.add(name);
+			}
+		}
+
+		if (added.isEmpty() && fresh.size() == current.size()) {
+			return this;
+		}
+
+		added.sort(ORDER);
+
+		String[] merged = new String[fresh.size()];
+		int i = 0;
+		int j = 0;
+		int k = 0;
+
+		while (i < names.length || j < added.size()) {
+			if (i < names.length && !fresh.contains(names[i])) {
+				// Dropped collection.
+				i++;
+			}
+			else if (j >= added.size() || (i < names.length && ORDER.compare(names[i], added.get(j)) <= 0)) {
+				merged[k++] = names[i++];
+			}
+			else {
+				merged[k++] = added.get(j++);
+			}
+		}
+
+		return new MongoCollectionNames(merged);
+	}
+
+	/**
+	 * Count the names starting with given prefix (case insensitive).
+	 *
+	 * @param prefix The prefix, {@code null} or empty to count all names.
+	 * @return The number of names.
+	 */
+	int count(String prefix) {
+		return end(prefix) - start(prefix);
+	}
+
+	/**
+	 * Get the names starting with given prefix (case insensitive), in the order of this index (or in the
+	 * reverse order).
+	 *
+	 * @param prefix The prefix, {@code null} or empty to get all names.
+	 * @param offset The number of names to skip.
+	 * @param limit The maximum number of names to return.
+	 * @param desc Reverse the order, or not.
+	 * @return The names.
+	 */
+	List<String> find(String prefix, int offset, int limit, boolean desc) {
+		int start = start(prefix);
+		int end = end(prefix);
+
+		int from = desc ? end - offset - limit : start + offset;
+		int to = desc ? end - offset : start + offset + limit;
+
+		from = Math.max(start, from);
+		to = Math.min(end, to);
+
+		if (from >= to) {
+			return Collections.emptyList();
+		}
+
+		List<String> results = new ArrayList<>(Arrays.asList(names).subList(from, to));
+		if (desc) {
+			Collections.reverse(results);
+		}
+
+		return results;
+	}
+
+	/**
+	 * Get the index of the first name starting with given prefix, or greater than this prefix.
+	 *
+	 * @param prefix The prefix.
+	 * @return The index.
+	 */
+	private int start(String prefix) {
+		if (prefix == null || prefix.isEmpty()) {
+			return 0;
+		}
+
+		return search(prefix, false);
+	}
+
+	/**
+	 * Get the index following the last name starting with given prefix.
+	 *
+	 * @param prefix The prefix.
+	 * @return The index.
+	 */
+	private int end(String prefix) {
+		if (prefix == null || prefix.isEmpty()) {
+			return names.length;
+		}
+
+		return search(prefix, true);
+	}
+
+	/**
+	 * Find the first name whose first characters are greater (or greater or equal, if {@code strict} is
+	 * {@code false}) than given prefix.
+	 *
+	 * @param prefix The prefix.
+	 * @param strict The comparison mode.
+	 * @return The index.
+	 */
+	private int search(String prefix, boolean strict) {
+		int low = 0;
+		int high = names.length;
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			int compare = comparePrefix(names[middle], prefix);
+			if (compare < 0 || (strict && compare == 0)) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	private static int comparePrefix(String name, String prefix) {
+		String head = name.length() > prefix.length() ? name.substring(0, prefix.length()) : name;
+		return String.CASE_INSENSITIVE_ORDER.compare(head, prefix);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("size", names.length)
+				.build();
+	}
+}
@@ -0,0 +1,256 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A cache storing output of diagnostic commands (such as {@code "serverStatus"}) for a short period of time, so
+ * that several clients polling the same data do not multiply the load on the cluster.
+ *
+ * Each command has its own time to live (see {@link MongoCacheProperties#getTtlMs(String)}), and the cache is bounded: the
+ * least recently used entry is evicted when the maximum size is reached. The cache may be bypassed for the current
+ * thread with {@link MongoCacheContext#setBypassed(boolean)}.
+ */
+@Component
+public class MongoCommandCache {
+
+	private static final Logger log = LoggerFactory.getLogger(MongoCommandCache.class);
+
+	/**
+	 * The cache settings.
+	 */
+	private final MongoCacheProperties properties;
+
+	/**
+	 * The clock, returning a time in nanoseconds.
+	 */
+	private final LongSupplier nanoClock;
+
+	/**
+	 * The entries, in access order: this map is not thread-safe and must be accessed while holding its monitor.
+	 */
+	private final LinkedHashMap<String, Entry> entries;
+
+	private final LongAdder hits;
+	private final LongAdder misses;
+	private final LongAdder evictions;
+
+	@Autowired
+	public MongoCommandCache(MongoCacheProperties properties) {
+		this(properties, System::nanoTime);
+	}
+
+	MongoCommandCache(MongoCacheProperties properties, LongSupplier nanoClock) {
+		this.properties = properties;
+		this.nanoClock = nanoClock;
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+		this.evictions = new LongAdder();
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > properties.getMaxSize()) {
+					evictions.increment();
+					return true;
+				}
+
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Get the output of given command from the cache, or execute it if it is missing or expired.
+	 *
+	 * @param command The command name, used to get the time to live of the output.
+	 * @param key The cache key, must identify the command and its arguments.
+	 * @param loader The function executing the command.
+	 * @param <T> Type of the command output.
+	 * @return The command output.
+	 */
+	public <T> T get(String command, String key, Supplier<T> loader) {
+		return get(command, key, loader, output -> true);
+	}
+
+	/**
+	 * Get the output of given command from the cache, or execute it if it is missing or expired.
+	 *
+	 * @param command The command name, used to get the time to live of the output.
+	 * @param key The cache key, must identify the command and its arguments.
+	 * @param loader The function executing the command.
+	 * @param cacheable The predicate checking if the command output can be stored (for example, partial outputs should not be stored).
+	 * @param <T> Type of the command output.
+	 * @return The command output.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String command, String key, Supplier<T> loader, Predicate<T> cacheable) {
+		long ttlMs = properties.getTtlMs(command);
+		if (!properties.isEnabled() || ttlMs <= 0) {
+			return loader.get();
+		}
+
+		if (!MongoCacheContext.isBypassed()) {
+			Entry entry = lookup(key);
+			if (entry != null) {
+				hits.increment();
+				return (T) entry.value;
+			}
+		}
+
+		misses.increment();
+
+		T value = loader.get();
+		if (value != null && cacheable.test(value)) {
+			long expiresAt = nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(ttlMs);
+			synchronized (entries) {
+				entries.put(key, new Entry(value, expiresAt));
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Check if outputs of given command can be stored in the cache.
+	 *
+	 * @param command The command name.
+	 * @return {@code true} if the cache is enabled for this command, {@code false} otherwise.
+	 */
+	boolean isEnabled(String command) {
+		return properties.isEnabled() && properties.getTtlMs(command) > 0;
+	}
+
+	/**
+	 * Get the output of given command from the cache, without executing it if it is missing or expired.
+	 *
+	 * @param command The command name, used to get the time to live of the output.
+	 * @param key The cache key, must identify the command and its arguments.
+	 * @param <T> Type of the command output.
+	 * @return The command output, {@code null} if it is not in the cache.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getIfPresent(String command, String key) {
+		if (!isEnabled(command) || MongoCacheContext.isBypassed()) {
+			return null;
+		}
+
+		Entry entry = lookup(key);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+
+		hits.increment();
+		return (T) entry.value;
+	}
+
+	/**
+	 * Store the output of given command, computed outside of the cache.
+	 *
+	 * @param command The command name, used to get the time to live of the output.
+	 * @param key The cache key, must identify the command and its arguments.
+	 * @param value The command output.
+	 */
+	public void put(String command, String key, Object value) {
+		long ttlMs = properties.getTtlMs(command);
+		if (!properties.isEnabled() || ttlMs <= 0 || value == null) {
+			return;
+		}
+
+		long expiresAt = nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(ttlMs);
+		synchronized (entries) {
+			entries.put(key, new Entry(value, expiresAt));
+		}
+	}
+
+	/**
+	 * Remove all entries.
+	 */
+	public void invalidateAll() {
+		log.info("Invalidating command cache");
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Get the current cache counters.
+	 *
+	 * @return The cache counters.
+	 */
+	public MongoCacheStats getStats() {
+		int size;
+		synchronized (entries) {
+			size = entries.size();
+		}
+
+		return new MongoCacheStats(
+				hits.sum(),
+				misses.sum(),
+				evictions.sum(),
+				size,
+				properties.getMaxSize()
+		);
+	}
+
+	private Entry lookup(String key) {
+		long now = nanoClock.getAsLong();
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+
+			if (now - entry.expiresAt >= 0) {
+				entries.remove(key);
+				return null;
+			}
+
+			return entry;
+		}
+	}
+
+	private static final class Entry {
+		private final Object value;
+		private final long expiresAt;
+
+		private Entry(Object value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
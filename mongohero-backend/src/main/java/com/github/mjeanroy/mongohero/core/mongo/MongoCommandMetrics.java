@@ -0,0 +1,136 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Record latency, failures and reply sizes of each command sent by the driver, per host and per command name.
+ *
+ * This listener runs in driver threads: recording a command does not allocate (once the recorder of a given host and
+ * command name exists), except for reply sizes. The size of a reply is not exposed by the driver and requires the reply
+ * to be encoded again, so only one reply out of {@link #REPLY_SAMPLE_RATE} is measured.
+ */
+@Component
+public class MongoCommandMetrics implements CommandListener {
+
+	private static final int REPLY_SAMPLE_RATE = 16;
+	private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+
+	private final Map<ServerAddress, Map<String, MongoCommandRecorder>> recorders;
+	private final AtomicLong replies;
+
+	public MongoCommandMetrics() {
+		this.recorders = new ConcurrentHashMap<>();
+		this.replies = new AtomicLong(0);
+	}
+
+	@Override
+	public void commandStarted(CommandStartedEvent event) {
+	}
+
+	@Override
+	public void commandSucceeded(CommandSucceededEvent event) {
+		MongoCommandRecorder recorder = recorder(event);
+		recorder.onSuccess(event.getElapsedTime(TimeUnit.MICROSECONDS));
+
+		if (replies.getAndIncrement() % REPLY_SAMPLE_RATE == 0) {
+			recorder.onReply(sizeOf(event.getResponse()));
+		}
+	}
+
+	@Override
+	public void commandFailed(CommandFailedEvent event) {
+		recorder(event).onFailure(event.getElapsedTime(TimeUnit.MICROSECONDS));
+	}
+
+	/**
+	 * Get statistics of each command name on each host, sorted by host and command name.
+	 *
+	 * @return Command statistics.
+	 */
+	public List<MongoCommandStats> getStats() {
+		List<MongoCommandStats> stats = new ArrayList<>();
+		recorders.forEach((serverAddress, commands) -> {
+			String host = serverAddress.getHost() + ":" + serverAddress.getPort();
+			commands.forEach((command, recorder) -> stats.add(recorder.stats(host, command)));
+		});
+
+		stats.sort(Comparator.comparing(MongoCommandStats::getHost).thenComparing(MongoCommandStats::getCommand));
+		return stats;
+	}
+
+	private MongoCommandRecorder recorder(CommandEvent event) {
+		ServerAddress serverAddress = event.getConnectionDescription().getServerAddress();
+		Map<String, MongoCommandRecorder> commands = recorders.get(serverAddress);
+		if (commands == null) {
+			commands = recorders.computeIfAbsent(serverAddress, ignored -> new ConcurrentHashMap<>());
+		}
+
+		String commandName = event.getCommandName();
+		MongoCommandRecorder recorder = commands.get(commandName);
+		if (recorder == null) {
+			recorder = commands.computeIfAbsent(commandName, ignored -> new MongoCommandRecorder());
+		}
+
+		return recorder;
+	}
+
+	private static long sizeOf(BsonDocument document) {
+		if (document == null) {
+			return 0;
+		}
+
+		if (document instanceof RawBsonDocument) {
+			return ((RawBsonDocument) document).getByteBuffer().remaining();
+		}
+
+		BasicOutputBuffer buffer = new BasicOutputBuffer();
+		try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+			CODEC.encode(writer, document, EncoderContext.builder().build());
+			return buffer.getPosition();
+		}
+	}
+}
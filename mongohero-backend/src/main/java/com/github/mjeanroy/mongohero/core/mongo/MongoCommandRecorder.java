@@ -0,0 +1,102 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Record latency, failures and reply sizes of a single command name on a single host.
+ */
+final class MongoCommandRecorder {
+
+	private final MongoLatencyHistogram latency;
+	private final LongAdder failures;
+	private final LongAdder replies;
+	private final LongAdder replyBytes;
+	private final AtomicLong maxReplyBytes;
+
+	MongoCommandRecorder() {
+		this.latency = new MongoLatencyHistogram();
+		this.failures = new LongAdder();
+		this.replies = new LongAdder();
+		this.replyBytes = new LongAdder();
+		this.maxReplyBytes = new AtomicLong(0);
+	}
+
+	/**
+	 * Record a successful command.
+	 *
+	 * @param micros The command duration, in microseconds.
+	 */
+	void onSuccess(long micros) {
+		latency.record(micros);
+	}
+
+	/**
+	 * Record a failed command.
+	 *
+	 * @param micros The command duration, in microseconds.
+	 */
+	void onFailure(long micros) {
+		latency.record(micros);
+		failures.increment();
+	}
+
+	/**
+	 * Record the size of a reply.
+	 *
+	 * @param bytes The reply size, in bytes.
+	 */
+	void onReply(long bytes) {
+		replies.increment();
+		replyBytes.add(bytes);
+		maxReplyBytes.accumulateAndGet(bytes, Math::max);
+	}
+
+	/**
+	 * Get the current statistics.
+	 *
+	 * @param host The host.
+	 * @param command The command name.
+	 * @return The statistics.
+	 */
+	MongoCommandStats stats(String host, String command) {
+		long sampledReplies = replies.sum();
+		return new MongoCommandStats(
+				host,
+				command,
+				latency.getCount(),
+				failures.sum(),
+				latency.getMean(),
+				latency.getPercentile(50),
+				latency.getPercentile(90),
+				latency.getPercentile(99),
+				latency.getMax(),
+				sampledReplies == 0 ? 0 : replyBytes.sum() / sampledReplies,
+				maxReplyBytes.get()
+		);
+	}
+}
@@ -0,0 +1,220 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A snapshot of the statistics of a command name on a single host, as observed by the driver.
+ *
+ * Latencies are expressed in microseconds.
+ */
+public final class MongoCommandStats {
+
+	/**
+	 * The host, such as {@code [host]:[port]}.
+	 */
+	private final String host;
+
+	/**
+	 * The command name, such as {@code "serverStatus"}.
+	 */
+	private final String command;
+
+	/**
+	 * The number of executions.
+	 */
+	private final long count;
+
+	/**
+	 * The number of failed executions.
+	 */
+	private final long failures;
+
+	/**
+	 * The mean latency.
+	 */
+	private final double meanMicros;
+
+	/**
+	 * The median latency.
+	 */
+	private final long p50Micros;
+
+	/**
+	 * The 90th percentile latency.
+	 */
+	private final long p90Micros;
+
+	/**
+	 * The 99th percentile latency.
+	 */
+	private final long p99Micros;
+
+	/**
+	 * The maximum latency.
+	 */
+	private final long maxMicros;
+
+	/**
+	 * The mean reply size, in bytes (estimated from a sample of replies).
+	 */
+	private final long meanReplyBytes;
+
+	/**
+	 * The maximum reply size, in bytes (estimated from a sample of replies).
+	 */
+	private final long maxReplyBytes;
+
+	MongoCommandStats(String host, String command, long count, long failures, double meanMicros, long p50Micros, long p90Micros, long p99Micros, long maxMicros, long meanReplyBytes, long maxReplyBytes) {
+		this.host = host;
+		this.command = command;
+		this.count = count;
+		this.failures = failures;
+		this.meanMicros = meanMicros;
+		this.p50Micros = p50Micros;
+		this.p90Micros = p90Micros;
+		this.p99Micros = p99Micros;
+		this.maxMicros = maxMicros;
+		this.meanReplyBytes = meanReplyBytes;
+		this.maxReplyBytes = maxReplyBytes;
+	}
+
+	/**
+	 * Get {@link #host}
+	 *
+	 * @return {@link #host}
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * Get {@link #command}
+	 *
+	 * @return {@link #command}
+	 */
+	public String getCommand() {
+		return command;
+	}
+
+	/**
+	 * Get {@link #count}
+	 *
+	 * @return {@link #count}
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Get {@link #failures}
+	 *
+	 * @return {@link #failures}
+	 */
+	public long getFailures() {
+		return failures;
+	}
+
+	/**
+	 * Get {@link #meanMicros}
+	 *
+	 * @return {@link #meanMicros}
+	 */
+	public double getMeanMicros() {
+		return meanMicros;
+	}
+
+	/**
+	 * Get {@link #p50Micros}
+	 *
+	 * @return {@link #p50Micros}
+	 */
+	public long getP50Micros() {
+		return p50Micros;
+	}
+
+	/**
+	 * Get {@link #p90Micros}
+	 *
+	 * @return {@link #p90Micros}
+	 */
+	public long getP90Micros() {
+		return p90Micros;
+	}
+
+	/**
+	 * Get {@link #p99Micros}
+	 *
+	 * @return {@link #p99Micros}
+	 */
+	public long getP99Micros() {
+		return p99Micros;
+	}
+
+	/**
+	 * Get {@link #maxMicros}
+	 *
+	 * @return {@link #maxMicros}
+	 */
+	public long getMaxMicros() {
+		return maxMicros;
+	}
+
+	/**
+	 * Get {@link #meanReplyBytes}
+	 *
+	 * @return {@link #meanReplyBytes}
+	 */
+	public long getMeanReplyBytes() {
+		return meanReplyBytes;
+	}
+
+	/**
+	 * Get {@link #maxReplyBytes}
+	 *
+	 * @return {@link #maxReplyBytes}
+	 */
+	public long getMaxReplyBytes() {
+		return maxReplyBytes;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("host", host)
+				.append("command", command)
+				.append("count", count)
+				.append("failures", failures)
+				.append("meanMicros", meanMicros)
+				.append("p50Micros", p50Micros)
+				.append("p90Micros", p90Micros)
+				.append("p99Micros", p99Micros)
+				.append("maxMicros", maxMicros)
+				.append("meanReplyBytes", meanReplyBytes)
+				.append("maxReplyBytes", maxReplyBytes)
+				.build();
+	}
+}
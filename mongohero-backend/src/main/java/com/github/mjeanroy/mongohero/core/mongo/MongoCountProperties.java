@@ -0,0 +1,142 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import com.github.mjeanroy.mongohero.core.query.CountStrategy;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Objects;
+
+/**
+ * Settings of the count of paginated queries.
+ */
+@ConstructorBinding
+@ConfigurationProperties("mongohero.count")
+public final class MongoCountProperties {
+
+	/**
+	 * The strategy used when the caller does not ask for a given one.
+	 */
+	private final CountStrategy strategy;
+
+	/**
+	 * The maximum number of documents counted by the {@link CountStrategy#CAPPED} strategy.
+	 */
+	private final int cap;
+
+	/**
+	 * The number of threads counting documents in background, for the {@link CountStrategy#ASYNC} strategy.
+	 */
+	private final int threads;
+
+	/**
+	 * The maximum number of counts waiting for an available thread, additional counts are dropped (and
+	 * will be submitted again by next requests).
+	 */
+	private final int queueSize;
+
+	public MongoCountProperties(
+			@DefaultValue("EXACT") CountStrategy strategy,
+			@DefaultValue("1000") int cap,
+			@DefaultValue("1") int threads,
+			@DefaultValue("32") int queueSize) {
+
+		this.strategy = strategy;
+		this.cap = cap;
+		this.threads = threads;
+		this.queueSize = queueSize;
+	}
+
+	/**
+	 * Get {@link #strategy}
+	 *
+	 * @return {@link #strategy}
+	 */
+	CountStrategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * Get {@link #cap}
+	 *
+	 * @return {@link #cap}
+	 */
+	int getCap() {
+		return cap;
+	}
+
+	/**
+	 * Get {@link #threads}
+	 *
+	 * @return {@link #threads}
+	 */
+	int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Get {@link #queueSize}
+	 *
+	 * @return {@link #queueSize}
+	 */
+	int getQueueSize() {
+		return queueSize;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof MongoCountProperties) {
+			MongoCountProperties p = (MongoCountProperties) o;
+			return Objects.equals(strategy, p.strategy)
+					&& Objects.equals(cap, p.cap)
+					&& Objects.equals(threads, p.threads)
+					&& Objects.equals(queueSize, p.queueSize);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(strategy, cap, threads, queueSize);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("strategy", strategy)
+				.append("cap", cap)
+				.append("threads", threads)
+				.append("queueSize", queueSize)
+				.build();
+	}
+}
@@ -0,0 +1,196 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import com.github.mjeanroy.mongohero.core.query.CountStrategy;
+import com.github.mjeanroy.mongohero.core.query.TotalAccuracy;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.CountOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Count documents of paginated queries, using a given {@link CountStrategy}.
+ *
+ * Counts computed in background (see {@link CountStrategy#ASYNC}) are stored in the {@link MongoCommandCache}, with the
+ * time to live of the {@code "countDocuments"} command: until it expires, the same count is returned without running
+ * it again.
+ */
+@Component
+public class MongoCounter {
+
+	private static final Logger log = LoggerFactory.getLogger(MongoCounter.class);
+
+	private static final String COUNT_COMMAND = "countDocuments";
+
+	/**
+	 * The count settings.
+	 */
+	private final MongoCountProperties properties;
+
+	/**
+	 * The cache storing counts computed in background.
+	 */
+	private final MongoCommandCache mongoCommandCache;
+
+	/**
+	 * The executor running counts in background.
+	 */
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * The keys of counts currently running (or waiting) in background, so that the same count is not submitted twice.
+	 */
+	private final Map<String, Boolean> pending;
+
+	@Autowired
+	public MongoCounter(MongoCountProperties properties, MongoCommandCache mongoCommandCache) {
+		this.properties = properties;
+		this.mongoCommandCache = mongoCommandCache;
+		this.executor = createExecutor(properties);
+		this.pending = new ConcurrentHashMap<>();
+	}
+
+	@PreDestroy
+	void onDestroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Count documents matching given filters.
+	 *
+	 * @param key The key identifying the collection and the filters.
+	 * @param collection The collection.
+	 * @param filters The filters.
+	 * @param strategy The count strategy, the default strategy is used if {@code null}.
+	 * @return The count.
+	 */
+	MongoCount count(String key, MongoCollection<Document> collection, Bson filters, CountStrategy strategy) {
+		CountStrategy countStrategy = strategy == null ? properties.getStrategy() : strategy;
+
+		switch (countStrategy) {
+			case CAPPED:
+				return countCapped(collection, filters);
+
+			case ESTIMATED:
+				return estimate(collection);
+
+			case ASYNC:
+				return countAsync(key, collection, filters);
+
+			default:
+				return new MongoCount(collection.countDocuments(filters), TotalAccuracy.EXACT);
+		}
+	}
+
+	private MongoCount countCapped(MongoCollection<Document> collection, Bson filters) {
+		int cap = Math.max(1, properties.getCap());
+		long total = collection.countDocuments(filters, new CountOptions().limit(cap));
+		return new MongoCount(total, total < cap ? TotalAccuracy.EXACT : TotalAccuracy.AT_LEAST);
+	}
+
+	private static MongoCount estimate(MongoCollection<Document> collection) {
+		return new MongoCount(collection.estimatedDocumentCount(), TotalAccuracy.ESTIMATED);
+	}
+
+	private MongoCount countAsync(String key, MongoCollection<Document> collection, Bson filters) {
+		if (!mongoCommandCache.isEnabled(COUNT_COMMAND)) {
+			// Counts computed in background could not be stored.
+			return estimate(collection);
+		}
+
+		Long total = mongoCommandCache.getIfPresent(COUNT_COMMAND, key);
+		if (total != null) {
+			return new MongoCount(total, TotalAccuracy.ESTIMATED);
+		}
+
+		if (pending.putIfAbsent(key, Boolean.TRUE) == null) {
+			try {
+				executor.execute(() -> countInBackground(key, collection, filters));
+			}
+			catch (RejectedExecutionException ex) {
+				log.warn("Count {} rejected, too many pending counts", key);
+				pending.remove(key);
+			}
+		}
+
+		return estimate(collection);
+	}
+
+	private void countInBackground(String key, MongoCollection<Document> collection, Bson filters) {
+		try {
+			mongoCommandCache.put(COUNT_COMMAND, key, collection.countDocuments(filters));
+		}
+		catch (RuntimeException ex) {
+			log.warn("Count {} failed: {}", key, ex.getMessage());
+		}
+		finally {
+			pending.remove(key);
+		}
+	}
+
+	private static ThreadPoolExecutor createExecutor(MongoCountProperties properties) {
+		int threads = Math.max(1, properties.getThreads());
+		int queueSize = Math.max(1, properties.getQueueSize());
+
+		log.info("Configuring count executor with {} thread(s) and a queue of {} count(s)", threads, queueSize);
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				threads,
+				threads,
+				60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(queueSize),
+				new CountThreadFactory()
+		);
+
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private static class CountThreadFactory implements ThreadFactory {
+		private final AtomicInteger counter = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "mongohero-count-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,377 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import com.mongodb.client.MongoClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Execute a command on several inputs concurrently: on each member of the cluster, or on each database (or
+ * collection) of a given member.
+ *
+ * The number of concurrent commands of a call is bounded (see {@link MongoFanOutProperties#getThreads()}): the next
+ * command is submitted once a previous one completes, and outputs are consumed as they complete. Each command must
+ * complete within a timeout of its submission (see {@link MongoFanOutProperties#getTimeoutMs()}): a failure, or a
+ * timeout, on a given input does not fail other inputs.
+ *
+ * Commands are not sent to members considered unhealthy by {@link MongoHealthRegistry}: they are reported as
+ * skipped, so that a single slow member does not make every call wait for the deadline.
+ *
+ * Commands run with the cache settings of the calling thread (see {@link MongoCacheContext}).
+ */
+@Component
+public class MongoFanOutExecutor {
+
+	private static final Logger log = LoggerFactory.getLogger(MongoFanOutExecutor.class);
+
+	/**
+	 * The executor settings.
+	 */
+	private final MongoFanOutProperties properties;
+
+	/**
+	 * The executor running commands.
+	 */
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * The health of each member.
+	 */
+	private final MongoHealthRegistry healthRegistry;
+
+	@Autowired
+	public MongoFanOutExecutor(MongoFanOutProperties properties, MongoHealthRegistry healthRegistry) {
+		this.properties = properties;
+		this.healthRegistry = healthRegistry;
+		this.executor = createExecutor(properties);
+	}
+
+	@PreDestroy
+	void onDestroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Execute given command on each given client, and wait for all results (or until they time out).
+	 *
+	 * @param clients The clients, indexed by host.
+	 * @param command The command to run on each client.
+	 * @param <T> Type of the command output.
+	 * @return The result of each host, in the same order as the given clients.
+	 */
+	<T> MongoClusterResult<T> execute(Map<String, MongoClient> clients, Function<MongoClient, T> command) {
+		long start = System.nanoTime();
+
+		Map<String, MongoHostResult<T>> results = new LinkedHashMap<>();
+		List<String> hosts = new ArrayList<>(clients.size());
+		for (String host : clients.keySet()) {
+			if (healthRegistry.tryAcquire(host)) {
+				results.put(host, null);
+				hosts.add(host);
+			}
+			else {
+				results.put(host, MongoHostResult.skipped(host));
+			}
+		}
+
+		run(hosts, host -> runOnHost(host, clients.get(host), command), new Callback<String, MongoHostResult<T>>() {
+			@Override
+			public void onSuccess(String host, MongoHostResult<T> result) {
+				complete(host, result);
+			}
+
+			@Override
+			public void onFailure(String host, Throwable error) {
+				if (error instanceof RejectedExecutionException || error instanceof InterruptedException) {
+					// The command has not been sent (or the caller stopped waiting for it): this is not an outcome of the host.
+					healthRegistry.release(host);
+					results.put(host, MongoHostResult.failure(host, error, 0));
+				}
+				else {
+					complete(host, MongoHostResult.failure(host, error, System.nanoTime() - start));
+				}
+			}
+
+			@Override
+			public void onTimeout(String host) {
+				complete(host, MongoHostResult.timeout(host, System.nanoTime() - start));
+			}
+
+			private void complete(String host, MongoHostResult<T> result) {
+				healthRegistry.onResult(result);
+				results.put(host, result);
+			}
+		});
+
+		return MongoClusterResult.of(new ArrayList<>(results.values()));
+	}
+
+	/**
+	 * Execute given command on each given input, and wait for all outputs (or until they time out).
+	 *
+	 * @param inputs The inputs.
+	 * @param command The command to run on each input.
+	 * @param <K> Type of inputs.
+	 * @param <T> Type of the command output.
+	 * @return The output of each input where the command succeeded, in the same order as the given inputs.
+	 */
+	<K, T> Map<K, T> execute(Collection<K> inputs, Function<? super K, ? extends T> command) {
+		Map<K, T> completed = new HashMap<>();
+		execute(inputs, command, completed::put);
+
+		Map<K, T> outputs = new LinkedHashMap<>();
+		for (K input : inputs) {
+			T output = completed.get(input);
+			if (output != null) {
+				outputs.put(input, output);
+			}
+		}
+
+		return outputs;
+	}
+
+	/**
+	 * Execute given command on each given input, and give each output to the consumer as soon as it is available.
+	 *
+	 * The consumer is called by the calling thread, in the order commands complete: it is not called for inputs
+	 * where the command failed (or timed out), that are returned instead.
+	 *
+	 * @param inputs The inputs.
+	 * @param command The command to run on each input.
+	 * @param consumer The consumer of each output.
+	 * @param <K> Type of inputs.
+	 * @param <T> Type of the command output.
+	 * @return The inputs where the command failed or timed out, in the order they failed.
+	 */
+	<K, T> List<K> execute(Collection<K> inputs, Function<? super K, ? extends T> command, BiConsumer<? super K, ? super T> consumer) {
+		List<K> missing = new ArrayList<>();
+		run(inputs, command, new Callback<K, T>() {
+			@Override
+			public void onSuccess(K input, T output) {
+				if (output != null) {
+					consumer.accept(input, output);
+				}
+			}
+
+			@Override
+			public void onFailure(K input, Throwable error) {
+				log.warn("Command failed on {}: {}", input, error.getMessage());
+				missing.add(input);
+			}
+
+			@Override
+			public void onTimeout(K input) {
+				// Already logged.
+				missing.add(input);
+			}
+		});
+
+		return missing;
+	}
+
+	/**
+	 * Run given command on each input: at most {@link MongoFanOutProperties#getThreads()} commands are in flight, and
+	 * the callback is notified, by the calling thread, of the outcome of each input as soon as it is known.
+	 *
+	 * Each command must complete within {@link MongoFanOutProperties#getTimeoutMs()} of its submission, so that
+	 * the time of a call scales with its number of inputs.
+	 *
+	 * @param inputs The inputs.
+	 * @param command The command to run on each input.
+	 * @param callback The callback notified of the outcome of each input.
+	 * @param <K> Type of inputs.
+	 * @param <T> Type of the command output.
+	 */
+	private <K, T> void run(Collection<K> inputs, Function<? super K, ? extends T> command, Callback<K, T> callback) {
+		long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getTimeoutMs());
+		int window = Math.max(1, properties.getThreads());
+
+		CompletionService<T> completionService = new ExecutorCompletionService<>(task -> executor.execute(MongoCacheContext.propagate(task)));
+
+		// Commands in submission order, hence in deadline order.
+		Map<Future<T>, InFlight<K>> pending = new LinkedHashMap<>();
+		Iterator<K> iterator = inputs.iterator();
+
+		try {
+			while (iterator.hasNext() || !pending.isEmpty()) {
+				while (pending.size() < window && iterator.hasNext()) {
+					K input = iterator.next();
+					try {
+						pending.put(completionService.submit(() -> command.apply(input)), new InFlight<>(input, System.nanoTime() + timeoutNanos));
+					}
+					catch (RejectedExecutionException ex) {
+						log.warn("Command rejected on {}, too many pending commands", input);
+						callback.onFailure(input, ex);
+					}
+				}
+
+				if (pending.isEmpty()) {
+					continue;
+				}
+
+				long remaining = pending.values().iterator().next().deadline - System.nanoTime();
+				Future<T> future = remaining > 0 ? completionService.poll(remaining, TimeUnit.NANOSECONDS) : completionService.poll();
+				if (future == null) {
+					expire(pending, callback);
+					continue;
+				}
+
+				K input = pending.remove(future).input;
+				try {
+					callback.onSuccess(input, future.get());
+				}
+				catch (ExecutionException ex) {
+					callback.onFailure(input, ex.getCause());
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			// Calling thread interrupted: remaining inputs are not waited for.
+			Thread.currentThread().interrupt();
+
+			List<K> remainingInputs = new ArrayList<>();
+			pending.values().forEach(inFlight -> remainingInputs.add(inFlight.input));
+			pending.keySet().forEach(future -> future.cancel(true));
+			iterator.forEachRemaining(remainingInputs::add);
+
+			for (K input : remainingInputs) {
+				callback.onFailure(input, ex);
+			}
+		}
+	}
+
+	private static <K, T> void expire(Map<Future<T>, InFlight<K>> pending, Callback<K, T> callback) {
+		long now = System.nanoTime();
+		Iterator<Map.Entry<Future<T>, InFlight<K>>> iterator = pending.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Future<T>, InFlight<K>> entry = iterator.next();
+			InFlight<K> inFlight = entry.getValue();
+			if (inFlight.deadline - now > 0) {
+				break;
+			}
+
+			iterator.remove();
+			entry.getKey().cancel(true);
+			log.warn("Command timed out on {}", inFlight.input);
+			callback.onTimeout(inFlight.input);
+		}
+	}
+
+	private static <T> MongoHostResult<T> runOnHost(String host, MongoClient client, Function<MongoClient, T> command) {
+		long start = System.nanoTime();
+
+		try {
+			T output = command.apply(client);
+			return MongoHostResult.success(host, output, System.nanoTime() - start);
+		}
+		catch (RuntimeException ex) {
+			log.warn("Command failed on host {}: {}", host, ex.getMessage());
+			return MongoHostResult.failure(host, ex, System.nanoTime() - start);
+		}
+	}
+
+	private static ThreadPoolExecutor createExecutor(MongoFanOutProperties properties) {
+		// A worker may still be running a completed command when the next command of the same call is submitted: the
+		// queue must be able to hold a full window so that a single call is never rejected.
+		int threads = Math.max(1, properties.getThreads());
+		int queueSize = Math.max(threads, properties.getQueueSize());
+
+		log.info("Configuring fan-out executor with {} thread(s) and a queue of {} command(s)", threads, queueSize);
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				threads,
+				threads,
+				60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(queueSize),
+				new FanOutThreadFactory()
+		);
+
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * The outcome of each input of a call.
+	 *
+	 * @param <K> Type of inputs.
+	 * @param <T> Type of the command output.
+	 */
+	private interface Callback<K, T> {
+		void onSuccess(K input, T output);
+
+		void onFailure(K input, Throwable error);
+
+		void onTimeout(K input);
+	}
+
+	/**
+	 * A command in flight.
+	 *
+	 * @param <K> Type of inputs.
+	 */
+	private static final class InFlight<K> {
+		private final K input;
+		private final long deadline;
+
+		private InFlight(K input, long deadline) {
+			this.input = input;
+			this.deadline = deadline;
+		}
+	}
+
+	private static class FanOutThreadFactory implements ThreadFactory {
+		private final AtomicInteger counter = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "mongohero-fanout-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
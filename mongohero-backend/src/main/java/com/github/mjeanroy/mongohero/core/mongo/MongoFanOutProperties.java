@@ -0,0 +1,126 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Objects;
+
+/**
+ * Settings of the executor used to run a command on several inputs: on each member of the cluster, or on each
+ * database (or collection) of a given member.
+ */
+@ConstructorBinding
+@ConfigurationProperties("mongohero.fanout")
+public final class MongoFanOutProperties {
+
+	/**
+	 * The maximum number of commands running concurrently, which is also the maximum number of commands
+	 * of a single call submitted before the first one completes.
+	 */
+	private final int threads;
+
+	/**
+	 * The maximum number of commands waiting for an available thread, additional commands
+	 * are rejected and reported as failures.
+	 */
+	private final int queueSize;
+
+	/**
+	 * The deadline (in milliseconds) of a call, a command that does not complete before this
+	 * deadline is reported as timed out.
+	 */
+	private final int timeoutMs;
+
+	public MongoFanOutProperties(
+			@DefaultValue("8") int threads,
+			@DefaultValue("256") int queueSize,
+			@DefaultValue("10000") int timeoutMs) {
+
+		this.threads = threads;
+		this.queueSize = queueSize;
+		this.timeoutMs = timeoutMs;
+	}
+
+	/**
+	 * Get {@link #threads}
+	 *
+	 * @return {@link #threads}
+	 */
+	int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Get {@link #queueSize}
+	 *
+	 * @return {@link #queueSize}
+	 */
+	int getQueueSize() {
+		return queueSize;
+	}
+
+	/**
+	 * Get {@link #timeoutMs}
+	 *
+	 * @return {@link #timeoutMs}
+	 */
+	int getTimeoutMs() {
+		return timeoutMs;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof MongoFanOutProperties) {
+			MongoFanOutProperties p = (MongoFanOutProperties) o;
+			return Objects.equals(threads, p.threads)
+					&& Objects.equals(queueSize, p.queueSize)
+					&& Objects.equals(timeoutMs, p.timeoutMs);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(threads, queueSize, timeoutMs);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("threads", threads)
+				.append("queueSize", queueSize)
+				.append("timeoutMs", timeoutMs)
+				.build();
+	}
+}
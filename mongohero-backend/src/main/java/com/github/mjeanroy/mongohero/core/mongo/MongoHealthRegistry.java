@@ -0,0 +1,170 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.MongoServerException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Track the health of each member of the cluster, with one circuit breaker per raw {@code [host]:[port]} address.
+ */
+@Component
+public class MongoHealthRegistry {
+
+	private static final Logger log = LoggerFactory.getLogger(MongoHealthRegistry.class);
+
+	private final MongoCircuitBreakerProperties properties;
+	private final LongSupplier nanoClock;
+	private final Map<String, MongoCircuitBreaker> breakers;
+
+	@Autowired
+	public MongoHealthRegistry(MongoCircuitBreakerProperties properties) {
+		this(properties, System::nanoTime);
+	}
+
+	MongoHealthRegistry(MongoCircuitBreakerProperties properties, LongSupplier nanoClock) {
+		this.properties = properties;
+		this.nanoClock = nanoClock;
+		this.breakers = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Check if a command may be sent to given host.
+	 *
+	 * @param host The host.
+	 * @return {@code true} if the command may be sent, {@code false} if it must be skipped.
+	 */
+	boolean tryAcquire(String host) {
+		if (!properties.isEnabled()) {
+			return true;
+		}
+
+		boolean acquired = breaker(host).tryAcquire();
+		if (!acquired) {
+			log.debug("Skipping command on unhealthy host {}", host);
+		}
+
+		return acquired;
+	}
+
+	/**
+	 * Record the result of a command sent to a host: only network errors and timeouts are failures of the host, a
+	 * command error replied by the server (such as an authorization error) means that the host is reachable.
+	 *
+	 * @param result The command result.
+	 */
+	void onResult(MongoHostResult<?> result) {
+		if (!properties.isEnabled()) {
+			return;
+		}
+
+		MongoCircuitBreaker breaker = breaker(result.getHost());
+		switch (result.getStatus()) {
+			case SUCCESS:
+				breaker.onSuccess(result.getElapsedNanos());
+				break;
+
+			case FAILURE:
+				onFailure(breaker, result);
+				break;
+
+			case TIMEOUT:
+				breaker.onFailure();
+				break;
+
+			default:
+				breaker.release();
+		}
+	}
+
+	private static void onFailure(MongoCircuitBreaker breaker, MongoHostResult<?> result) {
+		Throwable error = result.getError();
+		if (isHostFailure(error)) {
+			breaker.onFailure();
+		}
+		else if (error instanceof MongoServerException) {
+			breaker.onSuccess(result.getElapsedNanos());
+		}
+		else {
+			breaker.release();
+		}
+	}
+
+	private static boolean isHostFailure(Throwable error) {
+		for (Throwable current = error; current != null; current = current.getCause()) {
+			if (current instanceof MongoSocketException
+					|| current instanceof MongoTimeoutException
+					|| current instanceof MongoExecutionTimeoutException
+					|| current instanceof IOException
+					|| current instanceof TimeoutException) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Release a command permitted by {@link #tryAcquire(String)} that has not been sent.
+	 *
+	 * @param host The host.
+	 */
+	void release(String host) {
+		if (properties.isEnabled()) {
+			breaker(host).release();
+		}
+	}
+
+	/**
+	 * Get the health of each known member, sorted by host.
+	 *
+	 * @return Health of each member.
+	 */
+	public List<MongoHostHealth> getHealth() {
+		return breakers.entrySet().stream()
+				.map(entry -> entry.getValue().health(entry.getKey()))
+				.sorted(Comparator.comparing(MongoHostHealth::getHost))
+				.collect(Collectors.toList());
+	}
+
+	private MongoCircuitBreaker breaker(String host) {
+		return breakers.computeIfAbsent(host, ignored -> new MongoCircuitBreaker(properties, nanoClock));
+	}
+}
@@ -0,0 +1,138 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A snapshot of the health of a member of the cluster.
+ */
+public final class MongoHostHealth {
+
+	/**
+	 * The host, such as {@code [host]:[port]}.
+	 */
+	private final String host;
+
+	/**
+	 * The circuit breaker state.
+	 */
+	private final MongoCircuitState state;
+
+	/**
+	 * The health score, between {@code 0} (unhealthy) and {@code 100} (healthy).
+	 */
+	private final int score;
+
+	/**
+	 * The number of calls in the sliding window.
+	 */
+	private final int calls;
+
+	/**
+	 * The ratio of failed calls in the sliding window, between {@code 0} and {@code 1}.
+	 */
+	private final double failureRate;
+
+	/**
+	 * The ratio of slow calls in the sliding window, between {@code 0} and {@code 1}.
+	 */
+	private final double slowCallRate;
+
+	MongoHostHealth(String host, MongoCircuitState state, int score, int calls, double failureRate, double slowCallRate) {
+		this.host = host;
+		this.state = state;
+		this.score = score;
+		this.calls = calls;
+		this.failureRate = failureRate;
+		this.slowCallRate = slowCallRate;
+	}
+
+	/**
+	 * Get {@link #host}
+	 *
+	 * @return {@link #host}
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * Get {@link #state}
+	 *
+	 * @return {@link #state}
+	 */
+	public MongoCircuitState getState() {
+		return state;
+	}
+
+	/**
+	 * Get {@link #score}
+	 *
+	 * @return {@link #score}
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * Get {@link #calls}
+	 *
+	 * @return {@link #calls}
+	 */
+	public int getCalls() {
+		return calls;
+	}
+
+	/**
+	 * Get {@link #failureRate}
+	 *
+	 * @return {@link #failureRate}
+	 */
+	public double getFailureRate() {
+		return failureRate;
+	}
+
+	/**
+	 * Get {@link #slowCallRate}
+	 *
+	 * @return {@link #slowCallRate}
+	 */
+	public double getSlowCallRate() {
+		return slowCallRate;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("host", host)
+				.append("state", state)
+				.append("score", score)
+				.append("calls", calls)
+				.append("failureRate", failureRate)
+				.append("slowCallRate", slowCallRate)
+				.build();
+	}
+}
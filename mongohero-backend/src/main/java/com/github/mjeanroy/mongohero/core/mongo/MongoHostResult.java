@@ -0,0 +1,233 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.github.mjeanroy.mongohero.commons.PreConditions.notNull;
+
+/**
+ * The result of a command executed on a single member of the cluster: the command output
+ * if it succeeded, the error otherwise, and the time spent to get it.
+ *
+ * @param <T> Type of the command output.
+ */
+public final class MongoHostResult<T> {
+
+	/**
+	 * Create a successful result.
+	 *
+	 * @param host The host (such as {@code [host]:[port]}).
+	 * @param value The command output.
+	 * @param elapsedNanos The time spent (in nanoseconds).
+	 * @param <T> Type of the command output.
+	 * @return The result.
+	 */
+	static <T> MongoHostResult<T> success(String host, T value, long elapsedNanos) {
+		return new MongoHostResult<>(host, MongoHostStatus.SUCCESS, value, null, elapsedNanos);
+	}
+
+	/**
+	 * Create a failed result.
+	 *
+	 * @param host The host (such as {@code [host]:[port]}).
+	 * @param error The error.
+	 * @param elapsedNanos The time spent (in nanoseconds).
+	 * @param <T> Type of the command output.
+	 * @return The result.
+	 */
+	static <T> MongoHostResult<T> failure(String host, Throwable error, long elapsedNanos) {
+		return new MongoHostResult<>(host, MongoHostStatus.FAILURE, null, notNull(error, "Error must be defined"), elapsedNanos);
+	}
+
+	/**
+	 * Create a result for a command that did not complete before the deadline.
+	 *
+	 * @param host The host (such as {@code [host]:[port]}).
+	 * @param elapsedNanos The time spent (in nanoseconds).
+	 * @param <T> Type of the command output.
+	 * @return The result.
+	 */
+	static <T> MongoHostResult<T> timeout(String host, long elapsedNanos) {
+		return new MongoHostResult<>(host, MongoHostStatus.TIMEOUT, null, null, elapsedNanos);
+	}
+
+	/**
+	 * Create a result for a command that has not been sent because the host is unhealthy.
+	 *
+	 * @param host The host (such as {@code [host]:[port]}).
+	 * @param <T> Type of the command output.
+	 * @return The result.
+	 */
+	static <T> MongoHostResult<T> skipped(String host) {
+		return new MongoHostResult<>(host, MongoHostStatus.SKIPPED, null, null, 0);
+	}
+
+	/**
+	 * The host, such as {@code [host]:[port]}.
+	 */
+	private final String host;
+
+	/**
+	 * The command status.
+	 */
+	private final MongoHostStatus status;
+
+	/**
+	 * The command output, {@code null} unless {@link #status} is {@link MongoHostStatus#SUCCESS}.
+	 */
+	private final T value;
+
+	/**
+	 * The command error, {@code null} unless {@link #status} is {@link MongoHostStatus#FAILURE}.
+	 */
+	private final Throwable error;
+
+	/**
+	 * The time spent to get the result, in nanoseconds.
+	 */
+	private final long elapsedNanos;
+
+	private MongoHostResult(String host, MongoHostStatus status, T value, Throwable error, long elapsedNanos) {
+		this.host = notNull(host, "Host must be defined");
+		this.status = status;
+		this.value = value;
+		this.error = error;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Get {@link #host}
+	 *
+	 * @return {@link #host}
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * Get {@link #status}
+	 *
+	 * @return {@link #status}
+	 */
+	public MongoHostStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Get {@link #value}
+	 *
+	 * @return {@link #value}
+	 */
+	public T getValue() {
+		return value;
+	}
+
+	/**
+	 * Get {@link #error}
+	 *
+	 * @return {@link #error}
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * Get the time spent to get the result, in milliseconds.
+	 *
+	 * @return The time spent, in milliseconds.
+	 */
+	public long getElapsedMs() {
+		return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+	}
+
+	/**
+	 * Get {@link #elapsedNanos}
+	 *
+	 * @return {@link #elapsedNanos}
+	 */
+	long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Check if the command succeeded.
+	 *
+	 * @return {@code true} if the command succeeded, {@code false} otherwise.
+	 */
+	public boolean isSuccess() {
+		return status == MongoHostStatus.SUCCESS;
+	}
+
+	/**
+	 * Transform the command output, if it succeeded.
+	 *
+	 * @param mapper The mapper function.
+	 * @param <U> Type of the new output.
+	 * @return The new result.
+	 */
+	<U> MongoHostResult<U> map(Function<? super T, ? extends U> mapper) {
+		U newValue = isSuccess() ? mapper.apply(value) : null;
+		return new MongoHostResult<>(host, status, newValue, error, elapsedNanos);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof MongoHostResult) {
+			MongoHostResult r = (MongoHostResult) o;
+			return Objects.equals(host, r.host)
+					&& Objects.equals(status, r.status)
+					&& Objects.equals(value, r.value)
+					&& Objects.equals(error, r.error)
+					&& Objects.equals(elapsedNanos, r.elapsedNanos);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(host, status, value, error, elapsedNanos);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("host", host)
+				.append("status", status)
+				.append("value", value)
+				.append("error", error)
+				.append("elapsedNanos", elapsedNanos)
+				.build();
+	}
+}
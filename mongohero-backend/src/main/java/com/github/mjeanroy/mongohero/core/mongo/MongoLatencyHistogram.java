@@ -0,0 +1,115 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import com.github.mjeanroy.mongohero.commons.Histograms;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram with log-linear buckets (see {@link Histograms}): values are recorded in microseconds,
+ * each power of two is split in 16 buckets, so that the relative error of a percentile is bounded (about 6%)
+ * whatever the magnitude of the value.
+ *
+ * Recording a value does not allocate and does not lock: this class is safe to use from driver threads.
+ */
+final class MongoLatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int BUCKETS = Histograms.bucketCount(SUB_BUCKET_BITS);
+
+	private final AtomicLongArray counts;
+	private final LongAdder total;
+	private final LongAdder sum;
+	private final AtomicLong max;
+
+	MongoLatencyHistogram() {
+		this.counts = new AtomicLongArray(BUCKETS);
+		this.total = new LongAdder();
+		this.sum = new LongAdder();
+		this.max = new AtomicLong(0);
+	}
+
+	/**
+	 * Record a value.
+	 *
+	 * @param micros The value, in microseconds.
+	 */
+	void record(long micros) {
+		long value = Math.max(0, micros);
+		counts.incrementAndGet(Histograms.bucketOf(value, SUB_BUCKET_BITS));
+		total.increment();
+		sum.add(value);
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * Get the number of recorded values.
+	 *
+	 * @return The number of values.
+	 */
+	long getCount() {
+		return total.sum();
+	}
+
+	/**
+	 * Get the mean of recorded values, in microseconds.
+	 *
+	 * @return The mean.
+	 */
+	double getMean() {
+		long count = total.sum();
+		return count == 0 ? 0 : (double) sum.sum() / count;
+	}
+
+	/**
+	 * Get the maximum recorded value, in microseconds.
+	 *
+	 * @return The maximum.
+	 */
+	long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Get the value below which given percentage of recorded values fall, in microseconds.
+	 *
+	 * @param percentile The percentile, between {@code 0} and {@code 100}.
+	 * @return The value.
+	 */
+	long getPercentile(double percentile) {
+		long[] snapshot = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; ++i) {
+			snapshot[i] = counts.get(i);
+			count += snapshot[i];
+		}
+
+		return Histograms.percentileOf(snapshot, count, max.get(), percentile, SUB_BUCKET_BITS);
+	}
+
+}
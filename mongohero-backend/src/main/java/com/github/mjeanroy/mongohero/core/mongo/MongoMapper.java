@@ -31,12 +31,15 @@ import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -45,6 +48,15 @@ import static com.github.mjeanroy.mongohero.commons.Streams.toStream;
 @Component
 public class MongoMapper {
 
+	/**
+	 * The fields read by {@link #map(Document, Class)}, for each target class.
+	 */
+	private final Map<Class<?>, List<String>> fieldNames;
+
+	public MongoMapper() {
+		this.fieldNames = new ConcurrentHashMap<>();
+	}
+
 	/**
 	 * Map mongo document to given target class.
 	 *
@@ -110,6 +122,38 @@ public class MongoMapper {
 		return toStream(documents).map(document -> map(document, klass));
 	}
 
+	/**
+	 * Build the projection returning only the fields read when a document is mapped to given target
+	 * class, so that other fields are neither sent by the server nor decoded.
+	 *
+	 * If {@code fields} is not empty, the projection is restricted to these fields: fields that do not
+	 * exist in the target class are ignored (and if none of them exist, the projection returns all fields
+	 * of the target class).
+	 *
+	 * @param klass The target class.
+	 * @param fields The fields requested by the caller, may be empty.
+	 * @return The projection.
+	 */
+	public Document projection(Class<?> klass, Collection<String> fields) {
+		List<String> names = fieldNames.computeIfAbsent(klass, MongoMapper::readFieldNames);
+		List<String> projected = names.stream().filter(fields::contains).collect(Collectors.toList());
+
+		Document projection = new Document();
+		for (String name : projected.isEmpty() ? names : projected) {
+			projection.append(name, 1);
+		}
+
+		return projection;
+	}
+
+	private static List<String> readFieldNames(Class<?> klass) {
+		return getAllFields(klass)
+				.filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+				.map(Field::getName)
+				.distinct()
+				.collect(Collectors.toList());
+	}
+
 	@SuppressWarnings("unchecked")
 	private static <T> T asMap(Document document) {
 		return (T) new LinkedHashMap<>(document);
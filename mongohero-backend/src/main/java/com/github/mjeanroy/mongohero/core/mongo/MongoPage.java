@@ -24,6 +24,7 @@
 
 package com.github.mjeanroy.mongohero.core.mongo;
 
+import com.github.mjeanroy.mongohero.core.query.TotalAccuracy;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.bson.Document;
 
@@ -51,7 +52,19 @@ public final class MongoPage implements Iterable<Document> {
 	 * @return The mongo page.
 	 */
 	public static MongoPage of(Stream<Document> results, long total) {
-		return new MongoPage(results, total);
+		return of(results, total, TotalAccuracy.EXACT);
+	}
+
+	/**
+	 * Create mongo page.
+	 *
+	 * @param results  Result page.
+	 * @param total    Total number of results across all pages.
+	 * @param accuracy The accuracy of the total.
+	 * @return The mongo page.
+	 */
+	public static MongoPage of(Stream<Document> results, long total, TotalAccuracy accuracy) {
+		return new MongoPage(results, total, accuracy);
 	}
 
 	/**
@@ -64,15 +77,22 @@ public final class MongoPage implements Iterable<Document> {
 	 */
 	private final long total;
 
+	/**
+	 * The accuracy of {@link #total}.
+	 */
+	private final TotalAccuracy accuracy;
+
 	/**
 	 * Create mongo page.
 	 *
-	 * @param results Result page.
-	 * @param total   Total number of results across all pages.
+	 * @param results  Result page.
+	 * @param total    Total number of results across all pages.
+	 * @param accuracy The accuracy of the total.
 	 */
-	private MongoPage(Stream<Document> results, long total) {
+	private MongoPage(Stream<Document> results, long total, TotalAccuracy accuracy) {
 		this.results = notNull(results, "Results must be defined");
 		this.total = gte(0, total, "Total must be positive");
+		this.accuracy = notNull(accuracy, "Total accuracy must be defined");
 	}
 
 	/**
@@ -93,6 +113,15 @@ public final class MongoPage implements Iterable<Document> {
 		return total;
 	}
 
+	/**
+	 * Get {@link #accuracy}
+	 *
+	 * @return {@link #accuracy}
+	 */
+	public TotalAccuracy getAccuracy() {
+		return accuracy;
+	}
+
 	@Override
 	public Iterator<Document> iterator() {
 		return results.iterator();
@@ -106,7 +135,7 @@ public final class MongoPage implements Iterable<Document> {
 
 		if (o instanceof MongoPage) {
 			MongoPage p = (MongoPage) o;
-			return Objects.equals(results, p.results) && Objects.equals(total, p.total);
+			return Objects.equals(results, p.results) && Objects.equals(total, p.total) && Objects.equals(accuracy, p.accuracy);
 		}
 
 		return false;
@@ -114,7 +143,7 @@ public final class MongoPage implements Iterable<Document> {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(results, total);
+		return Objects.hash(results, total, accuracy);
 	}
 
 	@Override
@@ -122,6 +151,7 @@ public final class MongoPage implements Iterable<Document> {
 		return new ToStringBuilder(this)
 				.append("results", results)
 				.append("total", total)
+				.append("accuracy", accuracy)
 				.build();
 	}
 
@@ -0,0 +1,141 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import com.mongodb.event.ConnectionPoolOpenedEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+import com.mongodb.event.ConnectionRemovedEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Observe the usage of the connection pool of a single client.
+ *
+ * Counters are accumulated until {@link #usage(String, boolean)} is called with the reset flag, so that each
+ * evaluation of pool sizes only considers the most recent demand.
+ */
+final class MongoPoolMonitor implements ConnectionPoolListener {
+
+	private final ThreadLocal<Long> waitStart;
+	private final Map<ConnectionId, Long> checkOutStart;
+
+	private final AtomicInteger checkedOut;
+	private final AtomicInteger peakCheckedOut;
+	private final LongAdder checkouts;
+	private final LongAdder waitNanos;
+	private final LongAdder holdNanos;
+
+	private volatile int maxSize;
+
+	MongoPoolMonitor(int maxSize) {
+		this.maxSize = maxSize;
+		this.waitStart = new ThreadLocal<>();
+		this.checkOutStart = new ConcurrentHashMap<>();
+		this.checkedOut = new AtomicInteger(0);
+		this.peakCheckedOut = new AtomicInteger(0);
+		this.checkouts = new LongAdder();
+		this.waitNanos = new LongAdder();
+		this.holdNanos = new LongAdder();
+	}
+
+	@Override
+	public void connectionPoolOpened(ConnectionPoolOpenedEvent event) {
+		maxSize = event.getSettings().getMaxSize();
+	}
+
+	@Override
+	public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+		checkOutStart.clear();
+	}
+
+	@Override
+	public void waitQueueEntered(ConnectionPoolWaitQueueEnteredEvent event) {
+		waitStart.set(System.nanoTime());
+	}
+
+	@Override
+	public void waitQueueExited(ConnectionPoolWaitQueueExitedEvent event) {
+		Long start = waitStart.get();
+		if (start != null) {
+			waitStart.remove();
+			waitNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+		int current = checkedOut.incrementAndGet();
+		peakCheckedOut.accumulateAndGet(current, Math::max);
+		checkouts.increment();
+		checkOutStart.put(event.getConnectionId(), System.nanoTime());
+	}
+
+	@Override
+	public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+		checkedOut.decrementAndGet();
+		Long start = checkOutStart.remove(event.getConnectionId());
+		if (start != null) {
+			holdNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void connectionAdded(ConnectionAddedEvent event) {
+	}
+
+	@Override
+	public void connectionRemoved(ConnectionRemovedEvent event) {
+	}
+
+	/**
+	 * Get pool usage since the last reset.
+	 *
+	 * @param host The pool owner.
+	 * @param reset Set to {@code true} to reset counters.
+	 * @return The pool usage.
+	 */
+	MongoPoolUsage usage(String host, boolean reset) {
+		int current = checkedOut.get();
+		return new MongoPoolUsage(
+				host,
+				maxSize,
+				current,
+				reset ? peakCheckedOut.getAndSet(current) : peakCheckedOut.get(),
+				reset ? checkouts.sumThenReset() : checkouts.sum(),
+				reset ? waitNanos.sumThenReset() : waitNanos.sum(),
+				reset ? holdNanos.sumThenReset() : holdNanos.sum()
+		);
+	}
+}
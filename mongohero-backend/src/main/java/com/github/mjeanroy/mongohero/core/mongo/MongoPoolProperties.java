@@ -0,0 +1,250 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Objects;
+
+/**
+ * Settings of adaptive connection pool sizing: pools of member clients are periodically resized according to
+ * observed demand, within a global limit (the pool of the default client keeps its configured size).
+ */
+@ConstructorBinding
+@ConfigurationProperties("mongohero.pool")
+public final class MongoPoolProperties {
+
+	/**
+	 * Flag to enable/disable adaptive pool sizing.
+	 */
+	private final boolean adaptive;
+
+	/**
+	 * The maximum number of connections across all pools (default client and member clients): member pools share
+	 * what remains once the pool of the default client, that keeps its configured size, is taken into account.
+	 */
+	private final int globalMaxSize;
+
+	/**
+	 * The minimum size of a single pool.
+	 */
+	private final int minSize;
+
+	/**
+	 * The maximum size of a single pool, the configured {@code maxPoolSize} is used if zero (or negative).
+	 */
+	private final int maxSize;
+
+	/**
+	 * The interval (in milliseconds) between two evaluations of pool usage.
+	 */
+	private final long evaluationMs;
+
+	/**
+	 * The minimum interval (in milliseconds) between two resizes of the same pool: each resize builds a new client.
+	 */
+	private final long cooldownMs;
+
+	/**
+	 * The minimum change (percentage of the pool size) of a resize: smaller changes are ignored.
+	 */
+	private final int deadBandPct;
+
+	/**
+	 * The average time (in milliseconds) to check out a connection above which a pool is grown.
+	 */
+	private final long waitThresholdMs;
+
+	/**
+	 * The peak usage (percentage of the pool size) above which a pool is grown.
+	 */
+	private final int highUsagePct;
+
+	/**
+	 * The peak usage (percentage of the pool size) below which a pool is shrunk.
+	 */
+	private final int lowUsagePct;
+
+	public MongoPoolProperties(
+			@DefaultValue("false") boolean adaptive,
+			@DefaultValue("400") int globalMaxSize,
+			@DefaultValue("2") int minSize,
+			@DefaultValue("0") int maxSize,
+			@DefaultValue("60000") long evaluationMs,
+			@DefaultValue("600000") long cooldownMs,
+			@DefaultValue("25") int deadBandPct,
+			@DefaultValue("10") long waitThresholdMs,
+			@DefaultValue("80") int highUsagePct,
+			@DefaultValue("25") int lowUsagePct) {
+
+		this.adaptive = adaptive;
+		this.globalMaxSize = globalMaxSize;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.evaluationMs = evaluationMs;
+		this.cooldownMs = cooldownMs;
+		this.deadBandPct = deadBandPct;
+		this.waitThresholdMs = waitThresholdMs;
+		this.highUsagePct = highUsagePct;
+		this.lowUsagePct = lowUsagePct;
+	}
+
+	/**
+	 * Get {@link #adaptive}
+	 *
+	 * @return {@link #adaptive}
+	 */
+	boolean isAdaptive() {
+		return adaptive;
+	}
+
+	/**
+	 * Get {@link #globalMaxSize}
+	 *
+	 * @return {@link #globalMaxSize}
+	 */
+	int getGlobalMaxSize() {
+		return globalMaxSize;
+	}
+
+	/**
+	 * Get {@link #minSize}
+	 *
+	 * @return {@link #minSize}
+	 */
+	int getMinSize() {
+		return minSize;
+	}
+
+	/**
+	 * Get {@link #maxSize}
+	 *
+	 * @return {@link #maxSize}
+	 */
+	int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Get {@link #evaluationMs}
+	 *
+	 * @return {@link #evaluationMs}
+	 */
+	long getEvaluationMs() {
+		return evaluationMs;
+	}
+
+	/**
+	 * Get {@link #cooldownMs}
+	 *
+	 * @return {@link #cooldownMs}
+	 */
+	long getCooldownMs() {
+		return cooldownMs;
+	}
+
+	/**
+	 * Get {@link #deadBandPct}
+	 *
+	 * @return {@link #deadBandPct}
+	 */
+	int getDeadBandPct() {
+		return deadBandPct;
+	}
+
+	/**
+	 * Get {@link #waitThresholdMs}
+	 *
+	 * @return {@link #waitThresholdMs}
+	 */
+	long getWaitThresholdMs() {
+		return waitThresholdMs;
+	}
+
+	/**
+	 * Get {@link #highUsagePct}
+	 *
+	 * @return {@link #highUsagePct}
+	 */
+	int getHighUsagePct() {
+		return highUsagePct;
+	}
+
+	/**
+	 * Get {@link #lowUsagePct}
+	 *
+	 * @return {@link #lowUsagePct}
+	 */
+	int getLowUsagePct() {
+		return lowUsagePct;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof MongoPoolProperties) {
+			MongoPoolProperties p = (MongoPoolProperties) o;
+			return Objects.equals(adaptive, p.adaptive)
+					&& Objects.equals(globalMaxSize, p.globalMaxSize)
+					&& Objects.equals(minSize, p.minSize)
+					&& Objects.equals(maxSize, p.maxSize)
+					&& Objects.equals(evaluationMs, p.evaluationMs)
+					&& Objects.equals(cooldownMs, p.cooldownMs)
+					&& Objects.equals(deadBandPct, p.deadBandPct)
+					&& Objects.equals(waitThresholdMs, p.waitThresholdMs)
+					&& Objects.equals(highUsagePct, p.highUsagePct)
+					&& Objects.equals(lowUsagePct, p.lowUsagePct);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(adaptive, globalMaxSize, minSize, maxSize, evaluationMs, cooldownMs, deadBandPct, waitThresholdMs, highUsagePct, lowUsagePct);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("adaptive", adaptive)
+				.append("globalMaxSize", globalMaxSize)
+				.append("minSize", minSize)
+				.append("maxSize", maxSize)
+				.append("evaluationMs", evaluationMs)
+				.append("cooldownMs", cooldownMs)
+				.append("deadBandPct", deadBandPct)
+				.append("waitThresholdMs", waitThresholdMs)
+				.append("highUsagePct", highUsagePct)
+				.append("lowUsagePct", lowUsagePct)
+				.build();
+	}
+}
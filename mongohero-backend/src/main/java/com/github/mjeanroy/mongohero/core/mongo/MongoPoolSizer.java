@@ -0,0 +1,126 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptySet;
+
+/**
+ * Compute the size of each connection pool from its observed usage.
+ *
+ * A pool is grown when connections are checked out for long (or when most connections are in use), and
+ * shrunk when most connections stay idle: changes smaller than the dead band are ignored, so that a pool is
+ * not rebuilt for a marginal gain. Sizes are then scaled down if their sum exceeds the global limit: pools that
+ * cannot be resized (such as the pool of the default client) keep their size, and take their share of the limit first.
+ */
+final class MongoPoolSizer {
+
+	// Ensure non instantiation.
+	private MongoPoolSizer() {
+	}
+
+	/**
+	 * Compute the target size of each pool.
+	 *
+	 * @param usages The usage of each pool.
+	 * @param properties The sizing settings.
+	 * @param configuredMaxSize The configured size of the pools, used if {@link MongoPoolProperties#getMaxSize()} is not set.
+	 * @return The target size of each pool, indexed by pool owner.
+	 */
+	static Map<String, Integer> computeTargets(List<MongoPoolUsage> usages, MongoPoolProperties properties, int configuredMaxSize) {
+		return computeTargets(usages, properties, configuredMaxSize, emptySet());
+	}
+
+	/**
+	 * Compute the target size of each pool, given pools that cannot be resized.
+	 *
+	 * @param usages The usage of each pool.
+	 * @param properties The sizing settings.
+	 * @param configuredMaxSize The configured size of the pools, used if {@link MongoPoolProperties#getMaxSize()} is not set.
+	 * @param fixedPools The pools that keep their current size.
+	 * @return The target size of each pool, indexed by pool owner.
+	 */
+	static Map<String, Integer> computeTargets(List<MongoPoolUsage> usages, MongoPoolProperties properties, int configuredMaxSize, Collection<String> fixedPools) {
+		int minSize = Math.max(1, properties.getMinSize());
+		int maxSize = Math.max(minSize, properties.getMaxSize() > 0 ? properties.getMaxSize() : configuredMaxSize);
+
+		Map<String, Integer> targets = new LinkedHashMap<>();
+		long reserved = 0;
+		long total = 0;
+
+		for (MongoPoolUsage usage : usages) {
+			if (fixedPools.contains(usage.getHost())) {
+				targets.put(usage.getHost(), usage.getMaxSize());
+				reserved += usage.getMaxSize();
+				continue;
+			}
+
+			int target = applyDeadBand(usage, clamp(computeTarget(usage, properties), minSize, maxSize), properties);
+			targets.put(usage.getHost(), target);
+			total += target;
+		}
+
+		int globalMaxSize = properties.getGlobalMaxSize();
+		long budget = Math.max(0, globalMaxSize - reserved);
+		if (globalMaxSize > 0 && total > budget) {
+			double ratio = (double) budget / total;
+			targets.replaceAll((host, target) -> fixedPools.contains(host) ? target : Math.max(1, (int) Math.floor(target * ratio)));
+		}
+
+		return targets;
+	}
+
+	private static int computeTarget(MongoPoolUsage usage, MongoPoolProperties properties) {
+		int current = Math.max(1, usage.getMaxSize());
+		int peak = usage.getPeakCheckedOut();
+
+		boolean slowCheckOut = usage.getAvgWaitMs() > properties.getWaitThresholdMs();
+		boolean highUsage = peak * 100 >= current * properties.getHighUsagePct();
+		if (slowCheckOut || highUsage) {
+			return Math.max(current + 1, current * 2);
+		}
+
+		boolean lowUsage = peak * 100 <= current * properties.getLowUsagePct();
+		if (lowUsage) {
+			return Math.max(peak * 2, current / 2);
+		}
+
+		return current;
+	}
+
+	private static int applyDeadBand(MongoPoolUsage usage, int target, MongoPoolProperties properties) {
+		int current = usage.getMaxSize();
+		boolean marginal = Math.abs(target - current) * 100L < (long) current * properties.getDeadBandPct();
+		return marginal ? current : target;
+	}
+
+	private static int clamp(int value, int min, int max) {
+		return Math.max(min, Math.min(max, value));
+	}
+}
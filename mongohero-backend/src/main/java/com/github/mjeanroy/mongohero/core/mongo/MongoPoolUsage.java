@@ -0,0 +1,160 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of the usage of a connection pool since the last evaluation.
+ */
+public final class MongoPoolUsage {
+
+	/**
+	 * The pool owner: a member address (such as {@code [host]:[port]}), or {@code "default"} for the default client.
+	 */
+	private final String host;
+
+	/**
+	 * The pool size.
+	 */
+	private final int maxSize;
+
+	/**
+	 * The number of connections currently checked out.
+	 */
+	private final int checkedOut;
+
+	/**
+	 * The maximum number of connections checked out at the same time.
+	 */
+	private final int peakCheckedOut;
+
+	/**
+	 * The number of check outs.
+	 */
+	private final long checkouts;
+
+	/**
+	 * The total time spent waiting for a connection, in nanoseconds.
+	 */
+	private final long waitNanos;
+
+	/**
+	 * The total time connections have been checked out (i.e the time spent running commands), in nanoseconds.
+	 */
+	private final long holdNanos;
+
+	MongoPoolUsage(String host, int maxSize, int checkedOut, int peakCheckedOut, long checkouts, long waitNanos, long holdNanos) {
+		this.host = host;
+		this.maxSize = maxSize;
+		this.checkedOut = checkedOut;
+		this.peakCheckedOut = peakCheckedOut;
+		this.checkouts = checkouts;
+		this.waitNanos = waitNanos;
+		this.holdNanos = holdNanos;
+	}
+
+	/**
+	 * Get {@link #host}
+	 *
+	 * @return {@link #host}
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * Get {@link #maxSize}
+	 *
+	 * @return {@link #maxSize}
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Get {@link #checkedOut}
+	 *
+	 * @return {@link #checkedOut}
+	 */
+	public int getCheckedOut() {
+		return checkedOut;
+	}
+
+	/**
+	 * Get {@link #peakCheckedOut}
+	 *
+	 * @return {@link #peakCheckedOut}
+	 */
+	public int getPeakCheckedOut() {
+		return peakCheckedOut;
+	}
+
+	/**
+	 * Get {@link #checkouts}
+	 *
+	 * @return {@link #checkouts}
+	 */
+	public long getCheckouts() {
+		return checkouts;
+	}
+
+	/**
+	 * Get the average time spent waiting for a connection, in milliseconds.
+	 *
+	 * @return The average wait time.
+	 */
+	public double getAvgWaitMs() {
+		return average(waitNanos);
+	}
+
+	/**
+	 * Get the average time a connection is checked out, in milliseconds.
+	 *
+	 * @return The average hold time.
+	 */
+	public double getAvgHoldMs() {
+		return average(holdNanos);
+	}
+
+	private double average(long totalNanos) {
+		return checkouts == 0 ? 0 : (double) totalNanos / checkouts / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("host", host)
+				.append("maxSize", maxSize)
+				.append("checkedOut", checkedOut)
+				.append("peakCheckedOut", peakCheckedOut)
+				.append("checkouts", checkouts)
+				.append("waitNanos", waitNanos)
+				.append("holdNanos", holdNanos)
+				.build();
+	}
+}
@@ -0,0 +1,128 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesce identical commands running concurrently: the first caller executes the command, and callers
+ * arriving while it is still in flight wait for, and share, its output (or its failure).
+ *
+ * Nothing is kept once the command completes: this is not a cache, see {@link MongoCommandCache}.
+ */
+@Component
+public class MongoSingleFlight {
+
+	private static final Logger log = LoggerFactory.getLogger(MongoSingleFlight.class);
+
+	/**
+	 * The commands currently in flight, indexed by key.
+	 */
+	private final ConcurrentMap<String, CompletableFuture<Object>> inFlight;
+
+	private final LongAdder executions;
+	private final LongAdder deduplicated;
+
+	public MongoSingleFlight() {
+		this.inFlight = new ConcurrentHashMap<>();
+		this.executions = new LongAdder();
+		this.deduplicated = new LongAdder();
+	}
+
+	/**
+	 * Execute given command, or wait for the identical command currently in flight.
+	 *
+	 * @param key The command key, must identify the target (host and database) and the command document.
+	 * @param command The function executing the command.
+	 * @param <T> Type of the command output.
+	 * @return The command output.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T execute(String key, Supplier<T> command) {
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> current = inFlight.putIfAbsent(key, future);
+
+		if (current != null) {
+			log.debug("Waiting for in flight command: {}", key);
+			deduplicated.increment();
+			return (T) await(current);
+		}
+
+		executions.increment();
+
+		try {
+			T output = command.get();
+			future.complete(output);
+			return output;
+		}
+		catch (RuntimeException | Error ex) {
+			future.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			inFlight.remove(key, future);
+		}
+	}
+
+	/**
+	 * Get the current counters.
+	 *
+	 * @return The counters.
+	 */
+	public MongoSingleFlightStats getStats() {
+		return new MongoSingleFlightStats(
+				executions.sum(),
+				deduplicated.sum(),
+				inFlight.size()
+		);
+	}
+
+	private static Object await(CompletableFuture<Object> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+
+			throw ex;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A snapshot of the single-flight counters.
+ */
+public final class MongoSingleFlightStats {
+
+	/**
+	 * The number of commands sent to MongoDB.
+	 */
+	private final long executions;
+
+	/**
+	 * The number of calls that shared the output of an identical command in flight.
+	 */
+	private final long deduplicated;
+
+	/**
+	 * The number of commands currently in flight.
+	 */
+	private final int inFlight;
+
+	MongoSingleFlightStats(long executions, long deduplicated, int inFlight) {
+		this.executions = executions;
+		this.deduplicated = deduplicated;
+		this.inFlight = inFlight;
+	}
+
+	/**
+	 * Get {@link #executions}
+	 *
+	 * @return {@link #executions}
+	 */
+	public long getExecutions() {
+		return executions;
+	}
+
+	/**
+	 * Get {@link #deduplicated}
+	 *
+	 * @return {@link #deduplicated}
+	 */
+	public long getDeduplicated() {
+		return deduplicated;
+	}
+
+	/**
+	 * Get {@link #inFlight}
+	 *
+	 * @return {@link #inFlight}
+	 */
+	public int getInFlight() {
+		return inFlight;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("executions", executions)
+				.append("deduplicated", deduplicated)
+				.append("inFlight", inFlight)
+				.build();
+	}
+}
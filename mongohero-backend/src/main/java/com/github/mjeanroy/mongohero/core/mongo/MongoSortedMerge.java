@@ -0,0 +1,195 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Merge documents read from several sources, each source being already sorted: documents are
+ * returned in the same order as if they were read, and sorted, from a single collection.
+ */
+final class MongoSortedMerge {
+
+	// Static utility class.
+	private MongoSortedMerge() {
+	}
+
+	/**
+	 * Merge given sorted sources, skipping the first {@code offset} documents, and returning at most {@code limit}
+	 * documents: only the head of each source is compared, so each source is read at most once.
+	 *
+	 * Documents that are equal according to {@code sort} are returned in the order of the sources.
+	 *
+	 * @param sources The sorted sources.
+	 * @param sort The sort used to read each source, such as {@code { "millis": -1, "ts": -1 }}.
+	 * @param offset The number of documents to skip.
+	 * @param limit The maximum number of documents.
+	 * @return The merged documents.
+	 */
+	static List<Document> merge(List<? extends Iterable<Document>> sources, Document sort, int offset, int limit) {
+		Comparator<Document> comparator = comparator(sort);
+		PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, sources.size()), (h1, h2) -> {
+			int result = comparator.compare(h1.document, h2.document);
+			return result != 0 ? result : Integer.compare(h1.source, h2.source);
+		});
+
+		for (int i = 0; i < sources.size(); ++i) {
+			Iterator<Document> iterator = sources.get(i).iterator();
+			if (iterator.hasNext()) {
+				heads.add(new Head(i, iterator.next(), iterator));
+			}
+		}
+
+		List<Document> results = new ArrayList<>(Math.max(0, limit));
+		int skipped = 0;
+		while (results.size() < limit && !heads.isEmpty()) {
+			Head head = heads.poll();
+			if (skipped < offset) {
+				++skipped;
+			}
+			else {
+				results.add(head.document);
+			}
+
+			if (head.iterator.hasNext()) {
+				heads.add(new Head(head.source, head.iterator.next(), head.iterator));
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * Create the comparator of documents following given sort specification: each field is compared using
+	 * (a subset of) the BSON comparison order, and missing values are considered as {@code null}.
+	 *
+	 * @param sort The sort specification.
+	 * @return The comparator.
+	 * @see <a href="https://docs.mongodb.com/manual/reference/bson-type-comparison-order/">https://docs.mongodb.com/manual/reference/bson-type-comparison-order/</a>
+	 */
+	static Comparator<Document> comparator(Document sort) {
+		Comparator<Document> comparator = (d1, d2) -> 0;
+		for (Map.Entry<String, Object> entry : sort.entrySet()) {
+			List<String> path = asList(entry.getKey().split("\\."));
+			int order = ((Number) entry.getValue()).intValue() < 0 ? -1 : 1;
+			comparator = comparator.thenComparing((d1, d2) ->
+					order * compareValues(d1.getEmbedded(path, Object.class), d2.getEmbedded(path, Object.class))
+			);
+		}
+
+		return comparator;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static int compareValues(Object v1, Object v2) {
+		int r1 = rank(v1);
+		int r2 = rank(v2);
+		if (r1 != r2) {
+			return Integer.compare(r1, r2);
+		}
+
+		if (v1 instanceof Number) {
+			Number n1 = (Number) v1;
+			Number n2 = (Number) v2;
+			if (isIntegral(n1) && isIntegral(n2)) {
+				return Long.compare(n1.longValue(), n2.longValue());
+			}
+
+			return Double.compare(n1.doubleValue(), n2.doubleValue());
+		}
+
+		if (v1 instanceof Comparable && v1.getClass() == v2.getClass()) {
+			return ((Comparable<Object>) v1).compareTo(v2);
+		}
+
+		return 0;
+	}
+
+	private static boolean isIntegral(Number number) {
+		return number instanceof Integer || number instanceof Long;
+	}
+
+	private static int rank(Object value) {
+		if (value == null) {
+			return 0;
+		}
+
+		if (value instanceof Number) {
+			return 1;
+		}
+
+		if (value instanceof String) {
+			return 2;
+		}
+
+		if (value instanceof Map) {
+			return 3;
+		}
+
+		if (value instanceof List) {
+			return 4;
+		}
+
+		if (value instanceof ObjectId) {
+			return 5;
+		}
+
+		if (value instanceof Boolean) {
+			return 6;
+		}
+
+		if (value instanceof Date) {
+			return 7;
+		}
+
+		return 8;
+	}
+
+	/**
+	 * The next document of a source.
+	 */
+	private static final class Head {
+		private final int source;
+		private final Document document;
+		private final Iterator<Document> iterator;
+
+		private Head(int source, Document document, Iterator<Document> iterator) {
+			this.source = source;
+			this.document = document;
+			this.iterator = iterator;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Objects;
+
+/**
+ * Settings of the synchronization of cluster member clients with the cluster topology.
+ */
+@ConstructorBinding
+@ConfigurationProperties("mongohero.topology")
+public final class MongoTopologyProperties {
+
+	/**
+	 * The delay (in milliseconds) between a topology change and the synchronization of member clients: changes
+	 * received during this delay are applied at once.
+	 */
+	private final long debounceMs;
+
+	/**
+	 * The time (in milliseconds) the client of a disconnected member is kept open, so that it can be re-used
+	 * if the member comes back quickly (during an election, for example).
+	 */
+	private final long graceMs;
+
+	public MongoTopologyProperties(
+			@DefaultValue("500") long debounceMs,
+			@DefaultValue("30000") long graceMs) {
+
+		this.debounceMs = debounceMs;
+		this.graceMs = graceMs;
+	}
+
+	/**
+	 * Get {@link #debounceMs}
+	 *
+	 * @return {@link #debounceMs}
+	 */
+	long getDebounceMs() {
+		return debounceMs;
+	}
+
+	/**
+	 * Get {@link #graceMs}
+	 *
+	 * @return {@link #graceMs}
+	 */
+	long getGraceMs() {
+		return graceMs;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof MongoTopologyProperties) {
+			MongoTopologyProperties p = (MongoTopologyProperties) o;
+			return Objects.equals(debounceMs, p.debounceMs)
+					&& Objects.equals(graceMs, p.graceMs);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(debounceMs, graceMs);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("debounceMs", debounceMs)
+				.append("graceMs", graceMs)
+				.build();
+	}
+}
@@ -0,0 +1,429 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import com.github.mjeanroy.mongohero.core.model.IndexStat;
+import com.github.mjeanroy.mongohero.core.model.ProfileQuery;
+import org.bson.BsonRegularExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+
+/**
+ * Suggest indexes from profiled queries: each inefficient query (i.e a query that scanned the whole collection,
+ * sorted documents in memory, or examined much more documents than it returned) gives a candidate index following
+ * the equality, sort, range ordering, and candidates are weighted by the workload of their queries.
+ *
+ * @see <a href="https://www.mongodb.com/docs/manual/tutorial/equality-sort-range-rule/">https://www.mongodb.com/docs/manual/tutorial/equality-sort-range-rule/</a>
+ */
+@Component
+public class IndexAdvisor {
+
+	/**
+	 * A query examining at least this number of documents (or index keys) for each returned document is inefficient.
+	 */
+	private static final int MIN_EXAMINED_RATIO = 10;
+
+	private static final String COLLSCAN = "COLLSCAN";
+	private static final String ID_FIELD = "_id";
+	private static final String ID_INDEX = "_id_";
+
+	/**
+	 * Operators selecting values that are equal to the operand.
+	 */
+	private static final Set<String> EQUALITY_OPERATORS = new HashSet<>(asList(
+			"$eq",
+			"$in"
+	));
+
+	/**
+	 * Fields of a command (or legacy query) containing the query filter, the first one found is used.
+	 */
+	private static final List<String> FILTER_FIELDS = asList("filter", "query", "q", "$query");
+
+	/**
+	 * Fields of a command (or legacy query) containing the query sort, the first one found is used.
+	 */
+	private static final List<String> SORT_FIELDS = asList("sort", "$orderby", "orderby");
+
+	/**
+	 * Check if given profiled query is inefficient, and may benefit from an index.
+	 *
+	 * @param query The profiled query.
+	 * @return {@code true} if the query is inefficient, {@code false} otherwise.
+	 */
+	public boolean isInefficient(ProfileQuery query) {
+		String planSummary = query.getPlanSummary();
+		if (query.isHasSortStage() || (planSummary != null && planSummary.startsWith(COLLSCAN))) {
+			return true;
+		}
+
+		long examined = Math.max(query.getDocsExamined(), query.getKeysExamined());
+		return examined >= (long) MIN_EXAMINED_RATIO * Math.max(1, query.getNreturned());
+	}
+
+	/**
+	 * Suggest indexes for given namespace: candidates already served by an existing index are ignored, and a
+	 * candidate that is a prefix of another candidate is merged into the longest one (that can serve the same queries).
+	 *
+	 * @param ns The namespace.
+	 * @param queries The profiled queries, queries of other namespaces are ignored.
+	 * @param indexes The existing indexes of the namespace.
+	 * @return The suggestions, the highest benefit first.
+	 */
+	public List<IndexSuggestion> advise(String ns, Iterable<ProfileQuery> queries, Collection<IndexStat> indexes) {
+		Map<String, Workload> workloads = new LinkedHashMap<>();
+
+		for (ProfileQuery query : queries) {
+			if (!ns.equals(query.getNs()) || !isInefficient(query)) {
+				continue;
+			}
+
+			Candidate candidate = candidate(query);
+			if (candidate == null || isServed(candidate, indexes)) {
+				continue;
+			}
+
+			workloads.computeIfAbsent(candidate.key.toString(), k -> new Workload(candidate)).add(query);
+		}
+
+		List<Workload> candidates = new ArrayList<>(workloads.values());
+		candidates.sort(Comparator.comparingInt((Workload workload) -> workload.candidate.key.size()).reversed());
+
+		List<Workload> retained = new ArrayList<>();
+		for (Workload workload : candidates) {
+			Workload target = null;
+			for (Workload current : retained) {
+				if (matches(current.candidate.key, workload.candidate)) {
+					target = current;
+					break;
+				}
+			}
+
+			if (target == null) {
+				retained.add(workload);
+			}
+			else {
+				target.merge(workload);
+			}
+		}
+
+		return retained.stream()
+				.map(workload -> workload.toSuggestion(ns, redundantIndexes(workload.candidate, indexes)))
+				.sorted(Comparator.comparingLong(IndexSuggestion::getBenefit).reversed())
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Build the candidate index of given query: fields compared for equality first (in alphabetical order, since
+	 * their order does not matter), then sort fields, then fields compared with a range (or any other operator).
+	 *
+	 * @param query The profiled query.
+	 * @return The candidate index, {@code null} if the query cannot use an index (or is served by the {@code _id} index).
+	 */
+	static Candidate candidate(ProfileQuery query) {
+		Map<String, Object> command = query.getCommand() == null || query.getCommand().isEmpty() ? query.getQuery() : query.getCommand();
+		if (command == null) {
+			return null;
+		}
+
+		Map<?, ?> filter = firstDocument(command, FILTER_FIELDS);
+		Map<?, ?> sort = firstDocument(command, SORT_FIELDS);
+
+		Object pipeline = command.get("pipeline");
+		if (pipeline instanceof List) {
+			Map<?, ?> match = stage((List<?>) pipeline, 0, "$match");
+			filter = match;
+			sort = stage((List<?>) pipeline, match == null ? 0 : 1, "$sort");
+		}
+
+		Set<String> equalities = new TreeSet<>();
+		Set<String> ranges = new TreeSet<>();
+		if (filter != null) {
+			classify(filter, equalities, ranges);
+		}
+
+		if (equalities.contains(ID_FIELD)) {
+			return null;
+		}
+
+		Map<String, Integer> key = new LinkedHashMap<>();
+		for (String field : equalities) {
+			key.put(field, 1);
+		}
+
+		for (Map.Entry<?, ?> entry : (sort == null ? emptyMap() : sort).entrySet()) {
+			if (!(entry.getValue() instanceof Number)) {
+				// Such as { $meta: "textScore" }.
+				break;
+			}
+
+			key.putIfAbsent(String.valueOf(entry.getKey()), ((Number) entry.getValue()).intValue() < 0 ? -1 : 1);
+		}
+
+		int sortEnd = key.size();
+		for (String field : ranges) {
+			key.putIfAbsent(field, 1);
+		}
+
+		return key.isEmpty() ? null : new Candidate(key, equalities.size(), sortEnd);
+	}
+
+	private static void classify(Map<?, ?> filter, Set<String> equalities, Set<String> ranges) {
+		for (Map.Entry<?, ?> entry : filter.entrySet()) {
+			String field = String.valueOf(entry.getKey());
+			Object value = entry.getValue();
+
+			if (field.equals("$and") && value instanceof List) {
+				for (Object clause : (List<?>) value) {
+					if (clause instanceof Map) {
+						classify((Map<?, ?>) clause, equalities, ranges);
+					}
+				}
+			}
+			else if (!field.startsWith("$")) {
+				// Other top level operators (such as $or, $expr or $text) cannot be served by the same index.
+				if (isEquality(value)) {
+					equalities.add(field);
+				}
+				else {
+					ranges.add(field);
+				}
+			}
+		}
+
+		ranges.removeAll(equalities);
+	}
+
+	private static boolean isEquality(Object value) {
+		if (!(value instanceof Map)) {
+			// Literal value, unless it is a regular expression.
+			return !(value instanceof Pattern) && !(value instanceof BsonRegularExpression);
+		}
+
+		// A sub-document without operator is compared for equality.
+		for (Object operator : ((Map<?, ?>) value).keySet()) {
+			String name = String.valueOf(operator);
+			if (name.startsWith("$") && !EQUALITY_OPERATORS.contains(name)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static Map<?, ?> firstDocument(Map<String, Object> command, List<String> fields) {
+		for (String field : fields) {
+			Object value = command.get(field);
+			if (value instanceof Map) {
+				return (Map<?, ?>) value;
+			}
+		}
+
+		return null;
+	}
+
+	private static Map<?, ?> stage(List<?> pipeline, int index, String name) {
+		if (index >= pipeline.size() || !(pipeline.get(index) instanceof Map)) {
+			return null;
+		}
+
+		Object value = ((Map<?, ?>) pipeline.get(index)).get(name);
+		return value instanceof Map ? (Map<?, ?>) value : null;
+	}
+
+	private static boolean isServed(Candidate candidate, Collection<IndexStat> indexes) {
+		for (IndexStat index : indexes) {
+			Map<String, Number> key = index.getKey();
+			if (key != null && key.size() >= candidate.key.size() && matches(key, candidate)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static List<String> redundantIndexes(Candidate candidate, Collection<IndexStat> indexes) {
+		List<String> names = new ArrayList<>();
+		for (IndexStat index : indexes) {
+			Map<String, Number> key = index.getKey();
+			if (!ID_INDEX.equals(index.getName()) && key != null && key.size() <= candidate.key.size() && matches(key, candidate)) {
+				names.add(index.getName());
+			}
+		}
+
+		return names;
+	}
+
+	/**
+	 * Check if given index key and given candidate share the same prefix: fields compared for equality can be in
+	 * any order, other fields must be in the same order, and sort fields must be in the same direction (or all in
+	 * the opposite direction, since an index can be traversed in both directions): the direction of fields compared
+	 * with a range does not matter.
+	 *
+	 * @param key The index key.
+	 * @param candidate The candidate.
+	 * @return {@code true} if the shortest one is a prefix of the other one, {@code false} otherwise.
+	 */
+	private static boolean matches(Map<String, ? extends Number> key, Candidate candidate) {
+		Set<String> equalities = new HashSet<>();
+		Iterator<Map.Entry<String, Integer>> candidateFields = candidate.key.entrySet().iterator();
+		for (int i = 0; i < candidate.equalities; ++i) {
+			equalities.add(candidateFields.next().getKey());
+		}
+
+		candidateFields = candidate.key.entrySet().iterator();
+		int direction = 0;
+		int position = 0;
+
+		for (Map.Entry<String, ? extends Number> field : key.entrySet()) {
+			if (!candidateFields.hasNext()) {
+				break;
+			}
+
+			Map.Entry<String, Integer> candidateField = candidateFields.next();
+
+			if (position++ < candidate.equalities) {
+				if (!equalities.contains(field.getKey())) {
+					return false;
+				}
+
+				continue;
+			}
+
+			if (!field.getKey().equals(candidateField.getKey())) {
+				return false;
+			}
+
+			if (position > candidate.sortEnd) {
+				continue;
+			}
+
+			if (!(field.getValue() instanceof Number)) {
+				return false;
+			}
+
+			// Special indexes (such as "text" or "2dsphere") are not described by a number.
+			int fieldDirection = field.getValue().doubleValue() < 0 ? -candidateField.getValue() : candidateField.getValue();
+			if (direction != 0 && fieldDirection != direction) {
+				return false;
+			}
+
+			direction = fieldDirection;
+		}
+
+		return true;
+	}
+
+	/**
+	 * A candidate index key.
+	 */
+	static final class Candidate {
+		private final Map<String, Integer> key;
+
+		/**
+		 * The number of fields compared for equality, at the beginning of the key.
+		 */
+		private final int equalities;
+
+		/**
+		 * The position after the last sort field: following fields are compared with a range.
+		 */
+		private final int sortEnd;
+
+		private Candidate(Map<String, Integer> key, int equalities, int sortEnd) {
+			this.key = key;
+			this.equalities = equalities;
+			this.sortEnd = sortEnd;
+		}
+
+		/**
+		 * Get the index key specification.
+		 *
+		 * @return The key.
+		 */
+		Map<String, Integer> getKey() {
+			return key;
+		}
+	}
+
+	/**
+	 * The workload of the queries that would use a candidate index.
+	 */
+	private static final class Workload {
+		private final Candidate candidate;
+		private long count;
+		private long collScans;
+		private long sortStages;
+		private long totalMillis;
+		private long docsExamined;
+		private long keysExamined;
+		private long nreturned;
+
+		private Workload(Candidate candidate) {
+			this.candidate = candidate;
+		}
+
+		private void add(ProfileQuery query) {
+			String planSummary = query.getPlanSummary();
+
+			count++;
+			collScans += planSummary != null && planSummary.startsWith(COLLSCAN) ? 1 : 0;
+			sortStages += query.isHasSortStage() ? 1 : 0;
+			totalMillis += query.getMillis();
+			docsExamined += query.getDocsExamined();
+			keysExamined += query.getKeysExamined();
+			nreturned += query.getNreturned();
+		}
+
+		private void merge(Workload workload) {
+			count += workload.count;
+			collScans += workload.collScans;
+			sortStages += workload.sortStages;
+			totalMillis += workload.totalMillis;
+			docsExamined += workload.docsExamined;
+			keysExamined += workload.keysExamined;
+			nreturned += workload.nreturned;
+		}
+
+		private IndexSuggestion toSuggestion(String ns, List<String> redundantIndexes) {
+			return new IndexSuggestion(ns, candidate.key, count, collScans, sortStages, totalMillis, docsExamined, keysExamined, nreturned, redundantIndexes);
+		}
+	}
+}
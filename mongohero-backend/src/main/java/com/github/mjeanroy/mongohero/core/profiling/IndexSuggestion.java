@@ -0,0 +1,240 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * An index suggested for a namespace, and the profiled queries that would use it.
+ */
+public final class IndexSuggestion {
+
+	/**
+	 * The namespace.
+	 */
+	private final String ns;
+
+	/**
+	 * The index key specification, following the equality, sort, range ordering (such as
+	 * {@code { "status": 1, "createdAt": -1, "price": 1 }}).
+	 */
+	private final Map<String, Integer> key;
+
+	/**
+	 * The number of profiled queries that would use the index.
+	 */
+	private final long count;
+
+	/**
+	 * The number of these queries that scanned the whole collection.
+	 */
+	private final long collScans;
+
+	/**
+	 * The number of these queries that sorted documents in memory.
+	 */
+	private final long sortStages;
+
+	/**
+	 * The total duration of these queries, in milliseconds.
+	 */
+	private final long totalMillis;
+
+	/**
+	 * The number of documents examined by these queries.
+	 */
+	private final long docsExamined;
+
+	/**
+	 * The number of index keys examined by these queries.
+	 */
+	private final long keysExamined;
+
+	/**
+	 * The number of documents returned by these queries.
+	 */
+	private final long nreturned;
+
+	/**
+	 * The estimated benefit: the number of documents (or index keys) examined by these queries that
+	 * would not be examined with the index, i.e examined documents that were not returned.
+	 */
+	private final long benefit;
+
+	/**
+	 * The names of existing indexes that would be redundant with the index: their key is a prefix
+	 * of the suggested key.
+	 */
+	private final List<String> redundantIndexes;
+
+	IndexSuggestion(
+			String ns,
+			Map<String, Integer> key,
+			long count,
+			long collScans,
+			long sortStages,
+			long totalMillis,
+			long docsExamined,
+			long keysExamined,
+			long nreturned,
+			List<String> redundantIndexes) {
+
+		this.ns = ns;
+		this.key = unmodifiableMap(new LinkedHashMap<>(key));
+		this.count = count;
+		this.collScans = collScans;
+		this.sortStages = sortStages;
+		this.totalMillis = totalMillis;
+		this.docsExamined = docsExamined;
+		this.keysExamined = keysExamined;
+		this.nreturned = nreturned;
+		this.benefit = Math.max(0, Math.max(docsExamined, keysExamined) - nreturned);
+		this.redundantIndexes = unmodifiableList(new ArrayList<>(redundantIndexes));
+	}
+
+	/**
+	 * Get {@link #ns}
+	 *
+	 * @return {@link #ns}
+	 */
+	public String getNs() {
+		return ns;
+	}
+
+	/**
+	 * Get {@link #key}
+	 *
+	 * @return {@link #key}
+	 */
+	public Map<String, Integer> getKey() {
+		return key;
+	}
+
+	/**
+	 * Get {@link #count}
+	 *
+	 * @return {@link #count}
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Get {@link #collScans}
+	 *
+	 * @return {@link #collScans}
+	 */
+	public long getCollScans() {
+		return collScans;
+	}
+
+	/**
+	 * Get {@link #sortStages}
+	 *
+	 * @return {@link #sortStages}
+	 */
+	public long getSortStages() {
+		return sortStages;
+	}
+
+	/**
+	 * Get {@link #totalMillis}
+	 *
+	 * @return {@link #totalMillis}
+	 */
+	public long getTotalMillis() {
+		return totalMillis;
+	}
+
+	/**
+	 * Get {@link #docsExamined}
+	 *
+	 * @return {@link #docsExamined}
+	 */
+	public long getDocsExamined() {
+		return docsExamined;
+	}
+
+	/**
+	 * Get {@link #keysExamined}
+	 *
+	 * @return {@link #keysExamined}
+	 */
+	public long getKeysExamined() {
+		return keysExamined;
+	}
+
+	/**
+	 * Get {@link #nreturned}
+	 *
+	 * @return {@link #nreturned}
+	 */
+	public long getNreturned() {
+		return nreturned;
+	}
+
+	/**
+	 * Get {@link #benefit}
+	 *
+	 * @return {@link #benefit}
+	 */
+	public long getBenefit() {
+		return benefit;
+	}
+
+	/**
+	 * Get {@link #redundantIndexes}
+	 *
+	 * @return {@link #redundantIndexes}
+	 */
+	public List<String> getRedundantIndexes() {
+		return redundantIndexes;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("ns", ns)
+				.append("key", key)
+				.append("count", count)
+				.append("collScans", collScans)
+				.append("sortStages", sortStages)
+				.append("totalMillis", totalMillis)
+				.append("docsExamined", docsExamined)
+				.append("keysExamined", keysExamined)
+				.append("nreturned", nreturned)
+				.append("benefit", benefit)
+				.append("redundantIndexes", redundantIndexes)
+				.build();
+	}
+}
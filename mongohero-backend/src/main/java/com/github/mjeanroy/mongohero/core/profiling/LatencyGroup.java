@@ -0,0 +1,63 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+/**
+ * The grouping of profiled queries used to compute latency percentiles.
+ */
+public enum LatencyGroup {
+
+	/**
+	 * Group queries by namespace, operation type and shape.
+	 */
+	SHAPE,
+
+	/**
+	 * Group queries by namespace.
+	 */
+	NAMESPACE,
+
+	/**
+	 * Group queries by operation type.
+	 */
+	OPERATION;
+
+	/**
+	 * Parse given grouping name (case insensitive).
+	 *
+	 * @param name The grouping name.
+	 * @return The grouping.
+	 * @throws IllegalArgumentException If the name does not match any grouping.
+	 */
+	public static LatencyGroup parse(String name) {
+		for (LatencyGroup group : values()) {
+			if (group.name().equalsIgnoreCase(name.trim())) {
+				return group;
+			}
+		}
+
+		throw new IllegalArgumentException("Cannot parse groupBy parameter: " + name);
+	}
+}
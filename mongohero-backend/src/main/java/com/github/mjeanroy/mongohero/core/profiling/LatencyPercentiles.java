@@ -0,0 +1,218 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * The latency percentiles of a group of profiled queries, over a time window.
+ */
+public final class LatencyPercentiles {
+
+	/**
+	 * The namespace, {@code null} if queries are grouped by operation type.
+	 */
+	private final String ns;
+
+	/**
+	 * The operation type, {@code null} if queries are grouped by namespace.
+	 */
+	private final String op;
+
+	/**
+	 * The identifier of the query shape, {@code null} if queries are not grouped by shape.
+	 */
+	private final String shapeId;
+
+	/**
+	 * The query shape, {@code null} if queries are not grouped by shape.
+	 */
+	private final String shape;
+
+	/**
+	 * The number of queries.
+	 */
+	private final long count;
+
+	/**
+	 * The mean latency, in milliseconds.
+	 */
+	private final double mean;
+
+	/**
+	 * The median latency, in milliseconds.
+	 */
+	private final long p50;
+
+	/**
+	 * The 90th percentile of latency, in milliseconds.
+	 */
+	private final long p90;
+
+	/**
+	 * The 99th percentile of latency, in milliseconds.
+	 */
+	private final long p99;
+
+	/**
+	 * The 99.9th percentile of latency, in milliseconds.
+	 */
+	private final long p999;
+
+	/**
+	 * The maximum latency, in milliseconds.
+	 */
+	private final long max;
+
+	LatencyPercentiles(String ns, String op, String shapeId, String shape, LatencySketch sketch) {
+		this.ns = ns;
+		this.op = op;
+		this.shapeId = shapeId;
+		this.shape = shape;
+		this.count = sketch.getCount();
+		this.mean = sketch.getMean();
+		this.p50 = sketch.getPercentile(50);
+		this.p90 = sketch.getPercentile(90);
+		this.p99 = sketch.getPercentile(99);
+		this.p999 = sketch.getPercentile(99.9);
+		this.max = sketch.getMax();
+	}
+
+	/**
+	 * Get {@link #ns}
+	 *
+	 * @return {@link #ns}
+	 */
+	public String getNs() {
+		return ns;
+	}
+
+	/**
+	 * Get {@link #op}
+	 *
+	 * @return {@link #op}
+	 */
+	public String getOp() {
+		return op;
+	}
+
+	/**
+	 * Get {@link #shapeId}
+	 *
+	 * @return {@link #shapeId}
+	 */
+	public String getShapeId() {
+		return shapeId;
+	}
+
+	/**
+	 * Get {@link #shape}
+	 *
+	 * @return {@link #shape}
+	 */
+	public String getShape() {
+		return shape;
+	}
+
+	/**
+	 * Get {@link #count}
+	 *
+	 * @return {@link #count}
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Get {@link #mean}
+	 *
+	 * @return {@link #mean}
+	 */
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * Get {@link #p50}
+	 *
+	 * @return {@link #p50}
+	 */
+	public long getP50() {
+		return p50;
+	}
+
+	/**
+	 * Get {@link #p90}
+	 *
+	 * @return {@link #p90}
+	 */
+	public long getP90() {
+		return p90;
+	}
+
+	/**
+	 * Get {@link #p99}
+	 *
+	 * @return {@link #p99}
+	 */
+	public long getP99() {
+		return p99;
+	}
+
+	/**
+	 * Get {@link #p999}
+	 *
+	 * @return {@link #p999}
+	 */
+	public long getP999() {
+		return p999;
+	}
+
+	/**
+	 * Get {@link #max}
+	 *
+	 * @return {@link #max}
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("ns", ns)
+				.append("op", op)
+				.append("shapeId", shapeId)
+				.append("shape", shape)
+				.append("count", count)
+				.append("mean", mean)
+				.append("p50", p50)
+				.append("p90", p90)
+				.append("p99", p99)
+				.append("p999", p999)
+				.append("max", max)
+				.build();
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import com.github.mjeanroy.mongohero.commons.Histograms;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Arrays;
+
+/**
+ * A mergeable latency sketch, with log-linear buckets (see {@link Histograms}): each power of two is split
+ * in 32 buckets, so that the relative error of a percentile is bounded (about 3%) whatever the magnitude of the value.
+ *
+ * Buckets are allocated up to the highest recorded value only, and merging two sketches is a sum of bucket
+ * counts: sketches of different time buckets (or different members) are then combined without reading
+ * recorded values again.
+ *
+ * This class is not thread-safe.
+ */
+public final class LatencySketch {
+
+	private static final int SUB_BUCKET_BITS = 5;
+
+	private long[] counts;
+	private long count;
+	private long sum;
+	private long max;
+
+	public LatencySketch() {
+		this.counts = new long[0];
+		this.count = 0;
+		this.sum = 0;
+		this.max = 0;
+	}
+
+	/**
+	 * Record a value.
+	 *
+	 * @param millis The value, in milliseconds.
+	 */
+	public void record(long millis) {
+		long value = Math.max(0, millis);
+		int index = Histograms.bucketOf(value, SUB_BUCKET_BITS);
+		ensureCapacity(index + 1);
+		counts[index]++;
+		count++;
+		sum += value;
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Add all values recorded by given sketch to this sketch.
+	 *
+	 * @param sketch The sketch to merge.
+	 */
+	public void merge(LatencySketch sketch) {
+		ensureCapacity(sketch.counts.length);
+		for (int i = 0; i < sketch.counts.length; ++i) {
+			counts[i] += sketch.counts[i];
+		}
+
+		count += sketch.count;
+		sum += sketch.sum;
+		max = Math.max(max, sketch.max);
+	}
+
+	/**
+	 * Get the number of recorded values.
+	 *
+	 * @return The number of values.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Get the mean of recorded values, in milliseconds.
+	 *
+	 * @return The mean.
+	 */
+	public double getMean() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	/**
+	 * Get the maximum recorded value, in milliseconds.
+	 *
+	 * @return The maximum.
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * Get the value below which given percentage of recorded values fall, in milliseconds.
+	 *
+	 * @param percentile The percentile, between {@code 0} and {@code 100}.
+	 * @return The value.
+	 */
+	public long getPercentile(double percentile) {
+		return Histograms.percentileOf(counts, count, max, percentile, SUB_BUCKET_BITS);
+	}
+
+	private void ensureCapacity(int size) {
+		if (counts.length < size) {
+			counts = Arrays.copyOf(counts, size);
+		}
+	}
+
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("count", count)
+				.append("mean", getMean())
+				.append("max", max)
+				.build();
+	}
+}
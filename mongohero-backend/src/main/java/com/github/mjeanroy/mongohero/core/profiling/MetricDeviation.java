@@ -0,0 +1,123 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * The deviation of a metric of a query shape, in the current window, from its baseline.
+ */
+public final class MetricDeviation {
+
+	/**
+	 * The metric.
+	 */
+	private final RegressionMetric metric;
+
+	/**
+	 * The value in the current window.
+	 */
+	private final double current;
+
+	/**
+	 * The baseline value.
+	 */
+	private final double baseline;
+
+	/**
+	 * The score: the number of baseline deviations between the current value and the baseline value, negative if
+	 * the current value is below the baseline.
+	 */
+	private final double score;
+
+	/**
+	 * Whether the score reached {@link ProfileRegressionProperties#getThreshold()}.
+	 */
+	private final boolean regressed;
+
+	MetricDeviation(RegressionMetric metric, double current, double baseline, double score, boolean regressed) {
+		this.metric = metric;
+		this.current = current;
+		this.baseline = baseline;
+		this.score = score;
+		this.regressed = regressed;
+	}
+
+	/**
+	 * Get {@link #metric}
+	 *
+	 * @return {@link #metric}
+	 */
+	public RegressionMetric getMetric() {
+		return metric;
+	}
+
+	/**
+	 * Get {@link #current}
+	 *
+	 * @return {@link #current}
+	 */
+	public double getCurrent() {
+		return current;
+	}
+
+	/**
+	 * Get {@link #baseline}
+	 *
+	 * @return {@link #baseline}
+	 */
+	public double getBaseline() {
+		return baseline;
+	}
+
+	/**
+	 * Get {@link #score}
+	 *
+	 * @return {@link #score}
+	 */
+	public double getScore() {
+		return score;
+	}
+
+	/**
+	 * Get {@link #regressed}
+	 *
+	 * @return {@link #regressed}
+	 */
+	public boolean isRegressed() {
+		return regressed;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("metric", metric)
+				.append("current", current)
+				.append("baseline", baseline)
+				.append("score", score)
+				.append("regressed", regressed)
+				.build();
+	}
+}
@@ -0,0 +1,540 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import com.github.mjeanroy.mongohero.core.model.ProfileQuery;
+import com.github.mjeanroy.mongohero.core.mongo.Mongo;
+import com.github.mjeanroy.mongohero.core.mongo.MongoMapper;
+import com.github.mjeanroy.mongohero.core.profiling.store.ProfileStore;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Harvest, continuously, the {@code "system.profile"} collection of profiled databases into the {@link ProfileStore}, so
+ * that profiled queries are kept once the capped collection rolls over: the latency of harvested queries is also recorded
+ * in the {@link ProfileLatencyIndex}, and harvested queries are scored by the {@link ProfileRegressionDetector}.
+ *
+ * Since the latency index and the regression detector are kept in memory, entries already in the store are replayed
+ * into both of them the first time a database is harvested (i.e on startup), before resuming its tailable cursor.
+ *
+ * Each database is read by a tailable cursor (running on its own thread) resuming after the last harvested entry: harvested
+ * entries are pushed to a bounded queue drained, by batches, by a single writer. When the writer does not keep up, tailable
+ * cursors wait for the queue to have some room (the "stall" counter is incremented each time a tailable cursor waited
+ * more than {@link ProfileHarvesterProperties#getOfferTimeoutMs()}).
+ */
+@Component
+public class ProfileHarvester {
+
+	private static final Logger log = LoggerFactory.getLogger(ProfileHarvester.class);
+
+	private static final String TS_FIELD = "ts";
+	private static final String PLAN_SUMMARY_FIELD = "planSummary";
+
+	/**
+	 * The harvester settings.
+	 */
+	private final ProfileHarvesterProperties properties;
+
+	private final Mongo mongo;
+	private final ProfileStore profileStore;
+	private final ProfileLatencyIndex profileLatencyIndex;
+	private final ProfileRegressionDetector profileRegressionDetector;
+
+	/**
+	 * The fields read from each profiled query.
+	 */
+	private final Document projection;
+
+	/**
+	 * The entries harvested, waiting to be written to the store.
+	 */
+	private final BlockingQueue<HarvestedEntry> queue;
+
+	/**
+	 * The tailable cursors, indexed by database name.
+	 */
+	private final Map<String, DatabaseTail> tails;
+
+	/**
+	 * The databases whose stored entries were replayed into the latency index and the regression detector.
+	 */
+	private final Set<String> replayed;
+
+	/**
+	 * The number of times a tailable cursor had to wait because the queue was full.
+	 */
+	private final AtomicLong stalls;
+
+	/**
+	 * Flag set when the harvester is stopped.
+	 */
+	private final AtomicBoolean stopped;
+
+	/**
+	 * The executor running the tailable cursors and the writer.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * The executor running the discovery of profiled databases.
+	 */
+	private final ScheduledExecutorService scheduler;
+
+	@Autowired
+	public ProfileHarvester(ProfileHarvesterProperties properties, Mongo mongo, MongoMapper mongoMapper, ProfileStore profileStore, ProfileLatencyIndex profileLatencyIndex, ProfileRegressionDetector profileRegressionDetector) {
+		this.properties = properties;
+		this.mongo = mongo;
+		this.profileStore = profileStore;
+		this.profileLatencyIndex = profileLatencyIndex;
+		this.profileRegressionDetector = profileRegressionDetector;
+		this.projection = mongoMapper.projection(ProfileQuery.class, emptyList()).append(TS_FIELD, 1).append(PLAN_SUMMARY_FIELD, 1);
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueSize()));
+		this.tails = new ConcurrentHashMap<>();
+		this.replayed = ConcurrentHashMap.newKeySet();
+		this.stalls = new AtomicLong(0);
+		this.stopped = new AtomicBoolean(false);
+		this.executor = Executors.newCachedThreadPool(new HarvesterThreadFactory());
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(ProfileHarvester::newDiscoveryThread);
+	}
+
+	@PostConstruct
+	void onInit() {
+		if (!properties.isEnabled()) {
+			log.info("Harvesting of system.profile is disabled");
+			return;
+		}
+
+		log.info("Starting harvesting of system.profile with {}", properties);
+		executor.execute(this::write);
+		scheduler.scheduleWithFixedDelay(this::discover, 0, Math.max(1, properties.getDiscoveryMs()), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void onDestroy() throws InterruptedException {
+		stopped.set(true);
+		scheduler.shutdownNow();
+		executor.shutdownNow();
+
+		// Entries still in the queue are written, so that they are not harvested again on next start.
+		executor.awaitTermination(properties.getMaxAwaitMs(), TimeUnit.MILLISECONDS);
+		while (flush() > 0) {
+			log.debug("Flushing harvested entries before shutdown");
+		}
+	}
+
+	/**
+	 * Get a snapshot of the harvester counters.
+	 *
+	 * @return Harvester counters.
+	 */
+	public ProfileHarvesterStats getStats() {
+		List<ProfileTailStats> stats = tails.values().stream()
+				.map(DatabaseTail::snapshot)
+				.sorted((s1, s2) -> s1.getDatabase().compareTo(s2.getDatabase()))
+				.collect(Collectors.toList());
+
+		return new ProfileHarvesterStats(
+				properties.isEnabled(),
+				queue.size(),
+				queue.size() + queue.remainingCapacity(),
+				stalls.get(),
+				profileRegressionDetector.getDroppedShapes(),
+				profileRegressionDetector.getEvictedShapes(),
+				stats
+		);
+	}
+
+	/**
+	 * Start a tailable cursor on each profiled database that is not tailed yet, and stop tailable
+	 * cursors of databases that are not profiled anymore.
+	 */
+	void discover() {
+		try {
+			Set<String> databases = findDatabases();
+			for (String database : databases) {
+				if (!tails.containsKey(database)) {
+					startTail(database);
+				}
+			}
+
+			tails.values().removeIf(tail -> !databases.contains(tail.database) && tail.deactivate());
+		}
+		catch (RuntimeException ex) {
+			log.warn("Failed to discover profiled databases: {}", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Read the {@code "system.profile"} collection of given database with a tailable cursor, until the cursor is
+	 * closed (by the server) or the tail is stopped.
+	 *
+	 * The cursor is resumed at the timestamp of the last harvested entry (included), since other entries may have been
+	 * profiled during the same millisecond: entries at this timestamp that were already harvested are skipped. Entries
+	 * are read in insertion order, so these are the first entries returned with this timestamp.
+	 *
+	 * @param tail The database tail.
+	 * @throws InterruptedException If the current thread is interrupted while waiting for the queue.
+	 */
+	void harvest(DatabaseTail tail) throws InterruptedException {
+		String database = tail.database;
+		if (tail.lastTs == null) {
+			replay(database);
+			tail.lastTs = profileStore.getLastTs(database);
+			tail.lastTsCount = tail.lastTs == null ? 0 : countStoredAt(database, tail.lastTs);
+		}
+
+		Date after = tail.lastTs;
+		int duplicates = tail.lastTsCount;
+		if (after != null) {
+			checkGap(tail, after);
+		}
+
+		try (MongoCursor<Document> cursor = mongo.tailSystemProfile(database, after, projection, properties.getMaxAwaitMs())) {
+			tail.connected = true;
+
+			while (tail.isActive()) {
+				Document document = cursor.tryNext();
+				if (document == null) {
+					// The server closed the cursor (empty or dropped collection, or the collection rolled over the cursor position).
+					if (cursor.getServerCursor() == null) {
+						break;
+					}
+
+					continue;
+				}
+
+				if (duplicates > 0 && after.equals(document.getDate(TS_FIELD))) {
+					duplicates--;
+					continue;
+				}
+
+				if (!enqueue(tail, document)) {
+					break;
+				}
+
+				tail.onHarvested(document.getDate(TS_FIELD));
+			}
+		}
+		finally {
+			tail.connected = false;
+		}
+	}
+
+	/**
+	 * Write a batch of harvested entries to the store.
+	 *
+	 * @return The number of written entries.
+	 */
+	int flush() {
+		List<HarvestedEntry> batch = new ArrayList<>();
+		queue.drainTo(batch, Math.max(1, properties.getBatchSize()));
+		append(batch);
+		return batch.size();
+	}
+
+	/**
+	 * Register the tail of given database, without starting it.
+	 *
+	 * @param database The database name.
+	 * @return The database tail.
+	 */
+	DatabaseTail createTail(String database) {
+		DatabaseTail tail = new DatabaseTail(database, stopped);
+		tails.put(database, tail);
+		return tail;
+	}
+
+	private void startTail(String database) {
+		log.info("Start harvesting {} # system.profile", database);
+		DatabaseTail tail = createTail(database);
+		executor.execute(() -> run(tail));
+	}
+
+	private void run(DatabaseTail tail) {
+		while (tail.isActive()) {
+			try {
+				harvest(tail);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (RuntimeException ex) {
+				tail.failures.incrementAndGet();
+				log.warn("Failed to harvest {} # system.profile: {}", tail.database, ex.getMessage());
+			}
+
+			if (!sleep(properties.getReconnectMs())) {
+				return;
+			}
+		}
+
+		log.info("Stop harvesting {} # system.profile", tail.database);
+	}
+
+	private void write() {
+		int batchSize = Math.max(1, properties.getBatchSize());
+
+		while (!stopped.get()) {
+			try {
+				HarvestedEntry head = queue.poll(properties.getMaxAwaitMs(), TimeUnit.MILLISECONDS);
+				if (head != null) {
+					List<HarvestedEntry> batch = new ArrayList<>(batchSize);
+					batch.add(head);
+					queue.drainTo(batch, batchSize - 1);
+					append(batch);
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private void append(List<HarvestedEntry> batch) {
+		Map<String, List<Document>> entries = new LinkedHashMap<>();
+		for (HarvestedEntry entry : batch) {
+			entries.computeIfAbsent(entry.database, key -> new ArrayList<>()).add(entry.document);
+		}
+
+		for (Map.Entry<String, List<Document>> entry : entries.entrySet()) {
+			try {
+				profileStore.append(entry.getKey(), entry.getValue());
+				profileLatencyIndex.record(entry.getKey(), entry.getValue());
+				profileRegressionDetector.record(entry.getKey(), entry.getValue());
+			}
+			catch (RuntimeException ex) {
+				log.error("Failed to store {} harvested entries of {}", entry.getValue().size(), entry.getKey(), ex);
+			}
+		}
+	}
+
+	/**
+	 * Record entries of given database already in the store into the latency index and the regression detector,
+	 * unless it was already done: stored entries are read in timestamp order, by batches.
+	 *
+	 * @param database The database name.
+	 */
+	private void replay(String database) {
+		if (!replayed.add(database)) {
+			return;
+		}
+
+		int batchSize = Math.max(1, properties.getBatchSize());
+		List<Document> batch = new ArrayList<>(batchSize);
+		AtomicLong count = new AtomicLong(0);
+
+		profileStore.scan(database, null, null, document -> {
+			batch.add(document);
+			if (batch.size() >= batchSize) {
+				count.addAndGet(record(database, batch));
+			}
+		});
+
+		count.addAndGet(record(database, batch));
+		log.info("Replayed {} stored entries of {} # system.profile", count.get(), database);
+	}
+
+	private int record(String database, List<Document> batch) {
+		int size = batch.size();
+		if (size > 0) {
+			List<Document> entries = new ArrayList<>(batch);
+			batch.clear();
+			profileLatencyIndex.record(database, entries);
+			profileRegressionDetector.record(database, entries);
+		}
+
+		return size;
+	}
+
+	private boolean enqueue(DatabaseTail tail, Document document) throws InterruptedException {
+		HarvestedEntry entry = new HarvestedEntry(tail.database, document);
+		while (tail.isActive()) {
+			if (queue.offer(entry, properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+				return true;
+			}
+
+			stalls.incrementAndGet();
+			log.warn("Harvesting queue is full, harvesting of {} # system.profile is paused", tail.database);
+		}
+
+		return false;
+	}
+
+	private int countStoredAt(String database, Date ts) {
+		AtomicInteger count = new AtomicInteger(0);
+		profileStore.scan(database, ts, new Date(ts.getTime() + 1), document -> count.incrementAndGet());
+		return count.get();
+	}
+
+	private void checkGap(DatabaseTail tail, Date after) {
+		mongo.findOldestSystemProfileTs(tail.database).filter(oldest -> oldest.after(after)).ifPresent(oldest -> {
+			tail.gaps.incrementAndGet();
+			log.warn("{} # system.profile rolled over since last harvested entry, entries between {} and {} may have been lost", tail.database, after, oldest);
+		});
+	}
+
+	private Set<String> findDatabases() {
+		Collection<String> databases = properties.getDatabases().isEmpty() ? findProfiledDatabases() : properties.getDatabases();
+		int maxDatabases = Math.max(0, properties.getMaxDatabases());
+		if (databases.size() > maxDatabases) {
+			log.warn("Found {} databases to harvest, only the first {} are harvested", databases.size(), maxDatabases);
+		}
+
+		return databases.stream().limit(maxDatabases).collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	private List<String> findProfiledDatabases() {
+		return mongo.listDatabases()
+				.map(document -> document.getString("name"))
+				.filter(this::isProfiled)
+				.collect(Collectors.toList());
+	}
+
+	private boolean isProfiled(String database) {
+		try {
+			Number level = mongo.getProfilingLevel(database).get("was", Number.class);
+			return level != null && level.intValue() > 0;
+		}
+		catch (RuntimeException ex) {
+			log.debug("Cannot read profiling level of {}: {}", database, ex.getMessage());
+			return false;
+		}
+	}
+
+	private static boolean sleep(long delayMs) {
+		try {
+			Thread.sleep(delayMs);
+			return true;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private static Thread newDiscoveryThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, "mongohero-harvester-discovery");
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	/**
+	 * The state of the tailable cursor of a database.
+	 */
+	static final class DatabaseTail {
+		private final String database;
+		private final AtomicBoolean stopped;
+		private final AtomicBoolean active;
+		private final AtomicLong harvested;
+		private final AtomicLong gaps;
+		private final AtomicLong failures;
+		private volatile boolean connected;
+		private volatile Date lastTs;
+		private volatile int lastTsCount;
+		private volatile long lagMs;
+
+		private DatabaseTail(String database, AtomicBoolean stopped) {
+			this.database = database;
+			this.stopped = stopped;
+			this.active = new AtomicBoolean(true);
+			this.harvested = new AtomicLong(0);
+			this.gaps = new AtomicLong(0);
+			this.failures = new AtomicLong(0);
+		}
+
+		private boolean isActive() {
+			return active.get() && !stopped.get();
+		}
+
+		private boolean deactivate() {
+			return active.compareAndSet(true, false);
+		}
+
+		private void onHarvested(Date ts) {
+			harvested.incrementAndGet();
+			if (ts != null) {
+				lastTsCount = ts.equals(lastTs) ? lastTsCount + 1 : 1;
+				lastTs = ts;
+				lagMs = Math.max(0, System.currentTimeMillis() - ts.getTime());
+			}
+		}
+
+		private ProfileTailStats snapshot() {
+			return new ProfileTailStats(database, connected, harvested.get(), gaps.get(), failures.get(), lastTs, lagMs);
+		}
+	}
+
+	private static final class HarvestedEntry {
+		private final String database;
+		private final Document document;
+
+		private HarvestedEntry(String database, Document document) {
+			this.database = database;
+			this.document = document;
+		}
+	}
+
+	private static class HarvesterThreadFactory implements ThreadFactory {
+		private final AtomicInteger counter = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "mongohero-harvester-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,235 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Settings of the harvester copying profiled queries of each database (i.e {@code "system.profile"} entries) into
+ * the local {@link com.github.mjeanroy.mongohero.core.profiling.store.ProfileStore}.
+ */
+@ConstructorBinding
+@ConfigurationProperties("mongohero.harvester")
+public final class ProfileHarvesterProperties {
+
+	/**
+	 * Enable/disable the harvester.
+	 */
+	private final boolean enabled;
+
+	/**
+	 * The databases to harvest, if empty every database where the profiler is enabled is harvested.
+	 */
+	private final List<String> databases;
+
+	/**
+	 * The maximum number of databases harvested concurrently (each database uses its own cursor, and thread).
+	 */
+	private final int maxDatabases;
+
+	/**
+	 * The maximum number of entries read but not stored yet: once full, cursors stop reading until the
+	 * store catches up.
+	 */
+	private final int queueSize;
+
+	/**
+	 * The maximum number of entries appended to the store at once.
+	 */
+	private final int batchSize;
+
+	/**
+	 * The maximum time (in milliseconds) the server waits for new entries before replying to the cursor.
+	 */
+	private final int maxAwaitMs;
+
+	/**
+	 * The delay (in milliseconds) before opening again a cursor that failed, or that has been closed by the server.
+	 */
+	private final long reconnectMs;
+
+	/**
+	 * The delay (in milliseconds) between two lookups of the databases to harvest.
+	 */
+	private final long discoveryMs;
+
+	/**
+	 * The time (in milliseconds) a cursor waits for the store to catch up before reporting a stall.
+	 */
+	private final long offerTimeoutMs;
+
+	public ProfileHarvesterProperties(
+			@DefaultValue("false") boolean enabled,
+			List<String> databases,
+			@DefaultValue("64") int maxDatabases,
+			@DefaultValue("10000") int queueSize,
+			@DefaultValue("500") int batchSize,
+			@DefaultValue("1000") int maxAwaitMs,
+			@DefaultValue("5000") long reconnectMs,
+			@DefaultValue("60000") long discoveryMs,
+			@DefaultValue("1000") long offerTimeoutMs) {
+
+		this.enabled = enabled;
+		this.databases = databases == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(databases));
+		this.maxDatabases = maxDatabases;
+		this.queueSize = queueSize;
+		this.batchSize = batchSize;
+		this.maxAwaitMs = maxAwaitMs;
+		this.reconnectMs = reconnectMs;
+		this.discoveryMs = discoveryMs;
+		this.offerTimeoutMs = offerTimeoutMs;
+	}
+
+	/**
+	 * Get {@link #enabled}
+	 *
+	 * @return {@link #enabled}
+	 */
+	boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Get {@link #databases}
+	 *
+	 * @return {@link #databases}
+	 */
+	List<String> getDatabases() {
+		return databases;
+	}
+
+	/**
+	 * Get {@link #maxDatabases}
+	 *
+	 * @return {@link #maxDatabases}
+	 */
+	int getMaxDatabases() {
+		return maxDatabases;
+	}
+
+	/**
+	 * Get {@link #queueSize}
+	 *
+	 * @return {@link #queueSize}
+	 */
+	int getQueueSize() {
+		return queueSize;
+	}
+
+	/**
+	 * Get {@link #batchSize}
+	 *
+	 * @return {@link #batchSize}
+	 */
+	int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Get {@link #maxAwaitMs}
+	 *
+	 * @return {@link #maxAwaitMs}
+	 */
+	int getMaxAwaitMs() {
+		return maxAwaitMs;
+	}
+
+	/**
+	 * Get {@link #reconnectMs}
+	 *
+	 * @return {@link #reconnectMs}
+	 */
+	long getReconnectMs() {
+		return reconnectMs;
+	}
+
+	/**
+	 * Get {@link #discoveryMs}
+	 *
+	 * @return {@link #discoveryMs}
+	 */
+	long getDiscoveryMs() {
+		return discoveryMs;
+	}
+
+	/**
+	 * Get {@link #offerTimeoutMs}
+	 *
+	 * @return {@link #offerTimeoutMs}
+	 */
+	long getOfferTimeoutMs() {
+		return offerTimeoutMs;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof ProfileHarvesterProperties) {
+			ProfileHarvesterProperties p = (ProfileHarvesterProperties) o;
+			return Objects.equals(enabled, p.enabled)
+					&& Objects.equals(databases, p.databases)
+					&& Objects.equals(maxDatabases, p.maxDatabases)
+					&& Objects.equals(queueSize, p.queueSize)
+					&& Objects.equals(batchSize, p.batchSize)
+					&& Objects.equals(maxAwaitMs, p.maxAwaitMs)
+					&& Objects.equals(reconnectMs, p.reconnectMs)
+					&& Objects.equals(discoveryMs, p.discoveryMs)
+					&& Objects.equals(offerTimeoutMs, p.offerTimeoutMs);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(enabled, databases, maxDatabases, queueSize, batchSize, maxAwaitMs, reconnectMs, discoveryMs, offerTimeoutMs);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("enabled", enabled)
+				.append("databases", databases)
+				.append("maxDatabases", maxDatabases)
+				.append("queueSize", queueSize)
+				.append("batchSize", batchSize)
+				.append("maxAwaitMs", maxAwaitMs)
+				.append("reconnectMs", reconnectMs)
+				.append("discoveryMs", discoveryMs)
+				.append("offerTimeoutMs", offerTimeoutMs)
+				.build();
+	}
+}
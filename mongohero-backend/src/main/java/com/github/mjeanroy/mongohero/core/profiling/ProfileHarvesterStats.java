@@ -0,0 +1,157 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.List;
+
+/**
+ * A snapshot of the counters of the {@code "system.profile"} harvester.
+ */
+public final class ProfileHarvesterStats {
+
+	/**
+	 * Flag indicating if the harvester is enabled.
+	 */
+	private final boolean enabled;
+
+	/**
+	 * The number of harvested entries waiting to be written to the store.
+	 */
+	private final int queueSize;
+
+	/**
+	 * The maximum number of harvested entries waiting to be written to the store.
+	 */
+	private final int queueCapacity;
+
+	/**
+	 * The number of times a tailable cursor had to wait because the queue was full.
+	 */
+	private final long stalls;
+
+	/**
+	 * The number of harvested queries not scored for regressions, because their database already tracks
+	 * too many query shapes.
+	 */
+	private final long droppedShapes;
+
+	/**
+	 * The number of query shapes evicted from regression baselines, because they were not executed anymore.
+	 */
+	private final long evictedShapes;
+
+	/**
+	 * The counters of each tailed database.
+	 */
+	private final List<ProfileTailStats> tails;
+
+	ProfileHarvesterStats(boolean enabled, int queueSize, int queueCapacity, long stalls, long droppedShapes, long evictedShapes, List<ProfileTailStats> tails) {
+		this.enabled = enabled;
+		this.queueSize = queueSize;
+		this.queueCapacity = queueCapacity;
+		this.stalls = stalls;
+		this.droppedShapes = droppedShapes;
+		this.evictedShapes = evictedShapes;
+		this.tails = tails;
+	}
+
+	/**
+	 * Get {@link #enabled}
+	 *
+	 * @return {@link #enabled}
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Get {@link #queueSize}
+	 *
+	 * @return {@link #queueSize}
+	 */
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	/**
+	 * Get {@link #queueCapacity}
+	 *
+	 * @return {@link #queueCapacity}
+	 */
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * Get {@link #stalls}
+	 *
+	 * @return {@link #stalls}
+	 */
+	public long getStalls() {
+		return stalls;
+	}
+
+	/**
+	 * Get {@link #droppedShapes}
+	 *
+	 * @return {@link #droppedShapes}
+	 */
+	public long getDroppedShapes() {
+		return droppedShapes;
+	}
+
+	/**
+	 * Get {@link #evictedShapes}
+	 *
+	 * @return {@link #evictedShapes}
+	 */
+	public long getEvictedShapes() {
+		return evictedShapes;
+	}
+
+	/**
+	 * Get {@link #tails}
+	 *
+	 * @return {@link #tails}
+	 */
+	public List<ProfileTailStats> getTails() {
+		return tails;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("enabled", enabled)
+				.append("queueSize", queueSize)
+				.append("queueCapacity", queueCapacity)
+				.append("stalls", stalls)
+				.append("droppedShapes", droppedShapes)
+				.append("evictedShapes", evictedShapes)
+				.append("tails", tails)
+				.build();
+	}
+}
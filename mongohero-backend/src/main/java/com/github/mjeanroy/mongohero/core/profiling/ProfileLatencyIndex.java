@@ -0,0 +1,275 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import com.github.mjeanroy.mongohero.core.model.ProfileQuery;
+import com.github.mjeanroy.mongohero.core.mongo.MongoMapper;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keep a {@link LatencySketch} of harvested queries for each query shape (and namespace and operation type) of each
+ * database, in time buckets of {@link ProfileLatencyProperties#getBucketMs()}.
+ *
+ * Percentiles over a time window (and over a coarser grouping) are computed by merging sketches of the buckets in
+ * this window: harvested queries are never read again.
+ */
+@Component
+public class ProfileLatencyIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(ProfileLatencyIndex.class);
+
+	private static final String TS_FIELD = "ts";
+
+	private final long bucketMs;
+	private final long retentionMs;
+	private final int maxShapes;
+	private final MongoMapper mongoMapper;
+	private final QueryFingerprinter queryFingerprinter;
+
+	/**
+	 * The time buckets of each database.
+	 */
+	private final Map<String, DatabaseLatencies> databases;
+
+	@Autowired
+	public ProfileLatencyIndex(ProfileLatencyProperties properties, MongoMapper mongoMapper, QueryFingerprinter queryFingerprinter) {
+		this.bucketMs = Math.max(1, properties.getBucketMs());
+		this.retentionMs = properties.getRetentionMs();
+		this.maxShapes = properties.getMaxShapes();
+		this.mongoMapper = mongoMapper;
+		this.queryFingerprinter = queryFingerprinter;
+		this.databases = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Record the latency of given harvested queries.
+	 *
+	 * @param database The database name.
+	 * @param entries The {@code "system.profile"} entries.
+	 */
+	public void record(String database, List<Document> entries) {
+		DatabaseLatencies latencies = databases.computeIfAbsent(database, key -> new DatabaseLatencies());
+
+		synchronized (latencies) {
+			for (Document entry : entries) {
+				Date ts = entry.getDate(TS_FIELD);
+				if (ts != null) {
+					record(latencies, ts.getTime(), mongoMapper.map(entry, ProfileQuery.class));
+				}
+			}
+
+			if (latencies.lastTs != Long.MIN_VALUE) {
+				evict(latencies, bucketOf(latencies.lastTs - retentionMs));
+			}
+		}
+	}
+
+	/**
+	 * Compute latency percentiles of given database, for each group of queries, between given bounds: bounds are
+	 * rounded to time buckets, i.e the window starts at the beginning of the bucket containing {@code from}, and
+	 * ends at the end of the bucket containing {@code to}.
+	 *
+	 * @param database The database name.
+	 * @param from The lower bound, {@code null} to start from the oldest bucket.
+	 * @param to The upper bound, {@code null} to end with the newest bucket.
+	 * @param group The grouping of queries.
+	 * @return The percentiles of each group.
+	 */
+	public List<LatencyPercentiles> percentiles(String database, Date from, Date to, LatencyGroup group) {
+		return merge(database, from, to, group).values().stream()
+				.map(ShapeLatency::toPercentiles)
+				.collect(Collectors.toList());
+	}
+
+	private Map<ShapeKey, ShapeLatency> merge(String database, Date from, Date to, LatencyGroup group) {
+		Map<ShapeKey, ShapeLatency> merged = new LinkedHashMap<>();
+		DatabaseLatencies latencies = databases.get(database);
+		if (latencies == null) {
+			return merged;
+		}
+
+		long fromBucket = from == null ? Long.MIN_VALUE : bucketOf(from.getTime());
+		long toBucket = to == null ? Long.MAX_VALUE : bucketOf(to.getTime());
+
+		synchronized (latencies) {
+			for (Map<ShapeKey, ShapeLatency> shapes : latencies.buckets.subMap(fromBucket, true, toBucket, true).values()) {
+				for (ShapeLatency latency : shapes.values()) {
+					ShapeKey key = groupOf(latency.key, group);
+					String shape = group == LatencyGroup.SHAPE ? latency.shape : null;
+					merged.computeIfAbsent(key, k -> new ShapeLatency(k, shape)).sketch.merge(latency.sketch);
+				}
+			}
+		}
+
+		return merged;
+	}
+
+	private void record(DatabaseLatencies latencies, long ts, ProfileQuery query) {
+		if (ts > latencies.lastTs) {
+			// Expire buckets first, so that shapes of expired buckets do not count against the limit.
+			latencies.lastTs = ts;
+			evict(latencies, bucketOf(ts - retentionMs));
+		}
+
+		QueryShape shape = queryFingerprinter.fingerprint(query);
+		ShapeKey key = new ShapeKey(query.getNs(), query.getOp(), shape.getId());
+		Map<ShapeKey, ShapeLatency> shapes = latencies.buckets.computeIfAbsent(bucketOf(ts), bucket -> new HashMap<>());
+
+		ShapeLatency latency = shapes.get(key);
+		if (latency == null) {
+			if (!latencies.shapes.containsKey(key) && latencies.shapes.size() >= maxShapes) {
+				log.debug("Too many query shapes in retention window, skipping query of shape {}", key);
+				return;
+			}
+
+			latency = new ShapeLatency(key, shape.getShape());
+			shapes.put(key, latency);
+			latencies.shapes.merge(key, 1, Integer::sum);
+		}
+
+		latency.sketch.record(query.getMillis());
+	}
+
+	private static void evict(DatabaseLatencies latencies, long bucket) {
+		NavigableMap<Long, Map<ShapeKey, ShapeLatency>> expired = latencies.buckets.headMap(bucket, false);
+		for (Map<ShapeKey, ShapeLatency> shapes : expired.values()) {
+			for (ShapeKey key : shapes.keySet()) {
+				latencies.shapes.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+			}
+		}
+
+		expired.clear();
+	}
+
+	private long bucketOf(long ts) {
+		return ts - Math.floorMod(ts, bucketMs);
+	}
+
+	private static ShapeKey groupOf(ShapeKey key, LatencyGroup group) {
+		switch (group) {
+			case NAMESPACE:
+				return new ShapeKey(key.ns, null, null);
+			case OPERATION:
+				return new ShapeKey(null, key.op, null);
+			default:
+				return key;
+		}
+	}
+
+	/**
+	 * The time buckets of a database: must be accessed while holding its monitor.
+	 */
+	private static final class DatabaseLatencies {
+		private final NavigableMap<Long, Map<ShapeKey, ShapeLatency>> buckets;
+
+		/**
+		 * The number of buckets of each shape: the distinct shapes of the whole retention window.
+		 */
+		private final Map<ShapeKey, Integer> shapes;
+
+		private long lastTs;
+
+		private DatabaseLatencies() {
+			this.buckets = new TreeMap<>();
+			this.shapes = new HashMap<>();
+			this.lastTs = Long.MIN_VALUE;
+		}
+	}
+
+	/**
+	 * The identity of a group of queries.
+	 */
+	private static final class ShapeKey {
+		private final String ns;
+		private final String op;
+		private final String shapeId;
+
+		private ShapeKey(String ns, String op, String shapeId) {
+			this.ns = ns;
+			this.op = op;
+			this.shapeId = shapeId;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (o == this) {
+				return true;
+			}
+
+			if (o instanceof ShapeKey) {
+				ShapeKey k = (ShapeKey) o;
+				return Objects.equals(ns, k.ns)
+						&& Objects.equals(op, k.op)
+						&& Objects.equals(shapeId, k.shapeId);
+			}
+
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(ns, op, shapeId);
+		}
+
+		@Override
+		public String toString() {
+			return ns + "#" + op + "#" + shapeId;
+		}
+	}
+
+	/**
+	 * The latency sketch of a group of queries.
+	 */
+	private static final class ShapeLatency {
+		private final ShapeKey key;
+		private final String shape;
+		private final LatencySketch sketch;
+
+		private ShapeLatency(ShapeKey key, String shape) {
+			this.key = key;
+			this.shape = shape;
+			this.sketch = new LatencySketch();
+		}
+
+		private LatencyPercentiles toPercentiles() {
+			return new LatencyPercentiles(key.ns, key.op, key.shapeId, shape, sketch);
+		}
+	}
+}
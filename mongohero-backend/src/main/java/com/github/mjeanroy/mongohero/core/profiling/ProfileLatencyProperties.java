@@ -0,0 +1,123 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Objects;
+
+/**
+ * Settings of the latency sketches of harvested queries.
+ */
+@ConstructorBinding
+@ConfigurationProperties("mongohero.latency")
+public final class ProfileLatencyProperties {
+
+	/**
+	 * The duration (in milliseconds) of each time bucket: percentiles are computed over whole buckets.
+	 */
+	private final long bucketMs;
+
+	/**
+	 * The maximum age (in milliseconds) of time buckets, older buckets are discarded.
+	 */
+	private final long retentionMs;
+
+	/**
+	 * The maximum number of distinct query shapes of a database over the retention window, queries of additional
+	 * shapes are not recorded until older shapes expire.
+	 */
+	private final int maxShapes;
+
+	public ProfileLatencyProperties(
+			@DefaultValue("60000") long bucketMs,
+			@DefaultValue("86400000") long retentionMs,
+			@DefaultValue("10000") int maxShapes) {
+
+		this.bucketMs = bucketMs;
+		this.retentionMs = retentionMs;
+		this.maxShapes = maxShapes;
+	}
+
+	/**
+	 * Get {@link #bucketMs}
+	 *
+	 * @return {@link #bucketMs}
+	 */
+	long getBucketMs() {
+		return bucketMs;
+	}
+
+	/**
+	 * Get {@link #retentionMs}
+	 *
+	 * @return {@link #retentionMs}
+	 */
+	long getRetentionMs() {
+		return retentionMs;
+	}
+
+	/**
+	 * Get {@link #maxShapes}
+	 *
+	 * @return {@link #maxShapes}
+	 */
+	int getMaxShapes() {
+		return maxShapes;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof ProfileLatencyProperties) {
+			ProfileLatencyProperties p = (ProfileLatencyProperties) o;
+			return Objects.equals(bucketMs, p.bucketMs)
+					&& Objects.equals(retentionMs, p.retentionMs)
+					&& Objects.equals(maxShapes, p.maxShapes);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(bucketMs, retentionMs, maxShapes);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("bucketMs", bucketMs)
+				.append("retentionMs", retentionMs)
+				.append("maxShapes", maxShapes)
+				.build();
+	}
+}
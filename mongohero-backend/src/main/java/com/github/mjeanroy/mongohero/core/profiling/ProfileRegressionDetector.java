@@ -0,0 +1,405 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import com.github.mjeanroy.mongohero.core.model.ProfileQuery;
+import com.github.mjeanroy.mongohero.core.mongo.MongoMapper;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Keep a rolling baseline of each query shape (and namespace and operation type) of each database, and score
+ * the deviation of the current window from this baseline as harvested queries are recorded.
+ *
+ * Queries are counted in windows of {@link ProfileRegressionProperties#getWindowMs()}: once a window is over, its
+ * latency percentiles, execution rate and examined ratio are folded into exponentially weighted moving averages (and
+ * variances) of the shape. Each metric of the current window is scored as the number of baseline deviations above
+ * the baseline, so that a shape is regressed as soon as a metric reaches {@link ProfileRegressionProperties#getThreshold()}.
+ *
+ * The baseline of a shape that has not been executed for {@link ProfileRegressionProperties#getMaxIdleWindows()} windows
+ * is evicted. Queries of new shapes are dropped (and counted, see {@link #getDroppedShapes()}) while a database already
+ * tracks {@link ProfileRegressionProperties#getMaxShapes()} shapes.
+ */
+@Component
+public class ProfileRegressionDetector {
+
+	private static final Logger log = LoggerFactory.getLogger(ProfileRegressionDetector.class);
+
+	private static final String TS_FIELD = "ts";
+
+	private static final long MINUTE_MS = 60000;
+
+	/**
+	 * The lowest deviation of a baseline, relative to its mean: a baseline that never changed would score any change.
+	 */
+	private static final double MIN_RELATIVE_DEVIATION = 0.1;
+
+	/**
+	 * The lowest deviation of a baseline (i.e one millisecond, one execution per minute, or one examined document
+	 * for each returned document).
+	 */
+	private static final double MIN_DEVIATION = 1;
+
+	/**
+	 * The maximum number of empty windows folded into a baseline when a shape is executed again: older windows have
+	 * no significant weight anymore.
+	 */
+	private static final int MAX_EMPTY_WINDOWS = 1000;
+
+	private final long windowMs;
+	private final double alpha;
+	private final int minWindows;
+	private final int minCount;
+	private final double threshold;
+	private final int maxShapes;
+	private final int maxIdleWindows;
+	private final MongoMapper mongoMapper;
+	private final QueryFingerprinter queryFingerprinter;
+
+	/**
+	 * The baselines of each database.
+	 */
+	private final Map<String, DatabaseBaselines> databases;
+
+	/**
+	 * The number of queries not scored because their database already tracks too many shapes.
+	 */
+	private final AtomicLong droppedShapes;
+
+	/**
+	 * The number of baselines evicted because their shape was not executed anymore.
+	 */
+	private final AtomicLong evictedShapes;
+
+	@Autowired
+	public ProfileRegressionDetector(ProfileRegressionProperties properties, MongoMapper mongoMapper, QueryFingerprinter queryFingerprinter) {
+		this.windowMs = Math.max(1, properties.getWindowMs());
+		this.alpha = Math.min(1, Math.max(0, properties.getAlpha()));
+		this.minWindows = properties.getMinWindows();
+		this.minCount = properties.getMinCount();
+		this.threshold = properties.getThreshold();
+		this.maxShapes = properties.getMaxShapes();
+		this.maxIdleWindows = Math.max(1, properties.getMaxIdleWindows());
+		this.mongoMapper = mongoMapper;
+		this.queryFingerprinter = queryFingerprinter;
+		this.databases = new ConcurrentHashMap<>();
+		this.droppedShapes = new AtomicLong(0);
+		this.evictedShapes = new AtomicLong(0);
+	}
+
+	/**
+	 * Get {@link #droppedShapes}
+	 *
+	 * @return {@link #droppedShapes}
+	 */
+	public long getDroppedShapes() {
+		return droppedShapes.get();
+	}
+
+	/**
+	 * Get {@link #evictedShapes}
+	 *
+	 * @return {@link #evictedShapes}
+	 */
+	public long getEvictedShapes() {
+		return evictedShapes.get();
+	}
+
+	/**
+	 * Record given harvested queries, and score the shapes of these queries.
+	 *
+	 * @param database The database name.
+	 * @param entries The {@code "system.profile"} entries.
+	 */
+	public void record(String database, List<Document> entries) {
+		DatabaseBaselines baselines = databases.computeIfAbsent(database, key -> new DatabaseBaselines());
+
+		synchronized (baselines) {
+			Set<ShapeBaseline> recorded = new LinkedHashSet<>();
+			for (Document entry : entries) {
+				Date ts = entry.getDate(TS_FIELD);
+				if (ts == null) {
+					continue;
+				}
+
+				baselines.lastTs = Math.max(baselines.lastTs, ts.getTime());
+				if (windowOf(baselines.lastTs) > baselines.lastEviction) {
+					evictIdle(baselines);
+				}
+
+				ProfileQuery query = mongoMapper.map(entry, ProfileQuery.class);
+				ShapeBaseline baseline = baselineOf(baselines, query);
+				if (baseline != null) {
+					baseline.record(ts.getTime(), query);
+					recorded.add(baseline);
+				}
+			}
+
+			for (ShapeBaseline baseline : recorded) {
+				baseline.score();
+			}
+		}
+	}
+
+	/**
+	 * Get the current regressions of given database: shapes that have not been executed during the current (or the
+	 * previous) window are not regressed anymore.
+	 *
+	 * @param database The database name.
+	 * @return The regressions.
+	 */
+	public List<QueryRegression> regressions(String database) {
+		List<QueryRegression> regressions = new ArrayList<>();
+		DatabaseBaselines baselines = databases.get(database);
+		if (baselines == null) {
+			return regressions;
+		}
+
+		synchronized (baselines) {
+			long oldestWindow = windowOf(baselines.lastTs) - windowMs;
+			for (ShapeBaseline baseline : baselines.shapes.values()) {
+				QueryRegression regression = baseline.regression;
+				if (regression != null && regression.getSince().getTime() >= oldestWindow) {
+					regressions.add(regression);
+				}
+			}
+		}
+
+		return regressions;
+	}
+
+	private ShapeBaseline baselineOf(DatabaseBaselines baselines, ProfileQuery query) {
+		QueryShape shape = queryFingerprinter.fingerprint(query);
+		List<String> key = asList(query.getNs(), query.getOp(), shape.getId());
+
+		ShapeBaseline baseline = baselines.shapes.get(key);
+		if (baseline == null) {
+			if (baselines.shapes.size() >= maxShapes) {
+				droppedShapes.incrementAndGet();
+				return null;
+			}
+
+			baseline = new ShapeBaseline(query.getNs(), query.getOp(), shape);
+			baselines.shapes.put(key, baseline);
+		}
+
+		return baseline;
+	}
+
+	/**
+	 * Evict baselines of shapes that have not been executed for {@link #maxIdleWindows} windows.
+	 *
+	 * @param baselines The baselines of a database.
+	 */
+	private void evictIdle(DatabaseBaselines baselines) {
+		long currentWindow = windowOf(baselines.lastTs);
+		long oldestWindow = currentWindow - maxIdleWindows * windowMs;
+
+		int size = baselines.shapes.size();
+		baselines.shapes.values().removeIf(baseline -> baseline.windowStart < oldestWindow);
+		baselines.lastEviction = currentWindow;
+
+		int evicted = size - baselines.shapes.size();
+		if (evicted > 0) {
+			log.debug("Evicted {} idle query shape(s)", evicted);
+			evictedShapes.addAndGet(evicted);
+		}
+	}
+
+	private long windowOf(long ts) {
+		return ts - Math.floorMod(ts, windowMs);
+	}
+
+	/**
+	 * The baselines of a database: must be accessed while holding its monitor.
+	 */
+	private static final class DatabaseBaselines {
+		private final Map<List<String>, ShapeBaseline> shapes;
+		private long lastTs;
+		private long lastEviction;
+
+		private DatabaseBaselines() {
+			this.shapes = new HashMap<>();
+			this.lastTs = Long.MIN_VALUE;
+			this.lastEviction = Long.MIN_VALUE;
+		}
+	}
+
+	/**
+	 * The current window and the baseline of a query shape.
+	 */
+	private final class ShapeBaseline {
+		private final String ns;
+		private final String op;
+		private final QueryShape shape;
+
+		private final Ewma p50;
+		private final Ewma p99;
+		private final Ewma rate;
+		private final Ewma examinedRatio;
+
+		private long windowStart;
+		private LatencySketch sketch;
+		private long examined;
+		private long returned;
+		private int windows;
+		private QueryRegression regression;
+
+		private ShapeBaseline(String ns, String op, QueryShape shape) {
+			this.ns = ns;
+			this.op = op;
+			this.shape = shape;
+			this.p50 = new Ewma();
+			this.p99 = new Ewma();
+			this.rate = new Ewma();
+			this.examinedRatio = new Ewma();
+			this.windowStart = Long.MIN_VALUE;
+			this.sketch = new LatencySketch();
+		}
+
+		private void record(long ts, ProfileQuery query) {
+			long window = windowOf(ts);
+			if (windowStart == Long.MIN_VALUE) {
+				windowStart = window;
+			}
+			else if (window > windowStart) {
+				fold(window);
+			}
+
+			// Late queries (i.e older than the current window) are counted in the current window.
+			sketch.record(query.getMillis());
+			examined += Math.max(query.getDocsExamined(), query.getKeysExamined());
+			returned += query.getNreturned();
+		}
+
+		private void fold(long nextWindow) {
+			rate.update(getRate());
+			if (sketch.getCount() > 0) {
+				p50.update(sketch.getPercentile(50));
+				p99.update(sketch.getPercentile(99));
+				examinedRatio.update(getExaminedRatio());
+			}
+
+			windows++;
+
+			long emptyWindows = Math.min(MAX_EMPTY_WINDOWS, (nextWindow - windowStart) / windowMs - 1);
+			for (long i = 0; i < emptyWindows; ++i) {
+				rate.update(0);
+				windows++;
+			}
+
+			windowStart = nextWindow;
+			sketch = new LatencySketch();
+			examined = 0;
+			returned = 0;
+		}
+
+		private void score() {
+			if (windows < minWindows) {
+				regression = null;
+				return;
+			}
+
+			long count = sketch.getCount();
+			boolean previousWindow = regression != null && regression.getSince().getTime() == windowStart - windowMs;
+			if (count < minCount && previousWindow) {
+				// Not enough executions yet: the previous window is the latest evidence.
+				return;
+			}
+
+			List<MetricDeviation> metrics = new ArrayList<>(4);
+			metrics.add(deviation(RegressionMetric.RATE, getRate(), rate));
+			if (count >= minCount) {
+				metrics.add(deviation(RegressionMetric.LATENCY_P50, sketch.getPercentile(50), p50));
+				metrics.add(deviation(RegressionMetric.LATENCY_P99, sketch.getPercentile(99), p99));
+				metrics.add(deviation(RegressionMetric.EXAMINED_RATIO, getExaminedRatio(), examinedRatio));
+			}
+
+			boolean regressed = metrics.stream().anyMatch(MetricDeviation::isRegressed);
+			regression = regressed ? new QueryRegression(ns, op, shape.getId(), shape.getShape(), new Date(windowStart), count, metrics) : null;
+		}
+
+		private MetricDeviation deviation(RegressionMetric metric, double current, Ewma baseline) {
+			double score = baseline.score(current);
+			return new MetricDeviation(metric, current, baseline.mean, score, baseline.initialized && score >= threshold);
+		}
+
+		/**
+		 * Get the number of executions per minute in the current window: until the window is over, this is a lower bound.
+		 *
+		 * @return The number of executions per minute.
+		 */
+		private double getRate() {
+			return sketch.getCount() * (double) MINUTE_MS / windowMs;
+		}
+
+		private double getExaminedRatio() {
+			return examined / (double) Math.max(1, returned);
+		}
+	}
+
+	/**
+	 * An exponentially weighted moving average, and variance.
+	 */
+	private final class Ewma {
+		private double mean;
+		private double variance;
+		private boolean initialized;
+
+		private void update(double value) {
+			if (!initialized) {
+				mean = value;
+				variance = 0;
+				initialized = true;
+				return;
+			}
+
+			double diff = value - mean;
+			double increment = alpha * diff;
+			mean += increment;
+			variance = (1 - alpha) * (variance + diff * increment);
+		}
+
+		private double score(double value) {
+			double deviation = Math.max(Math.sqrt(variance), Math.max(mean * MIN_RELATIVE_DEVIATION, MIN_DEVIATION));
+			return (value - mean) / deviation;
+		}
+	}
+}
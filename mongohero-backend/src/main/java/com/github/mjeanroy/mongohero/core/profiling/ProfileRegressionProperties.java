@@ -0,0 +1,197 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Objects;
+
+/**
+ * Settings of the detection of query shapes getting slower (or more frequent) than their baseline.
+ */
+@ConstructorBinding
+@ConfigurationProperties("mongohero.regression")
+public final class ProfileRegressionProperties {
+
+	/**
+	 * The duration (in milliseconds) of each window: statistics of a query shape are computed for the current
+	 * window, and folded into its baseline once the window is over.
+	 */
+	private final long windowMs;
+
+	/**
+	 * The weight of each window in baselines (exponentially weighted moving averages): the lower, the longer
+	 * the memory of baselines.
+	 */
+	private final double alpha;
+
+	/**
+	 * The minimum number of windows folded into the baseline of a query shape before its deviations are scored.
+	 */
+	private final int minWindows;
+
+	/**
+	 * The minimum number of executions of a query shape in the current window before its latency and examined
+	 * ratio are scored.
+	 */
+	private final int minCount;
+
+	/**
+	 * The score (i.e the number of baseline deviations above the baseline) from which a metric is regressed.
+	 */
+	private final double threshold;
+
+	/**
+	 * The maximum number of query shapes tracked for each database, other shapes are ignored (and counted as dropped).
+	 */
+	private final int maxShapes;
+
+	/**
+	 * The number of windows without any execution after which the baseline of a query shape is evicted.
+	 */
+	private final int maxIdleWindows;
+
+	public ProfileRegressionProperties(
+			@DefaultValue("60000") long windowMs,
+			@DefaultValue("0.1") double alpha,
+			@DefaultValue("10") int minWindows,
+			@DefaultValue("5") int minCount,
+			@DefaultValue("3.0") double threshold,
+			@DefaultValue("10000") int maxShapes,
+			@DefaultValue("1440") int maxIdleWindows) {
+
+		this.windowMs = windowMs;
+		this.alpha = alpha;
+		this.minWindows = minWindows;
+		this.minCount = minCount;
+		this.threshold = threshold;
+		this.maxShapes = maxShapes;
+		this.maxIdleWindows = maxIdleWindows;
+	}
+
+	/**
+	 * Get {@link #windowMs}
+	 *
+	 * @return {@link #windowMs}
+	 */
+	long getWindowMs() {
+		return windowMs;
+	}
+
+	/**
+	 * Get {@link #alpha}
+	 *
+	 * @return {@link #alpha}
+	 */
+	double getAlpha() {
+		return alpha;
+	}
+
+	/**
+	 * Get {@link #minWindows}
+	 *
+	 * @return {@link #minWindows}
+	 */
+	int getMinWindows() {
+		return minWindows;
+	}
+
+	/**
+	 * Get {@link #minCount}
+	 *
+	 * @return {@link #minCount}
+	 */
+	int getMinCount() {
+		return minCount;
+	}
+
+	/**
+	 * Get {@link #threshold}
+	 *
+	 * @return {@link #threshold}
+	 */
+	double getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Get {@link #maxShapes}
+	 *
+	 * @return {@link #maxShapes}
+	 */
+	int getMaxShapes() {
+		return maxShapes;
+	}
+
+	/**
+	 * Get {@link #maxIdleWindows}
+	 *
+	 * @return {@link #maxIdleWindows}
+	 */
+	int getMaxIdleWindows() {
+		return maxIdleWindows;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof ProfileRegressionProperties) {
+			ProfileRegressionProperties p = (ProfileRegressionProperties) o;
+			return Objects.equals(windowMs, p.windowMs)
+					&& Objects.equals(alpha, p.alpha)
+					&& Objects.equals(minWindows, p.minWindows)
+					&& Objects.equals(minCount, p.minCount)
+					&& Objects.equals(threshold, p.threshold)
+					&& Objects.equals(maxShapes, p.maxShapes)
+					&& Objects.equals(maxIdleWindows, p.maxIdleWindows);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(windowMs, alpha, minWindows, minCount, threshold, maxShapes, maxIdleWindows);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("windowMs", windowMs)
+				.append("alpha", alpha)
+				.append("minWindows", minWindows)
+				.append("minCount", minCount)
+				.append("threshold", threshold)
+				.append("maxShapes", maxShapes)
+				.append("maxIdleWindows", maxIdleWindows)
+				.build();
+	}
+}
@@ -0,0 +1,157 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Date;
+
+/**
+ * A snapshot of the counters of the tailable cursor harvesting the {@code "system.profile"} collection of
+ * a database.
+ */
+public final class ProfileTailStats {
+
+	/**
+	 * The database name.
+	 */
+	private final String database;
+
+	/**
+	 * Flag indicating if a tailable cursor is currently open.
+	 */
+	private final boolean connected;
+
+	/**
+	 * The number of entries harvested.
+	 */
+	private final long harvested;
+
+	/**
+	 * The number of times the {@code "system.profile"} collection rolled over entries that were not harvested yet.
+	 */
+	private final long gaps;
+
+	/**
+	 * The number of times the tailable cursor failed.
+	 */
+	private final long failures;
+
+	/**
+	 * The timestamp of the last harvested entry, {@code null} if no entry has been harvested yet.
+	 */
+	private final Date lastTs;
+
+	/**
+	 * The delay (in milliseconds) between the timestamp of the last harvested entry and the time it was harvested.
+	 */
+	private final long lagMs;
+
+	ProfileTailStats(String database, boolean connected, long harvested, long gaps, long failures, Date lastTs, long lagMs) {
+		this.database = database;
+		this.connected = connected;
+		this.harvested = harvested;
+		this.gaps = gaps;
+		this.failures = failures;
+		this.lastTs = lastTs;
+		this.lagMs = lagMs;
+	}
+
+	/**
+	 * Get {@link #database}
+	 *
+	 * @return {@link #database}
+	 */
+	public String getDatabase() {
+		return database;
+	}
+
+	/**
+	 * Get {@link #connected}
+	 *
+	 * @return {@link #connected}
+	 */
+	public boolean isConnected() {
+		return connected;
+	}
+
+	/**
+	 * Get {@link #harvested}
+	 *
+	 * @return {@link #harvested}
+	 */
+	public long getHarvested() {
+		return harvested;
+	}
+
+	/**
+	 * Get {@link #gaps}
+	 *
+	 * @return {@link #gaps}
+	 */
+	public long getGaps() {
+		return gaps;
+	}
+
+	/**
+	 * Get {@link #failures}
+	 *
+	 * @return {@link #failures}
+	 */
+	public long getFailures() {
+		return failures;
+	}
+
+	/**
+	 * Get {@link #lastTs}
+	 *
+	 * @return {@link #lastTs}
+	 */
+	public Date getLastTs() {
+		return lastTs;
+	}
+
+	/**
+	 * Get {@link #lagMs}
+	 *
+	 * @return {@link #lagMs}
+	 */
+	public long getLagMs() {
+		return lagMs;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("database", database)
+				.append("connected", connected)
+				.append("harvested", harvested)
+				.append("gaps", gaps)
+				.append("failures", failures)
+				.append("lastTs", lastTs)
+				.append("lagMs", lagMs)
+				.build();
+	}
+}
@@ -0,0 +1,309 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import com.github.mjeanroy.mongohero.core.model.ProfileQuery;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Compute the {@link QueryShape} of profiled operations.
+ *
+ * The shape is a canonical (JSON like) representation of the operation command, where:
+ * <ul>
+ *   <li>Literal values are replaced by {@code ?}, except the collection name (i.e the string value of the command name, or the {@code collection} field of a {@code getMore}) and field paths of aggregation expressions.</li>
+ *   <li>Keys of each document are sorted, except in documents where the order matters (such as sort specifications).</li>
+ *   <li>Arrays of literal values, and operands of {@code $in}, {@code $nin} and {@code $all}, are collapsed to {@code [?]}.</li>
+ *   <li>Fields that do not change the operation itself (session, cluster time, comments, etc.) are ignored.</li>
+ * </ul>
+ *
+ * The fingerprint is the 64-bits FNV-1a hash of the shape (computed on its UTF-16 little endian representation).
+ * This class is stateless and thread-safe.
+ */
+@Component
+public class QueryFingerprinter {
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private static final String PLACEHOLDER = "?";
+
+	/**
+	 * The command fetching the next batch of a cursor: its value is the cursor id, and its collection is given by
+	 * the {@link #COLLECTION_FIELD} field.
+	 */
+	private static final String GET_MORE_COMMAND = "getMore";
+	private static final String COLLECTION_FIELD = "collection";
+
+	/**
+	 * Top level fields that are ignored.
+	 */
+	private static final Set<String> IGNORED_FIELDS = new HashSet<>(asList(
+			"lsid",
+			"$db",
+			"$clusterTime",
+			"$readPreference",
+			"$client",
+			"$audit",
+			"txnNumber",
+			"startTransaction",
+			"autocommit",
+			"comment",
+			"maxTimeMS",
+			"batchSize",
+			"cursor",
+			"readConcern",
+			"writeConcern",
+			"shardVersion",
+			"databaseVersion"
+	));
+
+	/**
+	 * Fields whose document value is order sensitive: keys are not sorted, and values are kept.
+	 */
+	private static final Set<String> ORDERED_FIELDS = new HashSet<>(asList(
+			"sort",
+			"$sort",
+			"orderby",
+			"$orderby",
+			"hint",
+			"$hint"
+	));
+
+	/**
+	 * Operators whose array operand is always collapsed.
+	 */
+	private static final Set<String> COLLAPSED_OPERATORS = new HashSet<>(asList(
+			"$in",
+			"$nin",
+			"$all"
+	));
+
+	/**
+	 * Compute the shape of given profiled operation: the operation command is used if it is
+	 * available, the operation query otherwise (i.e older servers).
+	 *
+	 * @param query The profiled operation.
+	 * @return The shape.
+	 */
+	public QueryShape fingerprint(ProfileQuery query) {
+		Map<String, Object> command = query.getCommand();
+		return fingerprint(command == null || command.isEmpty() ? query.getQuery() : command);
+	}
+
+	/**
+	 * Compute the shape of given command.
+	 *
+	 * @param command The command, may be {@code null}.
+	 * @return The shape.
+	 */
+	public QueryShape fingerprint(Map<String, ?> command) {
+		StringBuilder sb = new StringBuilder(128);
+		if (command == null) {
+			sb.append("{}");
+		}
+		else {
+			appendCommand(sb, command);
+		}
+
+		String shape = sb.toString();
+		return new QueryShape(shape, hash(shape));
+	}
+
+	/**
+	 * Compute the 64-bits FNV-1a hash of given string, on its UTF-16 little endian representation.
+	 *
+	 * @param value The string.
+	 * @return The hash.
+	 */
+	static long hash(CharSequence value) {
+		long hash = FNV_OFFSET_BASIS;
+		for (int i = 0, size = value.length(); i < size; ++i) {
+			char c = value.charAt(i);
+			hash ^= (c & 0xff);
+			hash *= FNV_PRIME;
+			hash ^= (c >>> 8);
+			hash *= FNV_PRIME;
+		}
+
+		return hash;
+	}
+
+	private static void appendCommand(StringBuilder sb, Map<String, ?> command) {
+		// The first key is the command name, its value is kept if it is the collection name (and not a cursor id, for example).
+		String commandName = command.isEmpty() ? null : command.keySet().iterator().next();
+		String collectionField = GET_MORE_COMMAND.equals(commandName) ? COLLECTION_FIELD : commandName;
+		String[] keys = sortedKeys(command);
+
+		sb.append('{');
+
+		boolean first = true;
+		for (String key : keys) {
+			if (IGNORED_FIELDS.contains(key)) {
+				continue;
+			}
+
+			first = appendKey(sb, key, first);
+
+			Object value = command.get(key);
+			if (key.equals(collectionField) && value instanceof String) {
+				appendString(sb, (String) value);
+			}
+			else {
+				appendValue(sb, key, value);
+			}
+		}
+
+		sb.append('}');
+	}
+
+	private static void appendValue(StringBuilder sb, String key, Object value) {
+		if (value instanceof Map) {
+			Map<?, ?> document = (Map<?, ?>) value;
+			if (ORDERED_FIELDS.contains(key)) {
+				appendOrderedDocument(sb, document);
+			}
+			else {
+				appendDocument(sb, document);
+			}
+		}
+		else if (value instanceof Collection) {
+			appendArray(sb, key, (Collection<?>) value);
+		}
+		else if (value instanceof String && ((String) value).startsWith("$")) {
+			// Field path (or variable) in aggregation expressions, part of the shape.
+			appendString(sb, (String) value);
+		}
+		else {
+			sb.append(PLACEHOLDER);
+		}
+	}
+
+	private static void appendDocument(StringBuilder sb, Map<?, ?> document) {
+		sb.append('{');
+
+		boolean first = true;
+		for (String key : sortedKeys(document)) {
+			first = appendKey(sb, key, first);
+			appendValue(sb, key, document.get(key));
+		}
+
+		sb.append('}');
+	}
+
+	private static void appendOrderedDocument(StringBuilder sb, Map<?, ?> document) {
+		sb.append('{');
+
+		boolean first = true;
+		for (Map.Entry<?, ?> entry : document.entrySet()) {
+			first = appendKey(sb, String.valueOf(entry.getKey()), first);
+
+			Object value = entry.getValue();
+			if (value instanceof Number || value instanceof String) {
+				// Sort direction, index name, etc.
+				sb.append(value);
+			}
+			else {
+				appendValue(sb, String.valueOf(entry.getKey()), value);
+			}
+		}
+
+		sb.append('}');
+	}
+
+	private static void appendArray(StringBuilder sb, String key, Collection<?> array) {
+		if (COLLAPSED_OPERATORS.contains(key) || isLiteralArray(array)) {
+			sb.append('[').append(PLACEHOLDER).append(']');
+			return;
+		}
+
+		sb.append('[');
+
+		boolean first = true;
+		for (Object value : array) {
+			if (!first) {
+				sb.append(',');
+			}
+
+			first = false;
+			appendValue(sb, key, value);
+		}
+
+		sb.append(']');
+	}
+
+	private static boolean appendKey(StringBuilder sb, String key, boolean first) {
+		if (!first) {
+			sb.append(',');
+		}
+
+		appendString(sb, key);
+		sb.append(':');
+		return false;
+	}
+
+	private static void appendString(StringBuilder sb, String value) {
+		sb.append('"');
+		for (int i = 0, size = value.length(); i < size; ++i) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\');
+			}
+
+			sb.append(c);
+		}
+
+		sb.append('"');
+	}
+
+	private static boolean isLiteralArray(Collection<?> array) {
+		for (Object value : array) {
+			if (value instanceof Map || value instanceof Collection) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static String[] sortedKeys(Map<?, ?> document) {
+		String[] keys = new String[document.size()];
+
+		int i = 0;
+		for (Object key : document.keySet()) {
+			keys[i++] = String.valueOf(key);
+		}
+
+		Arrays.sort(keys);
+		return keys;
+	}
+}
@@ -0,0 +1,176 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * A query shape whose metrics, in the current window, deviate from its baseline.
+ */
+public final class QueryRegression {
+
+	/**
+	 * The namespace.
+	 */
+	private final String ns;
+
+	/**
+	 * The operation type.
+	 */
+	private final String op;
+
+	/**
+	 * The identifier of the query shape.
+	 */
+	private final String shapeId;
+
+	/**
+	 * The query shape.
+	 */
+	private final String shape;
+
+	/**
+	 * The start of the window.
+	 */
+	private final Date since;
+
+	/**
+	 * The number of executions in the window.
+	 */
+	private final long count;
+
+	/**
+	 * The highest score of regressed metrics.
+	 */
+	private final double score;
+
+	/**
+	 * The deviation of each scored metric.
+	 */
+	private final List<MetricDeviation> metrics;
+
+	QueryRegression(String ns, String op, String shapeId, String shape, Date since, long count, List<MetricDeviation> metrics) {
+		this.ns = ns;
+		this.op = op;
+		this.shapeId = shapeId;
+		this.shape = shape;
+		this.since = since;
+		this.count = count;
+		this.score = metrics.stream().filter(MetricDeviation::isRegressed).mapToDouble(MetricDeviation::getScore).max().orElse(0);
+		this.metrics = unmodifiableList(new ArrayList<>(metrics));
+	}
+
+	/**
+	 * Get {@link #ns}
+	 *
+	 * @return {@link #ns}
+	 */
+	public String getNs() {
+		return ns;
+	}
+
+	/**
+	 * Get {@link #op}
+	 *
+	 * @return {@link #op}
+	 */
+	public String getOp() {
+		return op;
+	}
+
+	/**
+	 * Get {@link #shapeId}
+	 *
+	 * @return {@link #shapeId}
+	 */
+	public String getShapeId() {
+		return shapeId;
+	}
+
+	/**
+	 * Get {@link #shape}
+	 *
+	 * @return {@link #shape}
+	 */
+	public String getShape() {
+		return shape;
+	}
+
+	/**
+	 * Get {@link #since}
+	 *
+	 * @return {@link #since}
+	 */
+	public Date getSince() {
+		return since;
+	}
+
+	/**
+	 * Get {@link #count}
+	 *
+	 * @return {@link #count}
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Get {@link #score}
+	 *
+	 * @return {@link #score}
+	 */
+	public double getScore() {
+		return score;
+	}
+
+	/**
+	 * Get {@link #metrics}
+	 *
+	 * @return {@link #metrics}
+	 */
+	public List<MetricDeviation> getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("ns", ns)
+				.append("op", op)
+				.append("shapeId", shapeId)
+				.append("shape", shape)
+				.append("since", since)
+				.append("count", count)
+				.append("score", score)
+				.append("metrics", metrics)
+				.build();
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Objects;
+
+/**
+ * The shape of a profiled operation: its command (or query) where literal values are replaced
+ * by a placeholder, and a stable 64-bits fingerprint of this shape.
+ *
+ * Operations that differ only by their literal values have the same shape, and the same fingerprint.
+ */
+public final class QueryShape {
+
+	/**
+	 * The canonical representation of the shape.
+	 */
+	private final String shape;
+
+	/**
+	 * The fingerprint of {@link #shape}.
+	 */
+	private final long fingerprint;
+
+	QueryShape(String shape, long fingerprint) {
+		this.shape = shape;
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * Get {@link #shape}
+	 *
+	 * @return {@link #shape}
+	 */
+	public String getShape() {
+		return shape;
+	}
+
+	/**
+	 * Get {@link #fingerprint}
+	 *
+	 * @return {@link #fingerprint}
+	 */
+	public long getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * Get the fingerprint, as an hexadecimal string of 16 characters.
+	 *
+	 * @return The fingerprint identifier.
+	 */
+	public String getId() {
+		String hex = Long.toHexString(fingerprint);
+		StringBuilder sb = new StringBuilder(16);
+		for (int i = hex.length(); i < 16; ++i) {
+			sb.append('0');
+		}
+
+		return sb.append(hex).toString();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof QueryShape) {
+			QueryShape s = (QueryShape) o;
+			return Objects.equals(fingerprint, s.fingerprint)
+					&& Objects.equals(shape, s.shape);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(fingerprint);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("shape", shape)
+				.append("fingerprint", getId())
+				.build();
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling.store;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * A {@link ProfileStore} keeping, for each database, the most recent entries in memory: the number of entries
+ * is bounded (see {@link ProfileStoreProperties#getMemoryEntries()}), oldest entries are discarded first.
+ *
+ * Entries are lost when the application stops: this is the default store, see {@link SegmentProfileStore} to keep
+ * entries on disk.
+ */
+@Component
+@ConditionalOnProperty(prefix = "mongohero.store", name = "type", havingValue = "MEMORY", matchIfMissing = true)
+public class InMemoryProfileStore implements ProfileStore {
+
+	private static final String TS_FIELD = "ts";
+
+	/**
+	 * The maximum number of entries for each database.
+	 */
+	private final int capacity;
+
+	/**
+	 * The entries of each database, in insertion order: each deque must be accessed while holding its monitor.
+	 */
+	private final Map<String, ArrayDeque<Document>> entries;
+
+	@Autowired
+	public InMemoryProfileStore(ProfileStoreProperties properties) {
+		this.capacity = Math.max(1, properties.getMemoryEntries());
+		this.entries = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public void append(String database, List<Document> documents) {
+		ArrayDeque<Document> deque = entries.computeIfAbsent(database, key -> new ArrayDeque<>());
+		synchronized (deque) {
+			for (Document document : documents) {
+				if (deque.size() == capacity) {
+					deque.pollFirst();
+				}
+
+				deque.addLast(document);
+			}
+		}
+	}
+
+	@Override
+	public Date getLastTs(String database) {
+		ArrayDeque<Document> deque = entries.get(database);
+		if (deque == null) {
+			return null;
+		}
+
+		synchronized (deque) {
+			Document last = deque.peekLast();
+			return last == null ? null : last.getDate(TS_FIELD);
+		}
+	}
+
+	@Override
+	public void scan(String database, Date from, Date to, Consumer<Document> consumer) {
+		ArrayDeque<Document> deque = entries.get(database);
+		if (deque == null) {
+			return;
+		}
+
+		// Copy entries, so that the consumer is not called while holding the monitor.
+		List<Document> snapshot;
+		synchronized (deque) {
+			snapshot = new ArrayList<>(deque);
+		}
+
+		for (Document document : snapshot) {
+			Date ts = document.getDate(TS_FIELD);
+			if ((from == null || !ts.before(from)) && (to == null || ts.before(to))) {
+				consumer.accept(document);
+			}
+		}
+	}
+}
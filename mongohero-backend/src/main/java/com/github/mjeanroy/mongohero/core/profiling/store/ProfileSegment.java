@@ -0,0 +1,371 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only segment file, mapped in memory.
+ *
+ * Each record is written as:
+ *
+ * <ul>
+ *   <li>The length of the payload (4 bytes).</li>
+ *   <li>The CRC32 checksum of the timestamp and the payload (4 bytes).</li>
+ *   <li>The timestamp, in milliseconds (8 bytes).</li>
+ *   <li>The payload.</li>
+ * </ul>
+ *
+ * The file is pre-allocated (and thus filled with zeros): the first record with a zero length, or with an invalid
+ * checksum, marks the end of the segment. A record torn by a crash is then detected, and discarded, when the segment
+ * is opened again.
+ *
+ * The segment keeps, in memory, a sparse index of the timestamps so that a range scan does not have to read records
+ * older than the lower bound.
+ */
+final class ProfileSegment {
+
+	private static final Logger log = LoggerFactory.getLogger(ProfileSegment.class);
+
+	/**
+	 * The size of the header of each record.
+	 */
+	static final int HEADER_BYTES = 16;
+
+	/**
+	 * The extension of segment files.
+	 */
+	static final String EXTENSION = ".seg";
+
+	/**
+	 * The number of records between two entries of the sparse index.
+	 */
+	private static final int INDEX_INTERVAL = 64;
+
+	/**
+	 * Create a new, empty, segment.
+	 *
+	 * @param directory The directory of the segment file.
+	 * @param sequence The sequence number of the segment.
+	 * @param capacity The size of the segment file.
+	 * @return The segment.
+	 * @throws IOException If the file cannot be created.
+	 */
+	static ProfileSegment create(Path directory, long sequence, int capacity) throws IOException {
+		Path path = directory.resolve(fileName(sequence));
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			return new ProfileSegment(path, sequence, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+		}
+	}
+
+	/**
+	 * Open an existing segment, and recover its records: the segment is truncated after the last valid record.
+	 *
+	 * @param path The segment file.
+	 * @param sequence The sequence number of the segment.
+	 * @return The segment.
+	 * @throws IOException If the file cannot be read.
+	 */
+	static ProfileSegment open(Path path, long sequence) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ProfileSegment segment = new ProfileSegment(path, sequence, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+			segment.recover();
+			return segment;
+		}
+	}
+
+	/**
+	 * Get the name of the file of given segment.
+	 *
+	 * @param sequence The sequence number of the segment.
+	 * @return The file name.
+	 */
+	static String fileName(long sequence) {
+		return String.format("%020d%s", sequence, EXTENSION);
+	}
+
+	private final Path path;
+	private final long sequence;
+	private final MappedByteBuffer buffer;
+
+	/**
+	 * The maximum timestamp of the records preceding each indexed offset.
+	 */
+	private long[] indexTs;
+
+	/**
+	 * The indexed offsets.
+	 */
+	private int[] indexOffsets;
+
+	private int indexSize;
+	private int position;
+	private int count;
+	private long minTs;
+	private long maxTs;
+
+	private ProfileSegment(Path path, long sequence, MappedByteBuffer buffer) {
+		this.path = path;
+		this.sequence = sequence;
+		this.buffer = buffer;
+		this.indexTs = new long[16];
+		this.indexOffsets = new int[16];
+		this.indexSize = 0;
+		this.position = 0;
+		this.count = 0;
+		this.minTs = Long.MAX_VALUE;
+		this.maxTs = Long.MIN_VALUE;
+	}
+
+	/**
+	 * Get {@link #sequence}
+	 *
+	 * @return {@link #sequence}
+	 */
+	long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Get the size of the segment file.
+	 *
+	 * @return The size, in bytes.
+	 */
+	int getCapacity() {
+		return buffer.capacity();
+	}
+
+	/**
+	 * Get the number of records.
+	 *
+	 * @return The number of records.
+	 */
+	synchronized int getCount() {
+		return count;
+	}
+
+	/**
+	 * Get the lowest timestamp of the records.
+	 *
+	 * @return The lowest timestamp, {@link Long#MAX_VALUE} if the segment is empty.
+	 */
+	synchronized long getMinTs() {
+		return minTs;
+	}
+
+	/**
+	 * Get the highest timestamp of the records.
+	 *
+	 * @return The highest timestamp, {@link Long#MIN_VALUE} if the segment is empty.
+	 */
+	synchronized long getMaxTs() {
+		return maxTs;
+	}
+
+	/**
+	 * Append a record.
+	 *
+	 * @param ts The record timestamp.
+	 * @param payload The record payload.
+	 * @return {@code true} if the record has been appended, {@code false} if the segment is full.
+	 */
+	synchronized boolean append(long ts, byte[] payload) {
+		if (position + HEADER_BYTES + payload.length > buffer.capacity()) {
+			return false;
+		}
+
+		if (count % INDEX_INTERVAL == 0) {
+			index(position);
+		}
+
+		ByteBuffer record = buffer.duplicate();
+		record.position(position + 8);
+		record.putLong(ts);
+		record.put(payload);
+		record.putInt(position + 4, checksum(ts, ByteBuffer.wrap(payload)));
+
+		// The length is written last: a record is not visible until it is complete.
+		record.putInt(position, payload.length);
+
+		onRecord(ts, position + HEADER_BYTES + payload.length);
+		return true;
+	}
+
+	/**
+	 * Read the records whose timestamp is between given bounds, in insertion order: since records are appended in
+	 * timestamp order, the scan stops at the first record after the upper bound.
+	 *
+	 * @param from The lower bound (inclusive).
+	 * @param to The upper bound (exclusive).
+	 * @param consumer The consumer of the timestamp and the payload of each record.
+	 */
+	void scan(long from, long to, BiConsumer<Long, ByteBuffer> consumer) {
+		int offset;
+		int end;
+
+		synchronized (this) {
+			offset = findOffset(from);
+			end = position;
+		}
+
+		ByteBuffer records = buffer.duplicate();
+		while (offset < end) {
+			int length = records.getInt(offset);
+			long ts = records.getLong(offset + 8);
+			if (ts >= to) {
+				break;
+			}
+
+			if (ts >= from) {
+				ByteBuffer payload = records.duplicate();
+				payload.position(offset + HEADER_BYTES);
+				payload.limit(offset + HEADER_BYTES + length);
+				consumer.accept(ts, payload.slice());
+			}
+
+			offset += HEADER_BYTES + length;
+		}
+	}
+
+	/**
+	 * Write the records to the disk.
+	 */
+	void flush() {
+		buffer.force();
+	}
+
+	/**
+	 * Delete the segment file: note that the memory mapping is released once the segment is garbage collected.
+	 *
+	 * @throws IOException If the file cannot be deleted.
+	 */
+	void delete() throws IOException {
+		Files.deleteIfExists(path);
+	}
+
+	private void recover() {
+		int capacity = buffer.capacity();
+		int offset = 0;
+
+		while (offset + HEADER_BYTES <= capacity) {
+			int length = buffer.getInt(offset);
+			if (length <= 0 || offset + HEADER_BYTES + length > capacity) {
+				break;
+			}
+
+			long ts = buffer.getLong(offset + 8);
+			ByteBuffer payload = buffer.duplicate();
+			payload.position(offset + HEADER_BYTES);
+			payload.limit(offset + HEADER_BYTES + length);
+			if (checksum(ts, payload) != buffer.getInt(offset + 4)) {
+				break;
+			}
+
+			if (count % INDEX_INTERVAL == 0) {
+				index(offset);
+			}
+
+			offset += HEADER_BYTES + length;
+			onRecord(ts, offset);
+		}
+
+		// A torn record is erased, so that it is not read once overwritten by a shorter record.
+		if (offset + 4 <= capacity && buffer.getInt(offset) != 0) {
+			log.warn("Segment {} is truncated after {} record(s), at offset {}", path, count, offset);
+			ByteBuffer tail = buffer.duplicate();
+			tail.position(offset);
+			while (tail.hasRemaining()) {
+				tail.put((byte) 0);
+			}
+
+			buffer.force();
+		}
+	}
+
+	private void onRecord(long ts, int end) {
+		position = end;
+		count++;
+		minTs = Math.min(minTs, ts);
+		maxTs = Math.max(maxTs, ts);
+	}
+
+	private void index(int offset) {
+		if (indexSize == indexOffsets.length) {
+			indexTs = Arrays.copyOf(indexTs, indexSize * 2);
+			indexOffsets = Arrays.copyOf(indexOffsets, indexSize * 2);
+		}
+
+		indexTs[indexSize] = maxTs;
+		indexOffsets[indexSize] = offset;
+		indexSize++;
+	}
+
+	/**
+	 * Find the offset of the first record that may have a timestamp greater than or equal to given timestamp: all
+	 * records preceding this offset have a lower timestamp.
+	 *
+	 * @param from The timestamp.
+	 * @return The offset.
+	 */
+	private int findOffset(long from) {
+		int low = 0;
+		int high = indexSize - 1;
+		int offset = 0;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (indexTs[mid] < from) {
+				offset = indexOffsets[mid];
+				low = mid + 1;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+
+		return offset;
+	}
+
+	private static int checksum(long ts, ByteBuffer payload) {
+		CRC32 crc = new CRC32();
+		ByteBuffer header = ByteBuffer.allocate(8);
+		header.putLong(0, ts);
+		crc.update(header);
+		crc.update(payload.duplicate());
+		return (int) crc.getValue();
+	}
+}
@@ -0,0 +1,68 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling.store;
+
+import org.bson.Document;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A local store of profiled queries (i.e {@code "system.profile"} entries), kept outside of MongoDB so that
+ * they are not lost when the {@code "system.profile"} capped collection rolls over.
+ *
+ * Implementations must be thread-safe.
+ */
+public interface ProfileStore {
+
+	/**
+	 * Append given entries of given database: entries must be given in insertion order, i.e sorted by
+	 * {@code "ts"} field.
+	 *
+	 * @param database The database name.
+	 * @param entries The entries.
+	 */
+	void append(String database, List<Document> entries);
+
+	/**
+	 * Get the timestamp of the last entry stored for given database, so that harvesting can be resumed
+	 * from this timestamp.
+	 *
+	 * @param database The database name.
+	 * @return The timestamp of the last entry, {@code null} if there is no entry for this database.
+	 */
+	Date getLastTs(String database);
+
+	/**
+	 * Read entries of given database whose timestamp is between given bounds, in insertion order.
+	 *
+	 * @param database The database name.
+	 * @param from The lower bound (inclusive), {@code null} to read from the oldest entry.
+	 * @param to The upper bound (exclusive), {@code null} to read until the newest entry.
+	 * @param consumer The consumer of each entry.
+	 */
+	void scan(String database, Date from, Date to, Consumer<Document> consumer);
+}
@@ -0,0 +1,180 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling.store;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Objects;
+
+/**
+ * Settings of the local store of profiled queries.
+ */
+@ConstructorBinding
+@ConfigurationProperties("mongohero.store")
+public final class ProfileStoreProperties {
+
+	/**
+	 * The store implementation.
+	 */
+	private final ProfileStoreType type;
+
+	/**
+	 * The maximum number of entries kept for each database by the in-memory store, oldest entries are
+	 * discarded first.
+	 */
+	private final int memoryEntries;
+
+	/**
+	 * The directory of the segment files, used by the segment store.
+	 */
+	private final String directory;
+
+	/**
+	 * The size (in bytes) of each segment file, used by the segment store: a new segment is created once the
+	 * current segment is full.
+	 */
+	private final int segmentBytes;
+
+	/**
+	 * The maximum age (in milliseconds) of stored entries, used by the segment store: a segment is removed once
+	 * its newest entry is older.
+	 */
+	private final long retentionMs;
+
+	/**
+	 * The maximum size (in bytes) of all segment files, used by the segment store: oldest segments are removed
+	 * first.
+	 */
+	private final long retentionBytes;
+
+	public ProfileStoreProperties(
+			@DefaultValue("MEMORY") ProfileStoreType type,
+			@DefaultValue("100000") int memoryEntries,
+			@DefaultValue("data/profile") String directory,
+			@DefaultValue("16777216") int segmentBytes,
+			@DefaultValue("604800000") long retentionMs,
+			@DefaultValue("1073741824") long retentionBytes) {
+
+		this.type = type;
+		this.memoryEntries = memoryEntries;
+		this.directory = directory;
+		this.segmentBytes = segmentBytes;
+		this.retentionMs = retentionMs;
+		this.retentionBytes = retentionBytes;
+	}
+
+	/**
+	 * Get {@link #type}
+	 *
+	 * @return {@link #type}
+	 */
+	ProfileStoreType getType() {
+		return type;
+	}
+
+	/**
+	 * Get {@link #memoryEntries}
+	 *
+	 * @return {@link #memoryEntries}
+	 */
+	int getMemoryEntries() {
+		return memoryEntries;
+	}
+
+	/**
+	 * Get {@link #directory}
+	 *
+	 * @return {@link #directory}
+	 */
+	String getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Get {@link #segmentBytes}
+	 *
+	 * @return {@link #segmentBytes}
+	 */
+	int getSegmentBytes() {
+		return segmentBytes;
+	}
+
+	/**
+	 * Get {@link #retentionMs}
+	 *
+	 * @return {@link #retentionMs}
+	 */
+	long getRetentionMs() {
+		return retentionMs;
+	}
+
+	/**
+	 * Get {@link #retentionBytes}
+	 *
+	 * @return {@link #retentionBytes}
+	 */
+	long getRetentionBytes() {
+		return retentionBytes;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof ProfileStoreProperties) {
+			ProfileStoreProperties p = (ProfileStoreProperties) o;
+			return Objects.equals(type, p.type)
+					&& Objects.equals(memoryEntries, p.memoryEntries)
+					&& Objects.equals(directory, p.directory)
+					&& Objects.equals(segmentBytes, p.segmentBytes)
+					&& Objects.equals(retentionMs, p.retentionMs)
+					&& Objects.equals(retentionBytes, p.retentionBytes);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(type, memoryEntries, directory, segmentBytes, retentionMs, retentionBytes);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("type", type)
+				.append("memoryEntries", memoryEntries)
+				.append("directory", directory)
+				.append("segmentBytes", segmentBytes)
+				.append("retentionMs", retentionMs)
+				.append("retentionBytes", retentionBytes)
+				.build();
+	}
+}
@@ -0,0 +1,339 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling.store;
+
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * A {@link ProfileStore} keeping entries in append-only segment files, mapped in memory (see {@link ProfileSegment}).
+ *
+ * Each database has its own directory, containing segments numbered in creation order: entries are appended to the last
+ * segment, and a new segment is created once it is full. Entries are encoded in BSON.
+ *
+ * Segments are removed once their newest entry is older than {@link ProfileStoreProperties#getRetentionMs()}, or when the
+ * size of all segments exceeds {@link ProfileStoreProperties#getRetentionBytes()} (segments with the oldest entries are
+ * removed first).
+ */
+@Component
+@ConditionalOnProperty(prefix = "mongohero.store", name = "type", havingValue = "SEGMENT")
+public class SegmentProfileStore implements ProfileStore {
+
+	private static final Logger log = LoggerFactory.getLogger(SegmentProfileStore.class);
+
+	private static final String TS_FIELD = "ts";
+
+	private final Path directory;
+	private final int segmentBytes;
+	private final long retentionMs;
+	private final long retentionBytes;
+
+	/**
+	 * The segments of each database.
+	 */
+	private final Map<String, DatabaseSegments> databases;
+
+	private final DocumentCodec codec;
+
+	@Autowired
+	public SegmentProfileStore(ProfileStoreProperties properties) {
+		this.directory = Paths.get(properties.getDirectory());
+		this.segmentBytes = Math.max(ProfileSegment.HEADER_BYTES * 64, properties.getSegmentBytes());
+		this.retentionMs = properties.getRetentionMs();
+		this.retentionBytes = Math.max(segmentBytes, properties.getRetentionBytes());
+		this.databases = new ConcurrentHashMap<>();
+		this.codec = new DocumentCodec();
+
+		try {
+			recover();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+
+		enforceRetention();
+	}
+
+	@PreDestroy
+	void onDestroy() {
+		for (DatabaseSegments segments : databases.values()) {
+			synchronized (segments) {
+				segments.segments.forEach(ProfileSegment::flush);
+			}
+		}
+	}
+
+	@Override
+	public void append(String database, List<Document> entries) {
+		DatabaseSegments segments = databases.computeIfAbsent(database, key -> new DatabaseSegments(directory.resolve(key), 0));
+
+		synchronized (segments) {
+			try {
+				for (Document entry : entries) {
+					Date ts = entry.getDate(TS_FIELD);
+					if (ts == null) {
+						log.debug("Skipping entry of {} without timestamp", database);
+						continue;
+					}
+
+					byte[] payload = encode(entry);
+					if (ProfileSegment.HEADER_BYTES + payload.length > segmentBytes) {
+						log.warn("Skipping entry of {} larger than a segment ({} bytes)", database, payload.length);
+						continue;
+					}
+
+					ProfileSegment segment = segments.last();
+					if (segment == null || !segment.append(ts.getTime(), payload)) {
+						if (segment != null) {
+							segment.flush();
+						}
+
+						segment = segments.roll(segmentBytes);
+						segment.append(ts.getTime(), payload);
+					}
+
+					segments.lastTs = Math.max(segments.lastTs, ts.getTime());
+				}
+
+				ProfileSegment last = segments.last();
+				if (last != null) {
+					last.flush();
+				}
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		enforceRetention();
+	}
+
+	@Override
+	public Date getLastTs(String database) {
+		DatabaseSegments segments = databases.get(database);
+		if (segments == null) {
+			return null;
+		}
+
+		synchronized (segments) {
+			return segments.lastTs == Long.MIN_VALUE ? null : new Date(segments.lastTs);
+		}
+	}
+
+	@Override
+	public void scan(String database, Date from, Date to, Consumer<Document> consumer) {
+		DatabaseSegments segments = databases.get(database);
+		if (segments == null) {
+			return;
+		}
+
+		List<ProfileSegment> snapshot;
+		synchronized (segments) {
+			snapshot = new ArrayList<>(segments.segments);
+		}
+
+		long fromMs = from == null ? Long.MIN_VALUE : from.getTime();
+		long toMs = to == null ? Long.MAX_VALUE : to.getTime();
+
+		for (ProfileSegment segment : snapshot) {
+			// Use the time range of each segment to skip segments that do not contain any entry between bounds.
+			if (segment.getMaxTs() >= fromMs && segment.getMinTs() < toMs) {
+				segment.scan(fromMs, toMs, (ts, payload) -> consumer.accept(decode(payload)));
+			}
+		}
+	}
+
+	/**
+	 * Remove segments whose newest entry has expired, then remove segments with the oldest entries until the size
+	 * of all segments fits in the retention size.
+	 */
+	synchronized void enforceRetention() {
+		long expiration = System.currentTimeMillis() - retentionMs;
+		long size = 0;
+
+		for (DatabaseSegments segments : databases.values()) {
+			synchronized (segments) {
+				segments.segments.removeIf(segment -> segment.getMaxTs() < expiration && delete(segment));
+				size += segments.size();
+			}
+		}
+
+		while (size > retentionBytes) {
+			DatabaseSegments oldest = findOldest();
+			if (oldest == null) {
+				break;
+			}
+
+			synchronized (oldest) {
+				ProfileSegment segment = oldest.first();
+				if (segment == null || !delete(segment)) {
+					break;
+				}
+
+				oldest.segments.remove(segment);
+				size -= segment.getCapacity();
+			}
+		}
+	}
+
+	private DatabaseSegments findOldest() {
+		DatabaseSegments oldest = null;
+		long oldestTs = Long.MAX_VALUE;
+
+		for (DatabaseSegments segments : databases.values()) {
+			synchronized (segments) {
+				ProfileSegment first = segments.first();
+				if (first != null && (oldest == null || first.getMaxTs() < oldestTs)) {
+					oldest = segments;
+					oldestTs = first.getMaxTs();
+				}
+			}
+		}
+
+		return oldest;
+	}
+
+	private void recover() throws IOException {
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+
+		try (DirectoryStream<Path> children = Files.newDirectoryStream(directory, Files::isDirectory)) {
+			for (Path child : children) {
+				DatabaseSegments segments = recover(child);
+				databases.put(child.getFileName().toString(), segments);
+				log.info("Recovered {} segment(s) of {}", segments.segments.size(), child.getFileName());
+			}
+		}
+	}
+
+	private static DatabaseSegments recover(Path databaseDirectory) throws IOException {
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> children = Files.newDirectoryStream(databaseDirectory, "*" + ProfileSegment.EXTENSION)) {
+			children.forEach(files::add);
+		}
+
+		files.sort(Comparator.comparing(path -> path.getFileName().toString()));
+
+		List<ProfileSegment> recovered = new ArrayList<>(files.size());
+		for (Path file : files) {
+			String name = file.getFileName().toString();
+			long sequence = Long.parseLong(name.substring(0, name.length() - ProfileSegment.EXTENSION.length()));
+			recovered.add(ProfileSegment.open(file, sequence));
+		}
+
+		long nextSequence = recovered.isEmpty() ? 0 : recovered.get(recovered.size() - 1).getSequence() + 1;
+		DatabaseSegments segments = new DatabaseSegments(databaseDirectory, nextSequence);
+		for (ProfileSegment segment : recovered) {
+			segments.segments.add(segment);
+			segments.lastTs = Math.max(segments.lastTs, segment.getMaxTs());
+		}
+
+		return segments;
+	}
+
+	private static boolean delete(ProfileSegment segment) {
+		try {
+			segment.delete();
+			return true;
+		}
+		catch (IOException ex) {
+			log.warn("Failed to delete segment {}: {}", segment.getSequence(), ex.getMessage());
+			return false;
+		}
+	}
+
+	private byte[] encode(Document document) {
+		BasicOutputBuffer output = new BasicOutputBuffer();
+		codec.encode(new BsonBinaryWriter(output), document, EncoderContext.builder().build());
+		return output.toByteArray();
+	}
+
+	private Document decode(ByteBuffer payload) {
+		return codec.decode(new BsonBinaryReader(payload), DecoderContext.builder().build());
+	}
+
+	/**
+	 * The segments of a database, in creation order: must be accessed while holding its monitor.
+	 */
+	private static final class DatabaseSegments {
+		private final Path directory;
+		private final List<ProfileSegment> segments;
+		private long nextSequence;
+		private long lastTs;
+
+		private DatabaseSegments(Path directory, long nextSequence) {
+			this.directory = directory;
+			this.segments = new ArrayList<>();
+			this.nextSequence = nextSequence;
+			this.lastTs = Long.MIN_VALUE;
+		}
+
+		private ProfileSegment first() {
+			return segments.isEmpty() ? null : segments.get(0);
+		}
+
+		private ProfileSegment last() {
+			return segments.isEmpty() ? null : segments.get(segments.size() - 1);
+		}
+
+		private ProfileSegment roll(int capacity) throws IOException {
+			Files.createDirectories(directory);
+			ProfileSegment segment = ProfileSegment.create(directory, nextSequence++, capacity);
+			segments.add(segment);
+			return segment;
+		}
+
+		private long size() {
+			return segments.stream().mapToLong(ProfileSegment::getCapacity).sum();
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.query;
+
+/**
+ * The strategy used to compute the total number of results of a paginated query: counting exactly all
+ * results may be as expensive as reading them.
+ */
+public enum CountStrategy {
+
+	/**
+	 * Count all results.
+	 */
+	EXACT,
+
+	/**
+	 * Count results, but stop counting after a given number of results: the total is then a lower bound.
+	 */
+	CAPPED,
+
+	/**
+	 * Use the number of documents stored in collection metadata, ignoring filters: the total is then an estimate.
+	 */
+	ESTIMATED,
+
+	/**
+	 * Count all results in background and return the last computed count (or the estimated count if it
+	 * is not available yet).
+	 */
+	ASYNC;
+
+	/**
+	 * Parse given strategy name (case insensitive).
+	 *
+	 * @param name The strategy name.
+	 * @return The strategy.
+	 * @throws IllegalArgumentException If the strategy does not exist.
+	 */
+	public static CountStrategy parse(String name) {
+		for (CountStrategy strategy : values()) {
+			if (strategy.name().equalsIgnoreCase(name.trim())) {
+				return strategy;
+			}
+		}
+
+		throw new IllegalArgumentException("Cannot parse count parameter: " + name);
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.query;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.bson.BsonInvalidOperationException;
+import org.bson.BsonSerializationException;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Objects;
+
+import static com.github.mjeanroy.mongohero.commons.PreConditions.notNull;
+
+/**
+ * A position in sorted results, used to read the page following a given element (such as keyset pagination)
+ * instead of skipping all previous elements.
+ *
+ * A position is defined by the value of the sort field of the last element already read, and by its
+ * timestamp ({@code "ts"}), used to order elements with the same sort value.
+ *
+ * This position is not unique: elements have no unique identifier, and timestamps have a millisecond precision, so
+ * elements with the same sort value and the same timestamp as the last element read are not part of the next page.
+ */
+public final class Cursor {
+
+	/**
+	 * Create cursor.
+	 *
+	 * @param value The sort value of the last element read, may be {@code null}.
+	 * @param ts    The timestamp of the last element read (must not be {@code null}).
+	 * @return The cursor.
+	 */
+	public static Cursor of(Object value, Date ts) {
+		return new Cursor(value, ts);
+	}
+
+	/**
+	 * Decode an opaque token, previously created with {@link #encode()}.
+	 *
+	 * @param token The token.
+	 * @return The cursor.
+	 * @throws IllegalArgumentException If the token is not a valid cursor.
+	 */
+	public static Cursor decode(String token) {
+		try {
+			byte[] bytes = Base64.getUrlDecoder().decode(notNull(token, "Cursor must be defined").trim());
+			Document document = new RawBsonDocument(bytes).decode(new DocumentCodec());
+			return new Cursor(document.get("v"), document.getDate("ts"));
+		}
+		catch (IllegalArgumentException | ClassCastException | BsonSerializationException | BsonInvalidOperationException | NullPointerException ex) {
+			throw new IllegalArgumentException("Cannot parse cursor parameter: " + token, ex);
+		}
+	}
+
+	/**
+	 * The sort value of the last element read.
+	 */
+	private final Object value;
+
+	/**
+	 * The timestamp of the last element read.
+	 */
+	private final Date ts;
+
+	private Cursor(Object value, Date ts) {
+		this.value = value;
+		this.ts = new Date(notNull(ts, "Cursor timestamp must be defined").getTime());
+	}
+
+	/**
+	 * Get {@link #value}
+	 *
+	 * @return {@link #value}
+	 */
+	public Object getValue() {
+		return value;
+	}
+
+	/**
+	 * Get {@link #ts}
+	 *
+	 * @return {@link #ts}
+	 */
+	public Date getTs() {
+		return new Date(ts.getTime());
+	}
+
+	/**
+	 * Encode cursor to an opaque token, that can be safely used in an URL.
+	 *
+	 * @return The token.
+	 */
+	public String encode() {
+		Document document = new Document("v", value).append("ts", ts);
+		ByteBuffer buffer = new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().asNIO();
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("value", value)
+				.append("ts", ts)
+				.build();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof Cursor) {
+			Cursor c = (Cursor) o;
+			return Objects.equals(value, c.value) && Objects.equals(ts, c.ts);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(value, ts);
+	}
+}
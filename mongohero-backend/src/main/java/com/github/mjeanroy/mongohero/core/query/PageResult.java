@@ -39,11 +39,29 @@ public class PageResult<T> {
 	 * @return The page result.
 	 */
 	public static <T> PageResult<T> of(Stream<T> results, Page page, Sort sort, long total) {
+		return of(results, page, sort, total, TotalAccuracy.EXACT, null);
+	}
+
+	/**
+	 * Create the page result, with the position of its last element.
+	 *
+	 * @param results    Result set.
+	 * @param page       The page being returned.
+	 * @param sort       The sort being applied.
+	 * @param total      The total number of results.
+	 * @param accuracy   The accuracy of the total number of results.
+	 * @param nextCursor The position of the last element, {@code null} if there is no next page.
+	 * @param <T>        Type of elements in the page results.
+	 * @return The page result.
+	 */
+	public static <T> PageResult<T> of(Stream<T> results, Page page, Sort sort, long total, TotalAccuracy accuracy, Cursor nextCursor) {
 		return new PageResult<>(
 				results,
 				page,
 				sort,
-				total
+				total,
+				accuracy,
+				nextCursor
 		);
 	}
 
@@ -67,11 +85,23 @@ public class PageResult<T> {
 	 */
 	private final long total;
 
-	private PageResult(Stream<T> results, Page page, Sort sort, long total) {
+	/**
+	 * The accuracy of {@link #total}.
+	 */
+	private final TotalAccuracy accuracy;
+
+	/**
+	 * The position of the last element, used to read the next page, may be {@code null}.
+	 */
+	private final Cursor nextCursor;
+
+	private PageResult(Stream<T> results, Page page, Sort sort, long total, TotalAccuracy accuracy, Cursor nextCursor) {
 		this.results = results;
 		this.page = page;
 		this.sort = sort;
 		this.total = total;
+		this.accuracy = accuracy;
+		this.nextCursor = nextCursor;
 	}
 
 	/**
@@ -110,6 +140,24 @@ public class PageResult<T> {
 		return total;
 	}
 
+	/**
+	 * Get {@link #accuracy}
+	 *
+	 * @return {@link #accuracy}
+	 */
+	public TotalAccuracy getAccuracy() {
+		return accuracy;
+	}
+
+	/**
+	 * Get {@link #nextCursor}
+	 *
+	 * @return {@link #nextCursor}
+	 */
+	public Cursor getNextCursor() {
+		return nextCursor;
+	}
+
 	/**
 	 * Get page number.
 	 *
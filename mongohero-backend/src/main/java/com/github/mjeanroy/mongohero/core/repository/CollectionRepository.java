@@ -28,7 +28,12 @@ import com.github.mjeanroy.mongohero.core.model.Collection;
 import com.github.mjeanroy.mongohero.core.model.CollectionStats;
 import com.github.mjeanroy.mongohero.core.model.IndexStat;
 import com.github.mjeanroy.mongohero.core.mongo.Mongo;
+import com.github.mjeanroy.mongohero.core.mongo.MongoClusterResult;
 import com.github.mjeanroy.mongohero.core.mongo.MongoMapper;
+import com.github.mjeanroy.mongohero.core.mongo.MongoPage;
+import com.github.mjeanroy.mongohero.core.query.Page;
+import com.github.mjeanroy.mongohero.core.query.PageResult;
+import com.github.mjeanroy.mongohero.core.query.Sort;
 import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,7 +41,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Repository
@@ -44,6 +52,8 @@ public class CollectionRepository {
 
 	private static final Logger log = LoggerFactory.getLogger(CollectionRepository.class);
 
+	private static final String VIEW_TYPE = "view";
+
 	private final Mongo mongo;
 	private final MongoMapper mongoMapper;
 
@@ -64,6 +74,25 @@ public class CollectionRepository {
 				.map(document -> mongoMapper.map(document, Collection.class));
 	}
 
+	/**
+	 * Finds a page of collections in this database, sorted by name (case insensitive): only the order of
+	 * given sort is used, the sort name is ignored.
+	 *
+	 * @param database Database name.
+	 * @param prefix   The prefix of collection names (case insensitive), {@code null} or empty to find all collections.
+	 * @param page     The page to query (must not be {@code null}).
+	 * @param sort     The sort to apply (must not be {@code null}).
+	 * @return The page results.
+	 */
+	public PageResult<Collection> listCollections(String database, String prefix, Page page, Sort sort) {
+		MongoPage mongoPage = mongo.listCollections(database, prefix, page.getOffset(), page.getPageSize(), sort.isDesc());
+		Stream<Collection> results = mongoPage.getResults()
+				.map(document -> toCollectionWithNs(database, document))
+				.map(document -> mongoMapper.map(document, Collection.class));
+
+		return PageResult.of(results, page, sort, mongoPage.getTotal());
+	}
+
 	/**
 	 * Read collection statistics on given database.
 	 *
@@ -76,6 +105,28 @@ public class CollectionRepository {
 		return mongoMapper.map(document, CollectionStats.class);
 	}
 
+	/**
+	 * Read statistics of all collections in given database: statistics are read concurrently and given to
+	 * the consumer as soon as they are available, in the order they complete (so a large collection does not delay
+	 * statistics of other collections).
+	 *
+	 * Views are skipped, and collections whose statistics could not be read (or not in time) are returned.
+	 *
+	 * @param database Database name.
+	 * @param consumer The consumer of each collection statistics.
+	 * @return The name of collections whose statistics could not be read.
+	 */
+	public List<String> collStats(String database, Consumer<CollectionStats> consumer) {
+		List<String> collections = mongo.listCollections(database)
+				.filter(document -> !VIEW_TYPE.equals(document.get("type")))
+				.map(document -> document.get("name", String.class))
+				.collect(Collectors.toList());
+
+		return mongo.collStats(database, collections, (collection, document) ->
+				consumer.accept(mongoMapper.map(document, CollectionStats.class))
+		);
+	}
+
 	/**
 	 * Read index statistics on given collection.
 	 *
@@ -84,11 +135,14 @@ public class CollectionRepository {
 	 * @return Index statistics.
 	 */
 	public Stream<IndexStat> indexStats(String database, String collection) {
-		Map<String, Stream<Document>> results = mongo.indexStats(database, collection);
+		MongoClusterResult<List<Document>> results = mongo.indexStats(database, collection);
+		if (results.isDegraded()) {
+			log.warn("Index stats of {} # {} are incomplete, some members did not reply", database, collection);
+		}
 
 		Map<String, IndexStat> aggregatedStats = new LinkedHashMap<>();
 
-		for (Stream<Document> documents : results.values()) {
+		for (List<Document> documents : results.toMap().values()) {
 			documents.forEach(doc -> {
 				IndexStat indexStat = mongoMapper.map(doc, IndexStat.class);
 				String name = indexStat.getName();
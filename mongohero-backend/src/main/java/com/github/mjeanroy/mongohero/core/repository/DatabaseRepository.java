@@ -31,8 +31,13 @@ import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static java.util.Collections.emptyMap;
+
 @Repository
 public class DatabaseRepository {
 
@@ -51,7 +56,24 @@ public class DatabaseRepository {
 	 * @return All databases.
 	 */
 	public Stream<Database> listDatabases() {
-		return mongo.listDatabases().map(this::extendDocument).map(document -> mongoMapper.map(document, Database.class));
+		return listDatabases(true);
+	}
+
+	/**
+	 * List all databases, <strong>except {@code "admin"} and {@code "local"} (a.k.a mongo internal databases).</strong>
+	 *
+	 * The statistics of each database are fetched concurrently: a database whose statistics could not be fetched is
+	 * returned without statistics.
+	 *
+	 * @param withStats Fetch (or not) the statistics of each database.
+	 * @return All databases.
+	 */
+	public Stream<Database> listDatabases(boolean withStats) {
+		List<Document> documents = mongo.listDatabases().collect(Collectors.toList());
+		Map<String, Document> stats = withStats ? mongo.dbstats(toNames(documents)) : emptyMap();
+		return documents.stream()
+				.map(document -> extendDocument(document, stats.get(document.get("name", String.class))))
+				.map(document -> mongoMapper.map(document, Database.class));
 	}
 
 	/**
@@ -70,13 +92,20 @@ public class DatabaseRepository {
 
 	private Document extendDocument(Document document) {
 		String databaseName = document.get("name", String.class);
+		return extendDocument(document, getStats(databaseName));
+	}
 
+	private static Document extendDocument(Document document, Document stats) {
 		Document extendedDocument = new Document();
 		extendedDocument.putAll(document);
-		extendedDocument.put("stats", getStats(databaseName));
+		extendedDocument.put("stats", stats);
 		return extendedDocument;
 	}
 
+	private static List<String> toNames(List<Document> documents) {
+		return documents.stream().map(document -> document.get("name", String.class)).collect(Collectors.toList());
+	}
+
 	private Document createEmptyDocument(String databaseName) {
 		Document stats = new Document();
 		stats.put("db", databaseName);
@@ -26,33 +26,54 @@ package com.github.mjeanroy.mongohero.core.repository;
 
 import com.github.mjeanroy.mongohero.core.model.ProfileQuery;
 import com.github.mjeanroy.mongohero.core.model.ProfilingStatus;
+import com.github.mjeanroy.mongohero.core.model.QueryDigest;
 import com.github.mjeanroy.mongohero.core.mongo.Mongo;
 import com.github.mjeanroy.mongohero.core.mongo.MongoMapper;
 import com.github.mjeanroy.mongohero.core.mongo.MongoPage;
+import com.github.mjeanroy.mongohero.core.profiling.store.ProfileStore;
+import com.github.mjeanroy.mongohero.core.query.CountStrategy;
+import com.github.mjeanroy.mongohero.core.query.Cursor;
 import com.github.mjeanroy.mongohero.core.query.Page;
 import com.github.mjeanroy.mongohero.core.query.PageResult;
 import com.github.mjeanroy.mongohero.core.query.ProfileQueryFilter;
 import com.github.mjeanroy.mongohero.core.query.Sort;
+import com.github.mjeanroy.mongohero.core.query.TotalAccuracy;
 import com.mongodb.BasicDBObject;
+import com.mongodb.client.MongoCursor;
 import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.mongodb.MongoNamespace.checkDatabaseNameValidity;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
 
 @Repository
 public class ProfilingRepository {
 
+	private static final String TS_FIELD = "ts";
+
+	/**
+	 * The number of queries fetched in each batch when queries are exported.
+	 */
+	private static final int EXPORT_BATCH_SIZE = 1000;
+
 	private final Mongo mongo;
 	private final MongoMapper mongoMapper;
+	private final ProfileStore profileStore;
 
 	@Autowired
-	ProfilingRepository(Mongo mongo, MongoMapper mongoMapper) {
+	ProfilingRepository(Mongo mongo, MongoMapper mongoMapper, ProfileStore profileStore) {
 		this.mongo = mongo;
 		this.mongoMapper = mongoMapper;
+		this.profileStore = profileStore;
 	}
 
 	/**
@@ -87,6 +108,22 @@ public class ProfilingRepository {
 	 * @return The page results.
 	 */
 	public PageResult<ProfileQuery> findSlowQueries(String database, ProfileQueryFilter filter, Page page, Sort sort) {
+		return findSlowQueries(database, filter, emptySet(), null, page, sort);
+	}
+
+	/**
+	 * Find slow queries for given database, reading only given fields of each query (only fields
+	 * of {@link ProfileQuery} are read if {@code fields} is empty).
+	 *
+	 * @param database Database Name.
+	 * @param filter   The filter to apply.
+	 * @param fields   The fields to read (must not be {@code null}).
+	 * @param count    The strategy used to count queries (the default strategy is used if {@code null}).
+	 * @param page     The page to query (must not be {@code null}).
+	 * @param sort     The sort to apply (must not be {@code null}).
+	 * @return The page results.
+	 */
+	public PageResult<ProfileQuery> findSlowQueries(String database, ProfileQueryFilter filter, Set<String> fields, CountStrategy count, Page page, Sort sort) {
 		checkDatabaseNameValidity(database);
 
 		final int offset = page.getOffset();
@@ -95,13 +132,184 @@ public class ProfilingRepository {
 				.addBlacklistedNs(database + ".system.profile")
 				.build());
 
-		final Document mongoSort = new Document(sort.getName(), sort.order());
-		final MongoPage mongoPage = mongo.findSystemProfile(database, mongoFilters, offset, limit, mongoSort);
+		final Document mongoSort = toMongoSort(sort);
+		final Document mongoProjection = toMongoProjection(fields, sort);
+		final MongoPage mongoPage = mongo.findSystemProfile(database, mongoFilters, offset, limit, mongoSort, mongoProjection, count);
 
-		final Stream<ProfileQuery> results = mongoPage.stream().map(document -> mongoMapper.map(document, ProfileQuery.class));
-		final long total = mongoPage.getTotal();
+		return toPageResult(mongoPage, page, sort);
+	}
 
-		return PageResult.of(results, page, sort, total);
+	/**
+	 * Find slow queries for given database following the given cursor: unlike {@link #findSlowQueries(String, ProfileQueryFilter, Set, CountStrategy, Page, Sort)},
+	 * previous queries are not skipped (and read) by the server, so reading a page does not depend on its depth.
+	 *
+	 * Only the page size of given page is used, the page number is ignored.
+	 *
+	 * Note that the position is not unique: {@code system.profile} entries have no {@code _id} and their timestamp has a
+	 * millisecond precision, so queries with the same sort value and the same timestamp as the last query of a page are
+	 * skipped (see {@link Cursor}).
+	 *
+	 * @param database Database Name.
+	 * @param filter   The filter to apply.
+	 * @param fields   The fields to read (must not be {@code null}).
+	 * @param count    The strategy used to count queries (the default strategy is used if {@code null}).
+	 * @param cursor   The position of the last query already read (must not be {@code null}).
+	 * @param page     The page to query (must not be {@code null}).
+	 * @param sort     The sort to apply (must not be {@code null}), must be the sort used to read previous queries.
+	 * @return The page results.
+	 */
+	public PageResult<ProfileQuery> findSlowQueriesAfter(String database, ProfileQueryFilter filter, Set<String> fields, CountStrategy count, Cursor cursor, Page page, Sort sort) {
+		checkDatabaseNameValidity(database);
+
+		final int limit = page.getPageSize();
+		final BasicDBObject mongoFilters = toMongoFilters(filter.toBuilder()
+				.addBlacklistedNs(database + ".system.profile")
+				.build());
+
+		final Document mongoSeek = toMongoSeek(cursor, sort);
+		final Document mongoSort = toMongoSort(sort);
+		final Document mongoProjection = toMongoProjection(fields, sort);
+		final MongoPage mongoPage = mongo.findSystemProfileAfter(database, mongoFilters, mongoSeek, limit, mongoSort, mongoProjection, count);
+
+		return toPageResult(mongoPage, page, sort);
+	}
+
+	/**
+	 * Find slow queries for given database on every member of the cluster: each query is tagged with the host
+	 * of the member that profiled it (see {@link ProfileQuery#getHost()}), and queries of all members are merged
+	 * following given sort, so that pages are the same as if all queries were stored by a single member.
+	 *
+	 * @param database Database Name.
+	 * @param filter   The filter to apply.
+	 * @param fields   The fields to read (must not be {@code null}).
+	 * @param count    The strategy used to count queries (the default strategy is used if {@code null}).
+	 * @param page     The page to query (must not be {@code null}).
+	 * @param sort     The sort to apply (must not be {@code null}).
+	 * @return The page results.
+	 */
+	public PageResult<ProfileQuery> findClusterSlowQueries(String database, ProfileQueryFilter filter, Set<String> fields, CountStrategy count, Page page, Sort sort) {
+		checkDatabaseNameValidity(database);
+
+		final int offset = page.getOffset();
+		final int limit = page.getPageSize();
+		final BasicDBObject mongoFilters = toMongoFilters(filter.toBuilder()
+				.addBlacklistedNs(database + ".system.profile")
+				.build());
+
+		final Document mongoSort = toMongoSort(sort);
+		final Document mongoProjection = toMongoProjection(fields, sort);
+		final MongoPage mongoPage = mongo.findClusterSystemProfile(database, mongoFilters, offset, limit, mongoSort, mongoProjection, count);
+
+		return toPageResult(mongoPage, page, sort);
+	}
+
+	/**
+	 * Find slow queries for given database on every member of the cluster following the given cursor, see
+	 * {@link #findSlowQueriesAfter(String, ProfileQueryFilter, Set, CountStrategy, Cursor, Page, Sort)} and
+	 * {@link #findClusterSlowQueries(String, ProfileQueryFilter, Set, CountStrategy, Page, Sort)}.
+	 *
+	 * @param database Database Name.
+	 * @param filter   The filter to apply.
+	 * @param fields   The fields to read (must not be {@code null}).
+	 * @param count    The strategy used to count queries (the default strategy is used if {@code null}).
+	 * @param cursor   The position of the last query already read (must not be {@code null}).
+	 * @param page     The page to query (must not be {@code null}).
+	 * @param sort     The sort to apply (must not be {@code null}), must be the sort used to read previous queries.
+	 * @return The page results.
+	 */
+	public PageResult<ProfileQuery> findClusterSlowQueriesAfter(String database, ProfileQueryFilter filter, Set<String> fields, CountStrategy count, Cursor cursor, Page page, Sort sort) {
+		checkDatabaseNameValidity(database);
+
+		final int limit = page.getPageSize();
+		final BasicDBObject mongoFilters = toMongoFilters(filter.toBuilder()
+				.addBlacklistedNs(database + ".system.profile")
+				.build());
+
+		final Document mongoSeek = toMongoSeek(cursor, sort);
+		final Document mongoSort = toMongoSort(sort);
+		final Document mongoProjection = toMongoProjection(fields, sort);
+		final MongoPage mongoPage = mongo.findClusterSystemProfileAfter(database, mongoFilters, mongoSeek, limit, mongoSort, mongoProjection, count);
+
+		return toPageResult(mongoPage, page, sort);
+	}
+
+	/**
+	 * Read all slow queries of given database matching given filter, and give each query to the consumer as it is
+	 * read: queries are fetched by batches, so that exporting the whole {@code system.profile} collection does not
+	 * require to load it in memory.
+	 *
+	 * @param database Database Name.
+	 * @param filter   The filter to apply.
+	 * @param fields   The fields to read (must not be {@code null}, only fields of {@link ProfileQuery} are read if empty).
+	 * @param consumer The consumer of each query.
+	 */
+	public void exportSlowQueries(String database, ProfileQueryFilter filter, Set<String> fields, Consumer<ProfileQuery> consumer) {
+		checkDatabaseNameValidity(database);
+
+		final BasicDBObject mongoFilters = toMongoFilters(filter.toBuilder()
+				.addBlacklistedNs(database + ".system.profile")
+				.build());
+
+		final Document mongoProjection = mongoMapper.projection(ProfileQuery.class, fields);
+
+		try (MongoCursor<Document> cursor = mongo.exportSystemProfile(database, mongoFilters, mongoProjection, EXPORT_BATCH_SIZE)) {
+			while (cursor.hasNext()) {
+				consumer.accept(mongoMapper.map(cursor.next(), ProfileQuery.class));
+			}
+		}
+	}
+
+	/**
+	 * Read slow queries of given database harvested between given bounds (see
+	 * {@link com.github.mjeanroy.mongohero.core.profiling.ProfileHarvester}), and give each query to the consumer as
+	 * it is read: unlike {@link #exportSlowQueries(String, ProfileQueryFilter, Set, Consumer)}, queries are read from
+	 * the local {@link ProfileStore}, so they are still available once {@code system.profile} rolled over.
+	 *
+	 * @param database Database Name.
+	 * @param filter   The filter to apply.
+	 * @param from     The lower bound (inclusive), {@code null} to read from the oldest harvested query.
+	 * @param to       The upper bound (exclusive), {@code null} to read until the newest harvested query.
+	 * @param consumer The consumer of each query.
+	 */
+	public void exportHarvestedQueries(String database, ProfileQueryFilter filter, Date from, Date to, Consumer<ProfileQuery> consumer) {
+		checkDatabaseNameValidity(database);
+
+		profileStore.scan(database, from, to, document -> {
+			ProfileQuery query = mongoMapper.map(document, ProfileQuery.class);
+			if ((filter.getOp() == null || filter.getOp().equals(query.getOp())) && !filter.getNsBlacklist().contains(query.getNs())) {
+				consumer.accept(query);
+			}
+		});
+	}
+
+	/**
+	 * Aggregate slow queries for given database by namespace, operation type, command, execution plan and
+	 * query shape: the aggregation is run by the server, so queries are not read one by one.
+	 *
+	 * Note that the query shape is computed by the server, and is approximated by the top level fields of the
+	 * query filter (requires MongoDB 3.4.4 or later).
+	 *
+	 * @param database Database Name.
+	 * @param filter   The filter to apply.
+	 * @param limit    The maximum number of digests to return.
+	 * @return The digests, the most expensive (i.e total duration) first.
+	 */
+	public Stream<QueryDigest> digestSlowQueries(String database, ProfileQueryFilter filter, int limit) {
+		checkDatabaseNameValidity(database);
+
+		final BasicDBObject mongoFilters = toMongoFilters(filter.toBuilder()
+				.addBlacklistedNs(database + ".system.profile")
+				.build());
+
+		final List<Document> pipeline = asList(
+				new Document("$match", mongoFilters),
+				new Document("$group", toMongoDigestGroup()),
+				new Document("$project", toMongoDigestProjection()),
+				new Document("$sort", new Document("totalMillis", -1)),
+				new Document("$limit", Math.max(1, limit))
+		);
+
+		return mongo.aggregateSystemProfile(database, pipeline).map(document -> mongoMapper.map(document, QueryDigest.class));
 	}
 
 	/**
@@ -114,6 +322,127 @@ public class ProfilingRepository {
 		mongo.dropSystemProfile(database);
 	}
 
+	private PageResult<ProfileQuery> toPageResult(MongoPage mongoPage, Page page, Sort sort) {
+		final List<Document> documents = mongoPage.stream().collect(Collectors.toList());
+		final Stream<ProfileQuery> results = documents.stream().map(document -> mongoMapper.map(document, ProfileQuery.class));
+		final long total = mongoPage.getTotal();
+		final TotalAccuracy totalAccuracy = mongoPage.getAccuracy();
+
+		// A full page means that the next page may not be empty.
+		final Cursor nextCursor = documents.size() < page.getPageSize() ? null : toCursor(documents.get(documents.size() - 1), sort);
+
+		return PageResult.of(results, page, sort, total, totalAccuracy, nextCursor);
+	}
+
+	private Document toMongoProjection(Set<String> fields, Sort sort) {
+		Document projection = mongoMapper.projection(ProfileQuery.class, fields);
+
+		// The cursor of the next page is read from the sort field and the timestamp of the last query.
+		for (String name : asList(sort.getName(), TS_FIELD)) {
+			String root = name.split("\\.", 2)[0];
+			if (!projection.containsKey(root)) {
+				projection.append(name, 1);
+			}
+		}
+
+		return projection;
+	}
+
+	private static Document toMongoSort(Sort sort) {
+		Document mongoSort = new Document(sort.getName(), sort.order());
+		if (!sort.getName().equals(TS_FIELD)) {
+			mongoSort.append(TS_FIELD, sort.order());
+		}
+
+		return mongoSort;
+	}
+
+	private static Document toMongoSeek(Cursor cursor, Sort sort) {
+		String op = sort.isAsc() ? "$gt" : "$lt";
+		Document afterTs = new Document(TS_FIELD, new Document(op, cursor.getTs()));
+
+		String name = sort.getName();
+		if (name.equals(TS_FIELD)) {
+			return afterTs;
+		}
+
+		Object value = cursor.getValue();
+		Document sameValue = new Document(name, value).append(TS_FIELD, afterTs.get(TS_FIELD));
+
+		// Missing and null values are sorted first, and cannot be compared using $gt/$lt: they follow
+		// any other value in descending order.
+		if (value == null) {
+			return sort.isAsc() ? new Document("$or", asList(new Document(name, new Document("$ne", null)), sameValue)) : sameValue;
+		}
+
+		Document afterValue = new Document(name, new Document(op, value));
+		if (sort.isAsc()) {
+			return new Document("$or", asList(afterValue, sameValue));
+		}
+
+		return new Document("$or", asList(afterValue, sameValue, new Document(name, null)));
+	}
+
+	private static Cursor toCursor(Document document, Sort sort) {
+		Object value = document.getEmbedded(asList(sort.getName().split("\\.")), Object.class);
+		return Cursor.of(value, document.getDate(TS_FIELD));
+	}
+
+	private static Document toMongoDigestGroup() {
+		// The filter is stored in a different field depending on the command (and the server version).
+		Document filter = ifNull("$command.filter", ifNull("$command.query", ifNull("$command.q", ifNull("$query", new Document()))));
+		Document commandNames = keys(ifNull("$command", new Document()));
+
+		Document id = new Document()
+				.append("ns", "$ns")
+				.append("op", "$op")
+				.append("command", new Document("$arrayElemAt", asList(commandNames, 0)))
+				.append("planSummary", "$planSummary")
+				.append("shape", keys(filter));
+
+		return new Document("_id", id)
+				.append("count", new Document("$sum", 1))
+				.append("totalMillis", new Document("$sum", "$millis"))
+				.append("avgMillis", new Document("$avg", "$millis"))
+				.append("maxMillis", new Document("$max", "$millis"))
+				.append("docsExamined", new Document("$sum", "$docsExamined"))
+				.append("keysExamined", new Document("$sum", "$keysExamined"))
+				.append("nreturned", new Document("$sum", "$nreturned"))
+				.append("sortStages", new Document("$sum", new Document("$cond", asList(ifNull("$hasSortStage", false), 1, 0))));
+	}
+
+	private static Document toMongoDigestProjection() {
+		// Avoid division by zero: a query returning no documents is considered as returning one document.
+		Document nreturned = new Document("$max", asList("$nreturned", 1));
+
+		return new Document("_id", 0)
+				.append("ns", "$_id.ns")
+				.append("op", "$_id.op")
+				.append("command", "$_id.command")
+				.append("planSummary", "$_id.planSummary")
+				.append("shape", "$_id.shape")
+				.append("count", 1)
+				.append("totalMillis", 1)
+				.append("avgMillis", 1)
+				.append("maxMillis", 1)
+				.append("docsExamined", 1)
+				.append("keysExamined", 1)
+				.append("nreturned", 1)
+				.append("docsExaminedRatio", new Document("$divide", asList("$docsExamined", nreturned)))
+				.append("keysExaminedRatio", new Document("$divide", asList("$keysExamined", nreturned)))
+				.append("sortStageRatio", new Document("$divide", asList("$sortStages", "$count")));
+	}
+
+	private static Document ifNull(String expression, Object replacement) {
+		return new Document("$ifNull", asList(expression, replacement));
+	}
+
+	private static Document keys(Document expression) {
+		return new Document("$map", new Document("input", new Document("$objectToArray", expression))
+				.append("as", "field")
+				.append("in", "$$field.k"));
+	}
+
 	private static BasicDBObject toMongoFilters(ProfileQueryFilter filters) {
 		BasicDBObject mongoFilter = new BasicDBObject();
 
@@ -29,9 +29,11 @@ import com.github.mjeanroy.mongohero.core.model.ReplicationStatus;
 import com.github.mjeanroy.mongohero.core.model.Server;
 import com.github.mjeanroy.mongohero.core.model.ServerLog;
 import com.github.mjeanroy.mongohero.core.mongo.Mongo;
+import com.github.mjeanroy.mongohero.core.mongo.MongoClusterResult;
 import com.github.mjeanroy.mongohero.core.mongo.MongoMapper;
 import com.mongodb.connection.ClusterDescription;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
@@ -79,9 +81,18 @@ public class ServerRepository {
 	 * @return The server log output.
 	 * @see <a href="https://docs.mongodb.com/manual/reference/command/getLog/#dbcmd.getLog">https://docs.mongodb.com/manual/reference/command/getLog/#dbcmd.getLog</a>
 	 */
-	public Map<String, ServerLog> getLog() {
-		Map<String, Document> document = mongo.getLog();
-		return mongoMapper.mapValues(document, ServerLog.class);
+	public MongoClusterResult<ServerLog> getLog() {
+		return mongo.getLog().map(document -> mongoMapper.map(document, ServerLog.class));
+	}
+
+	/**
+	 * Returns the most recent 1024 logged mongod events, as returned by each server.
+	 *
+	 * @return The raw server log output.
+	 * @see #getLog()
+	 */
+	public MongoClusterResult<RawBsonDocument> getRawLog() {
+		return mongo.getRawLog();
 	}
 
 	/**
@@ -90,15 +101,18 @@ public class ServerRepository {
 	 * @return Configuration parameters.
 	 * @see <a href="https://docs.mongodb.com/manual/reference/command/getParameter/#dbcmd.getParameter">https://docs.mongodb.com/manual/reference/command/getParameter/#dbcmd.getParameter</a>
 	 */
-	public Map<String,Map<String, Object>> getParameters() {
-		Map<String, Document> outputs = mongo.getParameter();
-
-		Map<String, Map<String, Object>> results = new LinkedHashMap<>();
-		for (Map.Entry<String, Document> entry : outputs.entrySet()) {
-			results.put(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
-		}
+	public MongoClusterResult<Map<String, Object>> getParameters() {
+		return mongo.getParameter().map(LinkedHashMap::new);
+	}
 
-		return results;
+	/**
+	 * Get all configuration parameters, as returned by each server.
+	 *
+	 * @return The raw configuration parameters.
+	 * @see #getParameters()
+	 */
+	public MongoClusterResult<RawBsonDocument> getRawParameters() {
+		return mongo.getRawParameter();
 	}
 
 	/**
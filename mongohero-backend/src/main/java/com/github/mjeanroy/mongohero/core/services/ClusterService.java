@@ -26,9 +26,13 @@ package com.github.mjeanroy.mongohero.core.services;
 
 import com.github.mjeanroy.mongohero.core.model.ServerLog;
 import com.github.mjeanroy.mongohero.core.model.ServerParameter;
+import com.github.mjeanroy.mongohero.core.mongo.MongoClusterResult;
+import com.github.mjeanroy.mongohero.core.mongo.MongoHealthRegistry;
+import com.github.mjeanroy.mongohero.core.mongo.MongoHostHealth;
 import com.github.mjeanroy.mongohero.core.repository.ServerRepository;
 import com.mongodb.connection.ClusterDescription;
 import com.mongodb.connection.ServerDescription;
+import org.bson.RawBsonDocument;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -43,10 +47,12 @@ import static java.util.Collections.unmodifiableList;
 public class ClusterService {
 
 	private final ServerRepository serverRepository;
+	private final MongoHealthRegistry mongoHealthRegistry;
 
 	@Autowired
-	ClusterService(ServerRepository serverRepository) {
+	ClusterService(ServerRepository serverRepository, MongoHealthRegistry mongoHealthRegistry) {
 		this.serverRepository = serverRepository;
+		this.mongoHealthRegistry = mongoHealthRegistry;
 	}
 
 	/**
@@ -63,19 +69,37 @@ public class ClusterService {
 	 *
 	 * @return Cluster logs.
 	 */
-	public Map<String, ServerLog> getLog() {
+	public MongoClusterResult<ServerLog> getLog() {
 		return serverRepository.getLog();
 	}
 
 	/**
-	 * Get cluster logs.
+	 * Get cluster logs, as returned by each server: the output is not decoded and is meant to
+	 * be serialized as is.
 	 *
-	 * @return Cluster logs.
+	 * @return Raw cluster logs.
 	 */
-	public Map<String, Iterable<ServerParameter>> getParameters() {
-		return serverRepository.getParameters().entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
-				e -> buildParameters(e.getValue())
-		));
+	public MongoClusterResult<RawBsonDocument> getRawLog() {
+		return serverRepository.getRawLog();
+	}
+
+	/**
+	 * Get cluster parameters.
+	 *
+	 * @return Cluster parameters.
+	 */
+	public MongoClusterResult<List<ServerParameter>> getParameters() {
+		return serverRepository.getParameters().map(this::buildParameters);
+	}
+
+	/**
+	 * Get cluster parameters, as returned by each server: the output is not decoded and is meant to
+	 * be serialized as is.
+	 *
+	 * @return Raw cluster parameters.
+	 */
+	public MongoClusterResult<RawBsonDocument> getRawParameters() {
+		return serverRepository.getRawParameters();
 	}
 
 	private List<ServerParameter> buildParameters(Map<String, Object> parameters) {
@@ -99,4 +123,13 @@ public class ClusterService {
 				clusterDescription.getServerDescriptions()
 		);
 	}
+
+	/**
+	 * Get health of each cluster member, as seen by commands sent to each member.
+	 *
+	 * @return Health of each member.
+	 */
+	public List<MongoHostHealth> getMembersHealth() {
+		return mongoHealthRegistry.getHealth();
+	}
 }
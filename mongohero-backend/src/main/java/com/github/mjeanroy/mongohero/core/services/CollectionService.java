@@ -27,11 +27,15 @@ package com.github.mjeanroy.mongohero.core.services;
 import com.github.mjeanroy.mongohero.core.model.Collection;
 import com.github.mjeanroy.mongohero.core.model.CollectionStats;
 import com.github.mjeanroy.mongohero.core.model.IndexStat;
+import com.github.mjeanroy.mongohero.core.query.Page;
+import com.github.mjeanroy.mongohero.core.query.PageResult;
+import com.github.mjeanroy.mongohero.core.query.Sort;
 import com.github.mjeanroy.mongohero.core.repository.CollectionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 @Service
@@ -44,14 +48,18 @@ public class CollectionService {
 		this.collectionRepository = collectionRepository;
 	}
 
-	public Stream<Collection> findAll(String database) {
-		return collectionRepository.listCollections(database).sorted(Comparator.comparing(Collection::getLowerCaseName));
+	public PageResult<Collection> findAll(String database, String prefix, Page page, Sort sort) {
+		return collectionRepository.listCollections(database, prefix, page, sort);
 	}
 
 	public CollectionStats findStats(String database, String collection) {
 		return collectionRepository.collStats(database, collection);
 	}
 
+	public List<String> findAllStats(String database, Consumer<CollectionStats> consumer) {
+		return collectionRepository.collStats(database, consumer);
+	}
+
 	public Stream<IndexStat> findIndexes(String database, String collection) {
 		return collectionRepository.indexStats(database, collection);
 	}
@@ -50,6 +50,16 @@ public class DatabaseService {
 		return databaseRepository.listDatabases();
 	}
 
+	/**
+	 * Find all database.
+	 *
+	 * @param withStats Fetch (or not) the statistics of each database.
+	 * @return Database stream.
+	 */
+	public Stream<Database> findAll(boolean withStats) {
+		return databaseRepository.listDatabases(withStats);
+	}
+
 	/**
 	 * Find database by its name.
 	 *
@@ -0,0 +1,121 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.services;
+
+import com.github.mjeanroy.mongohero.core.mongo.MongoCacheStats;
+import com.github.mjeanroy.mongohero.core.mongo.MongoClientChurnStats;
+import com.github.mjeanroy.mongohero.core.mongo.MongoClientFactory;
+import com.github.mjeanroy.mongohero.core.mongo.MongoCommandCache;
+import com.github.mjeanroy.mongohero.core.mongo.MongoCommandMetrics;
+import com.github.mjeanroy.mongohero.core.mongo.MongoCommandStats;
+import com.github.mjeanroy.mongohero.core.mongo.MongoPoolUsage;
+import com.github.mjeanroy.mongohero.core.mongo.MongoSingleFlight;
+import com.github.mjeanroy.mongohero.core.mongo.MongoSingleFlightStats;
+import com.github.mjeanroy.mongohero.core.profiling.ProfileHarvester;
+import com.github.mjeanroy.mongohero.core.profiling.ProfileHarvesterStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class MetricsService {
+
+	private final MongoCommandCache mongoCommandCache;
+	private final MongoSingleFlight mongoSingleFlight;
+	private final MongoClientFactory mongoClientFactory;
+	private final MongoCommandMetrics mongoCommandMetrics;
+	private final ProfileHarvester profileHarvester;
+
+	@Autowired
+	MetricsService(MongoCommandCache mongoCommandCache, MongoSingleFlight mongoSingleFlight, MongoClientFactory mongoClientFactory, MongoCommandMetrics mongoCommandMetrics, ProfileHarvester profileHarvester) {
+		this.mongoCommandCache = mongoCommandCache;
+		this.mongoSingleFlight = mongoSingleFlight;
+		this.mongoClientFactory = mongoClientFactory;
+		this.mongoCommandMetrics = mongoCommandMetrics;
+		this.profileHarvester = profileHarvester;
+	}
+
+	/**
+	 * Get counters of the command cache.
+	 *
+	 * @return Cache counters.
+	 */
+	public MongoCacheStats getCacheStats() {
+		return mongoCommandCache.getStats();
+	}
+
+	/**
+	 * Remove all entries of the command cache.
+	 */
+	public void resetCache() {
+		mongoCommandCache.invalidateAll();
+	}
+
+	/**
+	 * Get counters of identical commands coalesced while in flight.
+	 *
+	 * @return Single-flight counters.
+	 */
+	public MongoSingleFlightStats getSingleFlightStats() {
+		return mongoSingleFlight.getStats();
+	}
+
+	/**
+	 * Get creations and closes of cluster member clients.
+	 *
+	 * @return Member clients churn.
+	 */
+	public MongoClientChurnStats getClientChurnStats() {
+		return mongoClientFactory.getChurnStats();
+	}
+
+	/**
+	 * Get usage of each connection pool.
+	 *
+	 * @return Usage of each pool.
+	 */
+	public List<MongoPoolUsage> getPoolUsage() {
+		return mongoClientFactory.getPoolUsage();
+	}
+
+	/**
+	 * Get latency, failures and reply sizes of each command name on each host.
+	 *
+	 * @return Command statistics.
+	 */
+	public List<MongoCommandStats> getCommandStats() {
+		return mongoCommandMetrics.getStats();
+	}
+
+	/**
+	 * Get counters of the {@code "system.profile"} harvester.
+	 *
+	 * @return Harvester counters.
+	 */
+	public ProfileHarvesterStats getHarvesterStats() {
+		return profileHarvester.getStats();
+	}
+}
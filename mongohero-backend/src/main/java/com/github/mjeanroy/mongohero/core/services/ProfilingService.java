@@ -24,24 +24,79 @@
 
 package com.github.mjeanroy.mongohero.core.services;
 
+import com.github.mjeanroy.mongohero.core.model.IndexStat;
 import com.github.mjeanroy.mongohero.core.model.ProfileQuery;
 import com.github.mjeanroy.mongohero.core.model.ProfilingStatus;
+import com.github.mjeanroy.mongohero.core.model.QueryDigest;
+import com.github.mjeanroy.mongohero.core.profiling.IndexAdvisor;
+import com.github.mjeanroy.mongohero.core.profiling.IndexSuggestion;
+import com.github.mjeanroy.mongohero.core.profiling.LatencyGroup;
+import com.github.mjeanroy.mongohero.core.profiling.LatencyPercentiles;
+import com.github.mjeanroy.mongohero.core.profiling.ProfileLatencyIndex;
+import com.github.mjeanroy.mongohero.core.profiling.ProfileRegressionDetector;
+import com.github.mjeanroy.mongohero.core.profiling.QueryRegression;
+import com.github.mjeanroy.mongohero.core.query.CountStrategy;
+import com.github.mjeanroy.mongohero.core.query.Cursor;
 import com.github.mjeanroy.mongohero.core.query.Page;
 import com.github.mjeanroy.mongohero.core.query.PageResult;
 import com.github.mjeanroy.mongohero.core.query.ProfileQueryFilter;
 import com.github.mjeanroy.mongohero.core.query.Sort;
+import com.github.mjeanroy.mongohero.core.repository.CollectionRepository;
 import com.github.mjeanroy.mongohero.core.repository.ProfilingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+
 @Service
 public class ProfilingService {
 
+	/**
+	 * The fields of profiled queries read to suggest indexes.
+	 */
+	private static final Set<String> INDEX_ADVISOR_FIELDS = new HashSet<>(asList(
+			"ns",
+			"command",
+			"query",
+			"planSummary",
+			"hasSortStage",
+			"docsExamined",
+			"keysExamined",
+			"nreturned",
+			"millis"
+	));
+
 	private final ProfilingRepository profilingRepository;
+	private final CollectionRepository collectionRepository;
+	private final ProfileLatencyIndex profileLatencyIndex;
+	private final ProfileRegressionDetector profileRegressionDetector;
+	private final IndexAdvisor indexAdvisor;
 
 	@Autowired
-	ProfilingService(ProfilingRepository profilingRepository) {
+	ProfilingService(
+			ProfilingRepository profilingRepository,
+			CollectionRepository collectionRepository,
+			ProfileLatencyIndex profileLatencyIndex,
+			ProfileRegressionDetector profileRegressionDetector,
+			IndexAdvisor indexAdvisor) {
+
 		this.profilingRepository = profilingRepository;
+		this.collectionRepository = collectionRepository;
+		this.profileLatencyIndex = profileLatencyIndex;
+		this.profileRegressionDetector = profileRegressionDetector;
+		this.indexAdvisor = indexAdvisor;
 	}
 
 	/**
@@ -96,7 +151,100 @@ public class ProfilingService {
 		}
 	}
 
-	public PageResult<ProfileQuery> findSlowQueries(String database, ProfileQueryFilter filter, Page page, Sort sort) {
-		return profilingRepository.findSlowQueries(database, filter, page, sort);
+	public PageResult<ProfileQuery> findSlowQueries(String database, ProfileQueryFilter filter, Set<String> fields, CountStrategy count, Page page, Sort sort) {
+		return profilingRepository.findSlowQueries(database, filter, fields, count, page, sort);
+	}
+
+	public PageResult<ProfileQuery> findSlowQueriesAfter(String database, ProfileQueryFilter filter, Set<String> fields, CountStrategy count, Cursor cursor, Page page, Sort sort) {
+		return profilingRepository.findSlowQueriesAfter(database, filter, fields, count, cursor, page, sort);
+	}
+
+	public PageResult<ProfileQuery> findClusterSlowQueries(String database, ProfileQueryFilter filter, Set<String> fields, CountStrategy count, Page page, Sort sort) {
+		return profilingRepository.findClusterSlowQueries(database, filter, fields, count, page, sort);
+	}
+
+	public PageResult<ProfileQuery> findClusterSlowQueriesAfter(String database, ProfileQueryFilter filter, Set<String> fields, CountStrategy count, Cursor cursor, Page page, Sort sort) {
+		return profilingRepository.findClusterSlowQueriesAfter(database, filter, fields, count, cursor, page, sort);
+	}
+
+	public void exportSlowQueries(String database, ProfileQueryFilter filter, Set<String> fields, Consumer<ProfileQuery> consumer) {
+		profilingRepository.exportSlowQueries(database, filter, fields, consumer);
+	}
+
+	public void exportHarvestedQueries(String database, ProfileQueryFilter filter, Date from, Date to, Consumer<ProfileQuery> consumer) {
+		profilingRepository.exportHarvestedQueries(database, filter, from, to, consumer);
+	}
+
+	public Stream<QueryDigest> digestSlowQueries(String database, ProfileQueryFilter filter, int limit) {
+		return profilingRepository.digestSlowQueries(database, filter, limit);
+	}
+
+	/**
+	 * Get latency percentiles of harvested queries, for each group of queries, between given bounds: groups with
+	 * the highest 99th percentile come first.
+	 *
+	 * Note that only queries harvested from {@code system.profile} are taken into account (see
+	 * {@link com.github.mjeanroy.mongohero.core.profiling.ProfileHarvester}).
+	 *
+	 * @param database The database name.
+	 * @param from The lower bound (optional).
+	 * @param to The upper bound (optional).
+	 * @param group The grouping of queries.
+	 * @param limit The maximum number of groups.
+	 * @return The percentiles of each group.
+	 */
+	public Stream<LatencyPercentiles> getLatencyPercentiles(String database, Date from, Date to, LatencyGroup group, int limit) {
+		return profileLatencyIndex.percentiles(database, from, to, group).stream()
+				.sorted(Comparator.comparingLong(LatencyPercentiles::getP99).reversed())
+				.limit(limit);
+	}
+
+	/**
+	 * Get query shapes currently regressed, i.e whose latency, execution rate or examined ratio deviates from their
+	 * rolling baseline: shapes with the highest score come first.
+	 *
+	 * Note that only queries harvested from {@code system.profile} are taken into account (see
+	 * {@link com.github.mjeanroy.mongohero.core.profiling.ProfileHarvester}).
+	 *
+	 * @param database The database name.
+	 * @param limit The maximum number of regressions.
+	 * @return The regressions.
+	 */
+	public Stream<QueryRegression> getRegressions(String database, int limit) {
+		return profileRegressionDetector.regressions(database).stream()
+				.sorted(Comparator.comparingDouble(QueryRegression::getScore).reversed())
+				.limit(limit);
+	}
+
+	/**
+	 * Suggest indexes from queries stored in {@code system.profile}: only inefficient queries are kept in memory,
+	 * and index statistics are read for the namespaces of these queries only.
+	 *
+	 * @param database The database name.
+	 * @param limit The maximum number of suggestions.
+	 * @return The suggestions, the highest benefit first.
+	 * @see IndexAdvisor
+	 */
+	public Stream<IndexSuggestion> getIndexSuggestions(String database, int limit) {
+		String prefix = database + ".";
+		Map<String, List<ProfileQuery>> queriesByNs = new LinkedHashMap<>();
+		ProfileQueryFilter filter = new ProfileQueryFilter.Builder().build();
+
+		profilingRepository.exportSlowQueries(database, filter, INDEX_ADVISOR_FIELDS, query -> {
+			String ns = query.getNs();
+			if (ns != null && ns.startsWith(prefix) && !ns.startsWith(prefix + "system.") && !ns.endsWith(".$cmd") && indexAdvisor.isInefficient(query)) {
+				queriesByNs.computeIfAbsent(ns, k -> new ArrayList<>()).add(query);
+			}
+		});
+
+		List<IndexSuggestion> suggestions = new ArrayList<>();
+		queriesByNs.forEach((ns, queries) -> {
+			List<IndexStat> indexes = collectionRepository.indexStats(database, ns.substring(prefix.length())).collect(Collectors.toList());
+			suggestions.addAll(indexAdvisor.advise(ns, queries, indexes));
+		});
+
+		return suggestions.stream()
+				.sorted(Comparator.comparingLong(IndexSuggestion::getBenefit).reversed())
+				.limit(Math.max(1, limit));
 	}
 }
@@ -0,0 +1,102 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.controllers;
+
+import com.github.mjeanroy.mongohero.api.core.AsyncApiExecutor;
+import com.github.mjeanroy.mongohero.api.core.AsyncApiProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.servlet.error.DefaultErrorAttributes;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ErrorHandlerTest {
+
+	private AsyncApiExecutor asyncApiExecutor;
+	private CountDownLatch released;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		asyncApiExecutor = new AsyncApiExecutor(new AsyncApiProperties(true, 1, 1, 1000, -1, 1, 1));
+		released = new CountDownLatch(1);
+		mockMvc = MockMvcBuilders.standaloneSetup(new BlockingController(asyncApiExecutor, released))
+				.setControllerAdvice(new ErrorHandler(new DefaultErrorAttributes()))
+				.build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		released.countDown();
+	}
+
+	@Test
+	void it_should_return_service_unavailable_when_api_call_is_rejected() throws Exception {
+		// One thread, and a queue of one call.
+		mockMvc.perform(get("/blocking"));
+		mockMvc.perform(get("/blocking"));
+
+		mockMvc.perform(get("/blocking"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(jsonPath("$.status").value(503))
+				.andExpect(jsonPath("$.message").value("Too many pending requests, please retry later"));
+	}
+
+	@RestController
+	static class BlockingController {
+		private final AsyncApiExecutor asyncApiExecutor;
+		private final CountDownLatch released;
+
+		BlockingController(AsyncApiExecutor asyncApiExecutor, CountDownLatch released) {
+			this.asyncApiExecutor = asyncApiExecutor;
+			this.released = released;
+		}
+
+		@GetMapping("/blocking")
+		CompletableFuture<String> blocking() {
+			return asyncApiExecutor.supply(() -> {
+				try {
+					released.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+
+				return "done";
+			});
+		}
+	}
+}
@@ -0,0 +1,228 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.core;
+
+import com.github.mjeanroy.mongohero.core.mongo.MongoCacheContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class AsyncApiExecutorTest {
+
+	private static final long API_TIMEOUT_MS = 50;
+
+	private AsyncApiExecutor asyncApiExecutor;
+	private CountDownLatch released;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		asyncApiExecutor = new AsyncApiExecutor(new AsyncApiProperties(true, 2, 8, API_TIMEOUT_MS, -1, 1, 1));
+		released = new CountDownLatch(1);
+		mockMvc = MockMvcBuilders.standaloneSetup(new StreamingController(asyncApiExecutor, released))
+				.setAsyncRequestTimeout(API_TIMEOUT_MS)
+				.build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		released.countDown();
+		asyncApiExecutor.onDestroy();
+		MongoCacheContext.clear();
+	}
+
+	@Test
+	void it_should_supply_in_caller_thread_when_disabled() {
+		AsyncApiExecutor inlineExecutor = new AsyncApiExecutor(new AsyncApiProperties(false, 2, 8, API_TIMEOUT_MS, -1, 1, 1));
+
+		try {
+			CompletableFuture<String> future = inlineExecutor.supply(() -> Thread.currentThread().getName());
+
+			assertThat(inlineExecutor.getExecutor()).isNull();
+			assertThat(future).isCompletedWithValue(Thread.currentThread().getName());
+		}
+		finally {
+			inlineExecutor.onDestroy();
+		}
+	}
+
+	@Test
+	void it_should_supply_on_api_executor_when_enabled() throws Exception {
+		CompletableFuture<String> future = asyncApiExecutor.supply(() -> Thread.currentThread().getName());
+
+		assertThat(future.get(5, TimeUnit.SECONDS)).startsWith("mongohero-api-");
+	}
+
+	@Test
+	void it_should_propagate_cache_context_to_api_executor() throws Exception {
+		MongoCacheContext.setBypassed(true);
+		CompletableFuture<Boolean> bypassed = asyncApiExecutor.supply(MongoCacheContext::isBypassed);
+
+		MongoCacheContext.setBypassed(false);
+		CompletableFuture<Boolean> notBypassed = asyncApiExecutor.supply(MongoCacheContext::isBypassed);
+
+		assertThat(bypassed.get(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(notBypassed.get(5, TimeUnit.SECONDS)).isFalse();
+	}
+
+	@Test
+	void it_should_reject_api_calls_when_executor_is_full() {
+		// Two threads, and a queue of eight calls.
+		for (int i = 0; i < 10; ++i) {
+			asyncApiExecutor.supply(() -> {
+				StreamingController.await(released);
+				return null;
+			});
+		}
+
+		assertThatThrownBy(() -> asyncApiExecutor.supply(() -> null)).isInstanceOf(TaskRejectedException.class);
+	}
+
+	@Test
+	void it_should_stream_beyond_api_timeout() throws Exception {
+		MvcResult result = mockMvc.perform(get("/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(-1L);
+
+		result.getAsyncResult(5000);
+
+		assertThat(result.getResponse().getContentType()).isEqualTo(MediaType.TEXT_PLAIN_VALUE);
+		assertThat(result.getResponse().getContentAsString()).isEqualTo("1\n2\n3\n4\n");
+	}
+
+	@Test
+	void it_should_send_flushed_bytes_before_end_of_stream() throws Exception {
+		MvcResult result = mockMvc.perform(get("/stream/latch"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (result.getResponse().getContentAsString().isEmpty() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+
+		assertThat(result.getResponse().getContentAsString()).isEqualTo("first\n");
+
+		released.countDown();
+		result.getAsyncResult(5000);
+
+		assertThat(result.getResponse().getContentAsString()).isEqualTo("first\nlast\n");
+	}
+
+	@Test
+	void it_should_stream_on_dedicated_bounded_executor() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicReference<String> threadName = new AtomicReference<>();
+		StreamingResponseBody body = outputStream -> {
+			threadName.set(Thread.currentThread().getName());
+			started.countDown();
+			StreamingController.await(released);
+		};
+
+		asyncApiExecutor.stream(body);
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		asyncApiExecutor.stream(body);
+
+		assertThat(threadName.get()).startsWith("mongohero-stream-");
+		assertThatThrownBy(() -> asyncApiExecutor.stream(body)).isInstanceOf(TaskRejectedException.class);
+	}
+
+	@RestController
+	static class StreamingController {
+		private final AsyncApiExecutor asyncApiExecutor;
+		private final CountDownLatch released;
+
+		StreamingController(AsyncApiExecutor asyncApiExecutor, CountDownLatch released) {
+			this.asyncApiExecutor = asyncApiExecutor;
+			this.released = released;
+		}
+
+		@GetMapping("/stream/latch")
+		ResponseEntity<ResponseBodyEmitter> streamUntilReleased() {
+			ResponseBodyEmitter emitter = asyncApiExecutor.stream(outputStream -> {
+				outputStream.write("first\n".getBytes(StandardCharsets.UTF_8));
+				outputStream.flush();
+				await(released);
+				outputStream.write("last\n".getBytes(StandardCharsets.UTF_8));
+			});
+
+			return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(emitter);
+		}
+
+		@GetMapping("/stream")
+		ResponseEntity<ResponseBodyEmitter> stream() {
+			ResponseBodyEmitter emitter = asyncApiExecutor.stream(outputStream -> {
+				for (int i = 1; i <= 4; ++i) {
+					sleep(API_TIMEOUT_MS);
+					outputStream.write((i + "\n").getBytes(StandardCharsets.UTF_8));
+					outputStream.flush();
+				}
+			});
+
+			return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(emitter);
+		}
+
+		private static void await(CountDownLatch latch) {
+			try {
+				latch.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private static void sleep(long ms) {
+			try {
+				Thread.sleep(ms);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -24,6 +24,7 @@
 
 package com.github.mjeanroy.mongohero.api.core;
 
+import com.github.mjeanroy.mongohero.core.query.TotalAccuracy;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.jupiter.api.Test;
 
@@ -69,6 +70,18 @@ class PageResponseTest {
 		assertThat(response.getTotal()).isZero();
 	}
 
+	@Test
+	void it_should_create_page_response_with_next_cursor() {
+		List<String> body = asList("one", "two", "three");
+
+		PageResponse<String> response = PageResponse.of(body, 1, 3, 100, TotalAccuracy.AT_LEAST, "cursor");
+
+		assertThat(response.getBody()).isEqualTo(body);
+		assertThat(response.getTotal()).isEqualTo(100);
+		assertThat(response.getAccuracy()).isEqualTo(TotalAccuracy.AT_LEAST);
+		assertThat(response.getNextCursor()).isEqualTo("cursor");
+	}
+
 	@Test
 	void it_should_fail_to_create_page_response_with_a_page_less_than_one() {
 		assertThatThrownBy(() -> PageResponse.of(singleton("one"), 0, 10, 100)).isInstanceOf(IllegalArgumentException.class).hasMessage("Page must start with 1");
@@ -105,7 +118,9 @@ class PageResponseTest {
 						"body=[one, two, three]," +
 						"page=1," +
 						"pageSize=10," +
-						"total=100" +
+						"total=100," +
+						"accuracy=EXACT," +
+						"nextCursor=<null>" +
 				"]"
 		);
 	}
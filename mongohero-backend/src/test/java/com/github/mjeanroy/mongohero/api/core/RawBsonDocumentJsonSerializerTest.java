@@ -0,0 +1,126 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.api.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDateTime;
+import org.bson.BsonDbPointer;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonJavaScriptWithScope;
+import org.bson.BsonMaxKey;
+import org.bson.BsonMinKey;
+import org.bson.BsonNull;
+import org.bson.BsonObjectId;
+import org.bson.BsonRegularExpression;
+import org.bson.BsonString;
+import org.bson.BsonTimestamp;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RawBsonDocumentJsonSerializerTest {
+
+	@Test
+	void it_should_serialize_raw_document() throws Exception {
+		BsonDocument document = new BsonDocument()
+				.append("log", new BsonArray(asList(new BsonString("line 1"), new BsonString("line 2"))))
+				.append("totalLinesWritten", new BsonInt32(2))
+				.append("int64", new BsonInt64(10000000000L))
+				.append("double", new BsonDouble(1.5))
+				.append("enabled", BsonBoolean.TRUE)
+				.append("none", BsonNull.VALUE)
+				.append("date", new BsonDateTime(0))
+				.append("id", new BsonObjectId(new ObjectId("5dc1b1d2e4b0a1b2c3d4e5f6")))
+				.append("ts", new BsonTimestamp(10, 2))
+				.append("nested", new BsonDocument("ok", new BsonDouble(1)));
+
+		String json = serialize(new RawBsonDocument(document, new BsonDocumentCodec()));
+
+		assertThat(json).isEqualTo(
+				"{" +
+						"\"log\":[\"line 1\",\"line 2\"]," +
+						"\"totalLinesWritten\":2," +
+						"\"int64\":10000000000," +
+						"\"double\":1.5," +
+						"\"enabled\":true," +
+						"\"none\":null," +
+						"\"date\":\"1970-01-01T00:00:00Z\"," +
+						"\"id\":\"5dc1b1d2e4b0a1b2c3d4e5f6\"," +
+						"\"ts\":{\"t\":10,\"i\":2}," +
+						"\"nested\":{\"ok\":1.0}" +
+				"}"
+		);
+	}
+
+	@Test
+	void it_should_serialize_other_types_as_strings() throws Exception {
+		BsonDocument document = new BsonDocument()
+				.append("min", new BsonMinKey())
+				.append("max", new BsonMaxKey())
+				.append("code", new BsonJavaScriptWithScope("function() { return x; }", new BsonDocument("x", new BsonInt32(1))))
+				.append("pointer", new BsonDbPointer("marvel.movies", new ObjectId("5dc1b1d2e4b0a1b2c3d4e5f6")))
+				.append("regex", new BsonRegularExpression("^Iron", "i"))
+				.append("next", new BsonInt32(1));
+
+		String json = serialize(new RawBsonDocument(document, new BsonDocumentCodec()));
+
+		assertThat(json).isEqualTo(
+				"{" +
+						"\"min\":\"MinKey\"," +
+						"\"max\":\"MaxKey\"," +
+						"\"code\":\"function() { return x; }\"," +
+						"\"pointer\":\"marvel.movies/5dc1b1d2e4b0a1b2c3d4e5f6\"," +
+						"\"regex\":\"/^Iron/i\"," +
+						"\"next\":1" +
+				"}"
+		);
+	}
+
+	@Test
+	void it_should_serialize_raw_document_nested_in_other_values() throws Exception {
+		RawBsonDocument document = new RawBsonDocument(new BsonDocument("ok", new BsonInt32(1)), new BsonDocumentCodec());
+
+		String json = serialize(singletonMap("host1:27017", document));
+
+		assertThat(json).isEqualTo("{\"host1:27017\":{\"ok\":1}}");
+	}
+
+	private static String serialize(Object value) throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.registerModule(new SimpleModule().addSerializer(RawBsonDocument.class, new RawBsonDocumentJsonSerializer()));
+		return mapper.writeValueAsString(value);
+	}
+}
@@ -0,0 +1,63 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.commons;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistogramsTest {
+
+	@Test
+	void it_should_store_small_values_exactly() {
+		for (long value = 0; value < 64; ++value) {
+			int bucket = Histograms.bucketOf(value, 5);
+			assertThat(Histograms.upperBoundOf(bucket, 5)).isEqualTo(value);
+		}
+	}
+
+	@Test
+	void it_should_bound_relative_error_of_large_values() {
+		long[] values = {100, 1_000, 12_345, 1_000_000, 987_654_321, Long.MAX_VALUE};
+		for (long value : values) {
+			int bucket = Histograms.bucketOf(value, 4);
+			long upperBound = Histograms.upperBoundOf(bucket, 4);
+			assertThat(bucket).isLessThan(Histograms.bucketCount(4));
+			assertThat(upperBound).isGreaterThanOrEqualTo(value);
+			assertThat((double) (upperBound - value) / value).isLessThan(0.0625);
+		}
+	}
+
+	@Test
+	void it_should_compute_percentile_capped_to_max() {
+		long[] counts = new long[Histograms.bucketCount(5)];
+		counts[Histograms.bucketOf(10, 5)] = 9;
+		counts[Histograms.bucketOf(1000, 5)] = 1;
+
+		assertThat(Histograms.percentileOf(counts, 10, 1000, 50, 5)).isEqualTo(10);
+		assertThat(Histograms.percentileOf(counts, 10, 1000, 99, 5)).isEqualTo(1000);
+		assertThat(Histograms.percentileOf(counts, 0, 0, 99, 5)).isZero();
+	}
+}
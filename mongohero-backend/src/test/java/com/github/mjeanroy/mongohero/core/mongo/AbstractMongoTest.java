@@ -35,9 +35,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-import static com.github.mjeanroy.mongohero.core.tests.MongoTestUtils.createMongoClientFactory;
+import static com.github.mjeanroy.mongohero.core.tests.MongoTestUtils.createMongo;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -47,9 +46,7 @@ abstract class AbstractMongoTest {
 
 	@BeforeEach
 	void setUp(MongoDbContainerDescriptor mongoDbContainerDescriptor) {
-		mongo = new Mongo(
-				createMongoClientFactory(mongoDbContainerDescriptor)
-		);
+		mongo = createMongo(mongoDbContainerDescriptor);
 	}
 
 	@Test
@@ -145,10 +142,11 @@ abstract class AbstractMongoTest {
 
 	@Test
 	void it_should_get_index_stats() {
-		Map<String, Stream<Document>> results = mongo.indexStats("marvels", "avengers");
-		assertThat(results).hasSize(1);
+		MongoClusterResult<List<Document>> results = mongo.indexStats("marvels", "avengers");
+		assertThat(results.size()).isEqualTo(1);
+		assertThat(results.isDegraded()).isFalse();
 
-		List<Document> documents = results.values().iterator().next().collect(Collectors.toList());
+		List<Document> documents = results.toMap().values().iterator().next();
 		assertThat(documents).hasSize(1);
 
 		Document document = documents.get(0);
@@ -193,7 +191,7 @@ abstract class AbstractMongoTest {
 	@Test
 	@SuppressWarnings("unchecked")
 	void it_should_get_logs() {
-		Map<String, Document> outputs = mongo.getLog();
+		Map<String, Document> outputs = mongo.getLog().toMap();
 		assertThat(outputs).hasSize(1);
 
 		Document document = outputs.values().iterator().next();
@@ -203,7 +201,7 @@ abstract class AbstractMongoTest {
 
 	@Test
 	void it_should_get_parameter() {
-		Map<String, Document> outputs = mongo.getParameter();
+		Map<String, Document> outputs = mongo.getParameter().toMap();
 		assertThat(outputs).hasSize(1);
 		assertThat(outputs.values().iterator().next()).isNotNull().isNotEmpty();
 	}
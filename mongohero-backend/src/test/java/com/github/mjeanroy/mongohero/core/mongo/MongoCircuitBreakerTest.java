@@ -0,0 +1,140 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.mjeanroy.mongohero.core.tests.MongoTestUtils.createCircuitBreakerProperties;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoCircuitBreakerTest {
+
+	private AtomicLong clock;
+	private MongoCircuitBreaker breaker;
+
+	@BeforeEach
+	void setUp() {
+		clock = new AtomicLong(0);
+		breaker = new MongoCircuitBreaker(createCircuitBreakerProperties(true), clock::get);
+	}
+
+	@Test
+	void it_should_stay_closed_below_failure_threshold() {
+		call(true);
+		call(true);
+		call(true);
+		call(false);
+
+		assertThat(health().getState()).isEqualTo(MongoCircuitState.CLOSED);
+		assertThat(health().getFailureRate()).isEqualTo(0.25);
+		assertThat(health().getScore()).isEqualTo(75);
+		assertThat(breaker.tryAcquire()).isTrue();
+	}
+
+	@Test
+	void it_should_open_above_failure_threshold() {
+		call(true);
+		call(false);
+
+		assertThat(health().getState()).isEqualTo(MongoCircuitState.OPEN);
+		assertThat(health().getScore()).isZero();
+		assertThat(breaker.tryAcquire()).isFalse();
+	}
+
+	@Test
+	void it_should_open_on_slow_calls() {
+		assertThat(breaker.tryAcquire()).isTrue();
+		breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(500));
+		assertThat(breaker.tryAcquire()).isTrue();
+		breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(500));
+
+		assertThat(health().getState()).isEqualTo(MongoCircuitState.OPEN);
+	}
+
+	@Test
+	void it_should_close_after_successful_probe() {
+		call(false);
+		call(false);
+		assertThat(breaker.tryAcquire()).isFalse();
+
+		advance(1000);
+
+		assertThat(breaker.tryAcquire()).isTrue();
+		assertThat(health().getState()).isEqualTo(MongoCircuitState.HALF_OPEN);
+		assertThat(breaker.tryAcquire()).isFalse();
+
+		breaker.onSuccess(0);
+
+		assertThat(health().getState()).isEqualTo(MongoCircuitState.CLOSED);
+		assertThat(health().getCalls()).isZero();
+		assertThat(breaker.tryAcquire()).isTrue();
+	}
+
+	@Test
+	void it_should_open_again_after_failed_probe() {
+		call(false);
+		call(false);
+		advance(1000);
+
+		assertThat(breaker.tryAcquire()).isTrue();
+		breaker.onFailure();
+
+		assertThat(health().getState()).isEqualTo(MongoCircuitState.OPEN);
+		assertThat(breaker.tryAcquire()).isFalse();
+	}
+
+	@Test
+	void it_should_release_unused_probe() {
+		call(false);
+		call(false);
+		advance(1000);
+
+		assertThat(breaker.tryAcquire()).isTrue();
+		breaker.release();
+		assertThat(breaker.tryAcquire()).isTrue();
+	}
+
+	private void call(boolean success) {
+		assertThat(breaker.tryAcquire()).isTrue();
+		if (success) {
+			breaker.onSuccess(0);
+		}
+		else {
+			breaker.onFailure();
+		}
+	}
+
+	private MongoHostHealth health() {
+		return breaker.health("host1:27017");
+	}
+
+	private void advance(long ms) {
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(ms));
+	}
+}
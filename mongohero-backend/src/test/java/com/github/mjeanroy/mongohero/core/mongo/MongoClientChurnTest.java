@@ -0,0 +1,80 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoClientChurnTest {
+
+	private AtomicLong clock;
+	private MongoClientChurn churn;
+
+	@BeforeEach
+	void setUp() {
+		clock = new AtomicLong(0);
+		churn = new MongoClientChurn(clock::get);
+	}
+
+	@Test
+	void it_should_count_creations_and_closes() {
+		churn.onCreated();
+		churn.onCreated();
+		churn.onClosed();
+
+		MongoClientChurnStats stats = churn.snapshot(1, 0);
+
+		assertThat(stats.getTotalCreated()).isEqualTo(2);
+		assertThat(stats.getTotalClosed()).isEqualTo(1);
+		assertThat(stats.getCreatedLastMinute()).isEqualTo(2);
+		assertThat(stats.getClosedLastMinute()).isEqualTo(1);
+		assertThat(stats.getActiveClients()).isEqualTo(1);
+		assertThat(stats.getStandbyClients()).isZero();
+	}
+
+	@Test
+	void it_should_forget_events_older_than_one_minute() {
+		churn.onCreated();
+		advance(30);
+		churn.onClosed();
+		advance(30);
+
+		MongoClientChurnStats stats = churn.snapshot(0, 1);
+
+		assertThat(stats.getTotalCreated()).isEqualTo(1);
+		assertThat(stats.getTotalClosed()).isEqualTo(1);
+		assertThat(stats.getCreatedLastMinute()).isZero();
+		assertThat(stats.getClosedLastMinute()).isEqualTo(1);
+	}
+
+	private void advance(long seconds) {
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoCollectionNamesTest {
+
+	@Test
+	void it_should_sort_names_case_insensitive() {
+		MongoCollectionNames names = MongoCollectionNames.of(asList("movies", "Avengers", "users", "avatars", "movies"));
+
+		assertThat(names.size()).isEqualTo(4);
+		assertThat(names.find(null, 0, 10, false)).containsExactly("avatars", "Avengers", "movies", "users");
+		assertThat(names.find(null, 0, 10, true)).containsExactly("users", "movies", "Avengers", "avatars");
+	}
+
+	@Test
+	void it_should_find_page_of_names() {
+		MongoCollectionNames names = MongoCollectionNames.of(asList("a", "b", "c", "d", "e"));
+
+		assertThat(names.find(null, 0, 2, false)).containsExactly("a", "b");
+		assertThat(names.find(null, 2, 2, false)).containsExactly("c", "d");
+		assertThat(names.find(null, 4, 2, false)).containsExactly("e");
+		assertThat(names.find(null, 6, 2, false)).isEmpty();
+
+		assertThat(names.find(null, 0, 2, true)).containsExactly("e", "d");
+		assertThat(names.find(null, 4, 2, true)).containsExactly("a");
+	}
+
+	@Test
+	void it_should_find_names_by_prefix() {
+		MongoCollectionNames names = MongoCollectionNames.of(asList("logs_2019", "Logs_2020", "log", "movies", "logsarchive", "alerts"));
+
+		assertThat(names.count("logs_")).isEqualTo(2);
+		assertThat(names.find("LOGS_", 0, 10, false)).containsExactly("logs_2019", "Logs_2020");
+		assertThat(names.find("logs", 1, 10, true)).containsExactly("Logs_2020", "logs_2019");
+		assertThat(names.count("log")).isEqualTo(4);
+		assertThat(names.count("z")).isZero();
+		assertThat(names.find("z", 0, 10, false)).isEmpty();
+		assertThat(names.count("")).isEqualTo(6);
+	}
+
+	@Test
+	void it_should_refresh_index() {
+		MongoCollectionNames names = MongoCollectionNames.of(asList("b", "d", "f"));
+		MongoCollectionNames refreshed = names.refresh(asList("a", "b", "e", "f", "g"));
+
+		assertThat(refreshed.find(null, 0, 10, false)).containsExactly("a", "b", "e", "f", "g");
+		assertThat(names.find(null, 0, 10, false)).containsExactly("b", "d", "f");
+	}
+
+	@Test
+	void it_should_keep_index_if_names_did_not_change() {
+		MongoCollectionNames names = MongoCollectionNames.of(asList("b", "d", "f"));
+		assertThat(names.refresh(asList("f", "d", "b"))).isSameAs(names);
+	}
+}
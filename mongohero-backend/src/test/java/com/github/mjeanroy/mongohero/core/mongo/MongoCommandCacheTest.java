@@ -0,0 +1,137 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoCommandCacheTest {
+
+	private AtomicLong clock;
+	private AtomicInteger calls;
+	private MongoCommandCache cache;
+
+	@BeforeEach
+	void setUp() {
+		clock = new AtomicLong(0);
+		calls = new AtomicInteger(0);
+		cache = new MongoCommandCache(
+				new MongoCacheProperties(true, 2, 1000, singletonMap("serverStatus", 100L)),
+				clock::get
+		);
+	}
+
+	@AfterEach
+	void tearDown() {
+		MongoCacheContext.clear();
+	}
+
+	@Test
+	void it_should_serve_command_output_from_cache() {
+		assertThat(cache.get("dbstats", "dbstats:db", this::load)).isEqualTo(1);
+		assertThat(cache.get("dbstats", "dbstats:db", this::load)).isEqualTo(1);
+		assertThat(calls.get()).isEqualTo(1);
+
+		MongoCacheStats stats = cache.getStats();
+		assertThat(stats.getHits()).isEqualTo(1);
+		assertThat(stats.getMisses()).isEqualTo(1);
+		assertThat(stats.getSize()).isEqualTo(1);
+		assertThat(stats.getHitRatio()).isEqualTo(0.5);
+	}
+
+	@Test
+	void it_should_expire_entries_with_command_ttl() {
+		assertThat(cache.get("serverStatus", "serverStatus", this::load)).isEqualTo(1);
+
+		advance(99);
+		assertThat(cache.get("serverStatus", "serverStatus", this::load)).isEqualTo(1);
+
+		advance(1);
+		assertThat(cache.get("serverStatus", "serverStatus", this::load)).isEqualTo(2);
+	}
+
+	@Test
+	void it_should_evict_least_recently_used_entry() {
+		cache.get("dbstats", "dbstats:db1", this::load);
+		cache.get("dbstats", "dbstats:db2", this::load);
+		cache.get("dbstats", "dbstats:db1", this::load);
+		cache.get("dbstats", "dbstats:db3", this::load);
+
+		MongoCacheStats stats = cache.getStats();
+		assertThat(stats.getEvictions()).isEqualTo(1);
+		assertThat(stats.getSize()).isEqualTo(2);
+
+		assertThat(cache.get("dbstats", "dbstats:db1", this::load)).isEqualTo(1);
+		assertThat(cache.get("dbstats", "dbstats:db2", this::load)).isEqualTo(4);
+	}
+
+	@Test
+	void it_should_bypass_and_refresh_cache() {
+		cache.get("dbstats", "dbstats:db", this::load);
+
+		MongoCacheContext.setBypassed(true);
+		assertThat(cache.get("dbstats", "dbstats:db", this::load)).isEqualTo(2);
+
+		MongoCacheContext.setBypassed(false);
+		assertThat(cache.get("dbstats", "dbstats:db", this::load)).isEqualTo(2);
+		assertThat(cache.getStats().getMisses()).isEqualTo(2);
+	}
+
+	@Test
+	void it_should_not_store_non_cacheable_output() {
+		cache.get("getParameter", "getParameter", this::load, output -> false);
+		cache.get("getParameter", "getParameter", this::load, output -> false);
+
+		assertThat(calls.get()).isEqualTo(2);
+		assertThat(cache.getStats().getSize()).isZero();
+	}
+
+	@Test
+	void it_should_not_cache_if_disabled() {
+		MongoCommandCache disabled = new MongoCommandCache(new MongoCacheProperties(false, 2, 1000, null), clock::get);
+
+		disabled.get("dbstats", "dbstats:db", this::load);
+		disabled.get("dbstats", "dbstats:db", this::load);
+
+		assertThat(calls.get()).isEqualTo(2);
+		assertThat(disabled.getStats().getMisses()).isZero();
+	}
+
+	private Integer load() {
+		return calls.incrementAndGet();
+	}
+
+	private void advance(long ms) {
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(ms));
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoCommandMetricsTest {
+
+	private static final ConnectionDescription HOST1 = connection("host1", 27017);
+	private static final ConnectionDescription HOST2 = connection("host2", 27017);
+
+	@Test
+	void it_should_record_commands_per_host_and_name() {
+		MongoCommandMetrics metrics = new MongoCommandMetrics();
+		metrics.commandSucceeded(succeeded(HOST2, "serverStatus", 2));
+		metrics.commandSucceeded(succeeded(HOST1, "serverStatus", 4));
+		metrics.commandSucceeded(succeeded(HOST1, "dbstats", 1));
+		metrics.commandFailed(failed(HOST1, "serverStatus", 8));
+
+		List<MongoCommandStats> stats = metrics.getStats();
+
+		assertThat(stats).extracting(MongoCommandStats::getHost).containsExactly("host1:27017", "host1:27017", "host2:27017");
+		assertThat(stats).extracting(MongoCommandStats::getCommand).containsExactly("dbstats", "serverStatus", "serverStatus");
+		assertThat(stats).extracting(MongoCommandStats::getCount).containsExactly(1L, 2L, 1L);
+		assertThat(stats).extracting(MongoCommandStats::getFailures).containsExactly(0L, 1L, 0L);
+		assertThat(stats.get(1).getMaxMicros()).isEqualTo(8000);
+	}
+
+	@Test
+	void it_should_sample_reply_sizes() {
+		MongoCommandMetrics metrics = new MongoCommandMetrics();
+		metrics.commandSucceeded(succeeded(HOST1, "ping", 1));
+
+		MongoCommandStats stats = metrics.getStats().get(0);
+
+		assertThat(stats.getMeanReplyBytes()).isEqualTo(13);
+		assertThat(stats.getMaxReplyBytes()).isEqualTo(13);
+	}
+
+	private static CommandSucceededEvent succeeded(ConnectionDescription connection, String command, long elapsedMs) {
+		BsonDocument response = new BsonDocument("ok", new BsonInt32(1));
+		return new CommandSucceededEvent(1, connection, command, response, TimeUnit.MILLISECONDS.toNanos(elapsedMs));
+	}
+
+	private static CommandFailedEvent failed(ConnectionDescription connection, String command, long elapsedMs) {
+		return new CommandFailedEvent(1, connection, command, TimeUnit.MILLISECONDS.toNanos(elapsedMs), new MongoException("failure"));
+	}
+
+	private static ConnectionDescription connection(String host, int port) {
+		return new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress(host, port)));
+	}
+}
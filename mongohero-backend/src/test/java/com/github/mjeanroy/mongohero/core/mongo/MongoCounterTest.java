@@ -0,0 +1,119 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import com.github.mjeanroy.mongohero.core.query.CountStrategy;
+import com.github.mjeanroy.mongohero.core.query.TotalAccuracy;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.CountOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MongoCounterTest {
+
+	private static final Bson FILTERS = new Document("op", "query");
+
+	private MongoCollection<Document> collection;
+	private MongoCounter counter;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		collection = mock(MongoCollection.class);
+		when(collection.countDocuments(eq(FILTERS))).thenReturn(5000L);
+		when(collection.countDocuments(eq(FILTERS), any(CountOptions.class))).thenAnswer(invocation ->
+				Math.min(5000L, invocation.getArgument(1, CountOptions.class).getLimit())
+		);
+		when(collection.estimatedDocumentCount()).thenReturn(8000L);
+
+		MongoCacheProperties cacheProperties = new MongoCacheProperties(true, 16, 0, singletonMap("countDocuments", 60000L));
+		MongoCountProperties countProperties = new MongoCountProperties(CountStrategy.EXACT, 1000, 1, 8);
+		counter = new MongoCounter(countProperties, new MongoCommandCache(cacheProperties));
+	}
+
+	@AfterEach
+	void tearDown() {
+		counter.onDestroy();
+	}
+
+	@Test
+	void it_should_count_exactly() {
+		MongoCount count = counter.count("key", collection, FILTERS, null);
+
+		assertThat(count.getTotal()).isEqualTo(5000);
+		assertThat(count.getAccuracy()).isEqualTo(TotalAccuracy.EXACT);
+	}
+
+	@Test
+	void it_should_stop_counting_at_cap() {
+		MongoCount count = counter.count("key", collection, FILTERS, CountStrategy.CAPPED);
+
+		assertThat(count.getTotal()).isEqualTo(1000);
+		assertThat(count.getAccuracy()).isEqualTo(TotalAccuracy.AT_LEAST);
+		verify(collection, never()).countDocuments(eq(FILTERS));
+	}
+
+	@Test
+	void it_should_estimate_count() {
+		MongoCount count = counter.count("key", collection, FILTERS, CountStrategy.ESTIMATED);
+
+		assertThat(count.getTotal()).isEqualTo(8000);
+		assertThat(count.getAccuracy()).isEqualTo(TotalAccuracy.ESTIMATED);
+	}
+
+	@Test
+	void it_should_count_in_background_and_return_estimate_until_count_is_available() throws Exception {
+		MongoCount first = counter.count("key", collection, FILTERS, CountStrategy.ASYNC);
+
+		assertThat(first.getTotal()).isEqualTo(8000);
+		assertThat(first.getAccuracy()).isEqualTo(TotalAccuracy.ESTIMATED);
+		verify(collection, timeout(TimeUnit.SECONDS.toMillis(5))).countDocuments(eq(FILTERS));
+
+		MongoCount second = null;
+		for (int i = 0; i < 100 && (second == null || second.getTotal() != 5000); ++i) {
+			Thread.sleep(10);
+			second = counter.count("key", collection, FILTERS, CountStrategy.ASYNC);
+		}
+
+		assertThat(second).isNotNull();
+		assertThat(second.getTotal()).isEqualTo(5000);
+		assertThat(second.getAccuracy()).isEqualTo(TotalAccuracy.ESTIMATED);
+	}
+}
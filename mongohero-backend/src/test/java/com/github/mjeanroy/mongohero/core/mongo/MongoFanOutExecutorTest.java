@@ -0,0 +1,364 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoSocketReadException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoClient;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.mjeanroy.mongohero.core.tests.MongoTestUtils.createCircuitBreakerProperties;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+
+class MongoFanOutExecutorTest {
+
+	private MongoFanOutExecutor executor;
+
+	@BeforeEach
+	void setUp() {
+		executor = new MongoFanOutExecutor(
+				new MongoFanOutProperties(4, 16, 200),
+				new MongoHealthRegistry(createCircuitBreakerProperties(true))
+		);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.onDestroy();
+		MongoCacheContext.clear();
+	}
+
+	@Test
+	void it_should_run_command_on_each_host_and_preserve_order() {
+		Map<String, MongoClient> clients = createClients("host3:27017", "host1:27017", "host2:27017");
+
+		MongoClusterResult<String> result = executor.execute(clients, client -> name(clients, client));
+
+		assertThat(result.size()).isEqualTo(3);
+		assertThat(result.isDegraded()).isFalse();
+		assertThat(result.toMap()).containsExactly(
+				entry("host3:27017", "host3:27017"),
+				entry("host1:27017", "host1:27017"),
+				entry("host2:27017", "host2:27017")
+		);
+	}
+
+	@Test
+	void it_should_run_commands_concurrently() {
+		Map<String, MongoClient> clients = createClients("host1:27017", "host2:27017", "host3:27017");
+
+		long start = System.nanoTime();
+		MongoClusterResult<String> result = executor.execute(clients, client -> {
+			sleep(100);
+			return name(clients, client);
+		});
+
+		long elapsedMs = (System.nanoTime() - start) / 1000000;
+
+		assertThat(result.isDegraded()).isFalse();
+		assertThat(elapsedMs).isLessThan(200);
+	}
+
+	@Test
+	void it_should_report_failure_without_failing_other_hosts() {
+		Map<String, MongoClient> clients = createClients("host1:27017", "host2:27017");
+		MongoSocketReadException error = new MongoSocketReadException("Connection reset", new ServerAddress("host1", 27017));
+
+		MongoClusterResult<String> result = executor.execute(clients, client -> {
+			String host = name(clients, client);
+			if (host.equals("host1:27017")) {
+				throw error;
+			}
+
+			return host;
+		});
+
+		assertThat(result.isDegraded()).isTrue();
+		assertThat(result.toMap()).containsExactly(entry("host2:27017", "host2:27017"));
+		assertThat(result.get("host1:27017").getStatus()).isEqualTo(MongoHostStatus.FAILURE);
+		assertThat(result.get("host1:27017").getError()).isSameAs(error);
+		assertThat(result.get("host2:27017").getStatus()).isEqualTo(MongoHostStatus.SUCCESS);
+	}
+
+	@Test
+	void it_should_report_timeout() {
+		Map<String, MongoClient> clients = createClients("host1:27017", "host2:27017");
+
+		MongoClusterResult<String> result = executor.execute(clients, client -> {
+			String host = name(clients, client);
+			if (host.equals("host2:27017")) {
+				sleep(1000);
+			}
+
+			return host;
+		});
+
+		assertThat(result.isDegraded()).isTrue();
+		assertThat(result.toMap()).containsExactly(entry("host1:27017", "host1:27017"));
+		assertThat(result.get("host2:27017").getStatus()).isEqualTo(MongoHostStatus.TIMEOUT);
+		assertThat(result.get("host2:27017").getElapsedMs()).isGreaterThanOrEqualTo(200);
+	}
+
+	@Test
+	void it_should_fail_on_error() {
+		Map<String, MongoClient> clients = createClients("host1:27017");
+
+		MongoClusterResult<String> result = executor.execute(clients, client -> {
+			throw new IllegalStateException("Boom");
+		});
+
+		assertThatThrownBy(result::failOnError)
+				.isInstanceOf(MongoClusterException.class)
+				.hasMessage("Command failed on host 'host1:27017'")
+				.hasCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void it_should_skip_unhealthy_host() {
+		Map<String, MongoClient> clients = createClients("host1:27017", "host2:27017");
+		AtomicInteger host1Calls = new AtomicInteger(0);
+
+		for (int i = 0; i < 3; ++i) {
+			executor.execute(clients, client -> {
+				String host = name(clients, client);
+				if (host.equals("host1:27017")) {
+					host1Calls.incrementAndGet();
+					throw new MongoSocketReadException("Connection reset", new ServerAddress("host1", 27017));
+				}
+
+				return host;
+			});
+		}
+
+		MongoClusterResult<String> result = executor.execute(clients, client -> name(clients, client));
+
+		assertThat(host1Calls.get()).isEqualTo(2);
+		assertThat(result.isDegraded()).isTrue();
+		assertThat(result.toMap()).containsExactly(entry("host2:27017", "host2:27017"));
+		assertThat(result.get("host1:27017").getStatus()).isEqualTo(MongoHostStatus.SKIPPED);
+	}
+
+	@Test
+	void it_should_not_skip_host_replying_command_errors() {
+		Map<String, MongoClient> clients = createClients("host1:27017", "host2:27017");
+		BsonDocument reply = new BsonDocument("ok", new BsonDouble(0))
+				.append("errmsg", new BsonString("not authorized"))
+				.append("code", new BsonInt32(13));
+
+		for (int i = 0; i < 3; ++i) {
+			MongoClusterResult<String> result = executor.execute(clients, client -> {
+				String host = name(clients, client);
+				if (host.equals("host1:27017")) {
+					throw new MongoCommandException(reply, new ServerAddress("host1", 27017));
+				}
+
+				return host;
+			});
+
+			assertThat(result.get("host1:27017").getStatus()).isEqualTo(MongoHostStatus.FAILURE);
+		}
+
+		MongoClusterResult<String> result = executor.execute(clients, client -> name(clients, client));
+
+		assertThat(result.isDegraded()).isFalse();
+		assertThat(result.toMap()).containsExactly(
+				entry("host1:27017", "host1:27017"),
+				entry("host2:27017", "host2:27017")
+		);
+	}
+
+	@Test
+	void it_should_run_command_on_each_input_and_preserve_order() {
+		Map<String, String> outputs = executor.execute(asList("db3", "db1", "db2"), String::toUpperCase);
+
+		assertThat(outputs).containsExactly(
+				entry("db3", "DB3"),
+				entry("db1", "DB1"),
+				entry("db2", "DB2")
+		);
+	}
+
+	@Test
+	void it_should_give_each_output_to_consumer_as_it_completes() {
+		List<String> outputs = new ArrayList<>();
+		executor.execute(asList("db1", "db2", "db3"), db -> {
+			sleep(db.equals("db1") ? 100 : 0);
+			return db.toUpperCase();
+		}, (db, output) -> outputs.add(db + "=" + output));
+
+		assertThat(outputs).hasSize(3).endsWith("db1=DB1");
+	}
+
+	@Test
+	void it_should_run_command_on_each_input_concurrently() {
+		long start = System.nanoTime();
+		Map<String, String> outputs = executor.execute(asList("db1", "db2", "db3", "db4"), db -> {
+			sleep(100);
+			return db;
+		});
+
+		long elapsedMs = (System.nanoTime() - start) / 1000000;
+
+		assertThat(outputs).hasSize(4);
+		assertThat(elapsedMs).isLessThan(200);
+	}
+
+	@Test
+	void it_should_bound_commands_in_flight_without_rejecting_inputs() {
+		MongoFanOutExecutor smallQueueExecutor = new MongoFanOutExecutor(
+				new MongoFanOutProperties(2, 1, 2000),
+				new MongoHealthRegistry(createCircuitBreakerProperties(true))
+		);
+
+		AtomicInteger running = new AtomicInteger(0);
+		AtomicInteger maxRunning = new AtomicInteger(0);
+
+		try {
+			Map<String, String> outputs = smallQueueExecutor.execute(asList("db1", "db2", "db3", "db4", "db5", "db6"), db -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				sleep(20);
+				running.decrementAndGet();
+				return db;
+			});
+
+			assertThat(outputs).hasSize(6);
+			assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+		}
+		finally {
+			smallQueueExecutor.onDestroy();
+		}
+	}
+
+	@Test
+	void it_should_ignore_failure_without_failing_other_inputs() {
+		Map<String, String> outputs = executor.execute(asList("db1", "db2"), db -> {
+			if (db.equals("db1")) {
+				throw new IllegalStateException("Boom");
+			}
+
+			return db;
+		});
+
+		assertThat(outputs).containsExactly(entry("db2", "db2"));
+	}
+
+	@Test
+	void it_should_ignore_timeout() {
+		Map<String, String> outputs = executor.execute(asList("db1", "db2"), db -> {
+			if (db.equals("db2")) {
+				sleep(1000);
+			}
+
+			return db;
+		});
+
+		assertThat(outputs).containsExactly(entry("db1", "db1"));
+	}
+
+	@Test
+	void it_should_time_out_each_command_from_its_submission() {
+		// 3 rounds of 4 commands: the call takes longer than the timeout, but each command completes in time.
+		long start = System.nanoTime();
+		Map<String, String> outputs = executor.execute(asList("db1", "db2", "db3", "db4", "db5", "db6", "db7", "db8", "db9", "db10", "db11", "db12"), db -> {
+			sleep(100);
+			return db;
+		});
+
+		long elapsedMs = (System.nanoTime() - start) / 1000000;
+
+		assertThat(elapsedMs).isGreaterThanOrEqualTo(300);
+		assertThat(outputs).hasSize(12);
+	}
+
+	@Test
+	void it_should_return_inputs_that_failed_or_timed_out() {
+		List<String> outputs = new ArrayList<>();
+		List<String> missing = executor.execute(asList("db1", "db2", "db3"), db -> {
+			if (db.equals("db1")) {
+				throw new IllegalStateException("Boom");
+			}
+
+			if (db.equals("db2")) {
+				sleep(1000);
+			}
+
+			return db;
+		}, (db, output) -> outputs.add(output));
+
+		assertThat(outputs).containsExactly("db3");
+		assertThat(missing).containsExactly("db1", "db2");
+	}
+
+	@Test
+	void it_should_propagate_cache_settings() {
+		MongoCacheContext.setBypassed(true);
+
+		Map<String, Boolean> outputs = executor.execute(asList("db1", "db2"), db -> MongoCacheContext.isBypassed());
+
+		assertThat(outputs).containsExactly(
+				entry("db1", true),
+				entry("db2", true)
+		);
+	}
+
+	private static Map<String, MongoClient> createClients(String... hosts) {
+		Map<String, MongoClient> clients = new LinkedHashMap<>();
+		for (String host : hosts) {
+			clients.put(host, mock(MongoClient.class));
+		}
+
+		return clients;
+	}
+
+	private static String name(Map<String, MongoClient> clients, MongoClient client) {
+		return clients.entrySet().stream().filter(e -> e.getValue() == client).findFirst().map(Map.Entry::getKey).orElse(null);
+	}
+
+	private static void sleep(long ms) {
+		try {
+			Thread.sleep(ms);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
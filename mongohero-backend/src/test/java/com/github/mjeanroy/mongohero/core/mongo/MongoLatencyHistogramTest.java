@@ -0,0 +1,57 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MongoLatencyHistogramTest {
+
+	@Test
+	void it_should_compute_percentiles() {
+		MongoLatencyHistogram histogram = new MongoLatencyHistogram();
+		for (int i = 1; i <= 1000; ++i) {
+			histogram.record(i);
+		}
+
+		assertThat(histogram.getCount()).isEqualTo(1000);
+		assertThat(histogram.getMax()).isEqualTo(1000);
+		assertThat(histogram.getMean()).isCloseTo(500.5, within(0.001));
+		assertThat(histogram.getPercentile(50)).isBetween(500L, 530L);
+		assertThat(histogram.getPercentile(99)).isBetween(990L, 1000L);
+		assertThat(histogram.getPercentile(100)).isEqualTo(1000);
+	}
+
+	@Test
+	void it_should_return_zero_without_values() {
+		MongoLatencyHistogram histogram = new MongoLatencyHistogram();
+
+		assertThat(histogram.getCount()).isZero();
+		assertThat(histogram.getMean()).isZero();
+		assertThat(histogram.getPercentile(99)).isZero();
+	}
+}
@@ -28,10 +28,13 @@ import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
 
@@ -143,6 +146,33 @@ class MongoMapperTest {
 		assertThat(movie.actors).hasSize(2).containsExactly(actor1, actor2);
 	}
 
+	@Test
+	void it_should_build_projection_of_class_fields() {
+		Document projection = mongoMapper.projection(Avenger.class, emptySet());
+
+		assertThat(projection).containsExactly(
+				entry("name", 1),
+				entry("age", 1),
+				entry("male", 1)
+		);
+	}
+
+	@Test
+	void it_should_build_projection_restricted_to_requested_fields() {
+		Document projection = mongoMapper.projection(Avenger.class, new HashSet<>(asList("age", "unknown")));
+
+		assertThat(projection).containsExactly(
+				entry("age", 1)
+		);
+	}
+
+	@Test
+	void it_should_build_projection_of_class_fields_without_known_requested_fields() {
+		Document projection = mongoMapper.projection(Avenger.class, singleton("unknown"));
+
+		assertThat(projection).containsOnlyKeys("name", "age", "male");
+	}
+
 	private static class Avenger {
 		private String name;
 		private int age;
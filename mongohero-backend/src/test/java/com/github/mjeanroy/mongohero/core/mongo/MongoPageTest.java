@@ -60,7 +60,8 @@ class MongoPageTest {
 		assertThat(page).hasToString(
 				"com.github.mjeanroy.mongohero.core.mongo.MongoPage@" + Integer.toHexString(System.identityHashCode(page)) + "[" +
 						"results=" + results.toString() + "," +
-						"total=10" +
+						"total=10," +
+						"accuracy=EXACT" +
 				"]"
 		);
 	}
@@ -0,0 +1,148 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.mjeanroy.mongohero.core.tests.MongoTestUtils.createPoolProperties;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class MongoPoolSizerTest {
+
+	@Test
+	void it_should_grow_busy_pool() {
+		MongoPoolUsage usage = usage("host1:27017", 4, 4, 0);
+
+		Map<String, Integer> targets = MongoPoolSizer.computeTargets(singletonList(usage), createPoolProperties(true), 100);
+
+		assertThat(targets).containsExactly(entry("host1:27017", 8));
+	}
+
+	@Test
+	void it_should_grow_pool_with_slow_check_out() {
+		MongoPoolUsage usage = usage("host1:27017", 4, 1, 50);
+
+		Map<String, Integer> targets = MongoPoolSizer.computeTargets(singletonList(usage), createPoolProperties(true), 100);
+
+		assertThat(targets).containsExactly(entry("host1:27017", 8));
+	}
+
+	@Test
+	void it_should_shrink_idle_pool() {
+		MongoPoolUsage usage = usage("host1:27017", 10, 1, 0);
+
+		Map<String, Integer> targets = MongoPoolSizer.computeTargets(singletonList(usage), createPoolProperties(true), 100);
+
+		assertThat(targets).containsExactly(entry("host1:27017", 5));
+	}
+
+	@Test
+	void it_should_keep_pool_within_limits() {
+		MongoPoolUsage busy = usage("host1:27017", 8, 8, 0);
+		MongoPoolUsage idle = usage("host2:27017", 2, 0, 0);
+
+		Map<String, Integer> targets = MongoPoolSizer.computeTargets(asList(busy, idle), createPoolProperties(true), 100);
+
+		assertThat(targets).containsExactly(
+				entry("host1:27017", 10),
+				entry("host2:27017", 2)
+		);
+	}
+
+	@Test
+	void it_should_scale_down_to_global_limit() {
+		MongoPoolUsage host1 = usage("host1:27017", 10, 10, 0);
+		MongoPoolUsage host2 = usage("host2:27017", 10, 10, 0);
+		MongoPoolUsage host3 = usage("host3:27017", 10, 10, 0);
+
+		Map<String, Integer> targets = MongoPoolSizer.computeTargets(asList(host1, host2, host3), createPoolProperties(true), 100);
+
+		assertThat(targets.values().stream().mapToInt(Integer::intValue).sum()).isLessThanOrEqualTo(20);
+		assertThat(targets).containsExactly(
+				entry("host1:27017", 6),
+				entry("host2:27017", 6),
+				entry("host3:27017", 6)
+		);
+	}
+
+	@Test
+	void it_should_keep_default_pool_size_and_scale_member_pools_to_remaining_budget() {
+		MongoPoolUsage defaultPool = usage("default", 10, 10, 0);
+		MongoPoolUsage host1 = usage("host1:27017", 10, 10, 0);
+		MongoPoolUsage host2 = usage("host2:27017", 10, 10, 0);
+
+		Map<String, Integer> targets = MongoPoolSizer.computeTargets(asList(defaultPool, host1, host2), createPoolProperties(true), 100, singletonList("default"));
+
+		assertThat(targets).containsExactly(
+				entry("default", 10),
+				entry("host1:27017", 5),
+				entry("host2:27017", 5)
+		);
+	}
+
+	@Test
+	void it_should_ignore_change_within_dead_band() {
+		MongoPoolUsage usage = usage("host1:27017", 9, 9, 0);
+
+		Map<String, Integer> targets = MongoPoolSizer.computeTargets(singletonList(usage), createPoolProperties(true), 100);
+
+		assertThat(targets).containsExactly(entry("host1:27017", 9));
+	}
+
+	@Test
+	void it_should_use_configured_pool_size_as_upper_limit() {
+		MongoPoolProperties properties = createPoolProperties(true);
+		MongoPoolProperties unbounded = new MongoPoolProperties(
+				properties.isAdaptive(),
+				100,
+				properties.getMinSize(),
+				0,
+				properties.getEvaluationMs(),
+				properties.getCooldownMs(),
+				properties.getDeadBandPct(),
+				properties.getWaitThresholdMs(),
+				properties.getHighUsagePct(),
+				properties.getLowUsagePct()
+		);
+
+		MongoPoolUsage usage = usage("host1:27017", 40, 40, 0);
+
+		Map<String, Integer> targets = MongoPoolSizer.computeTargets(singletonList(usage), unbounded, 50);
+
+		assertThat(targets).containsExactly(entry("host1:27017", 50));
+	}
+
+	private static MongoPoolUsage usage(String host, int maxSize, int peakCheckedOut, long avgWaitMs) {
+		long checkouts = 10;
+		long waitNanos = TimeUnit.MILLISECONDS.toNanos(avgWaitMs) * checkouts;
+		return new MongoPoolUsage(host, maxSize, 0, peakCheckedOut, checkouts, waitNanos, 0);
+	}
+}
@@ -0,0 +1,119 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MongoSingleFlightTest {
+
+	private MongoSingleFlight singleFlight;
+	private ExecutorService executor;
+
+	@BeforeEach
+	void setUp() {
+		singleFlight = new MongoSingleFlight();
+		executor = Executors.newFixedThreadPool(2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void it_should_coalesce_identical_commands_in_flight() throws Exception {
+		AtomicInteger calls = new AtomicInteger(0);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<Integer> leader = executor.submit(() -> singleFlight.execute("serverStatus", () -> {
+			started.countDown();
+			await(release);
+			return calls.incrementAndGet();
+		}));
+
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		Future<Integer> follower = executor.submit(() -> singleFlight.execute("serverStatus", calls::incrementAndGet));
+		waitUntilDeduplicated(1);
+		release.countDown();
+
+		assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+		assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+		assertThat(calls.get()).isEqualTo(1);
+
+		MongoSingleFlightStats stats = singleFlight.getStats();
+		assertThat(stats.getExecutions()).isEqualTo(1);
+		assertThat(stats.getDeduplicated()).isEqualTo(1);
+		assertThat(stats.getInFlight()).isZero();
+	}
+
+	@Test
+	void it_should_not_keep_output_once_completed() {
+		AtomicInteger calls = new AtomicInteger(0);
+
+		assertThat(singleFlight.execute("serverStatus", calls::incrementAndGet)).isEqualTo(1);
+		assertThat(singleFlight.execute("serverStatus", calls::incrementAndGet)).isEqualTo(2);
+		assertThat(singleFlight.getStats().getDeduplicated()).isZero();
+	}
+
+	@Test
+	void it_should_propagate_failure_and_release_key() {
+		assertThatThrownBy(() -> singleFlight.execute("serverStatus", () -> {
+			throw new IllegalStateException("Boom");
+		})).isInstanceOf(IllegalStateException.class).hasMessage("Boom");
+
+		assertThat(singleFlight.execute("serverStatus", () -> "ok")).isEqualTo("ok");
+		assertThat(singleFlight.getStats().getInFlight()).isZero();
+	}
+
+	private void waitUntilDeduplicated(long expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (singleFlight.getStats().getDeduplicated() < expected && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.mongo;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoSortedMergeTest {
+
+	@Test
+	void it_should_merge_sorted_sources() {
+		final List<Document> primary = asList(query("primary", 300, 3), query("primary", 100, 1));
+		final List<Document> secondary = asList(query("secondary", 200, 2), query("secondary", 50, 4));
+		final Document sort = new Document("millis", -1).append("ts", -1);
+
+		final List<Document> results = MongoSortedMerge.merge(asList(primary, secondary), sort, 0, 10);
+
+		assertThat(results)
+				.extracting(document -> document.getInteger("millis"))
+				.containsExactly(300, 200, 100, 50);
+	}
+
+	@Test
+	void it_should_skip_and_limit_merged_documents() {
+		final List<Document> primary = asList(query("primary", 1, 1), query("primary", 3, 3), query("primary", 5, 5));
+		final List<Document> secondary = asList(query("secondary", 2, 2), query("secondary", 4, 4), query("secondary", 6, 6));
+		final Document sort = new Document("millis", 1).append("ts", 1);
+
+		final List<Document> results = MongoSortedMerge.merge(asList(primary, secondary), sort, 2, 3);
+
+		assertThat(results)
+				.extracting(document -> document.getInteger("millis"))
+				.containsExactly(3, 4, 5);
+	}
+
+	@Test
+	void it_should_sort_missing_values_first_and_keep_order_of_sources_on_ties() {
+		final Document missing = new Document("host", "secondary").append("ts", new Date(1));
+		final List<Document> primary = asList(query("primary", 10, 1), query("primary", 20, 1));
+		final List<Document> secondary = asList(missing, query("secondary", 10, 1));
+		final Document sort = new Document("millis", 1).append("ts", 1);
+
+		final List<Document> results = MongoSortedMerge.merge(asList(primary, secondary, emptyList()), sort, 0, 10);
+
+		assertThat(results).containsExactly(
+				missing,
+				primary.get(0),
+				secondary.get(1),
+				primary.get(1)
+		);
+	}
+
+	private static Document query(String host, int millis, long ts) {
+		return new Document("host", host).append("millis", millis).append("ts", new Date(ts));
+	}
+}
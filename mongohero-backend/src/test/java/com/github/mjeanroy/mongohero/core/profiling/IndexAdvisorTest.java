@@ -0,0 +1,207 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import com.github.mjeanroy.mongohero.core.model.IndexStat;
+import com.github.mjeanroy.mongohero.core.model.ProfileQuery;
+import com.github.mjeanroy.mongohero.core.mongo.MongoMapper;
+import com.github.mjeanroy.mongohero.core.tests.builders.IndexStatBuilder;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class IndexAdvisorTest {
+
+	private MongoMapper mongoMapper;
+	private IndexAdvisor indexAdvisor;
+
+	@BeforeEach
+	void setUp() {
+		mongoMapper = new MongoMapper();
+		indexAdvisor = new IndexAdvisor();
+	}
+
+	@Test
+	void it_should_build_candidate_following_equality_sort_range_order() {
+		final Document filter = new Document("year", new Document("$gte", 2010))
+				.append("studio", "Marvel")
+				.append("status", new Document("$in", asList("released", "planned")));
+
+		final ProfileQuery query = find("marvel.movies", filter, new Document("rating", -1), "COLLSCAN", 1000, 0, 10);
+
+		final IndexAdvisor.Candidate candidate = IndexAdvisor.candidate(query);
+
+		assertThat(candidate).isNotNull();
+		assertThat(candidate.getKey()).containsExactly(
+				entry("status", 1),
+				entry("studio", 1),
+				entry("rating", -1),
+				entry("year", 1)
+		);
+	}
+
+	@Test
+	void it_should_build_candidate_from_aggregation_pipeline() {
+		final Map<String, Object> command = new Document("aggregate", "movies").append("pipeline", asList(
+				new Document("$match", new Document("studio", "Marvel")),
+				new Document("$sort", new Document("year", 1)),
+				new Document("$limit", 10)
+		));
+
+		final ProfileQuery query = mongoMapper.map(new Document("ns", "marvel.movies").append("command", command), ProfileQuery.class);
+
+		final IndexAdvisor.Candidate candidate = IndexAdvisor.candidate(query);
+
+		assertThat(candidate).isNotNull();
+		assertThat(candidate.getKey()).containsExactly(
+				entry("studio", 1),
+				entry("year", 1)
+		);
+	}
+
+	@Test
+	void it_should_not_build_candidate_for_id_lookup() {
+		final ProfileQuery query = find("marvel.movies", new Document("_id", 1).append("year", 2019), null, "IDHACK", 1, 0, 1);
+		assertThat(IndexAdvisor.candidate(query)).isNull();
+	}
+
+	@Test
+	void it_should_detect_inefficient_queries() {
+		assertThat(indexAdvisor.isInefficient(find("marvel.movies", new Document("year", 2019), null, "COLLSCAN", 5, 0, 5))).isTrue();
+		assertThat(indexAdvisor.isInefficient(find("marvel.movies", new Document("year", 2019), null, "IXSCAN { year: 1 }", 1000, 1000, 10))).isTrue();
+		assertThat(indexAdvisor.isInefficient(find("marvel.movies", new Document("year", 2019), null, "IXSCAN { year: 1 }", 10, 10, 10))).isFalse();
+	}
+
+	@Test
+	void it_should_suggest_indexes_and_merge_prefixes() {
+		final List<ProfileQuery> queries = asList(
+				find("marvel.movies", new Document("studio", "Marvel"), null, "COLLSCAN", 1000, 0, 100),
+				find("marvel.movies", new Document("studio", "Marvel"), new Document("year", -1), "COLLSCAN", 1000, 0, 10),
+				find("marvel.heroes", new Document("name", "Thor"), null, "COLLSCAN", 500, 0, 1),
+				find("marvel.movies", new Document("_id", 1), null, "IDHACK", 1, 1, 1)
+		);
+
+		final List<IndexSuggestion> suggestions = indexAdvisor.advise("marvel.movies", queries, emptyList());
+
+		assertThat(suggestions).hasSize(1);
+
+		final IndexSuggestion suggestion = suggestions.get(0);
+		assertThat(suggestion.getNs()).isEqualTo("marvel.movies");
+		assertThat(suggestion.getKey()).containsExactly(entry("studio", 1), entry("year", -1));
+		assertThat(suggestion.getCount()).isEqualTo(2);
+		assertThat(suggestion.getCollScans()).isEqualTo(2);
+		assertThat(suggestion.getDocsExamined()).isEqualTo(2000);
+		assertThat(suggestion.getNreturned()).isEqualTo(110);
+		assertThat(suggestion.getBenefit()).isEqualTo(1890);
+		assertThat(suggestion.getRedundantIndexes()).isEmpty();
+	}
+
+	@Test
+	void it_should_flag_redundant_indexes() {
+		final IndexStat id = index("_id_", new Document("_id", 1));
+		final IndexStat studio = index("studio_1", new Document("studio", 1));
+		final IndexStat year = index("year_1", new Document("year", 1));
+		final List<ProfileQuery> queries = singletonList(
+				find("marvel.movies", new Document("studio", "Marvel"), new Document("year", -1), "IXSCAN { studio: 1 }", 1000, 1000, 10)
+		);
+
+		final List<IndexSuggestion> suggestions = indexAdvisor.advise("marvel.movies", queries, asList(id, studio, year));
+
+		assertThat(suggestions).hasSize(1);
+		assertThat(suggestions.get(0).getRedundantIndexes()).containsExactly("studio_1");
+	}
+
+	@Test
+	void it_should_not_suggest_index_served_by_existing_index() {
+		final IndexStat existing = index("studio_1_year_1", new Document("studio", 1).append("year", 1).append("title", 1));
+		final List<ProfileQuery> queries = singletonList(
+				find("marvel.movies", new Document("studio", "Marvel"), new Document("year", -1), "COLLSCAN", 1000, 0, 10)
+		);
+
+		final List<IndexSuggestion> suggestions = indexAdvisor.advise("marvel.movies", queries, singletonList(existing));
+
+		assertThat(suggestions).isEmpty();
+	}
+
+	@Test
+	void it_should_ignore_direction_of_range_fields() {
+		final IndexStat existing = index("studio_1_rating_-1_year_-1", new Document("studio", 1).append("rating", -1).append("year", -1));
+		final List<ProfileQuery> queries = asList(
+				find("marvel.movies", new Document("studio", "Marvel").append("year", new Document("$gte", 2010)), new Document("rating", -1), "COLLSCAN", 1000, 0, 10),
+				find("marvel.movies", new Document("studio", "Marvel").append("year", new Document("$gte", 2010)), new Document("rating", 1), "COLLSCAN", 1000, 0, 10)
+		);
+
+		assertThat(indexAdvisor.advise("marvel.movies", queries, singletonList(existing))).isEmpty();
+	}
+
+	@Test
+	void it_should_check_direction_of_sort_fields() {
+		final IndexStat existing = index("studio_1_rating_1_year_-1", new Document("studio", 1).append("rating", 1).append("year", -1));
+		final List<ProfileQuery> queries = singletonList(
+				find("marvel.movies", new Document("studio", "Marvel"), new Document("rating", -1).append("year", -1), "COLLSCAN", 1000, 0, 10)
+		);
+
+		final List<IndexSuggestion> suggestions = indexAdvisor.advise("marvel.movies", queries, singletonList(existing));
+
+		assertThat(suggestions).hasSize(1);
+		assertThat(suggestions.get(0).getKey()).containsExactly(entry("studio", 1), entry("rating", -1), entry("year", -1));
+	}
+
+	private ProfileQuery find(String ns, Document filter, Document sort, String planSummary, int docsExamined, int keysExamined, int nreturned) {
+		final Document command = new Document("find", ns.substring(ns.indexOf('.') + 1)).append("filter", filter);
+		if (sort != null) {
+			command.append("sort", sort);
+		}
+
+		final Document document = new Document("ns", ns)
+				.append("op", "query")
+				.append("command", command)
+				.append("planSummary", planSummary)
+				.append("hasSortStage", false)
+				.append("docsExamined", docsExamined)
+				.append("keysExamined", keysExamined)
+				.append("nreturned", nreturned)
+				.append("millis", 10);
+
+		return mongoMapper.map(document, ProfileQuery.class);
+	}
+
+	private static IndexStat index(String name, Document key) {
+		final Map<String, Number> spec = new LinkedHashMap<>();
+		key.forEach((field, direction) -> spec.put(field, (Number) direction));
+		return new IndexStatBuilder().withName(name).withKey(spec).withAccesses(0, new Date()).build();
+	}
+}
@@ -0,0 +1,79 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencySketchTest {
+
+	@Test
+	void it_should_compute_percentiles() {
+		LatencySketch sketch = new LatencySketch();
+		for (int i = 1; i <= 1000; ++i) {
+			sketch.record(i);
+		}
+
+		assertThat(sketch.getCount()).isEqualTo(1000);
+		assertThat(sketch.getMax()).isEqualTo(1000);
+		assertThat(sketch.getMean()).isCloseTo(500.5, within(0.01));
+		assertThat(sketch.getPercentile(50)).isCloseTo(500L, within(16L));
+		assertThat(sketch.getPercentile(99)).isCloseTo(990L, within(32L));
+		assertThat(sketch.getPercentile(99.9)).isCloseTo(999L, within(32L));
+		assertThat(sketch.getPercentile(100)).isEqualTo(1000);
+	}
+
+	@Test
+	void it_should_merge_sketches() {
+		LatencySketch all = new LatencySketch();
+		LatencySketch even = new LatencySketch();
+		LatencySketch odd = new LatencySketch();
+		for (int i = 1; i <= 5000; ++i) {
+			all.record(i);
+			(i % 2 == 0 ? even : odd).record(i);
+		}
+
+		LatencySketch merged = new LatencySketch();
+		merged.merge(odd);
+		merged.merge(even);
+
+		assertThat(merged.getCount()).isEqualTo(all.getCount());
+		assertThat(merged.getMax()).isEqualTo(all.getMax());
+		assertThat(merged.getMean()).isEqualTo(all.getMean());
+		for (double percentile : new double[]{50, 90, 99, 99.9}) {
+			assertThat(merged.getPercentile(percentile)).isEqualTo(all.getPercentile(percentile));
+		}
+	}
+
+	@Test
+	void it_should_return_zero_without_values() {
+		LatencySketch sketch = new LatencySketch();
+		assertThat(sketch.getCount()).isZero();
+		assertThat(sketch.getMean()).isZero();
+		assertThat(sketch.getPercentile(99)).isZero();
+	}
+}
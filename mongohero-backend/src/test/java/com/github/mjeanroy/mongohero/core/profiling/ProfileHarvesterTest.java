@@ -0,0 +1,256 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import com.github.mjeanroy.mongohero.core.mongo.Mongo;
+import com.github.mjeanroy.mongohero.core.mongo.MongoMapper;
+import com.github.mjeanroy.mongohero.core.profiling.store.InMemoryProfileStore;
+import com.github.mjeanroy.mongohero.core.profiling.store.ProfileStore;
+import com.github.mjeanroy.mongohero.core.profiling.store.ProfileStoreProperties;
+import com.github.mjeanroy.mongohero.core.profiling.store.ProfileStoreType;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProfileHarvesterTest {
+
+	private Mongo mongo;
+	private ProfileStore store;
+	private ProfileLatencyIndex latencyIndex;
+	private ProfileHarvester harvester;
+
+	@BeforeEach
+	void setUp() {
+		mongo = mock(Mongo.class);
+		store = new InMemoryProfileStore(new ProfileStoreProperties(ProfileStoreType.MEMORY, 100, null, 0, 0, 0));
+		harvester = createHarvester(10);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		harvester.onDestroy();
+	}
+
+	@Test
+	void it_should_harvest_entries_into_store() throws InterruptedException {
+		MongoCursor<Document> cursor = cursor(entry(1), entry(2), entry(3));
+		when(mongo.tailSystemProfile(eq("marvel"), isNull(), any(Document.class), anyInt())).thenReturn(cursor);
+
+		harvester.harvest(harvester.createTail("marvel"));
+
+		assertThat(harvester.flush()).isEqualTo(2);
+		assertThat(harvester.flush()).isEqualTo(1);
+		assertThat(harvester.flush()).isZero();
+		assertThat(scan("marvel")).containsExactly(1L, 2L, 3L);
+		verify(cursor).close();
+
+		ProfileHarvesterStats stats = harvester.getStats();
+		assertThat(stats.getQueueSize()).isZero();
+		assertThat(stats.getQueueCapacity()).isEqualTo(10);
+		assertThat(stats.getTails()).hasSize(1);
+		assertThat(stats.getTails().get(0).getDatabase()).isEqualTo("marvel");
+		assertThat(stats.getTails().get(0).getHarvested()).isEqualTo(3);
+		assertThat(stats.getTails().get(0).getLastTs()).isEqualTo(new Date(3));
+		assertThat(stats.getTails().get(0).isConnected()).isFalse();
+	}
+
+	@Test
+	void it_should_resume_after_last_stored_entry() throws InterruptedException {
+		store.append("marvel", singletonList(entry(5)));
+
+		MongoCursor<Document> cursor = cursor(entry(5), entry(6));
+		when(mongo.findOldestSystemProfileTs("marvel")).thenReturn(Optional.of(new Date(1)));
+		when(mongo.tailSystemProfile(eq("marvel"), eq(new Date(5)), any(Document.class), anyInt())).thenReturn(cursor);
+
+		harvester.harvest(harvester.createTail("marvel"));
+		harvester.flush();
+
+		assertThat(scan("marvel")).containsExactly(5L, 6L);
+		assertThat(harvester.getStats().getTails().get(0).getGaps()).isZero();
+	}
+
+	@Test
+	void it_should_resume_with_entries_profiled_during_the_same_millisecond() throws InterruptedException {
+		store.append("marvel", asList(entry(5), entry(5)));
+
+		MongoCursor<Document> cursor = cursor(entry(5), entry(5), entry(5), entry(6));
+		when(mongo.findOldestSystemProfileTs("marvel")).thenReturn(Optional.of(new Date(1)));
+		when(mongo.tailSystemProfile(eq("marvel"), eq(new Date(5)), any(Document.class), anyInt())).thenReturn(cursor);
+
+		harvester.harvest(harvester.createTail("marvel"));
+		harvester.flush();
+
+		assertThat(scan("marvel")).containsExactly(5L, 5L, 5L, 6L);
+	}
+
+	@Test
+	void it_should_not_harvest_entries_twice_when_cursor_is_reopened() throws InterruptedException {
+		MongoCursor<Document> firstCursor = cursor(entry(4), entry(5));
+		MongoCursor<Document> secondCursor = cursor(entry(5), entry(5), entry(6));
+		when(mongo.findOldestSystemProfileTs("marvel")).thenReturn(Optional.of(new Date(1)));
+		when(mongo.tailSystemProfile(eq("marvel"), isNull(), any(Document.class), anyInt())).thenReturn(firstCursor);
+		when(mongo.tailSystemProfile(eq("marvel"), eq(new Date(5)), any(Document.class), anyInt())).thenReturn(secondCursor);
+
+		ProfileHarvester.DatabaseTail tail = harvester.createTail("marvel");
+		harvester.harvest(tail);
+		harvester.flush();
+
+		harvester.harvest(tail);
+		harvester.flush();
+
+		assertThat(scan("marvel")).containsExactly(4L, 5L, 5L, 6L);
+	}
+
+	@Test
+	void it_should_detect_entries_rolled_over_before_being_harvested() throws InterruptedException {
+		store.append("marvel", singletonList(entry(5)));
+
+		MongoCursor<Document> cursor = cursor(entry(10));
+		when(mongo.findOldestSystemProfileTs("marvel")).thenReturn(Optional.of(new Date(8)));
+		when(mongo.tailSystemProfile(eq("marvel"), eq(new Date(5)), any(Document.class), anyInt())).thenReturn(cursor);
+
+		harvester.harvest(harvester.createTail("marvel"));
+
+		assertThat(harvester.getStats().getTails().get(0).getGaps()).isEqualTo(1);
+	}
+
+	@Test
+	void it_should_not_check_gap_on_first_harvest() throws InterruptedException {
+		MongoCursor<Document> cursor = cursor();
+		when(mongo.tailSystemProfile(eq("marvel"), isNull(), any(Document.class), anyInt())).thenReturn(cursor);
+
+		harvester.harvest(harvester.createTail("marvel"));
+
+		verify(mongo, never()).findOldestSystemProfileTs("marvel");
+		assertThat(harvester.flush()).isZero();
+	}
+
+	@Test
+	void it_should_stall_when_queue_is_full() throws InterruptedException {
+		harvester.onDestroy();
+		harvester = createHarvester(1);
+
+		MongoCursor<Document> cursor = cursor(entry(1), entry(2));
+		when(mongo.tailSystemProfile(eq("marvel"), isNull(), any(Document.class), anyInt())).thenReturn(cursor);
+
+		Thread writer = new Thread(() -> {
+			sleep(150);
+			harvester.flush();
+		});
+
+		writer.start();
+		harvester.harvest(harvester.createTail("marvel"));
+		writer.join();
+
+		assertThat(harvester.getStats().getStalls()).isGreaterThan(0);
+		assertThat(harvester.flush()).isEqualTo(1);
+		assertThat(scan("marvel")).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void it_should_replay_stored_entries_into_latency_index_once() throws InterruptedException {
+		store.append("marvel", asList(entry(1), entry(2), entry(3)));
+		when(mongo.tailSystemProfile(eq("marvel"), any(Date.class), any(Document.class), anyInt())).thenAnswer(invocation -> cursor());
+		when(mongo.findOldestSystemProfileTs("marvel")).thenReturn(Optional.empty());
+
+		harvester.harvest(harvester.createTail("marvel"));
+		harvester.harvest(harvester.createTail("marvel"));
+
+		List<LatencyPercentiles> percentiles = latencyIndex.percentiles("marvel", null, null, LatencyGroup.NAMESPACE);
+		assertThat(percentiles).hasSize(1);
+		assertThat(percentiles.get(0).getCount()).isEqualTo(3);
+		assertThat(harvester.flush()).isZero();
+	}
+
+	private ProfileHarvester createHarvester(int queueSize) {
+		ProfileHarvesterProperties properties = new ProfileHarvesterProperties(
+				false, emptyList(), 64, queueSize, 2, 10, 10, 60000, 50
+		);
+
+		latencyIndex = new ProfileLatencyIndex(
+				new ProfileLatencyProperties(60000, 3600000, 100), new MongoMapper(), new QueryFingerprinter()
+		);
+
+		ProfileRegressionDetector regressionDetector = new ProfileRegressionDetector(
+				new ProfileRegressionProperties(60000, 0.1, 10, 5, 3.0, 100, 1440), new MongoMapper(), new QueryFingerprinter()
+		);
+
+		return new ProfileHarvester(properties, mongo, new MongoMapper(), store, latencyIndex, regressionDetector);
+	}
+
+	private List<Long> scan(String database) {
+		List<Long> timestamps = new ArrayList<>();
+		store.scan(database, null, null, document -> timestamps.add(document.getDate("ts").getTime()));
+		return timestamps;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MongoCursor<Document> cursor(Document... documents) {
+		MongoCursor<Document> cursor = mock(MongoCursor.class);
+		if (documents.length == 0) {
+			when(cursor.tryNext()).thenReturn(null);
+		}
+		else {
+			Document[] next = new Document[documents.length];
+			System.arraycopy(documents, 1, next, 0, documents.length - 1);
+			when(cursor.tryNext()).thenReturn(documents[0], next);
+		}
+
+		return cursor;
+	}
+
+	private static Document entry(long ts) {
+		return new Document("ts", new Date(ts)).append("op", "query").append("millis", 100);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import com.github.mjeanroy.mongohero.core.mongo.MongoMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ProfileLatencyIndexTest {
+
+	private static final long MINUTE = 60000;
+
+	private ProfileLatencyIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ProfileLatencyIndex(
+				new ProfileLatencyProperties(MINUTE, 60 * MINUTE, 100),
+				new MongoMapper(),
+				new QueryFingerprinter()
+		);
+	}
+
+	@Test
+	void it_should_compute_percentiles_of_each_shape() {
+		List<Document> entries = new ArrayList<>();
+		for (int i = 1; i <= 100; ++i) {
+			entries.add(find(0, "marvel.movies", i, new Document("year", i)));
+			entries.add(find(0, "marvel.movies", 1000, new Document("title", "Avengers " + i)));
+		}
+
+		index.record("marvel", entries);
+
+		List<LatencyPercentiles> percentiles = index.percentiles("marvel", null, null, LatencyGroup.SHAPE);
+		assertThat(percentiles)
+				.extracting(LatencyPercentiles::getNs, LatencyPercentiles::getOp, LatencyPercentiles::getCount, LatencyPercentiles::getMax)
+				.containsExactlyInAnyOrder(
+						tuple("marvel.movies", "query", 100L, 100L),
+						tuple("marvel.movies", "query", 100L, 1000L)
+				);
+
+		LatencyPercentiles byYear = percentiles.stream().filter(p -> p.getMax() == 100).findFirst().get();
+		assertThat(byYear.getShapeId()).hasSize(16);
+		assertThat(byYear.getShape()).contains("year");
+		assertThat(byYear.getP50()).isEqualTo(50);
+		assertThat(byYear.getP99()).isEqualTo(99);
+		assertThat(byYear.getP999()).isEqualTo(100);
+	}
+
+	@Test
+	void it_should_merge_groups_and_time_buckets() {
+		index.record("marvel", singletonList(find(0, "marvel.movies", 10, new Document("year", 2019))));
+		index.record("marvel", singletonList(find(5 * MINUTE, "marvel.movies", 20, new Document("title", "Avengers"))));
+		index.record("marvel", singletonList(find(10 * MINUTE, "marvel.heroes", 30, new Document("name", "Thor"))));
+
+		assertThat(index.percentiles("marvel", null, null, LatencyGroup.NAMESPACE))
+				.extracting(LatencyPercentiles::getNs, LatencyPercentiles::getShapeId, LatencyPercentiles::getCount, LatencyPercentiles::getMax)
+				.containsExactlyInAnyOrder(
+						tuple("marvel.movies", null, 2L, 20L),
+						tuple("marvel.heroes", null, 1L, 30L)
+				);
+
+		assertThat(index.percentiles("marvel", null, null, LatencyGroup.OPERATION))
+				.extracting(LatencyPercentiles::getOp, LatencyPercentiles::getCount, LatencyPercentiles::getMax)
+				.containsExactly(tuple("query", 3L, 30L));
+
+		assertThat(index.percentiles("marvel", new Date(ts(4 * MINUTE)), new Date(ts(9 * MINUTE)), LatencyGroup.OPERATION))
+				.extracting(LatencyPercentiles::getCount, LatencyPercentiles::getMax)
+				.containsExactly(tuple(1L, 20L));
+
+		assertThat(index.percentiles("dc", null, null, LatencyGroup.SHAPE)).isEmpty();
+	}
+
+	@Test
+	void it_should_discard_expired_buckets() {
+		index.record("marvel", singletonList(find(0, "marvel.movies", 10, new Document("year", 2019))));
+		index.record("marvel", singletonList(find(120 * MINUTE, "marvel.movies", 20, new Document("year", 2019))));
+
+		assertThat(index.percentiles("marvel", null, null, LatencyGroup.SHAPE))
+				.extracting(LatencyPercentiles::getCount, LatencyPercentiles::getMax)
+				.containsExactly(tuple(1L, 20L));
+	}
+
+	@Test
+	void it_should_cap_distinct_shapes_over_retention_window() {
+		index = new ProfileLatencyIndex(
+				new ProfileLatencyProperties(MINUTE, 60 * MINUTE, 2),
+				new MongoMapper(),
+				new QueryFingerprinter()
+		);
+
+		index.record("marvel", singletonList(find(0, "marvel.movies", 10, new Document("year", 2019))));
+		index.record("marvel", singletonList(find(MINUTE, "marvel.movies", 20, new Document("title", "Avengers"))));
+		index.record("marvel", singletonList(find(2 * MINUTE, "marvel.movies", 30, new Document("name", "Thor"))));
+		index.record("marvel", singletonList(find(3 * MINUTE, "marvel.movies", 40, new Document("year", 2020))));
+
+		assertThat(index.percentiles("marvel", null, null, LatencyGroup.SHAPE))
+				.extracting(LatencyPercentiles::getCount, LatencyPercentiles::getMax)
+				.containsExactlyInAnyOrder(tuple(2L, 40L), tuple(1L, 20L));
+
+		index.record("marvel", singletonList(find(62 * MINUTE, "marvel.movies", 50, new Document("name", "Thor"))));
+
+		assertThat(index.percentiles("marvel", null, null, LatencyGroup.SHAPE))
+				.extracting(LatencyPercentiles::getCount, LatencyPercentiles::getMax)
+				.containsExactlyInAnyOrder(tuple(1L, 40L), tuple(1L, 50L));
+	}
+
+	private static Document find(long offset, String ns, int millis, Document filter) {
+		String collection = ns.substring(ns.indexOf('.') + 1);
+		return new Document("ts", new Date(ts(offset)))
+				.append("op", "query")
+				.append("ns", ns)
+				.append("millis", millis)
+				.append("command", new Document("find", collection).append("filter", filter));
+	}
+
+	private static long ts(long offset) {
+		return 1_500_000_000_000L + offset;
+	}
+}
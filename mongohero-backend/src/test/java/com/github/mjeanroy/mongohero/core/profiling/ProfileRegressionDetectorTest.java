@@ -0,0 +1,172 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import com.github.mjeanroy.mongohero.core.mongo.MongoMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ProfileRegressionDetectorTest {
+
+	private static final long MINUTE = 60000;
+
+	private ProfileRegressionDetector detector;
+
+	@BeforeEach
+	void setUp() {
+		detector = new ProfileRegressionDetector(
+				new ProfileRegressionProperties(MINUTE, 0.1, 10, 5, 3.0, 100, 1440),
+				new MongoMapper(),
+				new QueryFingerprinter()
+		);
+	}
+
+	@Test
+	void it_should_not_detect_regression_of_stable_shape() {
+		recordBaseline(12, 10, 10);
+
+		detector.record("marvel", window(12, 10, 10, new Document("year", 2019)));
+
+		assertThat(detector.regressions("marvel")).isEmpty();
+	}
+
+	@Test
+	void it_should_detect_latency_regression() {
+		recordBaseline(12, 10, 10);
+
+		detector.record("marvel", window(12, 10, 100, new Document("year", 2019)));
+
+		List<QueryRegression> regressions = detector.regressions("marvel");
+		assertThat(regressions).hasSize(1);
+
+		QueryRegression regression = regressions.get(0);
+		assertThat(regression.getNs()).isEqualTo("marvel.movies");
+		assertThat(regression.getOp()).isEqualTo("query");
+		assertThat(regression.getShape()).isEqualTo("{\"filter\":{\"year\":?},\"find\":\"movies\"}");
+		assertThat(regression.getSince()).isEqualTo(new Date(ts(12 * MINUTE)));
+		assertThat(regression.getCount()).isEqualTo(10);
+		assertThat(regression.getScore()).isGreaterThanOrEqualTo(3.0);
+		assertThat(regression.getMetrics())
+				.extracting(MetricDeviation::getMetric, MetricDeviation::isRegressed)
+				.containsExactly(
+						tuple(RegressionMetric.RATE, false),
+						tuple(RegressionMetric.LATENCY_P50, true),
+						tuple(RegressionMetric.LATENCY_P99, true),
+						tuple(RegressionMetric.EXAMINED_RATIO, false)
+				);
+	}
+
+	@Test
+	void it_should_detect_rate_regression() {
+		recordBaseline(12, 10, 10);
+
+		detector.record("marvel", window(12, 100, 10, new Document("year", 2019)));
+
+		List<QueryRegression> regressions = detector.regressions("marvel");
+		assertThat(regressions).hasSize(1);
+		assertThat(regressions.get(0).getMetrics())
+				.filteredOn(MetricDeviation::isRegressed)
+				.extracting(MetricDeviation::getMetric, MetricDeviation::getBaseline, MetricDeviation::getCurrent)
+				.containsExactly(
+						tuple(RegressionMetric.RATE, 10.0, 100.0)
+				);
+	}
+
+	@Test
+	void it_should_not_score_shape_without_enough_windows() {
+		recordBaseline(5, 10, 10);
+
+		detector.record("marvel", window(5, 10, 100, new Document("year", 2019)));
+
+		assertThat(detector.regressions("marvel")).isEmpty();
+	}
+
+	@Test
+	void it_should_expire_regression_of_shape_not_executed_anymore() {
+		recordBaseline(12, 10, 10);
+		detector.record("marvel", window(12, 10, 100, new Document("year", 2019)));
+		assertThat(detector.regressions("marvel")).hasSize(1);
+
+		detector.record("marvel", window(14, 10, 10, new Document("title", "Avengers")));
+
+		assertThat(detector.regressions("marvel")).isEmpty();
+	}
+
+	@Test
+	void it_should_count_dropped_shapes_and_evict_idle_shapes() {
+		ProfileRegressionDetector smallDetector = new ProfileRegressionDetector(
+				new ProfileRegressionProperties(MINUTE, 0.1, 10, 5, 3.0, 1, 2),
+				new MongoMapper(),
+				new QueryFingerprinter()
+		);
+
+		smallDetector.record("marvel", window(0, 1, 10, new Document("year", 2019)));
+		smallDetector.record("marvel", window(1, 1, 10, new Document("title", "Avengers")));
+
+		assertThat(smallDetector.getDroppedShapes()).isEqualTo(1);
+		assertThat(smallDetector.getEvictedShapes()).isZero();
+
+		smallDetector.record("marvel", window(3, 1, 10, new Document("title", "Avengers")));
+
+		assertThat(smallDetector.getDroppedShapes()).isEqualTo(1);
+		assertThat(smallDetector.getEvictedShapes()).isEqualTo(1);
+	}
+
+	private void recordBaseline(int windows, int count, int millis) {
+		for (int i = 0; i < windows; ++i) {
+			detector.record("marvel", window(i, count, millis, new Document("year", 2019)));
+		}
+	}
+
+	private static List<Document> window(int window, int count, int millis, Document filter) {
+		List<Document> entries = new ArrayList<>(count);
+		for (int i = 0; i < count; ++i) {
+			entries.add(find(window * MINUTE + i, "marvel.movies", millis, filter));
+		}
+
+		return entries;
+	}
+
+	private static Document find(long offset, String ns, int millis, Document filter) {
+		String collection = ns.substring(ns.indexOf('.') + 1);
+		return new Document("ts", new Date(ts(offset)))
+				.append("op", "query")
+				.append("ns", ns)
+				.append("millis", millis)
+				.append("command", new Document("find", collection).append("filter", filter));
+	}
+
+	private static long ts(long offset) {
+		return 1_500_000_000_000L + offset;
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryFingerprinterTest {
+
+	private QueryFingerprinter fingerprinter;
+
+	@BeforeEach
+	void setUp() {
+		fingerprinter = new QueryFingerprinter();
+	}
+
+	@Test
+	void it_should_compute_fnv1a_hash() {
+		assertThat(QueryFingerprinter.hash("")).isEqualTo(0xcbf29ce484222325L);
+		assertThat(QueryFingerprinter.hash("a")).isEqualTo(0x089be207b544f1e4L);
+	}
+
+	@Test
+	void it_should_replace_literals_and_sort_keys() {
+		Document command = new Document("find", "users")
+				.append("filter", new Document("name", "John").append("age", new Document("$gt", 20)))
+				.append("limit", 10);
+
+		QueryShape shape = fingerprinter.fingerprint(command);
+
+		assertThat(shape.getShape()).isEqualTo("{\"filter\":{\"age\":{\"$gt\":?},\"name\":?},\"find\":\"users\",\"limit\":?}");
+		assertThat(shape.getId()).hasSize(16);
+	}
+
+	@Test
+	void it_should_compute_same_shape_for_different_literals() {
+		Document c1 = new Document("find", "users").append("filter", new Document("name", "John").append("age", 20));
+		Document c2 = new Document("find", "users").append("filter", new Document("age", 42).append("name", "Jane"));
+
+		QueryShape s1 = fingerprinter.fingerprint(c1);
+		QueryShape s2 = fingerprinter.fingerprint(c2);
+
+		assertThat(s1).isEqualTo(s2);
+		assertThat(s1.getFingerprint()).isEqualTo(s2.getFingerprint());
+	}
+
+	@Test
+	void it_should_compute_different_shapes_for_different_collections() {
+		Document c1 = new Document("find", "users").append("filter", new Document("name", "John"));
+		Document c2 = new Document("find", "movies").append("filter", new Document("name", "John"));
+
+		assertThat(fingerprinter.fingerprint(c1).getFingerprint()).isNotEqualTo(fingerprinter.fingerprint(c2).getFingerprint());
+	}
+
+	@Test
+	void it_should_compute_same_shape_for_different_cursors() {
+		Document c1 = new Document("getMore", 8745120381L).append("collection", "users").append("batchSize", 101);
+		Document c2 = new Document("getMore", 1293847561L).append("collection", "users").append("batchSize", 101);
+
+		QueryShape s1 = fingerprinter.fingerprint(c1);
+		QueryShape s2 = fingerprinter.fingerprint(c2);
+
+		assertThat(s1.getShape()).isEqualTo("{\"collection\":\"users\",\"getMore\":?}");
+		assertThat(s1).isEqualTo(s2);
+		assertThat(fingerprinter.fingerprint(new Document("getMore", 1L).append("collection", "movies"))).isNotEqualTo(s1);
+	}
+
+	@Test
+	void it_should_collapse_in_operands() {
+		Document c1 = new Document("find", "users").append("filter", new Document("_id", new Document("$in", asList(1, 2, 3))));
+		Document c2 = new Document("find", "users").append("filter", new Document("_id", new Document("$in", singletonList(4))));
+
+		QueryShape shape = fingerprinter.fingerprint(c1);
+
+		assertThat(shape.getShape()).isEqualTo("{\"filter\":{\"_id\":{\"$in\":[?]}},\"find\":\"users\"}");
+		assertThat(shape).isEqualTo(fingerprinter.fingerprint(c2));
+	}
+
+	@Test
+	void it_should_keep_structure_of_logical_operators() {
+		Document command = new Document("find", "users").append("filter", new Document("$or", asList(
+				new Document("name", "John"),
+				new Document("age", 20)
+		)));
+
+		QueryShape shape = fingerprinter.fingerprint(command);
+
+		assertThat(shape.getShape()).isEqualTo("{\"filter\":{\"$or\":[{\"name\":?},{\"age\":?}]},\"find\":\"users\"}");
+	}
+
+	@Test
+	void it_should_keep_sort_specification() {
+		Document command = new Document("find", "users")
+				.append("filter", new Document())
+				.append("sort", new Document("name", 1).append("age", -1));
+
+		QueryShape shape = fingerprinter.fingerprint(command);
+
+		assertThat(shape.getShape()).isEqualTo("{\"filter\":{},\"find\":\"users\",\"sort\":{\"name\":1,\"age\":-1}}");
+	}
+
+	@Test
+	void it_should_keep_aggregation_field_paths() {
+		Document command = new Document("aggregate", "users").append("pipeline", asList(
+				new Document("$match", new Document("status", "A")),
+				new Document("$group", new Document("_id", "$country").append("total", new Document("$sum", 1)))
+		));
+
+		QueryShape shape = fingerprinter.fingerprint(command);
+
+		assertThat(shape.getShape()).isEqualTo("{\"aggregate\":\"users\",\"pipeline\":[{\"$match\":{\"status\":?}},{\"$group\":{\"_id\":\"$country\",\"total\":{\"$sum\":?}}}]}");
+	}
+
+	@Test
+	void it_should_ignore_session_fields() {
+		Document c1 = new Document("find", "users").append("filter", new Document("name", "John"));
+		Document c2 = new Document("find", "users")
+				.append("filter", new Document("name", "John"))
+				.append("lsid", new Document("id", "1234"))
+				.append("$db", "test")
+				.append("comment", "my query");
+
+		assertThat(fingerprinter.fingerprint(c1)).isEqualTo(fingerprinter.fingerprint(c2));
+	}
+
+	@Test
+	void it_should_fingerprint_null_command() {
+		QueryShape shape = fingerprinter.fingerprint((Document) null);
+		assertThat(shape.getShape()).isEqualTo("{}");
+	}
+}
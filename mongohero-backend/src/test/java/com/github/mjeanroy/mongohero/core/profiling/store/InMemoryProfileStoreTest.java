@@ -0,0 +1,87 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling.store;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryProfileStoreTest {
+
+	private InMemoryProfileStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new InMemoryProfileStore(
+				new ProfileStoreProperties(ProfileStoreType.MEMORY, 3, null, 0, 0, 0)
+		);
+	}
+
+	@Test
+	void it_should_return_last_ts() {
+		assertThat(store.getLastTs("marvel")).isNull();
+
+		store.append("marvel", asList(entry(1), entry(2)));
+
+		assertThat(store.getLastTs("marvel")).isEqualTo(new Date(2));
+		assertThat(store.getLastTs("dc")).isNull();
+	}
+
+	@Test
+	void it_should_scan_entries_between_bounds() {
+		store.append("marvel", asList(entry(1), entry(2), entry(3)));
+
+		assertThat(scan("marvel", null, null)).containsExactly(1L, 2L, 3L);
+		assertThat(scan("marvel", new Date(2), null)).containsExactly(2L, 3L);
+		assertThat(scan("marvel", null, new Date(3))).containsExactly(1L, 2L);
+		assertThat(scan("dc", null, null)).isEmpty();
+	}
+
+	@Test
+	void it_should_discard_oldest_entries() {
+		store.append("marvel", asList(entry(1), entry(2)));
+		store.append("marvel", asList(entry(3), entry(4)));
+
+		assertThat(scan("marvel", null, null)).containsExactly(2L, 3L, 4L);
+		assertThat(store.getLastTs("marvel")).isEqualTo(new Date(4));
+	}
+
+	private List<Long> scan(String database, Date from, Date to) {
+		List<Long> timestamps = new ArrayList<>();
+		store.scan(database, from, to, document -> timestamps.add(document.getDate("ts").getTime()));
+		return timestamps;
+	}
+
+	private static Document entry(long ts) {
+		return new Document("ts", new Date(ts)).append("op", "query");
+	}
+}
@@ -0,0 +1,202 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.profiling.store;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentProfileStoreTest {
+
+	private static final int SEGMENT_BYTES = 1024;
+
+	// Entries are one hour old, so that they are not expired.
+	private static final long BASE_TS = System.currentTimeMillis() - 3600 * 1000L;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void it_should_append_and_scan_entries() {
+		SegmentProfileStore store = createStore(1024 * 1024);
+
+		Document entry = entry(1000)
+				.append("command", new Document("find", "movies").append("filter", new Document("year", 2019)))
+				.append("planSummary", "COLLSCAN");
+
+		store.append("marvel", asList(entry, entry(2000)));
+
+		List<Document> documents = new ArrayList<>();
+		store.scan("marvel", null, null, documents::add);
+
+		assertThat(documents).hasSize(2);
+		assertThat(documents.get(0)).isEqualTo(entry);
+		assertThat(store.getLastTs("marvel")).isEqualTo(new Date(now(2000)));
+		assertThat(store.getLastTs("dc")).isNull();
+	}
+
+	@Test
+	void it_should_roll_segments_and_scan_between_bounds() throws IOException {
+		SegmentProfileStore store = createStore(1024 * 1024);
+		append(store, "marvel", 0, 100);
+
+		assertThat(segments("marvel")).hasSizeGreaterThan(1);
+		assertThat(scan(store, "marvel", null, null)).isEqualTo(range(0, 100));
+		assertThat(scan(store, "marvel", new Date(now(40)), new Date(now(60)))).isEqualTo(range(40, 60));
+		assertThat(scan(store, "marvel", new Date(now(95)), null)).isEqualTo(range(95, 100));
+		assertThat(scan(store, "dc", null, null)).isEmpty();
+	}
+
+	@Test
+	void it_should_recover_segments() {
+		SegmentProfileStore store = createStore(1024 * 1024);
+		append(store, "marvel", 0, 50);
+		store.onDestroy();
+
+		SegmentProfileStore recovered = createStore(1024 * 1024);
+		assertThat(recovered.getLastTs("marvel")).isEqualTo(new Date(now(49)));
+		assertThat(scan(recovered, "marvel", null, null)).isEqualTo(range(0, 50));
+
+		append(recovered, "marvel", 50, 60);
+		assertThat(scan(recovered, "marvel", null, null)).isEqualTo(range(0, 60));
+	}
+
+	@Test
+	void it_should_discard_torn_record_on_recovery() throws IOException {
+		SegmentProfileStore store = createStore(1024 * 1024);
+		append(store, "marvel", 0, 3);
+		store.onDestroy();
+
+		// Simulate a crash while writing the next record: the length is written, but not the payload.
+		Path segment = segments("marvel").get(0);
+		int end = endOf(segment);
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(8);
+			header.putInt(0, 42);
+			header.putInt(4, 1234);
+			channel.write(header, end);
+		}
+
+		SegmentProfileStore recovered = createStore(1024 * 1024);
+		assertThat(scan(recovered, "marvel", null, null)).isEqualTo(range(0, 3));
+
+		append(recovered, "marvel", 3, 5);
+		assertThat(scan(createStore(1024 * 1024), "marvel", null, null)).isEqualTo(range(0, 5));
+	}
+
+	@Test
+	void it_should_remove_oldest_segments_when_size_exceeds_retention() throws IOException {
+		SegmentProfileStore store = createStore(SEGMENT_BYTES * 2);
+		append(store, "marvel", 0, 100);
+
+		assertThat(segments("marvel")).hasSize(2);
+
+		List<Long> timestamps = scan(store, "marvel", null, null);
+		assertThat(timestamps).isNotEmpty().endsWith(99L);
+		assertThat(timestamps.get(0)).isGreaterThan(0L);
+	}
+
+	@Test
+	void it_should_remove_expired_segments() throws IOException {
+		SegmentProfileStore store = createStore(1024 * 1024);
+
+		long expired = System.currentTimeMillis() - 2 * 24 * 3600 * 1000L;
+		store.append("marvel", singletonList(new Document("ts", new Date(expired))));
+
+		assertThat(segments("marvel")).isEmpty();
+		assertThat(scan(store, "marvel", null, null)).isEmpty();
+	}
+
+	private SegmentProfileStore createStore(long retentionBytes) {
+		return new SegmentProfileStore(
+				new ProfileStoreProperties(ProfileStoreType.SEGMENT, 0, directory.toString(), SEGMENT_BYTES, 24 * 3600 * 1000L, retentionBytes)
+		);
+	}
+
+	private List<Path> segments(String database) throws IOException {
+		Path databaseDirectory = directory.resolve(database);
+		if (!Files.isDirectory(databaseDirectory)) {
+			return new ArrayList<>();
+		}
+
+		try (Stream<Path> files = Files.list(databaseDirectory)) {
+			return files.sorted().collect(Collectors.toList());
+		}
+	}
+
+	private static int endOf(Path segment) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+		int offset = 0;
+		while (buffer.getInt(offset) > 0) {
+			offset += ProfileSegment.HEADER_BYTES + buffer.getInt(offset);
+		}
+
+		return offset;
+	}
+
+	private static void append(SegmentProfileStore store, String database, int from, int to) {
+		List<Document> entries = LongStream.range(from, to).mapToObj(SegmentProfileStoreTest::entry).collect(Collectors.toList());
+		store.append(database, entries);
+	}
+
+	private static List<Long> scan(SegmentProfileStore store, String database, Date from, Date to) {
+		List<Long> ids = new ArrayList<>();
+		store.scan(database, from, to, document -> ids.add(document.getLong("id")));
+		return ids;
+	}
+
+	private static List<Long> range(long from, long to) {
+		return LongStream.range(from, to).boxed().collect(Collectors.toList());
+	}
+
+	private static Document entry(long id) {
+		return new Document("ts", new Date(now(id)))
+				.append("id", id)
+				.append("op", "query")
+				.append("ns", "marvel.movies")
+				.append("millis", 150);
+	}
+
+	private static long now(long offset) {
+		return BASE_TS + offset;
+	}
+}
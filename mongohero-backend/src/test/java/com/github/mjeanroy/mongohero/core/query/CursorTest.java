@@ -0,0 +1,70 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.mongohero.core.query;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorTest {
+
+	@Test
+	void it_should_encode_and_decode_cursor() {
+		Cursor cursor = Cursor.of(150, new Date(1573000000000L));
+
+		String token = cursor.encode();
+		Cursor decoded = Cursor.decode(token);
+
+		assertThat(token).matches("[A-Za-z0-9_-]+");
+		assertThat(decoded).isEqualTo(cursor);
+		assertThat(decoded.getValue()).isEqualTo(150);
+		assertThat(decoded.getTs()).isEqualTo(new Date(1573000000000L));
+	}
+
+	@Test
+	void it_should_encode_and_decode_cursor_with_null_value() {
+		Cursor cursor = Cursor.of(null, new Date(1573000000000L));
+
+		Cursor decoded = Cursor.decode(cursor.encode());
+
+		assertThat(decoded.getValue()).isNull();
+		assertThat(decoded.getTs()).isEqualTo(new Date(1573000000000L));
+	}
+
+	@Test
+	void it_should_fail_to_decode_invalid_cursor() {
+		assertThatThrownBy(() -> Cursor.decode("not a cursor")).isInstanceOf(IllegalArgumentException.class).hasMessage("Cannot parse cursor parameter: not a cursor");
+		assertThatThrownBy(() -> Cursor.decode("AAAA")).isInstanceOf(IllegalArgumentException.class).hasMessage("Cannot parse cursor parameter: AAAA");
+	}
+
+	@Test
+	void it_should_implement_equals_hash_code() {
+		EqualsVerifier.forClass(Cursor.class).verify();
+	}
+}
@@ -25,13 +25,12 @@
 package com.github.mjeanroy.mongohero.core.repository;
 
 import com.github.mjeanroy.mongohero.core.mongo.Mongo;
-import com.github.mjeanroy.mongohero.core.mongo.MongoClientFactory;
 import com.github.mjeanroy.mongohero.core.mongo.MongoMapper;
 import com.github.mjeanroy.mongohero.tests.MongoDb32Test;
 import com.github.mjeanroy.mongohero.tests.MongoDbContainerDescriptor;
 import org.junit.jupiter.api.BeforeEach;
 
-import static com.github.mjeanroy.mongohero.core.tests.MongoTestUtils.createMongoClientFactory;
+import static com.github.mjeanroy.mongohero.core.tests.MongoTestUtils.createMongo;
 
 @MongoDb32Test
 abstract class AbstractRepositoryTest {
@@ -39,8 +38,7 @@ abstract class AbstractRepositoryTest {
 	@BeforeEach
 	void setUp(MongoDbContainerDescriptor mongoDbContainerDescriptor) {
 		MongoMapper mongoMapper = new MongoMapper();
-		MongoClientFactory mongoClientFactory = createMongoClientFactory(mongoDbContainerDescriptor);
-		Mongo mongo = new Mongo(mongoClientFactory);
+		Mongo mongo = createMongo(mongoDbContainerDescriptor);
 
 		initialize(mongo, mongoMapper);
 	}
@@ -25,11 +25,16 @@
 package com.github.mjeanroy.mongohero.core.repository;
 
 import com.github.mjeanroy.mongohero.core.model.Collection;
+import com.github.mjeanroy.mongohero.core.model.CollectionStats;
 import com.github.mjeanroy.mongohero.core.model.IndexStat;
 import com.github.mjeanroy.mongohero.core.mongo.Mongo;
 import com.github.mjeanroy.mongohero.core.mongo.MongoMapper;
+import com.github.mjeanroy.mongohero.core.query.Page;
+import com.github.mjeanroy.mongohero.core.query.PageResult;
+import com.github.mjeanroy.mongohero.core.query.Sort;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -60,6 +65,36 @@ class CollectionRepositoryTest extends AbstractRepositoryTest {
 				);
 	}
 
+	@Test
+	void it_should_list_page_of_database_collections() {
+		PageResult<Collection> results = collectionRepository.listCollections("marvels", "MOV", Page.of(1, 10), Sort.asc("name"));
+
+		assertThat(results.getTotal()).isEqualTo(1);
+		assertThat(results.getResults()).hasSize(1)
+				.extracting(Collection::getNs)
+				.containsExactly("marvels.movies");
+	}
+
+	@Test
+	void it_should_list_page_of_database_collections_sorted_by_descending_name() {
+		PageResult<Collection> results = collectionRepository.listCollections("marvels", null, Page.of(1, 1), Sort.desc("name"));
+
+		assertThat(results.getTotal()).isEqualTo(2);
+		assertThat(results.getResults()).hasSize(1)
+				.extracting(Collection::getName)
+				.containsExactly("movies");
+	}
+
+	@Test
+	void it_should_get_stats_of_all_collections() {
+		List<CollectionStats> stats = new ArrayList<>();
+		collectionRepository.collStats("marvels", stats::add);
+
+		assertThat(stats).hasSize(2)
+				.extracting(CollectionStats::getNs)
+				.containsOnly("marvels.avengers", "marvels.movies");
+	}
+
 	@Test
 	void it_should_get_collection_index_stats() {
 		List<IndexStat> indexes = collectionRepository.indexStats("marvels", "movies").collect(Collectors.toList());
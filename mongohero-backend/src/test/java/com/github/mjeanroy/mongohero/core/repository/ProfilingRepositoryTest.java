@@ -26,8 +26,13 @@ package com.github.mjeanroy.mongohero.core.repository;
 
 import com.github.mjeanroy.mongohero.core.model.ProfileQuery;
 import com.github.mjeanroy.mongohero.core.model.ProfilingStatus;
+import com.github.mjeanroy.mongohero.core.model.QueryDigest;
 import com.github.mjeanroy.mongohero.core.mongo.Mongo;
 import com.github.mjeanroy.mongohero.core.mongo.MongoMapper;
+import com.github.mjeanroy.mongohero.core.profiling.store.InMemoryProfileStore;
+import com.github.mjeanroy.mongohero.core.profiling.store.ProfileStore;
+import com.github.mjeanroy.mongohero.core.profiling.store.ProfileStoreProperties;
+import com.github.mjeanroy.mongohero.core.profiling.store.ProfileStoreType;
 import com.github.mjeanroy.mongohero.core.query.Page;
 import com.github.mjeanroy.mongohero.core.query.PageResult;
 import com.github.mjeanroy.mongohero.core.query.ProfileQueryFilter;
@@ -36,17 +41,42 @@ import com.mongodb.client.MongoClient;
 import org.bson.Document;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.stream.Collectors;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 class ProfilingRepositoryTest extends AbstractRepositoryTest {
 
+	private ProfileStore profileStore;
 	private ProfilingRepository profilingRepository;
 
 	@Override
 	void initialize(Mongo mongo, MongoMapper mongoMapper) {
-		profilingRepository = new ProfilingRepository(mongo, mongoMapper);
+		profileStore = new InMemoryProfileStore(new ProfileStoreProperties(ProfileStoreType.MEMORY, 100, null, 0, 0, 0));
+		profilingRepository = new ProfilingRepository(mongo, mongoMapper, profileStore);
+	}
+
+	@Test
+	void it_should_export_harvested_queries_between_bounds() {
+		profileStore.append("marvels", asList(
+				new Document("ts", new Date(1)).append("op", "query").append("ns", "marvels.movies").append("millis", 10),
+				new Document("ts", new Date(2)).append("op", "insert").append("ns", "marvels.movies").append("millis", 20),
+				new Document("ts", new Date(3)).append("op", "query").append("ns", "marvels.movies").append("millis", 30),
+				new Document("ts", new Date(4)).append("op", "query").append("ns", "marvels.movies").append("millis", 40)
+		));
+
+		ProfileQueryFilter filter = new ProfileQueryFilter.Builder().withOp("query").build();
+		List<ProfileQuery> queries = new ArrayList<>();
+		profilingRepository.exportHarvestedQueries("marvels", filter, new Date(1), new Date(4), queries::add);
+
+		assertThat(queries).extracting(ProfileQuery::getMillis).containsExactly(10, 30);
 	}
 
 	@Test
@@ -99,6 +129,59 @@ class ProfilingRepositoryTest extends AbstractRepositoryTest {
 				);
 	}
 
+	@Test
+	void it_should_read_null_values_after_cursor_in_descending_order(MongoClient mongoClient) {
+		final String databaseName = "marvels";
+
+		mongoClient.getDatabase(databaseName).runCommand(new Document("profile", 2));
+		mongoClient.getDatabase(databaseName).getCollection("avengers").find(new Document("name", "Iron Man")).first();
+		mongoClient.getDatabase(databaseName).getCollection("avengers").find(new Document("name", "Thor")).first();
+		mongoClient.getDatabase(databaseName).getCollection("movies").countDocuments();
+
+		final ProfileQueryFilter filters = new ProfileQueryFilter.Builder().build();
+		final Page page = Page.of(1, 1);
+		final Sort sort = Sort.desc("command.filter.name");
+
+		final List<ProfileQuery> queries = new ArrayList<>();
+		PageResult<ProfileQuery> results = profilingRepository.findSlowQueries(databaseName, filters, emptySet(), null, page, sort);
+		while (results.getNextCursor() != null) {
+			results.getResults().forEach(queries::add);
+			results = profilingRepository.findSlowQueriesAfter(databaseName, filters, emptySet(), null, results.getNextCursor(), page, sort);
+		}
+
+		results.getResults().forEach(queries::add);
+
+		assertThat(queries)
+				.extracting(ProfileQuery::getNs)
+				.containsExactly(
+						"marvels.avengers",
+						"marvels.avengers",
+						"marvels.movies"
+				);
+	}
+
+	@Test
+	void it_should_digest_slow_queries(MongoClient mongoClient) {
+		final String databaseName = "marvels";
+
+		mongoClient.getDatabase(databaseName).runCommand(new Document("profile", 2));
+		mongoClient.getDatabase(databaseName).getCollection("avengers").find(new Document("name", "Iron Man")).first();
+		mongoClient.getDatabase(databaseName).getCollection("avengers").find(new Document("name", "Thor")).first();
+		mongoClient.getDatabase(databaseName).getCollection("movies").countDocuments();
+		mongoClient.getDatabase(databaseName).getCollection("system.profile").find().first();
+
+		final ProfileQueryFilter filters = new ProfileQueryFilter.Builder().build();
+		final List<QueryDigest> digests = profilingRepository.digestSlowQueries(databaseName, filters, 10).collect(Collectors.toList());
+
+		assertThat(digests).extracting(QueryDigest::getNs).doesNotContain("marvels.system.profile");
+		assertThat(digests).hasSize(2)
+				.extracting(QueryDigest::getNs, QueryDigest::getCount)
+				.contains(
+						tuple("marvels.avengers", 2L),
+						tuple("marvels.movies", 1L)
+				);
+	}
+
 	@Test
 	void it_should_returns_empty_slow_queries_without_results(MongoClient mongoClient) {
 		final String databaseName = "marvels";
@@ -112,4 +195,26 @@ class ProfilingRepositoryTest extends AbstractRepositoryTest {
 		assertThat(results.getTotal()).isEqualTo(0);
 		assertThat(results.getResults().collect(Collectors.toList())).isEmpty();
 	}
+
+	@Test
+	void it_should_export_slow_queries(MongoClient mongoClient) {
+		final String databaseName = "marvels";
+
+		mongoClient.getDatabase(databaseName).runCommand(new Document("profile", 2));
+		mongoClient.getDatabase(databaseName).getCollection("avengers").find(new Document("name", "Iron Man")).first();
+		mongoClient.getDatabase(databaseName).getCollection("avengers").find(new Document("name", "Thor")).first();
+		mongoClient.getDatabase(databaseName).getCollection("movies").countDocuments();
+
+		final ProfileQueryFilter filters = new ProfileQueryFilter.Builder().build();
+		final List<ProfileQuery> queries = new ArrayList<>();
+		profilingRepository.exportSlowQueries(databaseName, filters, singleton("ns"), queries::add);
+
+		assertThat(queries).hasSize(3)
+				.extracting(ProfileQuery::getNs, ProfileQuery::getOp)
+				.containsExactly(
+						tuple("marvels.avengers", null),
+						tuple("marvels.avengers", null),
+						tuple("marvels.movies", null)
+				);
+	}
 }
@@ -62,7 +62,7 @@ class ServerRepositoryTest extends AbstractRepositoryTest {
 
 	@Test
 	void it_should_get_logs() {
-		Map<String, ServerLog> clusterLog = serverRepository.getLog();
+		Map<String, ServerLog> clusterLog = serverRepository.getLog().toMap();
 		assertThat(clusterLog).hasSize(1);
 
 		ServerLog serverLog = clusterLog.values().iterator().next();
@@ -73,7 +73,7 @@ class ServerRepositoryTest extends AbstractRepositoryTest {
 
 	@Test
 	void it_should_get_parameters() {
-		Map<String, Map<String, Object>> parameters = serverRepository.getParameters();
+		Map<String, Map<String, Object>> parameters = serverRepository.getParameters().toMap();
 		assertThat(parameters).hasSize(1);
 		assertThat(parameters.values().iterator().next()).isNotEmpty();
 	}
@@ -24,9 +24,24 @@
 
 package com.github.mjeanroy.mongohero.core.tests;
 
+import com.github.mjeanroy.mongohero.core.mongo.Mongo;
+import com.github.mjeanroy.mongohero.core.mongo.MongoCacheProperties;
+import com.github.mjeanroy.mongohero.core.mongo.MongoCircuitBreakerProperties;
 import com.github.mjeanroy.mongohero.core.mongo.MongoClientFactory;
+import com.github.mjeanroy.mongohero.core.mongo.MongoCollectionIndex;
+import com.github.mjeanroy.mongohero.core.mongo.MongoCommandCache;
+import com.github.mjeanroy.mongohero.core.mongo.MongoCommandMetrics;
+import com.github.mjeanroy.mongohero.core.mongo.MongoCountProperties;
+import com.github.mjeanroy.mongohero.core.mongo.MongoCounter;
 import com.github.mjeanroy.mongohero.core.mongo.MongoDbOptions;
 import com.github.mjeanroy.mongohero.core.mongo.MongoDbProperties;
+import com.github.mjeanroy.mongohero.core.mongo.MongoFanOutExecutor;
+import com.github.mjeanroy.mongohero.core.mongo.MongoFanOutProperties;
+import com.github.mjeanroy.mongohero.core.mongo.MongoHealthRegistry;
+import com.github.mjeanroy.mongohero.core.mongo.MongoPoolProperties;
+import com.github.mjeanroy.mongohero.core.mongo.MongoSingleFlight;
+import com.github.mjeanroy.mongohero.core.mongo.MongoTopologyProperties;
+import com.github.mjeanroy.mongohero.core.query.CountStrategy;
 import com.github.mjeanroy.mongohero.tests.MongoDbContainerDescriptor;
 
 public final class MongoTestUtils {
@@ -35,6 +50,105 @@ public final class MongoTestUtils {
 	private MongoTestUtils() {
 	}
 
+	/**
+	 * Create the default {@link Mongo} for unit testing.
+	 *
+	 * @param descriptor MongoDB container descriptor.
+	 * @return The {@link Mongo} instance.
+	 */
+	public static Mongo createMongo(MongoDbContainerDescriptor descriptor) {
+		MongoCommandCache mongoCommandCache = createMongoCommandCache();
+		return new Mongo(
+				createMongoClientFactory(descriptor),
+				createMongoFanOutExecutor(),
+				mongoCommandCache,
+				new MongoSingleFlight(),
+				createMongoCounter(mongoCommandCache),
+				new MongoCollectionIndex(mongoCommandCache)
+		);
+	}
+
+	/**
+	 * Create the default {@link MongoCounter} for unit testing: documents are counted exactly.
+	 *
+	 * @param mongoCommandCache The cache storing counts computed in background.
+	 * @return The {@link MongoCounter} instance.
+	 */
+	public static MongoCounter createMongoCounter(MongoCommandCache mongoCommandCache) {
+		return new MongoCounter(
+				new MongoCountProperties(CountStrategy.EXACT, 1000, 1, 8),
+				mongoCommandCache
+		);
+	}
+
+	/**
+	 * Create the default {@link MongoCommandCache} for unit testing: the cache is disabled so that
+	 * each test reads fresh data.
+	 *
+	 * @return The {@link MongoCommandCache} instance.
+	 */
+	public static MongoCommandCache createMongoCommandCache() {
+		boolean enabled = false;
+		int maxSize = 16;
+		long defaultTtlMs = 0;
+		return new MongoCommandCache(
+				new MongoCacheProperties(enabled, maxSize, defaultTtlMs, null)
+		);
+	}
+
+	/**
+	 * Create the default {@link MongoFanOutExecutor} for unit testing.
+	 *
+	 * @return The {@link MongoFanOutExecutor} instance.
+	 */
+	public static MongoFanOutExecutor createMongoFanOutExecutor() {
+		int threads = 2;
+		int queueSize = 16;
+		int timeoutMs = 10000;
+		return new MongoFanOutExecutor(
+				new MongoFanOutProperties(threads, queueSize, timeoutMs),
+				createMongoHealthRegistry()
+		);
+	}
+
+	/**
+	 * Create the default {@link MongoHealthRegistry} for unit testing: circuit breakers are disabled so
+	 * that commands are always sent to each member.
+	 *
+	 * @return The {@link MongoHealthRegistry} instance.
+	 */
+	public static MongoHealthRegistry createMongoHealthRegistry() {
+		return new MongoHealthRegistry(
+				createCircuitBreakerProperties(false)
+		);
+	}
+
+	/**
+	 * Create circuit breaker settings for unit testing.
+	 *
+	 * @param enabled Enable/disable circuit breakers.
+	 * @return The circuit breaker settings.
+	 */
+	public static MongoCircuitBreakerProperties createCircuitBreakerProperties(boolean enabled) {
+		int windowSize = 4;
+		int minCalls = 2;
+		int failureRateThreshold = 50;
+		long slowCallMs = 100;
+		int slowCallRateThreshold = 100;
+		long openMs = 1000;
+		int halfOpenProbes = 1;
+		return new MongoCircuitBreakerProperties(
+				enabled,
+				windowSize,
+				minCalls,
+				failureRateThreshold,
+				slowCallMs,
+				slowCallRateThreshold,
+				openMs,
+				halfOpenProbes
+		);
+	}
+
 	/**
 	 * Create the default {@link MongoClientFactory} for unit testing.
 	 *
@@ -43,7 +157,39 @@ public final class MongoTestUtils {
 	 */
 	public static MongoClientFactory createMongoClientFactory(MongoDbContainerDescriptor descriptor) {
 		MongoDbProperties mongoDbProperties = toMongoDbProperties(descriptor);
-		return new MongoClientFactory(mongoDbProperties);
+		MongoTopologyProperties topologyProperties = new MongoTopologyProperties(100, 1000);
+		MongoPoolProperties poolProperties = createPoolProperties(false);
+		return new MongoClientFactory(mongoDbProperties, topologyProperties, poolProperties, new MongoCommandMetrics());
+	}
+
+	/**
+	 * Create adaptive pool sizing settings for unit testing.
+	 *
+	 * @param adaptive Enable/disable adaptive pool sizing.
+	 * @return The pool sizing settings.
+	 */
+	public static MongoPoolProperties createPoolProperties(boolean adaptive) {
+		int globalMaxSize = 20;
+		int minSize = 2;
+		int maxSize = 10;
+		long evaluationMs = 60000;
+		long cooldownMs = 600000;
+		int deadBandPct = 25;
+		long waitThresholdMs = 10;
+		int highUsagePct = 80;
+		int lowUsagePct = 25;
+		return new MongoPoolProperties(
+				adaptive,
+				globalMaxSize,
+				minSize,
+				maxSize,
+				evaluationMs,
+				cooldownMs,
+				deadBandPct,
+				waitThresholdMs,
+				highUsagePct,
+				lowUsagePct
+		);
 	}
 
 	/**
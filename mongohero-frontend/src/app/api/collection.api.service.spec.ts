@@ -59,15 +59,42 @@ describe('ServerApiService', () => {
 
     collectionApiService.getAll(db).then(onSuccess).catch(onError);
 
-    const rq = httpTestingController.expectOne(`/api/databases/${db}/collections`);
+    const rq = httpTestingController.expectOne(`/api/databases/${db}/collections?page=1`);
     expect(rq.request.method).toBe('GET');
-    expect(rq.request.params.keys()).toBeEmpty();
+    expect(rq.request.params.get('page')).toBe('1');
 
-    rq.flush(responseBody);
+    rq.flush(responseBody, {
+      headers: {
+        'X-Total': String(responseBody.length),
+      },
+    });
 
     tick();
 
     expect(onError).not.toHaveBeenCalled();
     expect(onSuccess).toHaveBeenCalledWith(responseBody);
   }));
+
+  it('should get all pages of database collections', fakeAsync(() => {
+    const db = 'test';
+    const onSuccess = jasmine.createSpy('onSuccess');
+    const onError = jasmine.createSpy('onError');
+    const collections = givenCollections();
+    const firstPage = collections.slice(0, 1);
+    const secondPage = collections.slice(1);
+    const headers = {
+      'X-Total': String(collections.length),
+    };
+
+    collectionApiService.getAll(db).then(onSuccess).catch(onError);
+
+    httpTestingController.expectOne(`/api/databases/${db}/collections?page=1`).flush(firstPage, {headers});
+    tick();
+
+    httpTestingController.expectOne(`/api/databases/${db}/collections?page=2`).flush(secondPage, {headers});
+    tick();
+
+    expect(onError).not.toHaveBeenCalled();
+    expect(onSuccess).toHaveBeenCalledWith(collections);
+  }));
 });
@@ -38,10 +38,24 @@ export class CollectionApiService {
   }
 
   getAll(db: string): Promise<CollectionModel[]> {
-    return this.http.get<CollectionModel[]>(`/api/databases/${db}/collections`).toPromise();
+    return this._getAll(db, 1, []);
   }
 
   getIndexes(db: string, collection: string): Promise<IndexModel[]> {
     return this.http.get<IndexModel[]>(`/api/databases/${db}/collections/${collection}/indexes`).toPromise();
   }
+
+  private _getAll(db: string, page: number, collections: CollectionModel[]): Promise<CollectionModel[]> {
+    const params = {
+      page: String(page),
+    };
+
+    return this.http.get<CollectionModel[]>(`/api/databases/${db}/collections`, {params, observe: 'response'})
+      .toPromise()
+      .then((response) => {
+        const results = collections.concat(response.body);
+        const total = Number(response.headers.get('X-Total'));
+        return response.body.length > 0 && results.length < total ? this._getAll(db, page + 1, results) : results;
+      });
+  }
 }